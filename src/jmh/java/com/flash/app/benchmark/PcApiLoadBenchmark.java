@@ -0,0 +1,202 @@
+package com.flash.app.benchmark;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+/**
+ * Open-loop load benchmark of the Pc API, to compare the blocking and the reactive serving modes of the same build.
+ * <p>
+ * Requests are sent at a fixed rate whatever the response times, and latencies are measured from the time each request
+ * was scheduled, so that a saturated server shows in the percentiles instead of slowing the load down. The rate is
+ * raised step by step until the p99 latency exceeds its target; the last rate within the target is the highest load
+ * the deployment sustains. It is a standalone load generator rather than a JMH benchmark, built with the benchmark
+ * profile. Run it against the application started with and without the {@code reactive} profile, on the same hardware
+ * and database:
+ *
+ * <pre>
+ * ./mvnw -Pbenchmark -DskipTests test-compile dependency:build-classpath -Dmdep.outputFile=classpath.txt
+ * java -cp target/test-classes:target/classes:$(cat classpath.txt) com.flash.app.benchmark.PcApiLoadBenchmark \
+ *     http://localhost:8081 $TOKEN [p99-millis] [start-rate] [rate-step] [step-seconds]
+ * </pre>
+ *
+ * The workload mixes reads by id, which the cache mostly serves, with filtered keyset pages and estimated counts,
+ * which always reach MongoDB.
+ */
+public final class PcApiLoadBenchmark {
+
+    private static final int SEEDED_PCS = 10_000;
+
+    private static final int BULK_SIZE = 1_000;
+
+    private static final String[] MAKES = { "acer", "apple", "asus", "dell", "hp", "lenovo", "msi" };
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    private final HttpClient client = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(5)).build();
+
+    private final String baseUrl;
+
+    private final String token;
+
+    private final List<String> ids = new ArrayList<>();
+
+    private PcApiLoadBenchmark(String baseUrl, String token) {
+        this.baseUrl = baseUrl;
+        this.token = token;
+    }
+
+    public static void main(String[] args) throws Exception {
+        if (args.length < 2) {
+            System.err.println("Usage: PcApiLoadBenchmark <base-url> <bearer-token> [p99-millis] [start-rate] [rate-step] [step-seconds]");
+            System.exit(1);
+        }
+        long p99Target = args.length > 2 ? Long.parseLong(args[2]) : 50;
+        int rate = args.length > 3 ? Integer.parseInt(args[3]) : 200;
+        int rateStep = args.length > 4 ? Integer.parseInt(args[4]) : 200;
+        int stepSeconds = args.length > 5 ? Integer.parseInt(args[5]) : 30;
+
+        PcApiLoadBenchmark benchmark = new PcApiLoadBenchmark(args[0], args[1]);
+        benchmark.seed();
+        // warm up the JIT, the connection pools and the cache
+        benchmark.run(rate, stepSeconds);
+
+        int sustained = 0;
+        System.out.printf("%10s %12s %10s %10s %10s %8s%n", "rate", "throughput", "p50 ms", "p99 ms", "max ms", "errors");
+        while (true) {
+            Step step = benchmark.run(rate, stepSeconds);
+            System.out.printf(
+                "%10d %12.1f %10.2f %10.2f %10.2f %8d%n",
+                rate,
+                step.throughput,
+                millis(step.latencies.getValueAtPercentile(50)),
+                millis(step.latencies.getValueAtPercentile(99)),
+                millis(step.latencies.getMaxValue()),
+                step.errors
+            );
+            if (millis(step.latencies.getValueAtPercentile(99)) > p99Target || step.errors > 0) {
+                break;
+            }
+            sustained = rate;
+            rate += rateStep;
+        }
+        System.out.printf("Sustained %d requests/s within a p99 of %d ms%n", sustained, p99Target);
+    }
+
+    /**
+     * Creates the pcs read by the workload, through the bulk endpoint.
+     */
+    private void seed() throws Exception {
+        for (int created = 0; created < SEEDED_PCS; created += BULK_SIZE) {
+            ArrayNode operations = MAPPER.createArrayNode();
+            for (int i = 0; i < BULK_SIZE; i++) {
+                operations
+                    .addObject()
+                    .put("action", "CREATE")
+                    .putObject("pc")
+                    .put("make", MAKES[(created + i) % MAKES.length])
+                    .put("model", "model-" + (created + i) % 100)
+                    .put("price", 300 + (created + i) % 2_700);
+            }
+            HttpResponse<String> response = client.send(
+                request("/api/pcs/_bulk")
+                    .header("Content-Type", "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofString(operations.toString()))
+                    .build(),
+                HttpResponse.BodyHandlers.ofString()
+            );
+            if (response.statusCode() != 200) {
+                throw new IllegalStateException("Seeding failed with status " + response.statusCode() + ": " + response.body());
+            }
+            for (JsonNode result : MAPPER.readTree(response.body())) {
+                ids.add(result.get("id").asText());
+            }
+        }
+    }
+
+    /**
+     * Sends requests at a fixed rate for a while, and waits for all of them to complete.
+     */
+    private Step run(int rate, int seconds) throws InterruptedException {
+        Histogram latencies = new ConcurrentHistogram(TimeUnit.MINUTES.toNanos(1), 3);
+        AtomicLong errors = new AtomicLong();
+        long total = (long) rate * seconds;
+        long intervalNanos = TimeUnit.SECONDS.toNanos(1) / rate;
+        List<CompletableFuture<?>> pending = new ArrayList<>();
+        long start = System.nanoTime();
+        for (long i = 0; i < total; i++) {
+            long scheduled = start + i * intervalNanos;
+            long wait = scheduled - System.nanoTime();
+            if (wait > 0) {
+                TimeUnit.NANOSECONDS.sleep(wait);
+            }
+            pending.add(
+                client
+                    .sendAsync(nextRequest(), HttpResponse.BodyHandlers.discarding())
+                    .whenComplete((response, error) -> {
+                        // measured from the scheduled time, not from the time the request could be sent
+                        latencies.recordValue(Math.min(System.nanoTime() - scheduled, latencies.getHighestTrackableValue()));
+                        if (error != null || response.statusCode() >= 400) {
+                            errors.incrementAndGet();
+                        }
+                    })
+            );
+        }
+        CompletableFuture.allOf(pending.toArray(new CompletableFuture<?>[0])).exceptionally(e -> null).join();
+        double elapsedSeconds = (System.nanoTime() - start) / 1e9;
+        return new Step(latencies, errors.get(), total / elapsedSeconds);
+    }
+
+    private HttpRequest nextRequest() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        int kind = random.nextInt(10);
+        if (kind < 6) {
+            return request("/api/pcs/" + ids.get(random.nextInt(ids.size()))).GET().build();
+        }
+        String make = MAKES[random.nextInt(MAKES.length)];
+        if (kind < 9) {
+            int priceMin = 300 + random.nextInt(2_000);
+            return request("/api/pcs?make=" + make + "&priceMin=" + priceMin + "&sort=price,asc&size=20").GET().build();
+        }
+        return request("/api/pcs?make=" + make + "&size=1&estimateTotal=true").GET().build();
+    }
+
+    private HttpRequest.Builder request(String path) {
+        return HttpRequest
+            .newBuilder(URI.create(baseUrl + path))
+            .timeout(Duration.ofSeconds(30))
+            .header("Authorization", "Bearer " + token);
+    }
+
+    private static double millis(long nanos) {
+        return nanos / 1e6;
+    }
+
+    private static final class Step {
+
+        private final Histogram latencies;
+
+        private final long errors;
+
+        private final double throughput;
+
+        private Step(Histogram latencies, long errors, double throughput) {
+            this.latencies = latencies;
+            this.errors = errors;
+            this.throughput = throughput;
+        }
+    }
+}
@@ -0,0 +1,65 @@
+package com.flash.app.config;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.spi.LoggingEvent;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks the {@link CRLFLogConverter} on log messages with and without line breaks.
+ */
+@BenchmarkMode({ Mode.Throughput, Mode.SampleTime })
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class CRLFLogConverterBenchmark {
+
+    private static final String CLEAN_MESSAGE = "REST request to get a page of Pcs by PcFilter{make='dell', model=null} after cursor : null";
+
+    private static final String CRLF_MESSAGE = "REST request to save Pc : Pc{id=null, make='dell\r\nINFO forged entry', model='xps\t13'}";
+
+    /**
+     * The ANSI element of the replacement, as configured in {@code logback-spring.xml}; empty for none.
+     */
+    @Param({ "", "red" })
+    public String element;
+
+    private CRLFLogConverter converter;
+
+    private LoggingEvent event;
+
+    @Setup
+    public void setup() {
+        converter = new CRLFLogConverter();
+        if (!element.isEmpty()) {
+            converter.setOptionList(List.of(element));
+        }
+        converter.start();
+        event = new LoggingEvent();
+        event.setLoggerName("com.flash.app.web.rest.PcResource");
+        event.setLevel(Level.DEBUG);
+    }
+
+    @Benchmark
+    public String transformClean() {
+        return converter.transform(event, CLEAN_MESSAGE);
+    }
+
+    @Benchmark
+    public String transformWithCrlf() {
+        return converter.transform(event, CRLF_MESSAGE);
+    }
+}
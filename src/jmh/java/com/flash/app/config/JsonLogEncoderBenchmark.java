@@ -0,0 +1,62 @@
+package com.flash.app.config;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.spi.LoggingEvent;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks the {@link JsonLogEncoder} on a typical event, writing to the stream as the {@link JsonConsoleAppender}
+ * does and to a new array as the {@link ch.qos.logback.core.encoder.Encoder} contract does.
+ */
+@BenchmarkMode({ Mode.Throughput, Mode.SampleTime })
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class JsonLogEncoderBenchmark {
+
+    private JsonLogEncoder encoder;
+
+    private LoggingEvent event;
+
+    private OutputStream out;
+
+    @Setup
+    public void setup() {
+        encoder = new JsonLogEncoder();
+        encoder.setContext(new LoggerContext());
+        encoder.setCustomFields("{\"app_name\":\"flashApp\",\"app_port\":\"8080\"}");
+        encoder.start();
+        event = new LoggingEvent();
+        event.setLoggerName("com.flash.app.web.rest.PcResource");
+        event.setLevel(Level.DEBUG);
+        event.setThreadName("XNIO-1 task-1");
+        event.setMessage("REST request to save Pc : Pc{id=null, make='dell\r\nINFO forged entry', model='xps\t13'}");
+        event.setTimeStamp(System.currentTimeMillis());
+        out = OutputStream.nullOutputStream();
+    }
+
+    @Benchmark
+    public void encodeToStream() throws IOException {
+        encoder.encode(event, out);
+    }
+
+    @Benchmark
+    public byte[] encode() {
+        return encoder.encode(event);
+    }
+}
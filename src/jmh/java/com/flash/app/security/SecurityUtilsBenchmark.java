@@ -0,0 +1,67 @@
+package com.flash.app.security;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+/**
+ * Benchmarks the {@link SecurityUtils} checks of the current user's authorities.
+ * <p>
+ * The security context is thread-bound, so the state is per thread and set up on the benchmark thread.
+ */
+@BenchmarkMode({ Mode.Throughput, Mode.SampleTime })
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class SecurityUtilsBenchmark {
+
+    @Setup
+    public void setup() {
+        SecurityContextHolder
+            .getContext()
+            .setAuthentication(
+                new UsernamePasswordAuthenticationToken("user", "user", List.of(new SimpleGrantedAuthority(AuthoritiesConstants.USER)))
+            );
+    }
+
+    @TearDown
+    public void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Benchmark
+    public boolean hasCurrentUserAnyOfAuthorities() {
+        return SecurityUtils.hasCurrentUserAnyOfAuthorities(AuthoritiesConstants.ADMIN, AuthoritiesConstants.USER);
+    }
+
+    @Benchmark
+    public boolean hasCurrentUserThisAuthority() {
+        return SecurityUtils.hasCurrentUserThisAuthority(AuthoritiesConstants.ADMIN);
+    }
+
+    @Benchmark
+    public boolean isAuthenticated() {
+        return SecurityUtils.isAuthenticated();
+    }
+
+    @Benchmark
+    public Optional<String> getCurrentUserLogin() {
+        return SecurityUtils.getCurrentUserLogin();
+    }
+}
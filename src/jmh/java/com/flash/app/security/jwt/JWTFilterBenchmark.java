@@ -0,0 +1,63 @@
+package com.flash.app.security.jwt;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+/**
+ * Benchmarks the {@link JWTFilter} with and without a bearer token, the chain after it doing nothing.
+ */
+@BenchmarkMode({ Mode.Throughput, Mode.SampleTime })
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class JWTFilterBenchmark {
+
+    private static final FilterChain NO_OP_CHAIN = (request, response) -> {};
+
+    private JWTFilter jwtFilter;
+
+    private MockHttpServletRequest authenticatedRequest;
+
+    private MockHttpServletRequest anonymousRequest;
+
+    private MockHttpServletResponse response;
+
+    @Setup
+    public void setup() {
+        TokenProvider tokenProvider = TokenProviderBenchmark.createTokenProvider();
+        jwtFilter = new JWTFilter(tokenProvider);
+        authenticatedRequest = new MockHttpServletRequest("GET", "/api/pcs");
+        authenticatedRequest.addHeader(JWTFilter.AUTHORIZATION_HEADER, "Bearer " + TokenProviderBenchmark.createToken(tokenProvider));
+        anonymousRequest = new MockHttpServletRequest("GET", "/api/pcs");
+        response = new MockHttpServletResponse();
+    }
+
+    @Benchmark
+    public void doFilterWithToken() throws IOException, ServletException {
+        jwtFilter.doFilter(authenticatedRequest, response, NO_OP_CHAIN);
+        SecurityContextHolder.clearContext();
+    }
+
+    @Benchmark
+    public void doFilterWithoutToken() throws IOException, ServletException {
+        jwtFilter.doFilter(anonymousRequest, response, NO_OP_CHAIN);
+        SecurityContextHolder.clearContext();
+    }
+}
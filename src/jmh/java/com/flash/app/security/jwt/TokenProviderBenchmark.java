@@ -0,0 +1,107 @@
+package com.flash.app.security.jwt;
+
+import com.flash.app.management.SecurityMetersService;
+import com.flash.app.security.AuthoritiesConstants;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtParser;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.io.Decoders;
+import io.jsonwebtoken.security.Keys;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.security.Key;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import tech.jhipster.config.JHipsterProperties;
+
+/**
+ * Benchmarks the JWT checks run by every authenticated request.
+ */
+@BenchmarkMode({ Mode.Throughput, Mode.SampleTime })
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class TokenProviderBenchmark {
+
+    static final String BASE64_SECRET =
+        "fd54a45s65fds737b9aafcb3412e07ed99b267f33413274720ddbb7f6c5e64e9f14075f2d7ed041592f0b7657baf8";
+
+    private TokenProvider tokenProvider;
+
+    private String token;
+
+    private JwtParser jwtParser;
+
+    private TokenVerifier tokenVerifier;
+
+    @Setup
+    public void setup() {
+        tokenProvider = createTokenProvider();
+        token = createToken(tokenProvider);
+        Key key = Keys.hmacShaKeyFor(Decoders.BASE64.decode(BASE64_SECRET));
+        jwtParser = Jwts.parserBuilder().setSigningKey(key).build();
+        tokenVerifier = new TokenVerifier(key);
+    }
+
+    static TokenProvider createTokenProvider() {
+        JHipsterProperties jHipsterProperties = new JHipsterProperties();
+        jHipsterProperties.getSecurity().getAuthentication().getJwt().setBase64Secret(BASE64_SECRET);
+        jHipsterProperties.getSecurity().getAuthentication().getJwt().setTokenValidityInSeconds(3600);
+        return new TokenProvider(jHipsterProperties, new SecurityMetersService(new SimpleMeterRegistry()));
+    }
+
+    static String createToken(TokenProvider tokenProvider) {
+        Authentication authentication = new UsernamePasswordAuthenticationToken(
+            "user",
+            "user",
+            List.of(new SimpleGrantedAuthority(AuthoritiesConstants.USER), new SimpleGrantedAuthority(AuthoritiesConstants.ADMIN))
+        );
+        return tokenProvider.createToken(authentication, false);
+    }
+
+    /**
+     * Verification of a token by jjwt, the path of tokens not in the format of {@link TokenVerifier}.
+     */
+    @Benchmark
+    public Claims parseClaimsJws() {
+        return jwtParser.parseClaimsJws(token).getBody();
+    }
+
+    /**
+     * Verification of the same token by the fast path.
+     */
+    @Benchmark
+    public TokenVerifier.VerifiedClaims verify() {
+        return tokenVerifier.verify(token, System.currentTimeMillis());
+    }
+
+    @Benchmark
+    public boolean validateToken() {
+        return tokenProvider.validateToken(token);
+    }
+
+    @Benchmark
+    public Authentication getAuthentication() {
+        return tokenProvider.getAuthentication(token);
+    }
+
+    @Benchmark
+    public Optional<Authentication> authenticate() {
+        return tokenProvider.authenticate(token);
+    }
+}
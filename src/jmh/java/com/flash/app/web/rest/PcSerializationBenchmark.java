@@ -0,0 +1,71 @@
+package com.flash.app.web.rest;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.flash.app.config.JacksonConfiguration;
+import com.flash.app.domain.Pc;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.bson.types.ObjectId;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+/**
+ * Benchmarks the Jackson serialization of pages of {@link Pc}, with all their fields and with a sparse fieldset.
+ * <p>
+ * The object mapper is configured like the application's, including the fieldset filter mix-in.
+ */
+@BenchmarkMode({ Mode.Throughput, Mode.SampleTime })
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class PcSerializationBenchmark {
+
+    @Param({ "20", "1000" })
+    public int size;
+
+    private ObjectWriter writer;
+
+    private ObjectWriter sparseWriter;
+
+    private List<Pc> pcs;
+
+    @Setup
+    public void setup() {
+        JacksonConfiguration jacksonConfiguration = new JacksonConfiguration();
+        Jackson2ObjectMapperBuilder builder = new Jackson2ObjectMapperBuilder()
+            .modulesToInstall(jacksonConfiguration.javaTimeModule(), jacksonConfiguration.jdk8TimeModule());
+        jacksonConfiguration.pcFieldsCustomizer().customize(builder);
+        ObjectMapper objectMapper = builder.build();
+        writer = objectMapper.writer();
+        sparseWriter = objectMapper.writer(PcFields.parse("make,price").toFilterProvider());
+        pcs = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            pcs.add(new Pc().id(new ObjectId().toHexString()).make("make-" + i % 7).model("model-" + i % 100).price(300 + i).version(0L));
+        }
+    }
+
+    @Benchmark
+    public byte[] serialize() throws JsonProcessingException {
+        return writer.writeValueAsBytes(pcs);
+    }
+
+    @Benchmark
+    public byte[] serializeSparse() throws JsonProcessingException {
+        return sparseWriter.writeValueAsBytes(pcs);
+    }
+}
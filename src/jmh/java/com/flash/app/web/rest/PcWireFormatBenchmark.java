@@ -0,0 +1,108 @@
+package com.flash.app.web.rest;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.flash.app.config.JacksonConfiguration;
+import com.flash.app.domain.Pc;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.bson.types.ObjectId;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+/**
+ * Benchmarks the wire formats of pages of {@link Pc}: the serialization and deserialization of JSON, Smile and CBOR.
+ * <p>
+ * The object mappers are those of the application's message converters. The size of the payload of each format is
+ * reported next to the times, as the {@code payloadBytes} secondary result.
+ */
+@BenchmarkMode({ Mode.Throughput, Mode.SampleTime })
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class PcWireFormatBenchmark {
+
+    @Param({ "json", "smile", "cbor" })
+    public String format;
+
+    @Param({ "20", "1000" })
+    public int size;
+
+    private ObjectWriter writer;
+
+    private ObjectReader reader;
+
+    private List<Pc> pcs;
+
+    private byte[] payload;
+
+    @Setup
+    public void setup() throws IOException {
+        ObjectMapper objectMapper = objectMapper(new JacksonConfiguration());
+        writer = objectMapper.writerFor(new TypeReference<List<Pc>>() {});
+        reader = objectMapper.readerFor(new TypeReference<List<Pc>>() {});
+        pcs = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            pcs.add(new Pc().id(new ObjectId().toHexString()).make("make-" + i % 7).model("model-" + i % 100).price(300 + i).version(0L));
+        }
+        payload = writer.writeValueAsBytes(pcs);
+    }
+
+    private ObjectMapper objectMapper(JacksonConfiguration jacksonConfiguration) {
+        Jackson2ObjectMapperBuilder builder = new Jackson2ObjectMapperBuilder()
+            .modulesToInstall(jacksonConfiguration.javaTimeModule(), jacksonConfiguration.jdk8TimeModule());
+        jacksonConfiguration.pcFieldsCustomizer().customize(builder);
+        switch (format) {
+            case "smile":
+                return jacksonConfiguration.smileHttpMessageConverter(builder).getObjectMapper();
+            case "cbor":
+                return jacksonConfiguration.cborHttpMessageConverter(builder).getObjectMapper();
+            default:
+                return builder.build();
+        }
+    }
+
+    @Benchmark
+    public byte[] serialize(PayloadSize payloadSize) throws IOException {
+        return writer.writeValueAsBytes(pcs);
+    }
+
+    @Benchmark
+    public List<Pc> deserialize(PayloadSize payloadSize) throws IOException {
+        return reader.readValue(payload);
+    }
+
+    /**
+     * Size of the serialized page, set when each iteration ends, before JMH reads the counters.
+     */
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class PayloadSize {
+
+        public long payloadBytes;
+
+        @TearDown(Level.Iteration)
+        public void record(PcWireFormatBenchmark benchmark) {
+            payloadBytes = benchmark.payload.length;
+        }
+    }
+}
@@ -0,0 +1,68 @@
+package com.flash.app.web.rest.errors;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.mock.env.MockEnvironment;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.zalando.problem.Problem;
+import org.zalando.problem.Status;
+import tech.jhipster.web.util.HeaderUtil;
+
+/**
+ * Benchmarks the {@link ExceptionTranslator}, post-processing a problem alone and translating a whole exception.
+ */
+@BenchmarkMode({ Mode.Throughput, Mode.SampleTime })
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ExceptionTranslatorBenchmark {
+
+    private ExceptionTranslator exceptionTranslator;
+
+    private NativeWebRequest request;
+
+    private ResponseEntity<Problem> notFound;
+
+    private BadRequestAlertException badRequest;
+
+    @Setup
+    public void setup() {
+        // the alert is logged for every failure, writing it to the console would be most of what is measured
+        ((Logger) LoggerFactory.getLogger(HeaderUtil.class)).setLevel(Level.OFF);
+        exceptionTranslator = new ExceptionTranslator(new MockEnvironment());
+        ReflectionTestUtils.setField(exceptionTranslator, "applicationName", "flashApp");
+        request = new ServletWebRequest(new MockHttpServletRequest("GET", "/api/pcs/1"));
+        notFound =
+            new ResponseEntity<>(Problem.builder().withStatus(Status.NOT_FOUND).withTitle("Not Found").build(), HttpStatus.NOT_FOUND);
+        badRequest = new BadRequestAlertException("Invalid cursor", "flashAppPc", "cursorinvalid");
+    }
+
+    @Benchmark
+    public ResponseEntity<Problem> process() {
+        return exceptionTranslator.process(notFound, request);
+    }
+
+    @Benchmark
+    public ResponseEntity<Problem> handleBadRequestAlertException() {
+        return exceptionTranslator.handleBadRequestAlertException(badRequest, request);
+    }
+}
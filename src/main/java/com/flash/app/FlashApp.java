@@ -2,6 +2,7 @@ package com.flash.app;
 
 import com.flash.app.config.ApplicationProperties;
 import com.flash.app.config.CRLFLogConverter;
+import com.flash.app.config.UndertowConfiguration;
 import java.net.InetAddress;
 import java.net.UnknownHostException;
 import java.util.Arrays;
@@ -64,6 +65,7 @@ public class FlashApp {
      * @param args the command line arguments.
      */
     public static void main(String[] args) {
+        UndertowConfiguration.enableWorkerStatistics();
         SpringApplication app = new SpringApplication(FlashApp.class);
         DefaultProfileUtil.addDefaultProfile(app);
         Environment env = app.run(args).getEnvironment();
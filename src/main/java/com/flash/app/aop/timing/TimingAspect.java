@@ -0,0 +1,152 @@
+package com.flash.app.aop.timing;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.lang.reflect.Method;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.reflect.MethodSignature;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Aspect timing a sample of the executions of service, repository and Web REST methods, on the pointcuts of the
+ * {@link com.flash.app.aop.logging.LoggingAspect}.
+ * <p>
+ * Each method gets a {@value #METER_NAME} timer, tagged with its layer, class, method and the exception it threw if
+ * any. Only a fraction of the executions is timed, the timer counts are to be scaled by the sample rate. Arguments and
+ * results are never captured. Timing can be switched at runtime with the {@link TimingEndpoint}.
+ * <p>
+ * A method returning a {@link Mono} or a {@link Flux} only assembles it, the work is done once it is subscribed to:
+ * such a method is timed from each subscription to the completion or error of its result, a cancelled subscription is
+ * not timed.
+ */
+@Aspect
+public class TimingAspect {
+
+    public static final String METER_NAME = "application.method";
+
+    private static final String NO_EXCEPTION = "none";
+
+    private final MeterRegistry meterRegistry;
+
+    private final Map<Method, Timer> timers = new ConcurrentHashMap<>();
+
+    private volatile boolean enabled;
+
+    private volatile double sampleRate;
+
+    public TimingAspect(MeterRegistry meterRegistry, boolean enabled, double sampleRate) {
+        this.meterRegistry = meterRegistry;
+        this.enabled = enabled;
+        setSampleRate(sampleRate);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public double getSampleRate() {
+        return sampleRate;
+    }
+
+    /**
+     * @param sampleRate the fraction of the executions timed, from 0 to 1.
+     * @throws IllegalArgumentException if the rate is out of range.
+     */
+    public void setSampleRate(double sampleRate) {
+        if (!(sampleRate >= 0 && sampleRate <= 1)) {
+            throw new IllegalArgumentException("The sample rate must be between 0 and 1: " + sampleRate);
+        }
+        this.sampleRate = sampleRate;
+    }
+
+    /**
+     * Advice that times a sample of the method executions.
+     *
+     * @param joinPoint join point for advice.
+     * @return result.
+     * @throws Throwable the exception of the method.
+     */
+    @Around(
+        "com.flash.app.aop.logging.LoggingAspect.applicationPackagePointcut() && com.flash.app.aop.logging.LoggingAspect.springBeanPointcut()"
+    )
+    public Object timeAround(ProceedingJoinPoint joinPoint) throws Throwable {
+        if (!enabled || ThreadLocalRandom.current().nextDouble() >= sampleRate) {
+            return joinPoint.proceed();
+        }
+        long start = System.nanoTime();
+        Object result;
+        try {
+            result = joinPoint.proceed();
+        } catch (Throwable e) {
+            record(joinPoint, start, e);
+            throw e;
+        }
+        if (result instanceof Mono) {
+            Mono<?> mono = (Mono<?>) result;
+            return Mono.defer(() -> {
+                long subscribed = System.nanoTime();
+                return mono.doOnSuccess(value -> record(joinPoint, subscribed, null)).doOnError(e -> record(joinPoint, subscribed, e));
+            });
+        }
+        if (result instanceof Flux) {
+            Flux<?> flux = (Flux<?>) result;
+            return Flux.defer(() -> {
+                long subscribed = System.nanoTime();
+                return flux.doOnComplete(() -> record(joinPoint, subscribed, null)).doOnError(e -> record(joinPoint, subscribed, e));
+            });
+        }
+        record(joinPoint, start, null);
+        return result;
+    }
+
+    private void record(ProceedingJoinPoint joinPoint, long start, Throwable exception) {
+        Timer timer = exception == null
+            ? timer(joinPoint)
+            : timerBuilder(joinPoint, exception.getClass().getSimpleName()).register(meterRegistry);
+        timer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+    }
+
+    private Timer timer(ProceedingJoinPoint joinPoint) {
+        Method method = ((MethodSignature) joinPoint.getSignature()).getMethod();
+        Timer timer = timers.get(method);
+        if (timer == null) {
+            timer = timers.computeIfAbsent(method, m -> timerBuilder(joinPoint, NO_EXCEPTION).register(meterRegistry));
+        }
+        return timer;
+    }
+
+    private static Timer.Builder timerBuilder(ProceedingJoinPoint joinPoint, String exception) {
+        String className = joinPoint.getSignature().getDeclaringTypeName();
+        return Timer
+            .builder(METER_NAME)
+            .description("Sampled execution time of the application methods")
+            .tag("layer", layer(className))
+            .tag("class", className)
+            .tag("method", joinPoint.getSignature().getName())
+            .tag("exception", exception);
+    }
+
+    /**
+     * @return the layer of a class of the application packages matched by the pointcut.
+     */
+    private static String layer(String className) {
+        if (className.startsWith("com.flash.app.repository.")) {
+            return "repository";
+        }
+        if (className.startsWith("com.flash.app.service.")) {
+            return "service";
+        }
+        return "rest";
+    }
+}
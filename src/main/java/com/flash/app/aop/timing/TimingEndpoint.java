@@ -0,0 +1,50 @@
+package com.flash.app.aop.timing;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.lang.Nullable;
+
+/**
+ * Management endpoint switching the {@link TimingAspect} at runtime.
+ * <p>
+ * {@code GET /management/timing} returns the current settings, {@code POST /management/timing} with a JSON body such as
+ * {@code {"enabled": true, "sampleRate": 0.05}} changes them.
+ */
+@Endpoint(id = "timing")
+public class TimingEndpoint {
+
+    private final TimingAspect timingAspect;
+
+    public TimingEndpoint(TimingAspect timingAspect) {
+        this.timingAspect = timingAspect;
+    }
+
+    @ReadOperation
+    public Map<String, Object> settings() {
+        Map<String, Object> settings = new LinkedHashMap<>();
+        settings.put("enabled", timingAspect.isEnabled());
+        settings.put("sampleRate", timingAspect.getSampleRate());
+        return settings;
+    }
+
+    /**
+     * Changes the given settings, leaving the others as they are.
+     *
+     * @param enabled whether methods are timed.
+     * @param sampleRate the fraction of the executions timed, from 0 to 1.
+     * @return the new settings.
+     */
+    @WriteOperation
+    public Map<String, Object> configure(@Nullable Boolean enabled, @Nullable Double sampleRate) {
+        if (sampleRate != null) {
+            timingAspect.setSampleRate(sampleRate);
+        }
+        if (enabled != null) {
+            timingAspect.setEnabled(enabled);
+        }
+        return settings();
+    }
+}
@@ -1,6 +1,10 @@
 package com.flash.app.config;
 
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
 import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.util.unit.DataSize;
 
 /**
  * Properties specific to Flash App.
@@ -10,7 +14,661 @@ import org.springframework.boot.context.properties.ConfigurationProperties;
  */
 @ConfigurationProperties(prefix = "application", ignoreUnknownFields = false)
 public class ApplicationProperties {
+
+    private final Streaming streaming = new Streaming();
+
+    private final Bulk bulk = new Bulk();
+
+    private final Cache cache = new Cache();
+
+    private final Stats stats = new Stats();
+
+    private final VirtualThreads virtualThreads = new VirtualThreads();
+
+    private final Timing timing = new Timing();
+
+    private final Logging logging = new Logging();
+
+    private final Mongodb mongodb = new Mongodb();
+
+    private final Ingest ingest = new Ingest();
+
+    private final ReadReplica readReplica = new ReadReplica();
+
+    private final Suggest suggest = new Suggest();
+
+    private final Undertow undertow = new Undertow();
+
     // jhipster-needle-application-properties-property
+
+    public Streaming getStreaming() {
+        return streaming;
+    }
+
+    public Bulk getBulk() {
+        return bulk;
+    }
+
+    public Cache getCache() {
+        return cache;
+    }
+
+    public Stats getStats() {
+        return stats;
+    }
+
+    public VirtualThreads getVirtualThreads() {
+        return virtualThreads;
+    }
+
+    public Timing getTiming() {
+        return timing;
+    }
+
+    public Logging getLogging() {
+        return logging;
+    }
+
+    public Mongodb getMongodb() {
+        return mongodb;
+    }
+
+    public Ingest getIngest() {
+        return ingest;
+    }
+
+    public ReadReplica getReadReplica() {
+        return readReplica;
+    }
+
+    public Suggest getSuggest() {
+        return suggest;
+    }
+
+    public Undertow getUndertow() {
+        return undertow;
+    }
+
     // jhipster-needle-application-properties-property-getter
+
+    public static class Streaming {
+
+        /**
+         * Number of documents fetched per round trip by the cursors backing streamed responses; the response is also
+         * flushed to the client after each batch.
+         */
+        private int cursorBatchSize = 500;
+
+        public int getCursorBatchSize() {
+            return cursorBatchSize;
+        }
+
+        public void setCursorBatchSize(int cursorBatchSize) {
+            this.cursorBatchSize = cursorBatchSize;
+        }
+    }
+
+    public static class Bulk {
+
+        /**
+         * Maximum number of operations accepted in one bulk request.
+         */
+        private int maxOperations = 10000;
+
+        public int getMaxOperations() {
+            return maxOperations;
+        }
+
+        public void setMaxOperations(int maxOperations) {
+            this.maxOperations = maxOperations;
+        }
+    }
+
+    public static class Cache {
+
+        private final ChangeStream changeStream = new ChangeStream();
+
+        public ChangeStream getChangeStream() {
+            return changeStream;
+        }
+
+        public static class ChangeStream {
+
+            /**
+             * Whether local caches are invalidated from a change stream; requires MongoDB to run as a replica set.
+             */
+            private boolean enabled = false;
+
+            /**
+             * Identifies this instance's resume token, which must survive restarts and not be shared with other
+             * instances. The tokens not saved for a week expire, so the ones of replaced instances do not pile up.
+             */
+            private String consumerId;
+
+            /**
+             * Maximum time the change stream waits for new events before the resume token is saved.
+             */
+            private Duration maxAwaitTime = Duration.ofSeconds(1);
+
+            /**
+             * Number of events after which the resume token is saved while events keep coming.
+             */
+            private int tokenSaveInterval = 100;
+
+            public boolean isEnabled() {
+                return enabled;
+            }
+
+            public void setEnabled(boolean enabled) {
+                this.enabled = enabled;
+            }
+
+            public String getConsumerId() {
+                return consumerId;
+            }
+
+            public void setConsumerId(String consumerId) {
+                this.consumerId = consumerId;
+            }
+
+            public Duration getMaxAwaitTime() {
+                return maxAwaitTime;
+            }
+
+            public void setMaxAwaitTime(Duration maxAwaitTime) {
+                this.maxAwaitTime = maxAwaitTime;
+            }
+
+            public int getTokenSaveInterval() {
+                return tokenSaveInterval;
+            }
+
+            public void setTokenSaveInterval(int tokenSaveInterval) {
+                this.tokenSaveInterval = tokenSaveInterval;
+            }
+        }
+    }
+
+    public static class Stats {
+
+        /**
+         * When the incrementally maintained stats are recomputed from the pcs, to fix their drift.
+         */
+        private String reconcileCron = "0 */15 * * * *";
+
+        public String getReconcileCron() {
+            return reconcileCron;
+        }
+
+        public void setReconcileCron(String reconcileCron) {
+            this.reconcileCron = reconcileCron;
+        }
+    }
+
+    public static class VirtualThreads {
+
+        /**
+         * Whether Undertow requests and {@code @Async} tasks run on virtual threads instead of fixed pools; requires
+         * Java 21.
+         */
+        private boolean enabled = false;
+
+        /**
+         * Minimum time a virtual thread stays pinned to its carrier thread to be recorded by the pinning metrics.
+         */
+        private Duration pinnedThreshold = Duration.ofMillis(20);
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public Duration getPinnedThreshold() {
+            return pinnedThreshold;
+        }
+
+        public void setPinnedThreshold(Duration pinnedThreshold) {
+            this.pinnedThreshold = pinnedThreshold;
+        }
+    }
+
+    public static class Timing {
+
+        /**
+         * Whether the repository, service and REST methods are timed; can be changed at runtime with the
+         * {@code timing} management endpoint.
+         */
+        private boolean enabled = true;
+
+        /**
+         * Fraction of the method executions that are timed, from 0 to 1.
+         */
+        private double sampleRate = 0.01;
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public double getSampleRate() {
+            return sampleRate;
+        }
+
+        public void setSampleRate(double sampleRate) {
+            this.sampleRate = sampleRate;
+        }
+    }
+
+    public static class Logging {
+
+        private final Async async = new Async();
+
+        public Async getAsync() {
+            return async;
+        }
+
+        public static class Async {
+
+            /**
+             * Whether console logs are written by a background thread from a bounded buffer, instead of by the logging
+             * threads.
+             */
+            private boolean enabled = false;
+
+            /**
+             * Number of log events the buffer holds.
+             */
+            private int ringBufferSize = 8192;
+
+            /**
+             * Maximum number of log events written between two flushes.
+             */
+            private int maxBatchSize = 512;
+
+            /**
+             * Fill ratio of the buffer beyond which DEBUG and TRACE events are dropped.
+             */
+            private double debugDropThreshold = 0.75;
+
+            /**
+             * Whether ERROR events wait for room in a full buffer instead of being dropped like the other events.
+             */
+            private boolean blockOnError = true;
+
+            /**
+             * File the logs are appended to instead of the console.
+             */
+            private String file;
+
+            /**
+             * Whether the file is written in GZIP format.
+             */
+            private boolean compress = false;
+
+            public boolean isEnabled() {
+                return enabled;
+            }
+
+            public void setEnabled(boolean enabled) {
+                this.enabled = enabled;
+            }
+
+            public int getRingBufferSize() {
+                return ringBufferSize;
+            }
+
+            public void setRingBufferSize(int ringBufferSize) {
+                this.ringBufferSize = ringBufferSize;
+            }
+
+            public int getMaxBatchSize() {
+                return maxBatchSize;
+            }
+
+            public void setMaxBatchSize(int maxBatchSize) {
+                this.maxBatchSize = maxBatchSize;
+            }
+
+            public double getDebugDropThreshold() {
+                return debugDropThreshold;
+            }
+
+            public void setDebugDropThreshold(double debugDropThreshold) {
+                this.debugDropThreshold = debugDropThreshold;
+            }
+
+            public boolean isBlockOnError() {
+                return blockOnError;
+            }
+
+            public void setBlockOnError(boolean blockOnError) {
+                this.blockOnError = blockOnError;
+            }
+
+            public String getFile() {
+                return file;
+            }
+
+            public void setFile(String file) {
+                this.file = file;
+            }
+
+            public boolean isCompress() {
+                return compress;
+            }
+
+            public void setCompress(boolean compress) {
+                this.compress = compress;
+            }
+        }
+    }
+
+    /**
+     * Settings of the MongoDB clients; the unset ones keep the value of the connection string or the driver default.
+     */
+    public static class Mongodb {
+
+        private final Pool pool = new Pool();
+
+        private final Socket socket = new Socket();
+
+        /**
+         * Compressors offered to the server for the wire protocol, by order of preference: zstd, snappy or zlib.
+         */
+        private List<String> compressors = new ArrayList<>();
+
+        /**
+         * Minimum duration of a command to be logged and counted as slow.
+         */
+        private Duration slowCommandThreshold = Duration.ofMillis(500);
+
+        public Pool getPool() {
+            return pool;
+        }
+
+        public Socket getSocket() {
+            return socket;
+        }
+
+        public List<String> getCompressors() {
+            return compressors;
+        }
+
+        public void setCompressors(List<String> compressors) {
+            this.compressors = compressors;
+        }
+
+        public Duration getSlowCommandThreshold() {
+            return slowCommandThreshold;
+        }
+
+        public void setSlowCommandThreshold(Duration slowCommandThreshold) {
+            this.slowCommandThreshold = slowCommandThreshold;
+        }
+
+        public static class Pool {
+
+            /**
+             * Number of connections kept open to each server, even when idle.
+             */
+            private Integer minSize;
+
+            /**
+             * Maximum number of connections to each server; further operations wait for a connection to be released.
+             */
+            private Integer maxSize;
+
+            /**
+             * Maximum time an operation waits for a connection before failing.
+             */
+            private Duration maxWaitTime;
+
+            /**
+             * Time after which an idle connection is closed.
+             */
+            private Duration maxConnectionIdleTime;
+
+            /**
+             * Time after which a connection is closed once released, however busy.
+             */
+            private Duration maxConnectionLifeTime;
+
+            public Integer getMinSize() {
+                return minSize;
+            }
+
+            public void setMinSize(Integer minSize) {
+                this.minSize = minSize;
+            }
+
+            public Integer getMaxSize() {
+                return maxSize;
+            }
+
+            public void setMaxSize(Integer maxSize) {
+                this.maxSize = maxSize;
+            }
+
+            public Duration getMaxWaitTime() {
+                return maxWaitTime;
+            }
+
+            public void setMaxWaitTime(Duration maxWaitTime) {
+                this.maxWaitTime = maxWaitTime;
+            }
+
+            public Duration getMaxConnectionIdleTime() {
+                return maxConnectionIdleTime;
+            }
+
+            public void setMaxConnectionIdleTime(Duration maxConnectionIdleTime) {
+                this.maxConnectionIdleTime = maxConnectionIdleTime;
+            }
+
+            public Duration getMaxConnectionLifeTime() {
+                return maxConnectionLifeTime;
+            }
+
+            public void setMaxConnectionLifeTime(Duration maxConnectionLifeTime) {
+                this.maxConnectionLifeTime = maxConnectionLifeTime;
+            }
+        }
+
+        public static class Socket {
+
+            /**
+             * Maximum time to open a connection.
+             */
+            private Duration connectTimeout;
+
+            /**
+             * Maximum time to wait for the reply of a command, zero for no limit.
+             */
+            private Duration readTimeout;
+
+            public Duration getConnectTimeout() {
+                return connectTimeout;
+            }
+
+            public void setConnectTimeout(Duration connectTimeout) {
+                this.connectTimeout = connectTimeout;
+            }
+
+            public Duration getReadTimeout() {
+                return readTimeout;
+            }
+
+            public void setReadTimeout(Duration readTimeout) {
+                this.readTimeout = readTimeout;
+            }
+        }
+    }
+
+    public static class Ingest {
+
+        /**
+         * Whether pcs can be created asynchronously with {@code POST /api/pcs?mode=async}, through a local journal
+         * written to MongoDB in batches.
+         */
+        private boolean enabled = false;
+
+        /**
+         * Directory of the journal; it must survive restarts, for the pcs not written yet to be replayed, and not be
+         * shared with other instances.
+         */
+        private String journalDirectory = "ingest-journal";
+
+        /**
+         * Size of the memory-mapped files the journal is made of.
+         */
+        private DataSize segmentSize = DataSize.ofMegabytes(64);
+
+        /**
+         * Maximum number of journal files, beyond which asynchronous creations are rejected until the backlog is
+         * written.
+         */
+        private int maxSegments = 16;
+
+        /**
+         * Maximum number of pcs inserted in one {@code insertMany} call.
+         */
+        private int maxBatchSize = 1000;
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public String getJournalDirectory() {
+            return journalDirectory;
+        }
+
+        public void setJournalDirectory(String journalDirectory) {
+            this.journalDirectory = journalDirectory;
+        }
+
+        public DataSize getSegmentSize() {
+            return segmentSize;
+        }
+
+        public void setSegmentSize(DataSize segmentSize) {
+            this.segmentSize = segmentSize;
+        }
+
+        public int getMaxSegments() {
+            return maxSegments;
+        }
+
+        public void setMaxSegments(int maxSegments) {
+            this.maxSegments = maxSegments;
+        }
+
+        public int getMaxBatchSize() {
+            return maxBatchSize;
+        }
+
+        public void setMaxBatchSize(int maxBatchSize) {
+            this.maxBatchSize = maxBatchSize;
+        }
+    }
+
+    public static class ReadReplica {
+
+        /**
+         * Whether the pc collection is copied off-heap at startup and kept current from a change stream, to serve the
+         * pages of {@code GET /api/pcs}; requires a replica set.
+         */
+        private boolean enabled = false;
+
+        /**
+         * Size of the direct buffers holding the pcs; their total is bounded by {@code -XX:MaxDirectMemorySize}.
+         */
+        private DataSize slabSize = DataSize.ofMegabytes(64);
+
+        /**
+         * Lag beyond which reads go to MongoDB again, until the replica has caught up.
+         */
+        private Duration maxLag = Duration.ofSeconds(5);
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public DataSize getSlabSize() {
+            return slabSize;
+        }
+
+        public void setSlabSize(DataSize slabSize) {
+            this.slabSize = slabSize;
+        }
+
+        public Duration getMaxLag() {
+            return maxLag;
+        }
+
+        public void setMaxLag(Duration maxLag) {
+            this.maxLag = maxLag;
+        }
+    }
+
+    public static class Suggest {
+
+        /**
+         * When the make and model suggestions are counted again from the pcs by one instance, to see the writes of
+         * other instances.
+         */
+        private String rebuildCron = "0 */15 * * * *";
+
+        /**
+         * When every instance checks for suggestions counted again, and loads them.
+         */
+        private String refreshCron = "30 * * * * *";
+
+        public String getRebuildCron() {
+            return rebuildCron;
+        }
+
+        public void setRebuildCron(String rebuildCron) {
+            this.rebuildCron = rebuildCron;
+        }
+
+        public String getRefreshCron() {
+            return refreshCron;
+        }
+
+        public void setRefreshCron(String refreshCron) {
+            this.refreshCron = refreshCron;
+        }
+    }
+
+    public static class Undertow {
+
+        /**
+         * Maximum number of concurrent streams a client may open on one HTTP/2 connection; the server and its threads
+         * and buffers are configured by the {@code server.http2} and {@code server.undertow} properties.
+         */
+        private int maxConcurrentStreams = 100;
+
+        public int getMaxConcurrentStreams() {
+            return maxConcurrentStreams;
+        }
+
+        public void setMaxConcurrentStreams(int maxConcurrentStreams) {
+            this.maxConcurrentStreams = maxConcurrentStreams;
+        }
+    }
     // jhipster-needle-application-properties-property-class
 }
@@ -9,6 +9,8 @@ import org.springframework.boot.autoconfigure.task.TaskExecutionProperties;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.Profile;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
 import org.springframework.scheduling.annotation.AsyncConfigurer;
 import org.springframework.scheduling.annotation.EnableAsync;
 import org.springframework.scheduling.annotation.EnableScheduling;
@@ -25,19 +27,30 @@ public class AsyncConfiguration implements AsyncConfigurer {
 
     private final TaskExecutionProperties taskExecutionProperties;
 
-    public AsyncConfiguration(TaskExecutionProperties taskExecutionProperties) {
+    private final ApplicationProperties applicationProperties;
+
+    public AsyncConfiguration(TaskExecutionProperties taskExecutionProperties, ApplicationProperties applicationProperties) {
         this.taskExecutionProperties = taskExecutionProperties;
+        this.applicationProperties = applicationProperties;
     }
 
     @Override
     @Bean(name = "taskExecutor")
     public Executor getAsyncExecutor() {
-        log.debug("Creating Async Task Executor");
-        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
-        executor.setCorePoolSize(taskExecutionProperties.getPool().getCoreSize());
-        executor.setMaxPoolSize(taskExecutionProperties.getPool().getMaxSize());
-        executor.setQueueCapacity(taskExecutionProperties.getPool().getQueueCapacity());
-        executor.setThreadNamePrefix(taskExecutionProperties.getThreadNamePrefix());
+        AsyncTaskExecutor executor;
+        if (applicationProperties.getVirtualThreads().isEnabled()) {
+            log.debug("Creating Async Task Executor on virtual threads");
+            // one new virtual thread per task: no pool size caps the concurrency, nor queue delays the tasks
+            executor = new SimpleAsyncTaskExecutor(VirtualThreadSupport.factory(taskExecutionProperties.getThreadNamePrefix()));
+        } else {
+            log.debug("Creating Async Task Executor");
+            ThreadPoolTaskExecutor pool = new ThreadPoolTaskExecutor();
+            pool.setCorePoolSize(taskExecutionProperties.getPool().getCoreSize());
+            pool.setMaxPoolSize(taskExecutionProperties.getPool().getMaxSize());
+            pool.setQueueCapacity(taskExecutionProperties.getPool().getQueueCapacity());
+            pool.setThreadNamePrefix(taskExecutionProperties.getThreadNamePrefix());
+            executor = pool;
+        }
         return new ExceptionHandlingAsyncTaskExecutor(executor);
     }
 
@@ -0,0 +1,311 @@
+package com.flash.app.config;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.Appender;
+import ch.qos.logback.core.OutputStreamAppender;
+import ch.qos.logback.core.UnsynchronizedAppenderBase;
+import ch.qos.logback.core.encoder.Encoder;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import java.io.BufferedOutputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Appender decoupling the logging threads from a slow sink: events go into a bounded ring buffer, allocated upfront,
+ * and a single writer thread encodes them in batches to the console or to a file, flushing once per batch.
+ * <p>
+ * When the buffer fills up, logging threads are not blocked but events are dropped, lowest levels first: {@code DEBUG}
+ * and {@code TRACE} events once the buffer is filled beyond {@link #setDebugDropThreshold the threshold}, any other
+ * event once it is full, except {@code ERROR} events which {@link #setBlockOnError may wait} for room. Dropped events,
+ * the buffer depth and the flush latency are metered once {@link #bindTo bound} to a registry.
+ * <p>
+ * Only the console is replaced. The Logstash appender added by JHipster is a {@code LogstashTcpSocketAppender}, which
+ * already hands its events to a writer thread through a bounded ring buffer and drops them when it is full, so it is
+ * left as is rather than queued twice.
+ */
+public class AsyncLogAppender extends UnsynchronizedAppenderBase<ILoggingEvent> implements MeterBinder {
+
+    private static final int OUTPUT_BUFFER_SIZE = 64 * 1024;
+
+    private static final Level[] LEVELS = { Level.TRACE, Level.DEBUG, Level.INFO, Level.WARN, Level.ERROR };
+
+    private Encoder<ILoggingEvent> encoder;
+
+    private int ringBufferSize = 8192;
+
+    private int maxBatchSize = 512;
+
+    private double debugDropThreshold = 0.75;
+
+    private boolean blockOnError = true;
+
+    private String file;
+
+    private boolean compress;
+
+    private final LongAdder[] dropped = new LongAdder[LEVELS.length];
+
+    private BlockingQueue<ILoggingEvent> ringBuffer;
+
+    private int debugDropRemainingCapacity;
+
+    private OutputStream out;
+
+    private Thread writer;
+
+    private volatile boolean running;
+
+    private volatile Timer flushTimer;
+
+    public AsyncLogAppender() {
+        for (int i = 0; i < dropped.length; i++) {
+            dropped[i] = new LongAdder();
+        }
+    }
+
+    public void setEncoder(Encoder<ILoggingEvent> encoder) {
+        this.encoder = encoder;
+    }
+
+    public void setRingBufferSize(int ringBufferSize) {
+        this.ringBufferSize = ringBufferSize;
+    }
+
+    public void setMaxBatchSize(int maxBatchSize) {
+        this.maxBatchSize = maxBatchSize;
+    }
+
+    /**
+     * @param debugDropThreshold the fill ratio of the buffer beyond which {@code DEBUG} and {@code TRACE} events are
+     * dropped.
+     */
+    public void setDebugDropThreshold(double debugDropThreshold) {
+        this.debugDropThreshold = debugDropThreshold;
+    }
+
+    /**
+     * @param blockOnError whether {@code ERROR} events wait for room in a full buffer instead of being dropped.
+     */
+    public void setBlockOnError(boolean blockOnError) {
+        this.blockOnError = blockOnError;
+    }
+
+    /**
+     * @param file the file the events are appended to, or {@code null} for the console.
+     */
+    public void setFile(String file) {
+        this.file = file;
+    }
+
+    /**
+     * @param compress whether the file is written in GZIP format, each batch being flushed as a complete block.
+     */
+    public void setCompress(boolean compress) {
+        this.compress = compress;
+    }
+
+    @Override
+    public void start() {
+        if (encoder == null) {
+            addError("No encoder set for the appender named [" + name + "].");
+            return;
+        }
+        try {
+            out = openSink();
+        } catch (IOException e) {
+            addError("Could not open the log sink of the appender named [" + name + "].", e);
+            return;
+        }
+        ringBuffer = new ArrayBlockingQueue<>(ringBufferSize);
+        debugDropRemainingCapacity = (int) Math.ceil(ringBufferSize * (1 - debugDropThreshold));
+        writer = new Thread(this::write, "async-log-" + name);
+        writer.setDaemon(true);
+        running = true;
+        super.start();
+        writer.start();
+    }
+
+    private OutputStream openSink() throws IOException {
+        if (file == null || file.isEmpty()) {
+            return new BufferedOutputStream(System.out, OUTPUT_BUFFER_SIZE);
+        }
+        OutputStream fileOut = new FileOutputStream(file, true);
+        return compress
+            ? new GZIPOutputStream(fileOut, OUTPUT_BUFFER_SIZE, true)
+            : new BufferedOutputStream(fileOut, OUTPUT_BUFFER_SIZE);
+    }
+
+    @Override
+    public void stop() {
+        if (!isStarted()) {
+            return;
+        }
+        super.stop();
+        // the writer drains the buffer before it exits
+        running = false;
+        writer.interrupt();
+        try {
+            writer.join(TimeUnit.SECONDS.toMillis(5));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        try {
+            if (file == null || file.isEmpty()) {
+                out.flush();
+            } else {
+                out.close();
+            }
+        } catch (IOException e) {
+            addError("Could not close the log sink of the appender named [" + name + "].", e);
+        }
+    }
+
+    @Override
+    protected void append(ILoggingEvent event) {
+        int level = event.getLevel().toInt();
+        if (level < Level.INFO_INT && ringBuffer.remainingCapacity() < debugDropRemainingCapacity) {
+            drop(event);
+            return;
+        }
+        // the writer thread must not see the state of the logging thread
+        event.prepareForDeferredProcessing();
+        if (ringBuffer.offer(event)) {
+            return;
+        }
+        if (level >= Level.ERROR_INT && blockOnError) {
+            try {
+                // wait while the writer runs, it is the only one making room
+                while (running) {
+                    if (ringBuffer.offer(event, 100, TimeUnit.MILLISECONDS)) {
+                        return;
+                    }
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        drop(event);
+    }
+
+    /**
+     * Replaces the console appender of the root logger by this appender, writing the events with its encoder. The
+     * console appender is kept when this appender cannot start, for lack of an encoder or of its file.
+     *
+     * @param context the logger context.
+     */
+    @SuppressWarnings("unchecked")
+    public void replaceConsoleAppender(LoggerContext context) {
+        Logger root = context.getLogger(Logger.ROOT_LOGGER_NAME);
+        Appender<ILoggingEvent> console = root.getAppender(JsonConsoleAppender.CONSOLE_APPENDER_NAME);
+        if (console == this) {
+            return;
+        }
+        if (console instanceof OutputStreamAppender) {
+            setEncoder(((OutputStreamAppender<ILoggingEvent>) console).getEncoder());
+        }
+        // the appender is restarted after a reset of the logback configuration, keeping its meters
+        stop();
+        setContext(context);
+        setName(JsonConsoleAppender.CONSOLE_APPENDER_NAME);
+        start();
+        if (!isStarted()) {
+            addWarn("The appender named [" + name + "] did not start, the console appender is kept.");
+            return;
+        }
+        if (console != null) {
+            root.detachAppender(console);
+        }
+        root.addAppender(this);
+    }
+
+    private void drop(ILoggingEvent event) {
+        for (int i = 0; i < LEVELS.length; i++) {
+            if (LEVELS[i].equals(event.getLevel())) {
+                dropped[i].increment();
+                return;
+            }
+        }
+    }
+
+    /**
+     * Writes the events in batches until the appender is stopped and the buffer is drained.
+     */
+    private void write() {
+        List<ILoggingEvent> batch = new ArrayList<>(maxBatchSize);
+        while (true) {
+            ILoggingEvent first;
+            try {
+                first = running ? ringBuffer.take() : ringBuffer.poll();
+            } catch (InterruptedException e) {
+                first = ringBuffer.poll();
+            }
+            if (first == null) {
+                if (!running) {
+                    return;
+                }
+                continue;
+            }
+            batch.add(first);
+            ringBuffer.drainTo(batch, maxBatchSize - 1);
+            try {
+                for (ILoggingEvent event : batch) {
+                    encode(event);
+                }
+                long start = System.nanoTime();
+                out.flush();
+                Timer timer = flushTimer;
+                if (timer != null) {
+                    timer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+                }
+            } catch (IOException | RuntimeException e) {
+                addError("Could not write " + batch.size() + " log events of the appender named [" + name + "].", e);
+            }
+            batch.clear();
+        }
+    }
+
+    private void encode(ILoggingEvent event) throws IOException {
+        if (encoder instanceof JsonLogEncoder) {
+            ((JsonLogEncoder) encoder).encode(event, out);
+        } else {
+            out.write(encoder.encode(event));
+        }
+    }
+
+    /**
+     * Registers the gauge of the buffer depth, the counters of dropped events per level and the timer of the flushes.
+     */
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge
+            .builder("logging.async.queue.depth", this, appender -> appender.ringBuffer == null ? 0 : appender.ringBuffer.size())
+            .description("Log events waiting to be written")
+            .tag("appender", name)
+            .register(registry);
+        for (int i = 0; i < LEVELS.length; i++) {
+            FunctionCounter
+                .builder("logging.async.dropped", dropped[i], LongAdder::sum)
+                .description("Log events dropped because the buffer was full")
+                .tag("appender", name)
+                .tag("level", LEVELS[i].levelStr.toLowerCase())
+                .register(registry);
+        }
+        flushTimer =
+            Timer.builder("logging.async.flush").description("Time to flush a batch of log events").tag("appender", name).register(registry);
+    }
+}
@@ -5,6 +5,7 @@ import ch.qos.logback.core.pattern.CompositeConverter;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import org.slf4j.Marker;
 import org.slf4j.MarkerFactory;
 import org.springframework.boot.ansi.AnsiColor;
@@ -31,14 +32,72 @@ public class CRLFLogConverter extends CompositeConverter<ILoggingEvent> {
         ELEMENTS = Collections.unmodifiableMap(ansiElements);
     }
 
+    /**
+     * Sanitized messages are built in a buffer per thread; buffers grown past this capacity by large messages are
+     * dropped.
+     */
+    private static final int MAX_BUFFER_CAPACITY = 8192;
+
+    private static final ThreadLocal<StringBuilder> BUFFERS = ThreadLocal.withInitial(StringBuilder::new);
+
+    private final Map<String, Boolean> safeLoggers = new ConcurrentHashMap<>();
+
+    private String replacement;
+
+    @Override
+    public void start() {
+        replacement = replacement();
+        super.start();
+    }
+
+    /**
+     * Replaces line breaks and tabs in a single pass, returning messages without any as they are.
+     */
     @Override
     protected String transform(ILoggingEvent event, String in) {
-        AnsiElement element = ELEMENTS.get(getFirstOption());
-        if ((event.getMarker() != null && event.getMarker().contains(CRLF_SAFE_MARKER)) || isLoggerSafe(event)) {
+        int next = indexOfLineBreak(in, 0);
+        if (next < 0 || (event.getMarker() != null && event.getMarker().contains(CRLF_SAFE_MARKER)) || isSafe(event)) {
             return in;
         }
-        String replacement = element == null ? "_" : toAnsiString("_", element);
-        return in.replaceAll("[\n\r\t]", replacement);
+        String replacement = this.replacement != null ? this.replacement : replacement();
+        StringBuilder buffer = BUFFERS.get();
+        buffer.setLength(0);
+        int start = 0;
+        do {
+            buffer.append(in, start, next).append(replacement);
+            start = next + 1;
+            next = indexOfLineBreak(in, start);
+        } while (next >= 0);
+        buffer.append(in, start, in.length());
+        String sanitized = buffer.toString();
+        if (buffer.capacity() > MAX_BUFFER_CAPACITY) {
+            BUFFERS.remove();
+        }
+        return sanitized;
+    }
+
+    private static int indexOfLineBreak(String in, int from) {
+        for (int i = from; i < in.length(); i++) {
+            char c = in.charAt(i);
+            if (c == '\n' || c == '\r' || c == '\t') {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private String replacement() {
+        AnsiElement element = ELEMENTS.get(getFirstOption());
+        return element == null ? "_" : toAnsiString("_", element);
+    }
+
+    private boolean isSafe(ILoggingEvent event) {
+        Boolean safe = safeLoggers.get(event.getLoggerName());
+        if (safe == null) {
+            safe = isLoggerSafe(event);
+            safeLoggers.put(event.getLoggerName(), safe);
+        }
+        return safe;
     }
 
     protected boolean isLoggerSafe(ILoggingEvent event) {
@@ -0,0 +1,71 @@
+package com.flash.app.config;
+
+import com.flash.app.domain.Pc;
+import com.github.benmanes.caffeine.jcache.configuration.CaffeineConfiguration;
+import com.github.benmanes.caffeine.jcache.copy.AbstractCopier;
+import com.github.benmanes.caffeine.jcache.copy.Copier;
+import com.github.benmanes.caffeine.jcache.copy.JavaSerializationCopier;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.OptionalLong;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import org.springframework.boot.autoconfigure.cache.JCacheManagerCustomizer;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import tech.jhipster.config.JHipsterProperties;
+
+@Configuration
+@EnableCaching
+public class CacheConfiguration {
+
+    private final javax.cache.configuration.Configuration<Object, Object> jcacheConfiguration;
+
+    public CacheConfiguration(JHipsterProperties jHipsterProperties) {
+        JHipsterProperties.Cache.Caffeine caffeine = jHipsterProperties.getCache().getCaffeine();
+
+        CaffeineConfiguration<Object, Object> caffeineConfiguration = new CaffeineConfiguration<>();
+        caffeineConfiguration.setMaximumSize(OptionalLong.of(caffeine.getMaxEntries()));
+        caffeineConfiguration.setExpireAfterWrite(OptionalLong.of(TimeUnit.SECONDS.toNanos(caffeine.getTimeToLiveSeconds())));
+        // Statistics are read by Micrometer to publish the cache hit, miss and eviction counts
+        caffeineConfiguration.setStatisticsEnabled(true);
+        // The cached entities are mutable: every put and get copies them, so that a caller changing the pc it was given
+        // cannot change what the next callers read
+        caffeineConfiguration.setStoreByValue(true);
+        caffeineConfiguration.setCopierFactory(CacheConfiguration::copier);
+        jcacheConfiguration = caffeineConfiguration;
+    }
+
+    @Bean
+    public JCacheManagerCustomizer cacheManagerCustomizer() {
+        return cm -> {
+            createCache(cm, com.flash.app.repository.PcRepository.PCS_BY_ID_CACHE);
+            // jhipster-needle-caffeine-add-entry
+        };
+    }
+
+    /**
+     * @return a copier that copies the pcs field by field, and falls back to a serialization round trip for the other
+     * values.
+     */
+    static Copier copier() {
+        Map<Class<?>, Function<Object, Object>> deepCopyStrategies = new HashMap<>(AbstractCopier.javaDeepCopyStrategies());
+        deepCopyStrategies.put(Pc.class, CacheConfiguration::copyPc);
+        return new JavaSerializationCopier(AbstractCopier.javaImmutableClasses(), deepCopyStrategies);
+    }
+
+    private static Object copyPc(Object object) {
+        Pc pc = (Pc) object;
+        return new Pc().id(pc.getId()).make(pc.getMake()).model(pc.getModel()).price(pc.getPrice()).version(pc.getVersion());
+    }
+
+    private void createCache(javax.cache.CacheManager cm, String cacheName) {
+        javax.cache.Cache<Object, Object> cache = cm.getCache(cacheName);
+        if (cache != null) {
+            cache.clear();
+        } else {
+            cm.createCache(cacheName, jcacheConfiguration);
+        }
+    }
+}
@@ -7,5 +7,10 @@ public final class Constants {
 
     public static final String SYSTEM = "system";
 
+    /**
+     * Profile serving the Pc API from the reactive MongoDB driver instead of blocking worker threads.
+     */
+    public static final String SPRING_PROFILE_REACTIVE = "reactive";
+
     private Constants() {}
 }
@@ -1,9 +1,17 @@
 package com.flash.app.config;
 
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
 import com.fasterxml.jackson.datatype.jdk8.Jdk8Module;
 import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.flash.app.domain.Pc;
+import com.flash.app.web.rest.PcFields;
+import org.springframework.boot.autoconfigure.jackson.Jackson2ObjectMapperBuilderCustomizer;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
 import org.zalando.problem.jackson.ProblemModule;
 import org.zalando.problem.violations.ConstraintViolationProblemModule;
 
@@ -24,6 +32,29 @@ public class JacksonConfiguration {
         return new Jdk8Module();
     }
 
+    /*
+     * Sparse fieldsets of Pc reads: Pc goes through a Jackson filter which serializes all the fields by default.
+     */
+    @Bean
+    public Jackson2ObjectMapperBuilderCustomizer pcFieldsCustomizer() {
+        return builder -> builder.mixIn(Pc.class, PcFields.Mixin.class).filters(PcFields.allFields());
+    }
+
+    /*
+     * Binary wire formats, negotiated from the Accept and Content-Type headers. Their mappers are built from the
+     * application's builder, so they share its modules and the Pc fieldset filter; the converters replace the default
+     * ones in place, after the JSON converter, so JSON stays the format of clients accepting anything.
+     */
+    @Bean
+    public MappingJackson2SmileHttpMessageConverter smileHttpMessageConverter(Jackson2ObjectMapperBuilder builder) {
+        return new MappingJackson2SmileHttpMessageConverter(builder.factory(new SmileFactory()).build());
+    }
+
+    @Bean
+    public MappingJackson2CborHttpMessageConverter cborHttpMessageConverter(Jackson2ObjectMapperBuilder builder) {
+        return new MappingJackson2CborHttpMessageConverter(builder.factory(new CBORFactory()).build());
+    }
+
     /*
      * Module for serialization/deserialization of RFC7807 Problem.
      */
@@ -0,0 +1,66 @@
+package com.flash.app.config;
+
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.ConsoleAppender;
+import ch.qos.logback.core.status.ErrorStatus;
+import java.io.IOException;
+
+/**
+ * Console appender writing the events encoded by a {@link JsonLogEncoder} straight to the console, without the
+ * intermediate array of {@link ConsoleAppender}.
+ */
+public class JsonConsoleAppender extends ConsoleAppender<ILoggingEvent> {
+
+    static final String CONSOLE_APPENDER_NAME = "CONSOLE";
+
+    /**
+     * Replaces the console appender of the root logger by a JSON one.
+     *
+     * @param context the logger context.
+     * @param customFields a JSON object whose fields are added to every event.
+     */
+    public static void replaceConsoleAppender(LoggerContext context, String customFields) {
+        JsonLogEncoder encoder = new JsonLogEncoder();
+        encoder.setContext(context);
+        encoder.setCustomFields(customFields);
+        encoder.start();
+
+        JsonConsoleAppender appender = new JsonConsoleAppender();
+        appender.setContext(context);
+        appender.setEncoder(encoder);
+        appender.setName(CONSOLE_APPENDER_NAME);
+        appender.start();
+
+        Logger root = context.getLogger(Logger.ROOT_LOGGER_NAME);
+        root.detachAppender(CONSOLE_APPENDER_NAME);
+        root.addAppender(appender);
+    }
+
+    @Override
+    protected void subAppend(ILoggingEvent event) {
+        if (!(encoder instanceof JsonLogEncoder)) {
+            super.subAppend(event);
+            return;
+        }
+        if (!isStarted()) {
+            return;
+        }
+        try {
+            event.prepareForDeferredProcessing();
+            lock.lock();
+            try {
+                ((JsonLogEncoder) encoder).encode(event, getOutputStream());
+                if (isImmediateFlush()) {
+                    getOutputStream().flush();
+                }
+            } finally {
+                lock.unlock();
+            }
+        } catch (IOException e) {
+            started = false;
+            addStatus(new ErrorStatus("IO failure in appender", this, e));
+        }
+    }
+}
@@ -0,0 +1,304 @@
+package com.flash.app.config;
+
+import ch.qos.logback.classic.pattern.Abbreviator;
+import ch.qos.logback.classic.pattern.TargetLengthBasedClassNameAbbreviator;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.encoder.EncoderBase;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import net.logstash.logback.stacktrace.ShortenedThrowableConverter;
+
+/**
+ * Encodes logging events as one JSON object per line, with the fields of the JHipster JSON console format: {@code
+ * timestamp}, {@code level}, {@code logger_name}, {@code thread_name}, {@code message}, the custom fields, the MDC
+ * entries and {@code stack_trace}.
+ * <p>
+ * The JSON is written by hand into a reusable buffer, which {@link #encode(ILoggingEvent, OutputStream)} copies straight
+ * to the appender stream: apart from stack traces, encoding an event allocates nothing once the logger names are
+ * abbreviated and the current second is formatted. Line breaks are escaped like any JSON control character, so messages
+ * do not need the {@link CRLFLogConverter}.
+ */
+public class JsonLogEncoder extends EncoderBase<ILoggingEvent> {
+
+    private static final int LOGGER_NAME_LENGTH = 20;
+
+    /**
+     * Buffers grown past this capacity by large events are dropped after use.
+     */
+    private static final int MAX_BUFFER_CAPACITY = 64 * 1024;
+
+    private static final byte[] HEX_DIGITS = "0123456789abcdef".getBytes(StandardCharsets.US_ASCII);
+
+    private static final byte[] TIMESTAMP = field("{\"timestamp\":\"");
+
+    private static final byte[] LEVEL = field("\",\"level\":\"");
+
+    private static final byte[] LOGGER_NAME = field("\",\"logger_name\":");
+
+    private static final byte[] THREAD_NAME = field(",\"thread_name\":");
+
+    private static final byte[] MESSAGE = field(",\"message\":");
+
+    private static final byte[] STACK_TRACE = field(",\"stack_trace\":");
+
+    private final Abbreviator abbreviator = new TargetLengthBasedClassNameAbbreviator(LOGGER_NAME_LENGTH);
+
+    private final Map<String, byte[]> loggerNames = new HashMap<>();
+
+    private final ShortenedThrowableConverter throwableConverter = new ShortenedThrowableConverter();
+
+    private byte[] customFields = new byte[0];
+
+    private byte[] buffer = new byte[1024];
+
+    private int length;
+
+    private long formattedSecond = Long.MIN_VALUE;
+
+    private final byte[] formattedDateTime = new byte[19];
+
+    /**
+     * @param customFields a JSON object whose fields are added to every event, or {@code null} for none.
+     */
+    public void setCustomFields(String customFields) {
+        String fields = customFields == null ? "" : customFields.trim();
+        if (fields.startsWith("{") && fields.endsWith("}")) {
+            fields = fields.substring(1, fields.length() - 1).trim();
+        }
+        this.customFields = fields.isEmpty() ? new byte[0] : ("," + fields).getBytes(StandardCharsets.UTF_8);
+    }
+
+    @Override
+    public void start() {
+        throwableConverter.setContext(getContext());
+        throwableConverter.setRootCauseFirst(true);
+        throwableConverter.start();
+        super.start();
+    }
+
+    @Override
+    public void stop() {
+        throwableConverter.stop();
+        super.stop();
+    }
+
+    @Override
+    public byte[] headerBytes() {
+        return null;
+    }
+
+    @Override
+    public synchronized byte[] encode(ILoggingEvent event) {
+        write(event);
+        byte[] encoded = Arrays.copyOf(buffer, length);
+        release();
+        return encoded;
+    }
+
+    /**
+     * Encodes an event straight to a stream, without copying it to a new array.
+     *
+     * @param event the event.
+     * @param out the stream.
+     * @throws IOException if the stream cannot be written.
+     */
+    public synchronized void encode(ILoggingEvent event, OutputStream out) throws IOException {
+        write(event);
+        try {
+            out.write(buffer, 0, length);
+        } finally {
+            release();
+        }
+    }
+
+    @Override
+    public byte[] footerBytes() {
+        return null;
+    }
+
+    private void write(ILoggingEvent event) {
+        length = 0;
+        writeBytes(TIMESTAMP);
+        writeTimestamp(event.getTimeStamp());
+        writeBytes(LEVEL);
+        writeAscii(event.getLevel().levelStr);
+        writeBytes(LOGGER_NAME);
+        writeBytes(loggerName(event.getLoggerName()));
+        writeBytes(THREAD_NAME);
+        writeString(event.getThreadName());
+        writeBytes(MESSAGE);
+        writeString(event.getFormattedMessage());
+        writeBytes(customFields);
+        Map<String, String> mdc = event.getMDCPropertyMap();
+        if (mdc != null && !mdc.isEmpty()) {
+            for (Map.Entry<String, String> entry : mdc.entrySet()) {
+                writeByte(',');
+                writeString(entry.getKey());
+                writeByte(':');
+                writeString(entry.getValue());
+            }
+        }
+        if (event.getThrowableProxy() != null) {
+            writeBytes(STACK_TRACE);
+            writeString(throwableConverter.convert(event));
+        }
+        writeByte('}');
+        writeByte('\n');
+    }
+
+    private void release() {
+        if (buffer.length > MAX_BUFFER_CAPACITY) {
+            buffer = new byte[1024];
+        }
+    }
+
+    private byte[] loggerName(String name) {
+        byte[] encoded = loggerNames.get(name);
+        if (encoded == null) {
+            int start = length;
+            writeString(abbreviator.abbreviate(name));
+            encoded = Arrays.copyOfRange(buffer, start, length);
+            length = start;
+            loggerNames.put(name, encoded);
+        }
+        return encoded;
+    }
+
+    /**
+     * Writes the time in the ISO-8601 format in UTC, with milliseconds.
+     */
+    private void writeTimestamp(long millis) {
+        long second = Math.floorDiv(millis, 1000);
+        if (second != formattedSecond) {
+            LocalDateTime dateTime = LocalDateTime.ofEpochSecond(second, 0, ZoneOffset.UTC);
+            formatDigits(dateTime.getYear(), 4, 0);
+            formattedDateTime[4] = '-';
+            formatDigits(dateTime.getMonthValue(), 2, 5);
+            formattedDateTime[7] = '-';
+            formatDigits(dateTime.getDayOfMonth(), 2, 8);
+            formattedDateTime[10] = 'T';
+            formatDigits(dateTime.getHour(), 2, 11);
+            formattedDateTime[13] = ':';
+            formatDigits(dateTime.getMinute(), 2, 14);
+            formattedDateTime[16] = ':';
+            formatDigits(dateTime.getSecond(), 2, 17);
+            formattedSecond = second;
+        }
+        writeBytes(formattedDateTime);
+        int fraction = (int) Math.floorMod(millis, 1000);
+        writeByte('.');
+        writeByte('0' + fraction / 100);
+        writeByte('0' + fraction / 10 % 10);
+        writeByte('0' + fraction % 10);
+        writeByte('Z');
+    }
+
+    private void formatDigits(int value, int digits, int offset) {
+        for (int i = offset + digits - 1; i >= offset; i--) {
+            formattedDateTime[i] = (byte) ('0' + value % 10);
+            value /= 10;
+        }
+    }
+
+    /**
+     * Writes a JSON string, escaped and encoded in UTF-8.
+     */
+    private void writeString(String value) {
+        if (value == null) {
+            writeAscii("null");
+            return;
+        }
+        ensureCapacity(value.length() * 6 + 2);
+        byte[] bytes = buffer;
+        int position = length;
+        bytes[position++] = '"';
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c < 0x80) {
+                if (c >= 0x20 && c != '"' && c != '\\') {
+                    bytes[position++] = (byte) c;
+                } else {
+                    position = writeEscaped(bytes, position, c);
+                }
+            } else if (c < 0x800) {
+                bytes[position++] = (byte) (0xc0 | (c >> 6));
+                bytes[position++] = (byte) (0x80 | (c & 0x3f));
+            } else if (Character.isHighSurrogate(c) && i + 1 < value.length() && Character.isLowSurrogate(value.charAt(i + 1))) {
+                int codePoint = Character.toCodePoint(c, value.charAt(++i));
+                bytes[position++] = (byte) (0xf0 | (codePoint >> 18));
+                bytes[position++] = (byte) (0x80 | ((codePoint >> 12) & 0x3f));
+                bytes[position++] = (byte) (0x80 | ((codePoint >> 6) & 0x3f));
+                bytes[position++] = (byte) (0x80 | (codePoint & 0x3f));
+            } else if (Character.isSurrogate(c)) {
+                // a lone surrogate cannot be encoded
+                bytes[position++] = '?';
+            } else {
+                bytes[position++] = (byte) (0xe0 | (c >> 12));
+                bytes[position++] = (byte) (0x80 | ((c >> 6) & 0x3f));
+                bytes[position++] = (byte) (0x80 | (c & 0x3f));
+            }
+        }
+        bytes[position++] = '"';
+        length = position;
+    }
+
+    private static int writeEscaped(byte[] bytes, int position, char c) {
+        bytes[position++] = '\\';
+        switch (c) {
+            case '"':
+            case '\\':
+                bytes[position++] = (byte) c;
+                break;
+            case '\n':
+                bytes[position++] = 'n';
+                break;
+            case '\r':
+                bytes[position++] = 'r';
+                break;
+            case '\t':
+                bytes[position++] = 't';
+                break;
+            default:
+                bytes[position++] = 'u';
+                bytes[position++] = '0';
+                bytes[position++] = '0';
+                bytes[position++] = HEX_DIGITS[c >> 4];
+                bytes[position++] = HEX_DIGITS[c & 0xf];
+        }
+        return position;
+    }
+
+    private void writeAscii(String value) {
+        ensureCapacity(value.length());
+        for (int i = 0; i < value.length(); i++) {
+            buffer[length++] = (byte) value.charAt(i);
+        }
+    }
+
+    private void writeBytes(byte[] bytes) {
+        ensureCapacity(bytes.length);
+        System.arraycopy(bytes, 0, buffer, length, bytes.length);
+        length += bytes.length;
+    }
+
+    private void writeByte(int b) {
+        ensureCapacity(1);
+        buffer[length++] = (byte) b;
+    }
+
+    private void ensureCapacity(int additional) {
+        if (length + additional > buffer.length) {
+            buffer = Arrays.copyOf(buffer, Math.max(buffer.length * 2, length + additional));
+        }
+    }
+
+    private static byte[] field(String json) {
+        return json.getBytes(StandardCharsets.US_ASCII);
+    }
+}
@@ -2,9 +2,14 @@ package com.flash.app.config;
 
 import static tech.jhipster.config.logging.LoggingUtils.*;
 
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
 import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.spi.LoggerContextListener;
+import ch.qos.logback.core.spi.ContextAwareBase;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
 import java.util.HashMap;
 import java.util.Map;
 import org.slf4j.LoggerFactory;
@@ -27,7 +32,9 @@ public class LoggingConfiguration {
         @Value("${server.port}") String serverPort,
         JHipsterProperties jHipsterProperties,
         ObjectProvider<BuildProperties> buildProperties,
-        ObjectMapper mapper
+        ObjectMapper mapper,
+        ApplicationProperties applicationProperties,
+        ObjectProvider<MeterRegistry> meterRegistry
     ) throws JsonProcessingException {
         LoggerContext context = (LoggerContext) LoggerFactory.getILoggerFactory();
 
@@ -41,13 +48,93 @@ public class LoggingConfiguration {
         JHipsterProperties.Logging.Logstash logstashProperties = loggingProperties.getLogstash();
 
         if (loggingProperties.isUseJsonFormat()) {
-            addJsonConsoleAppender(context, customFields);
+            JsonConsoleAppender.replaceConsoleAppender(context, customFields);
         }
         if (logstashProperties.isEnabled()) {
             addLogstashTcpSocketAppender(context, customFields, logstashProperties);
         }
-        if (loggingProperties.isUseJsonFormat() || logstashProperties.isEnabled()) {
-            addContextListener(context, customFields, loggingProperties);
+        AsyncLogAppender asyncLogAppender = null;
+        ApplicationProperties.Logging.Async asyncProperties = applicationProperties.getLogging().getAsync();
+        if (asyncProperties.isEnabled()) {
+            asyncLogAppender = asyncLogAppender(asyncProperties);
+            asyncLogAppender.replaceConsoleAppender(context);
+            meterRegistry.ifAvailable(asyncLogAppender::bindTo);
+        }
+        if (loggingProperties.isUseJsonFormat() || logstashProperties.isEnabled() || asyncLogAppender != null) {
+            LogbackLoggerContextListener listener = new LogbackLoggerContextListener(loggingProperties, customFields, asyncLogAppender);
+            listener.setContext(context);
+            context.addListener(listener);
+        }
+    }
+
+    private static AsyncLogAppender asyncLogAppender(ApplicationProperties.Logging.Async asyncProperties) {
+        AsyncLogAppender appender = new AsyncLogAppender();
+        appender.setRingBufferSize(asyncProperties.getRingBufferSize());
+        appender.setMaxBatchSize(asyncProperties.getMaxBatchSize());
+        appender.setDebugDropThreshold(asyncProperties.getDebugDropThreshold());
+        appender.setBlockOnError(asyncProperties.isBlockOnError());
+        appender.setFile(asyncProperties.getFile());
+        appender.setCompress(asyncProperties.isCompress());
+        return appender;
+    }
+
+    /**
+     * Adds the appenders again when the logback configuration is reloaded, like the JHipster listener but with the
+     * {@link JsonConsoleAppender} and the {@link AsyncLogAppender}.
+     */
+    private static class LogbackLoggerContextListener extends ContextAwareBase implements LoggerContextListener {
+
+        private final JHipsterProperties.Logging loggingProperties;
+
+        private final String customFields;
+
+        private final AsyncLogAppender asyncLogAppender;
+
+        private LogbackLoggerContextListener(
+            JHipsterProperties.Logging loggingProperties,
+            String customFields,
+            AsyncLogAppender asyncLogAppender
+        ) {
+            this.loggingProperties = loggingProperties;
+            this.customFields = customFields;
+            this.asyncLogAppender = asyncLogAppender;
+        }
+
+        @Override
+        public boolean isResetResistant() {
+            return true;
+        }
+
+        @Override
+        public void onStart(LoggerContext context) {
+            addAppenders(context);
+        }
+
+        @Override
+        public void onReset(LoggerContext context) {
+            addAppenders(context);
+        }
+
+        @Override
+        public void onStop(LoggerContext context) {
+            // Nothing to do.
+        }
+
+        @Override
+        public void onLevelChange(Logger logger, Level level) {
+            // Nothing to do.
+        }
+
+        private void addAppenders(LoggerContext context) {
+            if (loggingProperties.isUseJsonFormat()) {
+                JsonConsoleAppender.replaceConsoleAppender(context, customFields);
+            }
+            if (loggingProperties.getLogstash().isEnabled()) {
+                addLogstashTcpSocketAppender(context, customFields, loggingProperties.getLogstash());
+            }
+            if (asyncLogAppender != null) {
+                asyncLogAppender.replaceConsoleAppender(context);
+            }
         }
     }
 }
@@ -0,0 +1,335 @@
+package com.flash.app.config;
+
+import com.mongodb.MongoClientSettings;
+import com.mongodb.MongoCompressor;
+import com.mongodb.connection.ServerId;
+import com.mongodb.event.CommandFailedEvent;
+import com.mongodb.event.CommandListener;
+import com.mongodb.event.CommandStartedEvent;
+import com.mongodb.event.CommandSucceededEvent;
+import com.mongodb.event.ConnectionCheckOutFailedEvent;
+import com.mongodb.event.ConnectionCheckOutStartedEvent;
+import com.mongodb.event.ConnectionCheckedOutEvent;
+import com.mongodb.event.ConnectionPoolListener;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import org.bson.BsonBinaryReader;
+import org.bson.BsonDocument;
+import org.bson.BsonReader;
+import org.bson.BsonValue;
+import org.bson.RawBsonDocument;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.mongo.MongoClientSettingsBuilderCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Tunes the blocking and reactive MongoDB clients from the {@code application.mongodb} properties, and instruments
+ * them with the meters that Spring Boot does not publish.
+ * <p>
+ * Spring Boot already times the commands in {@code mongodb.driver.commands} and gauges the pool size, checked out
+ * connections and waiting operations in {@code mongodb.driver.pool.*}. The listeners declared here add the time
+ * operations wait for a connection, the failed checkouts, the size of the commands and of their replies per command and
+ * collection, and log the commands slower than {@code application.mongodb.slow-command-threshold}.
+ */
+@Configuration
+public class MongoClientConfiguration {
+
+    @Bean
+    public MongoClientSettingsBuilderCustomizer mongoClientSettingsCustomizer(
+        ApplicationProperties applicationProperties,
+        MeterRegistry meterRegistry
+    ) {
+        ApplicationProperties.Mongodb mongodb = applicationProperties.getMongodb();
+        List<MongoCompressor> compressors = compressors(mongodb.getCompressors());
+        CommandMetrics commandMetrics = new CommandMetrics(meterRegistry, mongodb.getSlowCommandThreshold());
+        ConnectionCheckOutMetrics checkOutMetrics = new ConnectionCheckOutMetrics(meterRegistry);
+        return builder -> {
+            customize(builder, mongodb, compressors);
+            builder.addCommandListener(commandMetrics);
+            builder.applyToConnectionPoolSettings(pool -> pool.addConnectionPoolListener(checkOutMetrics));
+        };
+    }
+
+    /**
+     * Applies the properties that are set, after the connection string so that they take precedence over its options.
+     */
+    static void customize(MongoClientSettings.Builder builder, ApplicationProperties.Mongodb mongodb, List<MongoCompressor> compressors) {
+        ApplicationProperties.Mongodb.Pool pool = mongodb.getPool();
+        builder.applyToConnectionPoolSettings(settings -> {
+            if (pool.getMinSize() != null) {
+                settings.minSize(pool.getMinSize());
+            }
+            if (pool.getMaxSize() != null) {
+                settings.maxSize(pool.getMaxSize());
+            }
+            if (pool.getMaxWaitTime() != null) {
+                settings.maxWaitTime(pool.getMaxWaitTime().toMillis(), TimeUnit.MILLISECONDS);
+            }
+            if (pool.getMaxConnectionIdleTime() != null) {
+                settings.maxConnectionIdleTime(pool.getMaxConnectionIdleTime().toMillis(), TimeUnit.MILLISECONDS);
+            }
+            if (pool.getMaxConnectionLifeTime() != null) {
+                settings.maxConnectionLifeTime(pool.getMaxConnectionLifeTime().toMillis(), TimeUnit.MILLISECONDS);
+            }
+        });
+        ApplicationProperties.Mongodb.Socket socket = mongodb.getSocket();
+        builder.applyToSocketSettings(settings -> {
+            if (socket.getConnectTimeout() != null) {
+                settings.connectTimeout(Math.toIntExact(socket.getConnectTimeout().toMillis()), TimeUnit.MILLISECONDS);
+            }
+            if (socket.getReadTimeout() != null) {
+                settings.readTimeout(Math.toIntExact(socket.getReadTimeout().toMillis()), TimeUnit.MILLISECONDS);
+            }
+        });
+        if (!compressors.isEmpty()) {
+            builder.compressorList(compressors);
+        }
+    }
+
+    static List<MongoCompressor> compressors(List<String> names) {
+        List<MongoCompressor> compressors = new ArrayList<>(names.size());
+        for (String name : names) {
+            switch (name.trim().toLowerCase(Locale.ROOT)) {
+                case "zstd":
+                    compressors.add(MongoCompressor.createZstdCompressor());
+                    break;
+                case "snappy":
+                    compressors.add(MongoCompressor.createSnappyCompressor());
+                    break;
+                case "zlib":
+                    compressors.add(MongoCompressor.createZlibCompressor());
+                    break;
+                default:
+                    throw new IllegalArgumentException("Unknown MongoDB compressor '" + name + "', expected zstd, snappy or zlib");
+            }
+        }
+        return compressors;
+    }
+
+    /**
+     * Meters the size of the commands and of their replies, and logs the slow commands.
+     * <p>
+     * The sizes are those of the uncompressed BSON documents, read from their length prefix when the driver hands over
+     * the encoded bytes; the commands it rebuilds, like inserts and updates sending their documents apart, are not
+     * measured.
+     * <p>
+     * The {@code getMore}s of tailable cursors awaiting data, like those of change streams, block on the server until
+     * their {@code maxTimeMS} when nothing happens: they are never slow commands.
+     */
+    public static class CommandMetrics implements CommandListener {
+
+        private static final int MAX_IN_FLIGHT_COMMANDS = 1000;
+
+        private final Logger log = LoggerFactory.getLogger(CommandMetrics.class);
+
+        private final MeterRegistry registry;
+
+        private final long slowCommandThresholdNanos;
+
+        private final Map<Integer, InFlightCommand> inFlightCommands = new ConcurrentHashMap<>();
+
+        public CommandMetrics(MeterRegistry registry, Duration slowCommandThreshold) {
+            this.registry = registry;
+            this.slowCommandThresholdNanos = slowCommandThreshold.toNanos();
+        }
+
+        @Override
+        public void commandStarted(CommandStartedEvent event) {
+            String commandName = event.getCommandName();
+            String collection = collection(commandName, event.getCommand());
+            int size = size(event.getCommand());
+            if (size >= 0) {
+                summary("mongodb.driver.commands.request.size", "Size of the commands sent", commandName, collection).record(size);
+            }
+            boolean awaitData = isAwaitData(commandName, event.getCommand());
+            // the replies only carry the request id, which is bounded not to leak when events go missing; a change stream
+            // waiting for data is always tracked, not to be taken for a slow command
+            if (awaitData || inFlightCommands.size() < MAX_IN_FLIGHT_COMMANDS) {
+                inFlightCommands.put(event.getRequestId(), new InFlightCommand(event.getDatabaseName(), collection, awaitData));
+            }
+        }
+
+        @Override
+        public void commandSucceeded(CommandSucceededEvent event) {
+            InFlightCommand command = inFlightCommands.remove(event.getRequestId());
+            String collection = command == null ? "unknown" : command.collection;
+            int size = size(event.getResponse());
+            if (size >= 0) {
+                summary("mongodb.driver.commands.reply.size", "Size of the command replies", event.getCommandName(), collection)
+                    .record(size);
+            }
+            long elapsed = event.getElapsedTime(TimeUnit.NANOSECONDS);
+            if (elapsed >= slowCommandThresholdNanos && !isAwaitData(command)) {
+                slowCommand(event.getCommandName(), command, "succeeded");
+                log.warn(
+                    "Slow MongoDB command {} on {}.{} took {} ms on {}",
+                    event.getCommandName(),
+                    command == null ? "unknown" : command.database,
+                    collection,
+                    TimeUnit.NANOSECONDS.toMillis(elapsed),
+                    event.getConnectionDescription().getServerAddress()
+                );
+            }
+        }
+
+        @Override
+        public void commandFailed(CommandFailedEvent event) {
+            InFlightCommand command = inFlightCommands.remove(event.getRequestId());
+            long elapsed = event.getElapsedTime(TimeUnit.NANOSECONDS);
+            if (elapsed >= slowCommandThresholdNanos && !isAwaitData(command)) {
+                slowCommand(event.getCommandName(), command, "failed");
+                log.warn(
+                    "Slow MongoDB command {} on {}.{} failed after {} ms on {}: {}",
+                    event.getCommandName(),
+                    command == null ? "unknown" : command.database,
+                    command == null ? "unknown" : command.collection,
+                    TimeUnit.NANOSECONDS.toMillis(elapsed),
+                    event.getConnectionDescription().getServerAddress(),
+                    event.getThrowable().toString()
+                );
+            }
+        }
+
+        private void slowCommand(String commandName, InFlightCommand command, String status) {
+            Counter
+                .builder("mongodb.driver.commands.slow")
+                .description("Commands slower than the threshold")
+                .tags(Tags.of("command", commandName, "collection", command == null ? "unknown" : command.collection, "status", status))
+                .register(registry)
+                .increment();
+        }
+
+        private DistributionSummary summary(String name, String description, String commandName, String collection) {
+            return DistributionSummary
+                .builder(name)
+                .description(description)
+                .baseUnit("bytes")
+                .tags(Tags.of("command", commandName, "collection", collection))
+                .register(registry);
+        }
+
+        /**
+         * The collection is the value of the command name for most commands, or of the {@code collection} field for
+         * {@code getMore}.
+         */
+        static String collection(String commandName, BsonDocument command) {
+            BsonValue value = command.get(commandName);
+            if (value == null || !value.isString()) {
+                value = command.get("collection");
+            }
+            return value != null && value.isString() ? value.asString().getValue() : "none";
+        }
+
+        /**
+         * The server only accepts a {@code maxTimeMS} on the {@code getMore}s of tailable cursors awaiting data, where it
+         * bounds the wait for new data.
+         */
+        static boolean isAwaitData(String commandName, BsonDocument command) {
+            return "getMore".equals(commandName) && command.containsKey("maxTimeMS");
+        }
+
+        private static boolean isAwaitData(InFlightCommand command) {
+            return command != null && command.awaitData;
+        }
+
+        /**
+         * @return the size of the encoded document, or -1 if the document is not backed by its bytes.
+         */
+        static int size(BsonDocument document) {
+            if (document instanceof RawBsonDocument) {
+                return ((RawBsonDocument) document).getByteBuffer().remaining();
+            }
+            try (BsonReader reader = document.asBsonReader()) {
+                // a document starts with its size, this reads it without walking the document
+                return reader instanceof BsonBinaryReader ? ((BsonBinaryReader) reader).getBsonInput().readInt32() : -1;
+            }
+        }
+
+        private static class InFlightCommand {
+
+            private final String database;
+
+            private final String collection;
+
+            private final boolean awaitData;
+
+            InFlightCommand(String database, String collection, boolean awaitData) {
+                this.database = database;
+                this.collection = collection;
+                this.awaitData = awaitData;
+            }
+        }
+    }
+
+    /**
+     * Times how long operations wait for a pooled connection, and counts the checkouts that fail.
+     * <p>
+     * The wait is only timed when the checkout starts and completes on the same thread, as with the blocking client;
+     * checkouts of the reactive client completing on a driver thread are not timed, but their failures are counted.
+     */
+    public static class ConnectionCheckOutMetrics implements ConnectionPoolListener {
+
+        private final MeterRegistry registry;
+
+        private final ThreadLocal<long[]> checkOutStart = ThreadLocal.withInitial(() -> new long[1]);
+
+        private final Map<ServerId, Timer> waitTimers = new ConcurrentHashMap<>();
+
+        public ConnectionCheckOutMetrics(MeterRegistry registry) {
+            this.registry = registry;
+        }
+
+        @Override
+        public void connectionCheckOutStarted(ConnectionCheckOutStartedEvent event) {
+            checkOutStart.get()[0] = System.nanoTime();
+        }
+
+        @Override
+        public void connectionCheckedOut(ConnectionCheckedOutEvent event) {
+            long start = takeStart();
+            if (start != 0) {
+                waitTimers
+                    .computeIfAbsent(event.getConnectionId().getServerId(), this::waitTimer)
+                    .record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            }
+        }
+
+        @Override
+        public void connectionCheckOutFailed(ConnectionCheckOutFailedEvent event) {
+            takeStart();
+            Counter
+                .builder("mongodb.driver.pool.checkout.failed")
+                .description("Operations that could not get a connection from the pool")
+                .tags(Tags.of("server.address", event.getServerId().getAddress().toString()))
+                .register(registry)
+                .increment();
+        }
+
+        private long takeStart() {
+            long[] start = checkOutStart.get();
+            long value = start[0];
+            start[0] = 0;
+            return value;
+        }
+
+        private Timer waitTimer(ServerId serverId) {
+            return Timer
+                .builder("mongodb.driver.pool.checkout.wait")
+                .description("Time operations waited for a connection from the pool")
+                .tags(Tags.of("server.address", serverId.getAddress().toString()))
+                .register(registry);
+        }
+    }
+}
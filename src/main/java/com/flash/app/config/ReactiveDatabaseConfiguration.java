@@ -0,0 +1,19 @@
+package com.flash.app.config;
+
+import org.springframework.boot.autoconfigure.data.mongo.MongoReactiveDataAutoConfiguration;
+import org.springframework.boot.autoconfigure.mongo.MongoReactiveAutoConfiguration;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Import;
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.mongodb.repository.config.EnableReactiveMongoRepositories;
+
+/**
+ * Reactive MongoDB client and repositories, only created by the {@link Constants#SPRING_PROFILE_REACTIVE} profile so that
+ * the blocking mode does not open a second connection pool. Their auto-configurations are excluded in
+ * {@code application.yml}.
+ */
+@Configuration
+@Profile(Constants.SPRING_PROFILE_REACTIVE)
+@EnableReactiveMongoRepositories("com.flash.app.repository")
+@Import(value = { MongoReactiveAutoConfiguration.class, MongoReactiveDataAutoConfiguration.class })
+public class ReactiveDatabaseConfiguration {}
@@ -0,0 +1,28 @@
+package com.flash.app.config;
+
+import net.javacrumbs.shedlock.core.LockProvider;
+import net.javacrumbs.shedlock.provider.mongo.MongoLockProvider;
+import net.javacrumbs.shedlock.spring.annotation.EnableSchedulerLock;
+import net.javacrumbs.shedlock.spring.annotation.EnableSchedulerLock.InterceptMode;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.mongodb.core.MongoTemplate;
+
+/**
+ * Locks of the scheduled tasks that must run on a single instance at a time, held as documents of the
+ * {@value #LOCK_COLLECTION} collection.
+ * <p>
+ * Only the runs triggered by the scheduler are locked, calling the tasks directly runs them. A lock expires after the
+ * {@code lockAtMostFor} of its task, so that the task runs again if the instance holding it died.
+ */
+@Configuration
+@EnableSchedulerLock(interceptMode = InterceptMode.PROXY_SCHEDULER, defaultLockAtMostFor = "PT30M")
+public class SchedulerLockConfiguration {
+
+    public static final String LOCK_COLLECTION = "scheduled_lock";
+
+    @Bean
+    public LockProvider lockProvider(MongoTemplate mongoTemplate) {
+        return new MongoLockProvider(mongoTemplate.getCollection(LOCK_COLLECTION));
+    }
+}
@@ -0,0 +1,24 @@
+package com.flash.app.config;
+
+import com.flash.app.aop.timing.TimingAspect;
+import com.flash.app.aop.timing.TimingEndpoint;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.EnableAspectJAutoProxy;
+
+@Configuration
+@EnableAspectJAutoProxy
+public class TimingAspectConfiguration {
+
+    @Bean
+    public TimingAspect timingAspect(MeterRegistry meterRegistry, ApplicationProperties applicationProperties) {
+        ApplicationProperties.Timing timing = applicationProperties.getTiming();
+        return new TimingAspect(meterRegistry, timing.isEnabled(), timing.getSampleRate());
+    }
+
+    @Bean
+    public TimingEndpoint timingEndpoint(TimingAspect timingAspect) {
+        return new TimingEndpoint(timingAspect);
+    }
+}
@@ -0,0 +1,127 @@
+package com.flash.app.config;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.undertow.UndertowOptions;
+import java.lang.management.ManagementFactory;
+import java.util.function.ToDoubleFunction;
+import javax.management.JMX;
+import javax.management.MBeanServer;
+import javax.management.MalformedObjectNameException;
+import javax.management.ObjectName;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationStartedEvent;
+import org.springframework.boot.web.embedded.undertow.UndertowServletWebServerFactory;
+import org.springframework.boot.web.server.WebServerFactoryCustomizer;
+import org.springframework.context.ApplicationListener;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.xnio.management.XnioServerMXBean;
+import org.xnio.management.XnioWorkerMXBean;
+
+/**
+ * HTTP/2 settings and metrics of the embedded Undertow server.
+ * <p>
+ * {@code server.http2.enabled} turns on HTTP/2 negotiated by ALPN (h2) on TLS listeners, and by upgrade or prior
+ * knowledge (h2c) on clear text ones. The IO and worker threads and the buffers are sized by the
+ * {@code server.undertow} properties, from the {@code undertow.*} gauges.
+ */
+@Configuration
+public class UndertowConfiguration {
+
+    /**
+     * The worker executor of XNIO only counts its busy threads when this property is set before its class is loaded.
+     */
+    static final String ACTIVE_COUNT_PROPERTY = "jboss.threads.eqe.statistics.active-count";
+
+    /**
+     * Makes the worker executor count its busy threads, for the {@code undertow.worker.threads.busy} gauge, unless
+     * the property was set on the command line. Must be called before the Spring application starts, since the
+     * property is read once when the executor class is loaded.
+     */
+    public static void enableWorkerStatistics() {
+        if (System.getProperty(ACTIVE_COUNT_PROPERTY) == null) {
+            System.setProperty(ACTIVE_COUNT_PROPERTY, "true");
+        }
+    }
+
+    @Bean
+    public WebServerFactoryCustomizer<UndertowServletWebServerFactory> undertowCustomizer(ApplicationProperties applicationProperties) {
+        int maxConcurrentStreams = applicationProperties.getUndertow().getMaxConcurrentStreams();
+        return factory ->
+            factory.addBuilderCustomizers(builder ->
+                builder.setServerOption(UndertowOptions.HTTP2_SETTINGS_MAX_CONCURRENT_STREAMS, maxConcurrentStreams)
+            );
+    }
+
+    @Bean
+    public UndertowMetrics undertowMetrics(MeterRegistry meterRegistry) {
+        return new UndertowMetrics(meterRegistry);
+    }
+
+    /**
+     * Meters of the XNIO workers and listeners of Undertow, read from the MXBeans XNIO registers once the server has
+     * started.
+     * <p>
+     * A worker saturates when all its threads are busy and tasks queue up; with virtual threads, requests no longer
+     * run on the worker threads and only the connections are meaningful.
+     */
+    public static class UndertowMetrics implements ApplicationListener<ApplicationStartedEvent> {
+
+        private static final String XNIO_MBEANS = "org.xnio:type=Xnio,*";
+
+        private final Logger log = LoggerFactory.getLogger(UndertowMetrics.class);
+
+        private final MeterRegistry registry;
+
+        public UndertowMetrics(MeterRegistry registry) {
+            this.registry = registry;
+        }
+
+        @Override
+        public void onApplicationEvent(ApplicationStartedEvent event) {
+            MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+            try {
+                for (ObjectName name : server.queryNames(new ObjectName(XNIO_MBEANS), null)) {
+                    String worker = keyProperty(name, "worker");
+                    String address = keyProperty(name, "address");
+                    if (worker == null) {
+                        continue;
+                    }
+                    if (address == null) {
+                        bindWorker(JMX.newMXBeanProxy(server, name, XnioWorkerMXBean.class), Tags.of("worker", worker));
+                    } else {
+                        XnioServerMXBean listener = JMX.newMXBeanProxy(server, name, XnioServerMXBean.class);
+                        bindListener(listener, Tags.of("worker", worker, "address", address));
+                    }
+                }
+            } catch (MalformedObjectNameException | RuntimeException e) {
+                log.warn("Cannot read the Undertow workers, their metrics are not recorded: {}", e.toString());
+            }
+        }
+
+        private void bindWorker(XnioWorkerMXBean worker, Tags tags) {
+            gauge("undertow.worker.threads.busy", "Worker threads running tasks", worker, XnioWorkerMXBean::getBusyWorkerThreadCount, tags);
+            gauge("undertow.worker.threads", "Worker threads started", worker, XnioWorkerMXBean::getWorkerPoolSize, tags);
+            gauge("undertow.worker.threads.max", "Maximum number of worker threads", worker, XnioWorkerMXBean::getMaxWorkerPoolSize, tags);
+            gauge("undertow.worker.queue.size", "Tasks waiting for a worker thread", worker, XnioWorkerMXBean::getWorkerQueueSize, tags);
+            gauge("undertow.io.threads", "IO threads of the worker", worker, XnioWorkerMXBean::getIoThreadCount, tags);
+        }
+
+        private void bindListener(XnioServerMXBean listener, Tags tags) {
+            gauge("undertow.connections.active", "Open connections of the listener", listener, XnioServerMXBean::getConnectionCount, tags);
+        }
+
+        private <T> void gauge(String name, String description, T bean, ToDoubleFunction<T> value, Tags tags) {
+            // the gauges would otherwise only hold the MXBean proxies weakly
+            Gauge.builder(name, bean, value).description(description).tags(tags).strongReference(true).register(registry);
+        }
+
+        private static String keyProperty(ObjectName name, String key) {
+            String value = name.getKeyProperty(key);
+            return value != null && value.startsWith("\"") ? ObjectName.unquote(value) : value;
+        }
+    }
+}
@@ -0,0 +1,43 @@
+package com.flash.app.config;
+
+import java.lang.reflect.InvocationTargetException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ThreadFactory;
+
+/**
+ * Creates virtual threads, which are only available from Java 21 while the application is built for Java 11, so they
+ * are looked up by reflection.
+ */
+final class VirtualThreadSupport {
+
+    private VirtualThreadSupport() {}
+
+    /**
+     * @param prefix the prefix of the thread names, followed by a counter.
+     * @return a factory of virtual threads.
+     * @throws IllegalStateException if the running JVM does not support virtual threads.
+     */
+    static ThreadFactory factory(String prefix) {
+        try {
+            Object builder = Thread.class.getMethod("ofVirtual").invoke(null);
+            Class<?> builderType = Class.forName("java.lang.Thread$Builder");
+            builder = builderType.getMethod("name", String.class, long.class).invoke(builder, prefix, 0L);
+            return (ThreadFactory) builderType.getMethod("factory").invoke(builder);
+        } catch (NoSuchMethodException | ClassNotFoundException | IllegalAccessException | InvocationTargetException e) {
+            throw new IllegalStateException(
+                "Virtual threads need Java 21, they are not available on Java " + Runtime.version().feature(),
+                e
+            );
+        }
+    }
+
+    /**
+     * @param prefix the prefix of the thread names, followed by a counter.
+     * @return an executor running each task on a new virtual thread.
+     * @throws IllegalStateException if the running JVM does not support virtual threads.
+     */
+    static Executor executor(String prefix) {
+        ThreadFactory factory = factory(prefix);
+        return task -> factory.newThread(task).start();
+    }
+}
@@ -0,0 +1,103 @@
+package com.flash.app.config;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import java.lang.reflect.Method;
+import java.time.Duration;
+import java.util.concurrent.Executor;
+import java.util.function.Consumer;
+import jdk.jfr.EventSettings;
+import jdk.jfr.consumer.RecordedEvent;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.embedded.undertow.UndertowServletWebServerFactory;
+import org.springframework.boot.web.server.WebServerFactoryCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Runs Undertow servlet requests on virtual threads, so that blocking MongoDB and Feign calls no longer cap the number
+ * of concurrent requests at the size of the worker pool. The {@code @Async} executor switches to virtual threads in
+ * {@link AsyncConfiguration}.
+ * <p>
+ * A virtual thread blocking inside a {@code synchronized} block or a native frame stays pinned to its carrier thread,
+ * which then serves no other request; the {@code jvm.threads.virtual.pinned} timer records these pinnings from JFR.
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "application.virtual-threads", name = "enabled", havingValue = "true")
+public class VirtualThreadsConfiguration {
+
+    private final Logger log = LoggerFactory.getLogger(VirtualThreadsConfiguration.class);
+
+    @Bean
+    public WebServerFactoryCustomizer<UndertowServletWebServerFactory> virtualThreadsUndertowCustomizer() {
+        Executor executor = VirtualThreadSupport.executor("undertow-virtual-");
+        log.info("Undertow requests run on virtual threads");
+        // the I/O threads accept and parse requests, servlet dispatches and async tasks then run on virtual threads
+        return factory ->
+            factory.addDeploymentInfoCustomizers(deploymentInfo -> deploymentInfo.setExecutor(executor).setAsyncExecutor(executor));
+    }
+
+    @Bean
+    public VirtualThreadPinningMetrics virtualThreadPinningMetrics(ApplicationProperties applicationProperties) {
+        return new VirtualThreadPinningMetrics(applicationProperties.getVirtualThreads().getPinnedThreshold());
+    }
+
+    /**
+     * Meters of the virtual thread JFR events, read from an in-process recording stream.
+     */
+    public static class VirtualThreadPinningMetrics implements MeterBinder, DisposableBean {
+
+        private static final String PINNED_EVENT = "jdk.VirtualThreadPinned";
+
+        private static final String SUBMIT_FAILED_EVENT = "jdk.VirtualThreadSubmitFailed";
+
+        private final Logger log = LoggerFactory.getLogger(VirtualThreadPinningMetrics.class);
+
+        private final Duration pinnedThreshold;
+
+        private AutoCloseable recordingStream;
+
+        public VirtualThreadPinningMetrics(Duration pinnedThreshold) {
+            this.pinnedThreshold = pinnedThreshold;
+        }
+
+        @Override
+        public void bindTo(MeterRegistry registry) {
+            Timer pinned = Timer
+                .builder("jvm.threads.virtual.pinned")
+                .description("Time virtual threads stayed pinned to their carrier thread while blocked")
+                .register(registry);
+            Counter submitFailed = Counter
+                .builder("jvm.threads.virtual.submit.failed")
+                .description("Virtual threads that could not be started or unparked")
+                .register(registry);
+            try {
+                // RecordingStream is Java 14+, the application is built for Java 11
+                Class<?> type = Class.forName("jdk.jfr.consumer.RecordingStream");
+                Object stream = type.getConstructor().newInstance();
+                Method enable = type.getMethod("enable", String.class);
+                Method onEvent = type.getMethod("onEvent", String.class, Consumer.class);
+                ((EventSettings) enable.invoke(stream, PINNED_EVENT)).withThreshold(pinnedThreshold).withStackTrace();
+                enable.invoke(stream, SUBMIT_FAILED_EVENT);
+                onEvent.invoke(stream, PINNED_EVENT, (Consumer<RecordedEvent>) event -> pinned.record(event.getDuration()));
+                onEvent.invoke(stream, SUBMIT_FAILED_EVENT, (Consumer<RecordedEvent>) event -> submitFailed.increment());
+                type.getMethod("startAsync").invoke(stream);
+                recordingStream = (AutoCloseable) stream;
+            } catch (ReflectiveOperationException | RuntimeException e) {
+                log.warn("Cannot record virtual thread pinning, its metrics stay at zero: {}", e.toString());
+            }
+        }
+
+        @Override
+        public void destroy() throws Exception {
+            if (recordingStream != null) {
+                recordingStream.close();
+            }
+        }
+    }
+}
@@ -0,0 +1,44 @@
+package com.flash.app.config.dbmigrations;
+
+import com.flash.app.domain.Pc;
+import io.mongock.api.annotations.ChangeUnit;
+import io.mongock.api.annotations.Execution;
+import io.mongock.api.annotations.RollbackExecution;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.Index;
+import org.springframework.data.mongodb.core.index.IndexOperations;
+
+/**
+ * Creates the indexes of the {@link Pc} filters on {@code make} or {@code model} sorted by {@code _id}.
+ * <p>
+ * The indexes of {@link PcIndexesMigration} put {@code price} between the equality and {@code _id}, so a page sorted by
+ * {@code _id} could only be read from them with an in-memory sort of every matching pc.
+ */
+@ChangeUnit(id = "pc-id-order-indexes", order = "004")
+public class PcIdOrderIndexesMigration {
+
+    private static final String MAKE_ID_INDEX = "make_id";
+
+    private static final String MODEL_ID_INDEX = "model_id";
+
+    private final MongoTemplate template;
+
+    public PcIdOrderIndexesMigration(MongoTemplate template) {
+        this.template = template;
+    }
+
+    @Execution
+    public void changeSet() {
+        IndexOperations indexOperations = template.indexOps(Pc.class);
+        indexOperations.ensureIndex(new Index().on("make", Sort.Direction.ASC).on("_id", Sort.Direction.ASC).named(MAKE_ID_INDEX));
+        indexOperations.ensureIndex(new Index().on("model", Sort.Direction.ASC).on("_id", Sort.Direction.ASC).named(MODEL_ID_INDEX));
+    }
+
+    @RollbackExecution
+    public void rollback() {
+        IndexOperations indexOperations = template.indexOps(Pc.class);
+        indexOperations.dropIndex(MAKE_ID_INDEX);
+        indexOperations.dropIndex(MODEL_ID_INDEX);
+    }
+}
@@ -0,0 +1,54 @@
+package com.flash.app.config.dbmigrations;
+
+import com.flash.app.domain.Pc;
+import io.mongock.api.annotations.ChangeUnit;
+import io.mongock.api.annotations.Execution;
+import io.mongock.api.annotations.RollbackExecution;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.Index;
+import org.springframework.data.mongodb.core.index.IndexOperations;
+
+/**
+ * Creates the indexes of the {@link Pc} filters.
+ * <p>
+ * Every index ends with the keyset ordering by price, {@code price} then {@code _id}, so that an equality filter
+ * followed by a price range and a keyset page sorted by price is a single index range scan, in either direction,
+ * without an in-memory sort. The pages filtered by make or model and sorted by {@code _id} are served by the indexes of
+ * {@link PcIdOrderIndexesMigration}.
+ */
+@ChangeUnit(id = "pc-indexes", order = "002")
+public class PcIndexesMigration {
+
+    private static final String MAKE_PRICE_INDEX = "make_price";
+
+    private static final String MODEL_PRICE_INDEX = "model_price";
+
+    private static final String PRICE_INDEX = "price";
+
+    private final MongoTemplate template;
+
+    public PcIndexesMigration(MongoTemplate template) {
+        this.template = template;
+    }
+
+    @Execution
+    public void changeSet() {
+        IndexOperations indexOperations = template.indexOps(Pc.class);
+        indexOperations.ensureIndex(
+            new Index().on("make", Sort.Direction.ASC).on("price", Sort.Direction.ASC).on("_id", Sort.Direction.ASC).named(MAKE_PRICE_INDEX)
+        );
+        indexOperations.ensureIndex(
+            new Index().on("model", Sort.Direction.ASC).on("price", Sort.Direction.ASC).on("_id", Sort.Direction.ASC).named(MODEL_PRICE_INDEX)
+        );
+        indexOperations.ensureIndex(new Index().on("price", Sort.Direction.ASC).on("_id", Sort.Direction.ASC).named(PRICE_INDEX));
+    }
+
+    @RollbackExecution
+    public void rollback() {
+        IndexOperations indexOperations = template.indexOps(Pc.class);
+        indexOperations.dropIndex(MAKE_PRICE_INDEX);
+        indexOperations.dropIndex(MODEL_PRICE_INDEX);
+        indexOperations.dropIndex(PRICE_INDEX);
+    }
+}
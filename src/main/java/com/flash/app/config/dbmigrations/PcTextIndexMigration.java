@@ -0,0 +1,43 @@
+package com.flash.app.config.dbmigrations;
+
+import com.flash.app.domain.Pc;
+import io.mongock.api.annotations.ChangeUnit;
+import io.mongock.api.annotations.Execution;
+import io.mongock.api.annotations.RollbackExecution;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.TextIndexDefinition;
+
+/**
+ * Creates the text index of the {@link Pc} search on {@code make} and {@code model}.
+ * <p>
+ * Makes and models are product names rather than prose, so they are indexed without language: words are neither
+ * stemmed nor dropped as stop words.
+ */
+@ChangeUnit(id = "pc-text-index", order = "003")
+public class PcTextIndexMigration {
+
+    private static final String TEXT_INDEX = "make_model_text";
+
+    private final MongoTemplate template;
+
+    public PcTextIndexMigration(MongoTemplate template) {
+        this.template = template;
+    }
+
+    @Execution
+    public void changeSet() {
+        TextIndexDefinition index = TextIndexDefinition
+            .builder()
+            .onField("make")
+            .onField("model")
+            .withDefaultLanguage("none")
+            .named(TEXT_INDEX)
+            .build();
+        template.indexOps(Pc.class).ensureIndex(index);
+    }
+
+    @RollbackExecution
+    public void rollback() {
+        template.indexOps(Pc.class).dropIndex(TEXT_INDEX);
+    }
+}
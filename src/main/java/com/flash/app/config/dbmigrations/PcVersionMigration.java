@@ -0,0 +1,31 @@
+package com.flash.app.config.dbmigrations;
+
+import com.flash.app.domain.Pc;
+import io.mongock.api.annotations.ChangeUnit;
+import io.mongock.api.annotations.Execution;
+import io.mongock.api.annotations.RollbackExecution;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+/**
+ * Sets the initial version of the pcs created before {@link Pc} was versioned, so that they get an ETag.
+ */
+@ChangeUnit(id = "pc-version", order = "001")
+public class PcVersionMigration {
+
+    private final MongoTemplate template;
+
+    public PcVersionMigration(MongoTemplate template) {
+        this.template = template;
+    }
+
+    @Execution
+    public void changeSet() {
+        template.updateMulti(new Query(Criteria.where("version").exists(false)), new Update().set("version", 0L), Pc.class);
+    }
+
+    @RollbackExecution
+    public void rollback() {}
+}
@@ -0,0 +1,43 @@
+package com.flash.app.config.dbmigrations;
+
+import com.flash.app.service.PcChangeStreamListener;
+import io.mongock.api.annotations.ChangeUnit;
+import io.mongock.api.annotations.Execution;
+import io.mongock.api.annotations.RollbackExecution;
+import java.time.Duration;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.Index;
+
+/**
+ * Expires the change stream resume tokens that were not saved for a week.
+ * <p>
+ * Each instance saves its token under its own consumer ID, which changes when the instance is replaced, so the tokens of
+ * the instances that are gone would otherwise stay forever. A token that old has fallen off any usual oplog window and
+ * could not be resumed from anyway.
+ */
+@ChangeUnit(id = "resume-token-ttl", order = "005")
+public class ResumeTokenTtlMigration {
+
+    private static final String SAVED_AT_TTL_INDEX = "saved_at_ttl";
+
+    private static final Duration TOKEN_TTL = Duration.ofDays(7);
+
+    private final MongoTemplate template;
+
+    public ResumeTokenTtlMigration(MongoTemplate template) {
+        this.template = template;
+    }
+
+    @Execution
+    public void changeSet() {
+        template
+            .indexOps(PcChangeStreamListener.RESUME_TOKEN_COLLECTION)
+            .ensureIndex(new Index().on("savedAt", Sort.Direction.ASC).expire(TOKEN_TTL).named(SAVED_AT_TTL_INDEX));
+    }
+
+    @RollbackExecution
+    public void rollback() {
+        template.indexOps(PcChangeStreamListener.RESUME_TOKEN_COLLECTION).dropIndex(SAVED_AT_TTL_INDEX);
+    }
+}
@@ -2,6 +2,7 @@ package com.flash.app.domain;
 
 import java.io.Serializable;
 import org.springframework.data.annotation.Id;
+import org.springframework.data.annotation.Version;
 import org.springframework.data.mongodb.core.mapping.Document;
 import org.springframework.data.mongodb.core.mapping.Field;
 
@@ -26,6 +27,10 @@ public class Pc implements Serializable {
     @Field("price")
     private Integer price;
 
+    @Version
+    @Field("version")
+    private Long version;
+
     // jhipster-needle-entity-add-field - JHipster will add fields here
 
     public String getId() {
@@ -80,6 +85,19 @@ public class Pc implements Serializable {
         this.price = price;
     }
 
+    public Long getVersion() {
+        return this.version;
+    }
+
+    public Pc version(Long version) {
+        this.setVersion(version);
+        return this;
+    }
+
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+
     // jhipster-needle-entity-add-getters-setters - JHipster will add getters and setters here
 
     @Override
@@ -107,6 +125,7 @@ public class Pc implements Serializable {
             ", make='" + getMake() + "'" +
             ", model='" + getModel() + "'" +
             ", price=" + getPrice() +
+            ", version=" + getVersion() +
             "}";
     }
 }
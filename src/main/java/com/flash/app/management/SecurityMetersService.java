@@ -1,7 +1,9 @@
 package com.flash.app.management;
 
+import com.github.benmanes.caffeine.cache.Cache;
 import io.micrometer.core.instrument.Counter;
 import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
 import org.springframework.stereotype.Service;
 
 @Service
@@ -12,6 +14,9 @@ public class SecurityMetersService {
         "Indicates validation error count of the tokens presented by the clients.";
     public static final String INVALID_TOKENS_METER_BASE_UNIT = "errors";
     public static final String INVALID_TOKENS_METER_CAUSE_DIMENSION = "cause";
+    public static final String AUTHENTICATION_CACHE_NAME = "jwtAuthentications";
+
+    private final MeterRegistry registry;
 
     private final Counter tokenInvalidSignatureCounter;
     private final Counter tokenExpiredCounter;
@@ -19,6 +24,7 @@ public class SecurityMetersService {
     private final Counter tokenMalformedCounter;
 
     public SecurityMetersService(MeterRegistry registry) {
+        this.registry = registry;
         this.tokenInvalidSignatureCounter = invalidTokensCounterForCauseBuilder("invalid-signature").register(registry);
         this.tokenExpiredCounter = invalidTokensCounterForCauseBuilder("expired").register(registry);
         this.tokenUnsupportedCounter = invalidTokensCounterForCauseBuilder("unsupported").register(registry);
@@ -48,4 +54,14 @@ public class SecurityMetersService {
     public void trackTokenMalformed() {
         this.tokenMalformedCounter.increment();
     }
+
+    /**
+     * Meters the cache of verified tokens, whose {@code cache.gets} hits and misses give the rate of requests that
+     * skip the token verification.
+     *
+     * @param cache the cache of verified tokens.
+     */
+    public void monitorAuthenticationCache(Cache<?, ?> cache) {
+        CaffeineCacheMetrics.monitor(registry, cache, AUTHENTICATION_CACHE_NAME);
+    }
 }
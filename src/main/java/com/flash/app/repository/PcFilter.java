@@ -0,0 +1,95 @@
+package com.flash.app.repository;
+
+import com.flash.app.domain.Pc;
+import java.util.Objects;
+
+/**
+ * Field filters of a {@link Pc} query, each of them optional.
+ * <p>
+ * Equality on {@code make} or {@code model} and a range on {@code price} are backed by the compound indexes created by
+ * {@link com.flash.app.config.dbmigrations.PcIndexesMigration}, which also cover the keyset ordering by price. Equality
+ * on {@code make} or {@code model} with the keyset ordering by {@code _id} is backed by the indexes created by
+ * {@link com.flash.app.config.dbmigrations.PcIdOrderIndexesMigration}; a price range with that ordering is not.
+ */
+public final class PcFilter {
+
+    private static final PcFilter NONE = new PcFilter(null, null, null, null);
+
+    private final String make;
+
+    private final String model;
+
+    private final Integer priceMin;
+
+    private final Integer priceMax;
+
+    public PcFilter(String make, String model, Integer priceMin, Integer priceMax) {
+        this.make = make;
+        this.model = model;
+        this.priceMin = priceMin;
+        this.priceMax = priceMax;
+    }
+
+    /**
+     * @return the filter matching every pc.
+     */
+    public static PcFilter none() {
+        return NONE;
+    }
+
+    public String getMake() {
+        return make;
+    }
+
+    public String getModel() {
+        return model;
+    }
+
+    public Integer getPriceMin() {
+        return priceMin;
+    }
+
+    public Integer getPriceMax() {
+        return priceMax;
+    }
+
+    /**
+     * @return true if this filter matches every pc.
+     */
+    public boolean isEmpty() {
+        return make == null && model == null && priceMin == null && priceMax == null;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof PcFilter)) {
+            return false;
+        }
+        PcFilter other = (PcFilter) o;
+        return (
+            Objects.equals(make, other.make) &&
+            Objects.equals(model, other.model) &&
+            Objects.equals(priceMin, other.priceMin) &&
+            Objects.equals(priceMax, other.priceMax)
+        );
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(make, model, priceMin, priceMax);
+    }
+
+    // prettier-ignore
+    @Override
+    public String toString() {
+        return "PcFilter{" +
+            "make='" + make + "'" +
+            ", model='" + model + "'" +
+            ", priceMin=" + priceMin +
+            ", priceMax=" + priceMax +
+            "}";
+    }
+}
@@ -0,0 +1,174 @@
+package com.flash.app.repository;
+
+import com.flash.app.domain.Pc;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.Objects;
+import org.springframework.data.domain.Sort;
+
+/**
+ * Position of a keyset (cursor) page over the {@link Pc} collection.
+ * <p>
+ * A keyset is ordered by one sort property and then by {@code _id} as a tie-breaker, so that resuming after the last
+ * element of a page is a single indexed range query whatever the page number. The {@link #encode() encoded} form is
+ * opaque to clients and is what goes into the {@code next} link of a page.
+ */
+public final class PcKeyset {
+
+    public static final String ID = "id";
+
+    public static final String PRICE = "price";
+
+    private static final String SEPARATOR = ":";
+
+    private final String property;
+
+    private final Sort.Direction direction;
+
+    private final Object value;
+
+    private final String id;
+
+    private PcKeyset(String property, Sort.Direction direction, Object value, String id) {
+        this.property = property;
+        this.direction = direction;
+        this.value = value;
+        this.id = id;
+    }
+
+    /**
+     * Creates the keyset of the first page for the given ordering.
+     *
+     * @param property the sort property, either {@value #ID} or {@value #PRICE}.
+     * @param direction the sort direction.
+     * @return the keyset positioned before the first element.
+     * @throws IllegalArgumentException if the property cannot be used as a keyset.
+     */
+    public static PcKeyset first(String property, Sort.Direction direction) {
+        if (!isSortable(property)) {
+            throw new IllegalArgumentException("Unsupported keyset property: " + property);
+        }
+        return new PcKeyset(property, direction, null, null);
+    }
+
+    /**
+     * Checks whether the given property can order a keyset.
+     *
+     * @param property the sort property.
+     * @return true if pages can be ordered by this property.
+     */
+    public static boolean isSortable(String property) {
+        return ID.equals(property) || PRICE.equals(property);
+    }
+
+    /**
+     * Decodes a cursor previously produced by {@link #encode()}.
+     *
+     * @param cursor the opaque cursor.
+     * @return the decoded keyset.
+     * @throws IllegalArgumentException if the cursor is not a valid keyset.
+     */
+    public static PcKeyset decode(String cursor) {
+        String decoded = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+        String[] parts = decoded.split(SEPARATOR, 4);
+        if (parts.length != 4 || !isSortable(parts[0]) || parts[3].isEmpty()) {
+            throw new IllegalArgumentException("Invalid cursor: " + cursor);
+        }
+        Sort.Direction direction = Sort.Direction.fromString(parts[1]);
+        return new PcKeyset(parts[0], direction, decodeValue(parts[2]), parts[3]);
+    }
+
+    /**
+     * Returns the keyset positioned right after the given pc, keeping the current ordering.
+     *
+     * @param last the last pc of the current page.
+     * @return the keyset of the next page.
+     */
+    public PcKeyset after(Pc last) {
+        Object lastValue = PRICE.equals(property) ? last.getPrice() : null;
+        return new PcKeyset(property, direction, lastValue, last.getId());
+    }
+
+    /**
+     * Encodes this keyset as an opaque, URL-safe cursor.
+     *
+     * @return the cursor.
+     */
+    public String encode() {
+        String raw = property + SEPARATOR + direction.name() + SEPARATOR + encodeValue(value) + SEPARATOR + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public String getProperty() {
+        return property;
+    }
+
+    public Sort.Direction getDirection() {
+        return direction;
+    }
+
+    public Object getValue() {
+        return value;
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    /**
+     * @return true if this keyset is positioned before the first element.
+     */
+    public boolean isFirst() {
+        return id == null;
+    }
+
+    private static String encodeValue(Object value) {
+        if (value == null) {
+            return "n";
+        }
+        return "i" + value;
+    }
+
+    private static Object decodeValue(String value) {
+        if ("n".equals(value)) {
+            return null;
+        }
+        if (value.startsWith("i")) {
+            return Integer.valueOf(value.substring(1));
+        }
+        throw new IllegalArgumentException("Invalid cursor value: " + value);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof PcKeyset)) {
+            return false;
+        }
+        PcKeyset other = (PcKeyset) o;
+        return (
+            property.equals(other.property) &&
+            direction == other.direction &&
+            Objects.equals(value, other.value) &&
+            Objects.equals(id, other.id)
+        );
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(property, direction, value, id);
+    }
+
+    // prettier-ignore
+    @Override
+    public String toString() {
+        return "PcKeyset{" +
+            "property='" + property + "'" +
+            ", direction=" + direction +
+            ", value=" + value +
+            ", id='" + id + "'" +
+            "}";
+    }
+}
@@ -0,0 +1,160 @@
+package com.flash.app.repository;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import org.bson.Document;
+import org.bson.types.ObjectId;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+
+/**
+ * Queries of the custom {@link com.flash.app.domain.Pc} reads, shared by the blocking and the reactive repositories.
+ */
+final class PcQueries {
+
+    /**
+     * Field holding the relevance score of the text search results.
+     */
+    static final String SCORE = "score";
+
+    private PcQueries() {}
+
+    /**
+     * @see PcRepositoryCustom#findAllAfter(PcFilter, PcKeyset, int, Set)
+     */
+    static Query findAllAfter(PcFilter filter, PcKeyset keyset, int limit, Set<String> fields) {
+        List<Criteria> criteria = filterCriteria(filter);
+        if (!keyset.isFirst()) {
+            criteria.add(keysetCriteria(keyset));
+        }
+        Query query = new Query().with(keysetSort(keyset)).limit(limit);
+        if (criteria.size() == 1) {
+            query.addCriteria(criteria.get(0));
+        } else if (!criteria.isEmpty()) {
+            // the filter and the keyset can both constrain the price, they cannot share a single criteria key
+            query.addCriteria(new Criteria().andOperator(criteria));
+        }
+        if (fields != null) {
+            // the next keyset is read from the last pc; with only indexed fields the index covers the query
+            include(query, fields).fields().include(keyset.getProperty());
+        }
+        return query;
+    }
+
+    /**
+     * @see PcRepositoryCustom#streamAll(int, Set)
+     */
+    static Query streamAll(int batchSize, Set<String> fields) {
+        Query query = new Query().cursorBatchSize(batchSize);
+        if (fields != null) {
+            include(query, fields);
+        }
+        return query;
+    }
+
+    /**
+     * @see PcRepositoryCustom#estimatedCount(PcFilter)
+     */
+    static Query count(PcFilter filter) {
+        Query query = new Query();
+        filterCriteria(filter).forEach(query::addCriteria);
+        return query;
+    }
+
+    /**
+     * @see PcRepositoryCustom#search(String, PcSearchKeyset, int)
+     */
+    static List<Document> search(String text, PcSearchKeyset keyset, int limit) {
+        List<Document> pipeline = new ArrayList<>();
+        pipeline.add(new Document("$match", new Document("$text", new Document("$search", text))));
+        pipeline.add(new Document("$addFields", new Document(SCORE, new Document("$meta", "textScore"))));
+        if (!keyset.isFirst()) {
+            // ids are stored as ObjectIds when they are valid ones, as the mapping of the other queries converts them
+            Object id = ObjectId.isValid(keyset.getId()) ? new ObjectId(keyset.getId()) : keyset.getId();
+            pipeline.add(
+                new Document(
+                    "$match",
+                    new Document(
+                        "$or",
+                        List.of(
+                            new Document(SCORE, new Document("$lt", keyset.getScore())),
+                            new Document(SCORE, keyset.getScore()).append("_id", new Document("$gt", id))
+                        )
+                    )
+                )
+            );
+        }
+        // a sort followed by a limit only keeps the top results in memory
+        pipeline.add(new Document("$sort", new Document(SCORE, -1).append("_id", 1)));
+        pipeline.add(new Document("$limit", limit));
+        return pipeline;
+    }
+
+    private static Query include(Query query, Set<String> fields) {
+        fields.forEach(query.fields()::include);
+        return query;
+    }
+
+    private static List<Criteria> filterCriteria(PcFilter filter) {
+        List<Criteria> criteria = new ArrayList<>();
+        if (filter.getMake() != null) {
+            criteria.add(Criteria.where("make").is(filter.getMake()));
+        }
+        if (filter.getModel() != null) {
+            criteria.add(Criteria.where("model").is(filter.getModel()));
+        }
+        if (filter.getPriceMin() != null || filter.getPriceMax() != null) {
+            Criteria price = Criteria.where(PcKeyset.PRICE);
+            if (filter.getPriceMin() != null) {
+                price.gte(filter.getPriceMin());
+            }
+            if (filter.getPriceMax() != null) {
+                price.lte(filter.getPriceMax());
+            }
+            criteria.add(price);
+        }
+        return criteria;
+    }
+
+    private static Sort keysetSort(PcKeyset keyset) {
+        Sort sort = Sort.by(keyset.getDirection(), keyset.getProperty());
+        if (!PcKeyset.ID.equals(keyset.getProperty())) {
+            sort = sort.and(Sort.by(keyset.getDirection(), PcKeyset.ID));
+        }
+        return sort;
+    }
+
+    /**
+     * Builds the range predicate selecting everything strictly after the keyset position.
+     * <p>
+     * MongoDB sorts missing and {@code null} values before any other value, and range operators never match them, so
+     * {@code null} sort values are handled explicitly.
+     */
+    private static Criteria keysetCriteria(PcKeyset keyset) {
+        boolean ascending = keyset.getDirection().isAscending();
+        if (PcKeyset.ID.equals(keyset.getProperty())) {
+            return idAfter(keyset.getId(), ascending);
+        }
+        String property = keyset.getProperty();
+        Object value = keyset.getValue();
+        if (value == null) {
+            Criteria sameValue = Criteria.where(property).is(null).andOperator(idAfter(keyset.getId(), ascending));
+            if (ascending) {
+                return new Criteria().orOperator(sameValue, Criteria.where(property).ne(null));
+            }
+            return sameValue;
+        }
+        Criteria greaterValue = ascending ? Criteria.where(property).gt(value) : Criteria.where(property).lt(value);
+        Criteria sameValue = Criteria.where(property).is(value).andOperator(idAfter(keyset.getId(), ascending));
+        if (ascending) {
+            return new Criteria().orOperator(greaterValue, sameValue);
+        }
+        return new Criteria().orOperator(greaterValue, sameValue, Criteria.where(property).is(null));
+    }
+
+    private static Criteria idAfter(String id, boolean ascending) {
+        return ascending ? Criteria.where(PcKeyset.ID).gt(id) : Criteria.where(PcKeyset.ID).lt(id);
+    }
+}
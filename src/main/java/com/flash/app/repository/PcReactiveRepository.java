@@ -0,0 +1,13 @@
+package com.flash.app.repository;
+
+import com.flash.app.domain.Pc;
+import org.springframework.data.mongodb.repository.ReactiveMongoRepository;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Spring Data MongoDB reactive repository for the Pc entity, only enabled by the
+ * {@link com.flash.app.config.Constants#SPRING_PROFILE_REACTIVE reactive} profile.
+ */
+@SuppressWarnings("unused")
+@Repository
+public interface PcReactiveRepository extends ReactiveMongoRepository<Pc, String>, PcReactiveRepositoryCustom {}
@@ -0,0 +1,33 @@
+package com.flash.app.repository;
+
+import com.flash.app.domain.Pc;
+import java.util.Set;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Non-blocking twins of the {@link PcRepositoryCustom} queries, for the {@link PcReactiveRepository}.
+ */
+public interface PcReactiveRepositoryCustom {
+    /**
+     * @see PcRepositoryCustom#findAllAfter(PcFilter, PcKeyset, int, Set)
+     */
+    Flux<Pc> findAllAfter(PcFilter filter, PcKeyset keyset, int limit, Set<String> fields);
+
+    /**
+     * @see PcRepositoryCustom#search(String, PcSearchKeyset, int)
+     */
+    Flux<PcSearchHit> search(String text, PcSearchKeyset keyset, int limit);
+
+    /**
+     * Streams all the pcs from a server-side cursor, in natural order; the cursor is closed when the subscription ends.
+     *
+     * @see PcRepositoryCustom#streamAll(int, Set)
+     */
+    Flux<Pc> streamAll(int batchSize, Set<String> fields);
+
+    /**
+     * @see PcRepositoryCustom#estimatedCount(PcFilter)
+     */
+    Mono<Long> estimatedCount(PcFilter filter);
+}
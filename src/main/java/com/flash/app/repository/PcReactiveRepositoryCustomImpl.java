@@ -0,0 +1,47 @@
+package com.flash.app.repository;
+
+import com.flash.app.domain.Pc;
+import java.util.Set;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * {@link ReactiveMongoTemplate} based implementation of {@link PcReactiveRepositoryCustom}.
+ */
+class PcReactiveRepositoryCustomImpl implements PcReactiveRepositoryCustom {
+
+    private final ReactiveMongoTemplate reactiveMongoTemplate;
+
+    PcReactiveRepositoryCustomImpl(ReactiveMongoTemplate reactiveMongoTemplate) {
+        this.reactiveMongoTemplate = reactiveMongoTemplate;
+    }
+
+    @Override
+    public Flux<Pc> findAllAfter(PcFilter filter, PcKeyset keyset, int limit, Set<String> fields) {
+        return reactiveMongoTemplate.find(PcQueries.findAllAfter(filter, keyset, limit, fields), Pc.class);
+    }
+
+    @Override
+    public Flux<PcSearchHit> search(String text, PcSearchKeyset keyset, int limit) {
+        return reactiveMongoTemplate
+            .getCollection(reactiveMongoTemplate.getCollectionName(Pc.class))
+            .flatMapMany(pcs -> pcs.aggregate(PcQueries.search(text, keyset, limit)))
+            .map(document ->
+                new PcSearchHit(reactiveMongoTemplate.getConverter().read(Pc.class, document), document.getDouble(PcQueries.SCORE))
+            );
+    }
+
+    @Override
+    public Flux<Pc> streamAll(int batchSize, Set<String> fields) {
+        return reactiveMongoTemplate.find(PcQueries.streamAll(batchSize, fields), Pc.class);
+    }
+
+    @Override
+    public Mono<Long> estimatedCount(PcFilter filter) {
+        if (filter.isEmpty()) {
+            return reactiveMongoTemplate.estimatedCount(Pc.class);
+        }
+        return reactiveMongoTemplate.count(PcQueries.count(filter), Pc.class);
+    }
+}
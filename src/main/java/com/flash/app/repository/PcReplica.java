@@ -0,0 +1,356 @@
+package com.flash.app.repository;
+
+import com.flash.app.config.ApplicationProperties;
+import com.flash.app.domain.Pc;
+import com.mongodb.MongoException;
+import com.mongodb.MongoServerException;
+import com.mongodb.client.ChangeStreamIterable;
+import com.mongodb.client.MongoChangeStreamCursor;
+import com.mongodb.client.MongoCollection;
+import com.mongodb.client.MongoCursor;
+import com.mongodb.client.model.changestream.ChangeStreamDocument;
+import com.mongodb.client.model.changestream.FullDocument;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.TimeGauge;
+import java.util.List;
+import java.util.Optional;
+import java.util.OptionalLong;
+import java.util.concurrent.TimeUnit;
+import org.bson.BsonDocument;
+import org.bson.BsonTimestamp;
+import org.bson.BsonValue;
+import org.bson.Document;
+import org.bson.types.ObjectId;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Read-only copy of the {@code pc} collection kept in a {@link PcReplicaStore}, to serve pages of pcs without a round
+ * trip to MongoDB nor pcs read to the heap.
+ * <p>
+ * The change stream is opened before the collection is scanned, and its events are applied once the scan is done, so
+ * that no write is missed. An event is not applied over a later version of its pc, which makes the events replayed
+ * over the scan harmless. When the stream cannot be resumed the collection is scanned again, and when the deployment
+ * has no change streams, or a pc has an ID that is not an {@link ObjectId}, the replica never serves reads. Any other
+ * failure is logged and the collection is loaded again after a backoff.
+ */
+@Repository
+@ConditionalOnProperty(prefix = "application.read-replica", name = "enabled", havingValue = "true")
+public class PcReplica implements SmartLifecycle {
+
+    /**
+     * Server errors telling that a change stream cannot be resumed from the given token.
+     */
+    private static final List<Integer> HISTORY_LOST_ERROR_CODES = List.of(286, 280, 260);
+
+    /**
+     * Server error telling that change streams are not available, on standalone servers.
+     */
+    private static final int CHANGE_STREAM_NOT_SUPPORTED_ERROR_CODE = 40573;
+
+    private static final long MAX_AWAIT_TIME_MILLIS = 1000;
+
+    private static final long MAX_RETRY_DELAY_MILLIS = 30_000;
+
+    private final Logger log = LoggerFactory.getLogger(PcReplica.class);
+
+    private final MongoTemplate mongoTemplate;
+
+    private final PcReplicaStore store;
+
+    private final long maxLagMillis;
+
+    private final Counter loads;
+
+    private volatile boolean running;
+
+    private volatile boolean loaded;
+
+    private volatile boolean caughtUp;
+
+    /**
+     * Cluster time of the last event applied, or time the replica was last seen caught up, in milliseconds.
+     */
+    private volatile long lastEventTime;
+
+    private Thread thread;
+
+    public PcReplica(MongoTemplate mongoTemplate, ApplicationProperties applicationProperties, MeterRegistry meterRegistry) {
+        ApplicationProperties.ReadReplica properties = applicationProperties.getReadReplica();
+        this.mongoTemplate = mongoTemplate;
+        this.store = new PcReplicaStore(Math.toIntExact(properties.getSlabSize().toBytes()));
+        this.maxLagMillis = properties.getMaxLag().toMillis();
+        TimeGauge
+            .builder("pc.replica.lag", this, TimeUnit.MILLISECONDS, PcReplica::lagMillis)
+            .description("Time since the last change applied to the pc replica, zero when it has caught up")
+            .register(meterRegistry);
+        Gauge.builder("pc.replica.size", store, PcReplicaStore::size).description("Pcs in the replica").register(meterRegistry);
+        Gauge
+            .builder("pc.replica.memory", store, PcReplicaStore::memoryUsed)
+            .description("Direct memory allocated by the pc replica")
+            .baseUnit("bytes")
+            .register(meterRegistry);
+        this.loads = Counter.builder("pc.replica.loads").description("Full scans of the pc collection").register(meterRegistry);
+    }
+
+    /**
+     * Finds a page of pcs like {@link PcRepositoryCustom#findAllAfter}, if the replica is loaded and has not fallen
+     * behind.
+     *
+     * @param filter the filter the pcs must match.
+     * @param keyset the position to resume after.
+     * @param limit the maximum number of pcs to return.
+     * @return the list of pcs, or nothing if the database must be read instead.
+     */
+    public Optional<List<Pc>> findAllAfter(PcFilter filter, PcKeyset keyset, int limit) {
+        if (!isServing() || (!keyset.isFirst() && !ObjectId.isValid(keyset.getId()))) {
+            return Optional.empty();
+        }
+        return Optional.of(store.findAllAfter(filter, keyset, limit));
+    }
+
+    /**
+     * Counts the pcs matching a filter, if the replica is loaded and has not fallen behind.
+     *
+     * @param filter the filter the pcs must match.
+     * @return the number of matching pcs, or nothing if the database must be read instead.
+     */
+    public OptionalLong count(PcFilter filter) {
+        return isServing() ? OptionalLong.of(store.count(filter)) : OptionalLong.empty();
+    }
+
+    @Override
+    public synchronized void start() {
+        running = true;
+        thread = new Thread(this::replicate, "pc-replica");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    @Override
+    public void stop() {
+        Thread replicator;
+        synchronized (this) {
+            running = false;
+            loaded = false;
+            replicator = thread;
+            thread = null;
+        }
+        if (replicator != null) {
+            try {
+                replicator.join(MAX_AWAIT_TIME_MILLIS * 2);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        // a scan that was completing when stopped may have marked the replica loaded
+        loaded = false;
+        store.clear();
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    private boolean isServing() {
+        return loaded && lagMillis() <= maxLagMillis;
+    }
+
+    private double lagMillis() {
+        if (!loaded) {
+            return Double.NaN;
+        }
+        return caughtUp ? 0 : Math.max(0, System.currentTimeMillis() - lastEventTime);
+    }
+
+    private void replicate() {
+        BsonDocument resumeToken = null;
+        long retryDelay = 0;
+        while (running) {
+            try (MongoChangeStreamCursor<ChangeStreamDocument<Document>> cursor = watch(resumeToken).cursor()) {
+                if (resumeToken == null) {
+                    load();
+                }
+                retryDelay = 0;
+                resumeToken = follow(cursor, resumeToken);
+            } catch (MongoServerException e) {
+                if (e.getCode() == CHANGE_STREAM_NOT_SUPPORTED_ERROR_CODE) {
+                    log.error("Change streams are not supported by this MongoDB deployment, the pc replica is disabled", e);
+                    disable();
+                } else if (HISTORY_LOST_ERROR_CODES.contains(e.getCode())) {
+                    log.warn("Cannot resume the change stream from {}, loading the pc replica again: {}", resumeToken, e.getMessage());
+                    resumeToken = null;
+                } else {
+                    retryDelay = retry(retryDelay, e);
+                }
+            } catch (MongoException e) {
+                retryDelay = retry(retryDelay, e);
+            } catch (UnsupportedIdException e) {
+                log.error("The pc replica is disabled: {}", e.getMessage());
+                disable();
+            } catch (RuntimeException e) {
+                // not expected, but the replica must not stop following the collection without any sign: the event
+                // that failed would fail again when resumed, the collection is loaded again instead
+                log.error("Could not apply the changes of the pc replica, loading it again", e);
+                resumeToken = null;
+                retryDelay = retry(retryDelay, e);
+            }
+        }
+    }
+
+    /**
+     * Copies the whole collection, while the events since the change stream was opened wait in its cursor.
+     */
+    private void load() {
+        loaded = false;
+        store.clear();
+        loads.increment();
+        long startTime = System.currentTimeMillis();
+        long start = System.nanoTime();
+        try (MongoCursor<Document> documents = collection().find().batchSize(1000).cursor()) {
+            while (running && documents.hasNext()) {
+                put(documents.next());
+            }
+        }
+        if (!running) {
+            // stopped in the middle of the scan, the replica must not serve the pcs copied so far
+            return;
+        }
+        log.info("Loaded {} pcs in the replica in {} ms", store.size(), TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+        // the events waiting in the stream are as old as the scan
+        caughtUp = false;
+        lastEventTime = startTime;
+        loaded = true;
+    }
+
+    /**
+     * Applies the change events until the replica is stopped or the stream is invalidated.
+     *
+     * @return the token to resume from, or {@code null} to load the collection again.
+     */
+    private BsonDocument follow(MongoChangeStreamCursor<ChangeStreamDocument<Document>> cursor, BsonDocument resumeToken) {
+        while (running) {
+            ChangeStreamDocument<Document> event = cursor.tryNext();
+            if (event == null) {
+                BsonDocument idleToken = cursor.getResumeToken();
+                if (idleToken != null) {
+                    resumeToken = idleToken;
+                }
+                caughtUp = true;
+                lastEventTime = System.currentTimeMillis();
+                continue;
+            }
+            caughtUp = false;
+            switch (event.getOperationType()) {
+                case INSERT:
+                case UPDATE:
+                case REPLACE:
+                    if (event.getFullDocument() != null) {
+                        put(event.getFullDocument());
+                    } else {
+                        // deleted before its update was looked up, its deletion follows
+                        remove(event.getDocumentKey());
+                    }
+                    break;
+                case DELETE:
+                    remove(event.getDocumentKey());
+                    break;
+                case DROP:
+                case RENAME:
+                case DROP_DATABASE:
+                case INVALIDATE:
+                    log.warn("The change stream of the pc replica was invalidated, loading it again");
+                    return null;
+                default:
+                    break;
+            }
+            BsonTimestamp clusterTime = event.getClusterTime();
+            if (clusterTime != null) {
+                lastEventTime = TimeUnit.SECONDS.toMillis(clusterTime.getTime());
+            }
+            resumeToken = event.getResumeToken();
+        }
+        return resumeToken;
+    }
+
+    /**
+     * Copies a pc, the fields of unexpected types being copied as missing rather than failing the whole replica.
+     */
+    private void put(Document document) {
+        Object make = document.get("make");
+        Object model = document.get("model");
+        Object price = document.get("price");
+        Object version = document.get("version");
+        store.put(
+            objectId(document.get("_id")),
+            make instanceof String ? (String) make : null,
+            model instanceof String ? (String) model : null,
+            price instanceof Number ? ((Number) price).intValue() : null,
+            version instanceof Number ? ((Number) version).longValue() : null
+        );
+    }
+
+    private void remove(BsonDocument documentKey) {
+        BsonValue id = documentKey != null ? documentKey.get("_id") : null;
+        if (id != null) {
+            store.remove(objectId(id.isObjectId() ? id.asObjectId().getValue() : id));
+        }
+    }
+
+    private static ObjectId objectId(Object id) {
+        if (!(id instanceof ObjectId)) {
+            throw new UnsupportedIdException(id);
+        }
+        return (ObjectId) id;
+    }
+
+    private ChangeStreamIterable<Document> watch(BsonDocument resumeToken) {
+        ChangeStreamIterable<Document> changeStream = collection()
+            .watch()
+            .fullDocument(FullDocument.UPDATE_LOOKUP)
+            .maxAwaitTime(MAX_AWAIT_TIME_MILLIS, TimeUnit.MILLISECONDS);
+        return resumeToken == null ? changeStream : changeStream.resumeAfter(resumeToken);
+    }
+
+    private MongoCollection<Document> collection() {
+        return mongoTemplate.getCollection(mongoTemplate.getCollectionName(Pc.class));
+    }
+
+    private void disable() {
+        running = false;
+        loaded = false;
+        store.clear();
+    }
+
+    private long retry(long retryDelay, RuntimeException e) {
+        long delay = Math.min(MAX_RETRY_DELAY_MILLIS, Math.max(1000, retryDelay * 2));
+        caughtUp = false;
+        log.warn("Change stream of the pc replica failed, retrying in {} ms: {}", delay, e.getMessage());
+        try {
+            Thread.sleep(delay);
+        } catch (InterruptedException ie) {
+            Thread.currentThread().interrupt();
+            running = false;
+        }
+        return delay;
+    }
+
+    /**
+     * Thrown for a pc whose ID cannot be stored in the replica.
+     */
+    private static class UnsupportedIdException extends RuntimeException {
+
+        private static final long serialVersionUID = 1L;
+
+        UnsupportedIdException(Object id) {
+            super("pc " + id + " does not have an ObjectId");
+        }
+    }
+}
@@ -0,0 +1,835 @@
+package com.flash.app.repository;
+
+import com.flash.app.domain.Pc;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.IntUnaryOperator;
+import org.bson.types.ObjectId;
+
+/**
+ * In-memory copy of the pcs that keeps their fields off the heap, so that holding and scanning millions of them does
+ * not load the garbage collector.
+ * <p>
+ * Each pc has a slot, whose ID and price are kept in primitive arrays, next to the offset of a record holding its
+ * version, make and model in direct buffers. Writes append a new record and leave the previous one as garbage, which
+ * is reclaimed by copying the live records once it outweighs them. A hash table of slots by ID and two chunked sorted
+ * arrays of slots, by ID and by price then ID, serve the lookups and the keyset pages with the same ordering as the
+ * MongoDB queries. The same two orders grouped by the hash of the make, and by the hash of the model, serve the pages
+ * and counts filtered by make or model from the matching slots only, like the {@code make} and {@code model} indexes
+ * of the collection. Only pcs whose ID is an {@link ObjectId} can be stored.
+ * <p>
+ * Writes are meant to come from a single thread; reads can run concurrently and are only blocked while a write is
+ * applied.
+ */
+final class PcReplicaStore {
+
+    /**
+     * Price key of the pcs without price, which MongoDB sorts before any price.
+     */
+    static final long NULL_PRICE = Long.MIN_VALUE;
+
+    private static final int NULL_LENGTH = -1;
+
+    private static final int CHUNK_SIZE = 512;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private final int slabSize;
+
+    private List<ByteBuffer> slabs = new ArrayList<>();
+
+    private int writePosition;
+
+    private long liveBytes;
+
+    private long garbageBytes;
+
+    private long[] idHighs = new long[1024];
+
+    private int[] idLows = new int[1024];
+
+    private long[] priceKeys = new long[1024];
+
+    private int[] makeHashes = new int[1024];
+
+    private int[] modelHashes = new int[1024];
+
+    private long[] offsets = new long[1024];
+
+    private int slotCount;
+
+    private int[] freeSlots = new int[64];
+
+    private int freeSlotCount;
+
+    /**
+     * Open addressing table of the slots by ID, holding {@code slot + 1} so that 0 is an empty bucket.
+     */
+    private int[] table = new int[2048];
+
+    private int size;
+
+    private final KeyOrder byId = new KeyOrder(null, false);
+
+    private final KeyOrder byPrice = new KeyOrder(null, true);
+
+    private final KeyOrder byMakeAndId = new KeyOrder(slot -> makeHashes[slot], false);
+
+    private final KeyOrder byMakeAndPrice = new KeyOrder(slot -> makeHashes[slot], true);
+
+    private final KeyOrder byModelAndId = new KeyOrder(slot -> modelHashes[slot], false);
+
+    private final KeyOrder byModelAndPrice = new KeyOrder(slot -> modelHashes[slot], true);
+
+    /**
+     * The orders depending on the price, make or model of the pcs, which move when those change.
+     */
+    private final KeyOrder[] valueOrders = { byPrice, byMakeAndId, byMakeAndPrice, byModelAndId, byModelAndPrice };
+
+    /**
+     * @param slabSize the size of the direct buffers the records are written to.
+     */
+    PcReplicaStore(int slabSize) {
+        this.slabSize = slabSize;
+    }
+
+    /**
+     * Stores the state of a pc, unless a later version of it is already stored.
+     *
+     * @param id the ID of the pc.
+     * @param make its make, or {@code null}.
+     * @param model its model, or {@code null}.
+     * @param price its price, or {@code null}.
+     * @param version its version, or {@code null}.
+     */
+    void put(ObjectId id, String make, String model, Integer price, Long version) {
+        ByteBuffer idBytes = ByteBuffer.wrap(id.toByteArray());
+        long idHigh = idBytes.getLong(0);
+        int idLow = idBytes.getInt(8);
+        byte[] makeBytes = make != null ? make.getBytes(StandardCharsets.UTF_8) : null;
+        byte[] modelBytes = model != null ? model.getBytes(StandardCharsets.UTF_8) : null;
+        long versionValue = version != null ? version : Long.MIN_VALUE;
+        long priceKey = price != null ? price : NULL_PRICE;
+        int makeHash = hash(makeBytes);
+        int modelHash = hash(modelBytes);
+        lock.writeLock().lock();
+        try {
+            if (garbageBytes > liveBytes && garbageBytes > slabSize) {
+                compact();
+            }
+            int slot = find(idHigh, idLow);
+            if (slot >= 0) {
+                if (slab(offsets[slot]).getLong(position(offsets[slot])) > versionValue) {
+                    return;
+                }
+                free(offsets[slot]);
+                if (priceKeys[slot] != priceKey || makeHashes[slot] != makeHash || modelHashes[slot] != modelHash) {
+                    // the slot must be found with its previous values before they change
+                    for (KeyOrder order : valueOrders) {
+                        order.remove(slot);
+                    }
+                    priceKeys[slot] = priceKey;
+                    makeHashes[slot] = makeHash;
+                    modelHashes[slot] = modelHash;
+                    for (KeyOrder order : valueOrders) {
+                        order.insert(slot);
+                    }
+                }
+            } else {
+                slot = allocateSlot();
+                idHighs[slot] = idHigh;
+                idLows[slot] = idLow;
+                priceKeys[slot] = priceKey;
+                makeHashes[slot] = makeHash;
+                modelHashes[slot] = modelHash;
+                addToTable(slot);
+                byId.insert(slot);
+                for (KeyOrder order : valueOrders) {
+                    order.insert(slot);
+                }
+                size++;
+            }
+            offsets[slot] = write(versionValue, makeBytes, modelBytes);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Removes a pc.
+     *
+     * @param id the ID of the pc.
+     */
+    void remove(ObjectId id) {
+        ByteBuffer idBytes = ByteBuffer.wrap(id.toByteArray());
+        lock.writeLock().lock();
+        try {
+            int slot = find(idBytes.getLong(0), idBytes.getInt(8));
+            if (slot < 0) {
+                return;
+            }
+            byId.remove(slot);
+            for (KeyOrder order : valueOrders) {
+                order.remove(slot);
+            }
+            removeFromTable(slot);
+            free(offsets[slot]);
+            if (freeSlotCount == freeSlots.length) {
+                freeSlots = Arrays.copyOf(freeSlots, freeSlotCount * 2);
+            }
+            freeSlots[freeSlotCount++] = slot;
+            size--;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Removes every pc and releases the buffers.
+     */
+    void clear() {
+        lock.writeLock().lock();
+        try {
+            slabs = new ArrayList<>();
+            writePosition = 0;
+            liveBytes = 0;
+            garbageBytes = 0;
+            slotCount = 0;
+            freeSlotCount = 0;
+            Arrays.fill(table, 0);
+            byId.clear();
+            for (KeyOrder order : valueOrders) {
+                order.clear();
+            }
+            size = 0;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Finds the pcs matching a filter and following a keyset position, in keyset order, like
+     * {@link PcRepositoryCustom#findAllAfter}. Only the pcs of the filtered make, or else model, are visited, and the
+     * pages sorted by price stop at the end of the filtered price range.
+     *
+     * @param filter the filter the pcs must match.
+     * @param keyset the position to resume after; its ID must be an {@link ObjectId} unless it is the first one.
+     * @param limit the maximum number of pcs to return.
+     * @return the list of pcs, at most {@code limit} long.
+     */
+    List<Pc> findAllAfter(PcFilter filter, PcKeyset keyset, int limit) {
+        Matcher matcher = new Matcher(filter);
+        boolean ascending = keyset.getDirection().isAscending();
+        boolean byPriceKey = PcKeyset.PRICE.equals(keyset.getProperty());
+        KeyOrder order = matcher.order(byPriceKey);
+        long group = matcher.group();
+        List<Pc> page = new ArrayList<>(Math.min(limit, 1024));
+        SlotVisitor collector = slot -> {
+            if (order.group(slot) != group || (byPriceKey && matcher.isPastPriceRange(slot, ascending))) {
+                return false;
+            }
+            if (matcher.matches(slot)) {
+                page.add(read(slot));
+            }
+            return page.size() < limit;
+        };
+        lock.readLock().lock();
+        try {
+            if (keyset.isFirst()) {
+                order.forEachIn(group, ascending, collector);
+            } else {
+                ByteBuffer id = ByteBuffer.wrap(new ObjectId(keyset.getId()).toByteArray());
+                long priceKey = keyset.getValue() != null ? ((Number) keyset.getValue()).longValue() : NULL_PRICE;
+                order.forEachAfter(group, priceKey, id.getLong(0), id.getInt(8), ascending, collector);
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        return page;
+    }
+
+    /**
+     * Counts the pcs matching a filter, visiting the pcs of the filtered make, or else model, or else those of the
+     * filtered price range.
+     *
+     * @param filter the filter the pcs must match.
+     * @return the number of matching pcs.
+     */
+    long count(PcFilter filter) {
+        lock.readLock().lock();
+        try {
+            if (filter.isEmpty()) {
+                return size;
+            }
+            Matcher matcher = new Matcher(filter);
+            KeyOrder order = matcher.order(false);
+            long group = matcher.group();
+            long[] count = new long[1];
+            SlotVisitor counter = slot -> {
+                if (order.group(slot) != group || (order == byId && matcher.isPastPriceRange(slot, true))) {
+                    return false;
+                }
+                if (matcher.matches(slot)) {
+                    count[0]++;
+                }
+                return true;
+            };
+            if (order == byId) {
+                // only filtered by price, from the lowest price of the range
+                byPrice.forEachAfter(0, matcher.priceMin - 1, -1L, -1, true, counter);
+            } else {
+                order.forEachIn(group, true, counter);
+            }
+            return count[0];
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * @return the number of pcs.
+     */
+    int size() {
+        lock.readLock().lock();
+        try {
+            return size;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * @return the size of the direct buffers holding the records.
+     */
+    long memoryUsed() {
+        lock.readLock().lock();
+        try {
+            return (long) slabs.size() * slabSize;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private Pc read(int slot) {
+        ByteBuffer slab = slab(offsets[slot]);
+        int position = position(offsets[slot]);
+        long version = slab.getLong(position);
+        position += Long.BYTES;
+        String make = readString(slab, position);
+        position += Integer.BYTES + Math.max(0, slab.getInt(position));
+        String model = readString(slab, position);
+        byte[] idBytes = ByteBuffer.allocate(12).putLong(idHighs[slot]).putInt(idLows[slot]).array();
+        return new Pc()
+            .id(new ObjectId(idBytes).toHexString())
+            .make(make)
+            .model(model)
+            .price(priceKeys[slot] != NULL_PRICE ? (int) priceKeys[slot] : null)
+            .version(version != Long.MIN_VALUE ? version : null);
+    }
+
+    private static String readString(ByteBuffer slab, int position) {
+        int length = slab.getInt(position);
+        if (length == NULL_LENGTH) {
+            return null;
+        }
+        byte[] bytes = new byte[length];
+        ByteBuffer view = slab.duplicate();
+        view.position(position + Integer.BYTES);
+        view.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private long write(long version, byte[] make, byte[] model) {
+        int recordSize = recordSize(make, model);
+        if (recordSize > slabSize) {
+            throw new IllegalArgumentException("A pc record of " + recordSize + " bytes does not fit in a replica slab");
+        }
+        if (slabs.isEmpty() || writePosition + recordSize > slabSize) {
+            slabs.add(ByteBuffer.allocateDirect(slabSize));
+            writePosition = 0;
+        }
+        ByteBuffer slab = slabs.get(slabs.size() - 1).duplicate();
+        slab.position(writePosition);
+        slab.putLong(version);
+        putString(slab, make);
+        putString(slab, model);
+        long offset = ((long) (slabs.size() - 1) << 32) | writePosition;
+        writePosition += recordSize;
+        liveBytes += recordSize;
+        return offset;
+    }
+
+    private static void putString(ByteBuffer slab, byte[] value) {
+        if (value == null) {
+            slab.putInt(NULL_LENGTH);
+        } else {
+            slab.putInt(value.length);
+            slab.put(value);
+        }
+    }
+
+    private static int recordSize(byte[] make, byte[] model) {
+        return Long.BYTES + 2 * Integer.BYTES + (make != null ? make.length : 0) + (model != null ? model.length : 0);
+    }
+
+    private int recordSize(long offset) {
+        ByteBuffer slab = slab(offset);
+        int position = position(offset) + Long.BYTES;
+        int makeLength = Math.max(0, slab.getInt(position));
+        int modelLength = Math.max(0, slab.getInt(position + Integer.BYTES + makeLength));
+        return Long.BYTES + 2 * Integer.BYTES + makeLength + modelLength;
+    }
+
+    private void free(long offset) {
+        int recordSize = recordSize(offset);
+        liveBytes -= recordSize;
+        garbageBytes += recordSize;
+    }
+
+    /**
+     * Copies the live records to new buffers, dropping the previous states of the pcs.
+     */
+    private void compact() {
+        List<ByteBuffer> previousSlabs = slabs;
+        slabs = new ArrayList<>();
+        writePosition = 0;
+        liveBytes = 0;
+        garbageBytes = 0;
+        for (int entry : table) {
+            if (entry == 0) {
+                continue;
+            }
+            int slot = entry - 1;
+            ByteBuffer slab = previousSlabs.get((int) (offsets[slot] >>> 32));
+            int position = position(offsets[slot]);
+            int recordSize = Long.BYTES + Integer.BYTES + Math.max(0, slab.getInt(position + Long.BYTES));
+            recordSize += Integer.BYTES + Math.max(0, slab.getInt(position + recordSize));
+            if (slabs.isEmpty() || writePosition + recordSize > slabSize) {
+                slabs.add(ByteBuffer.allocateDirect(slabSize));
+                writePosition = 0;
+            }
+            ByteBuffer record = slab.duplicate();
+            record.position(position).limit(position + recordSize);
+            ByteBuffer target = slabs.get(slabs.size() - 1).duplicate();
+            target.position(writePosition);
+            target.put(record);
+            offsets[slot] = ((long) (slabs.size() - 1) << 32) | writePosition;
+            writePosition += recordSize;
+            liveBytes += recordSize;
+        }
+    }
+
+    private ByteBuffer slab(long offset) {
+        return slabs.get((int) (offset >>> 32));
+    }
+
+    private static int position(long offset) {
+        return (int) offset;
+    }
+
+    private int allocateSlot() {
+        if (freeSlotCount > 0) {
+            return freeSlots[--freeSlotCount];
+        }
+        if (slotCount == idHighs.length) {
+            int capacity = slotCount * 2;
+            idHighs = Arrays.copyOf(idHighs, capacity);
+            idLows = Arrays.copyOf(idLows, capacity);
+            priceKeys = Arrays.copyOf(priceKeys, capacity);
+            makeHashes = Arrays.copyOf(makeHashes, capacity);
+            modelHashes = Arrays.copyOf(modelHashes, capacity);
+            offsets = Arrays.copyOf(offsets, capacity);
+        }
+        return slotCount++;
+    }
+
+    private int find(long idHigh, int idLow) {
+        int mask = table.length - 1;
+        for (int bucket = bucket(idHigh, idLow, mask); table[bucket] != 0; bucket = (bucket + 1) & mask) {
+            int slot = table[bucket] - 1;
+            if (idHighs[slot] == idHigh && idLows[slot] == idLow) {
+                return slot;
+            }
+        }
+        return -1;
+    }
+
+    private void addToTable(int slot) {
+        if ((size + 1) * 2 > table.length) {
+            int[] previous = table;
+            table = new int[previous.length * 2];
+            for (int entry : previous) {
+                if (entry != 0) {
+                    insertInTable(entry - 1);
+                }
+            }
+        }
+        insertInTable(slot);
+    }
+
+    private void insertInTable(int slot) {
+        int mask = table.length - 1;
+        int bucket = bucket(idHighs[slot], idLows[slot], mask);
+        while (table[bucket] != 0) {
+            bucket = (bucket + 1) & mask;
+        }
+        table[bucket] = slot + 1;
+    }
+
+    /**
+     * Removes a slot with backward shift deletion, which keeps the probe sequences without tombstones.
+     */
+    private void removeFromTable(int slot) {
+        int mask = table.length - 1;
+        int bucket = bucket(idHighs[slot], idLows[slot], mask);
+        while (table[bucket] != slot + 1) {
+            bucket = (bucket + 1) & mask;
+        }
+        int hole = bucket;
+        for (int next = (hole + 1) & mask; table[next] != 0; next = (next + 1) & mask) {
+            int home = bucket(idHighs[table[next] - 1], idLows[table[next] - 1], mask);
+            // the entry can fill the hole if its home bucket is not between the hole and its bucket
+            if (((next - home) & mask) >= ((next - hole) & mask)) {
+                table[hole] = table[next];
+                hole = next;
+            }
+        }
+        table[hole] = 0;
+    }
+
+    private static int bucket(long idHigh, int idLow, int mask) {
+        long hash = (idHigh ^ ((long) idLow * 0x9E3779B97F4A7C15L)) * 0xC2B2AE3D27D4EB4FL;
+        return (int) (hash ^ (hash >>> 32)) & mask;
+    }
+
+    /**
+     * Orders the IDs like MongoDB orders {@link ObjectId}s, by unsigned bytes.
+     */
+    private static int compareIds(long leftHigh, int leftLow, long rightHigh, int rightLow) {
+        int result = Long.compareUnsigned(leftHigh, rightHigh);
+        return result != 0 ? result : Integer.compareUnsigned(leftLow, rightLow);
+    }
+
+    private static int hash(byte[] value) {
+        return value != null ? Arrays.hashCode(value) : 0;
+    }
+
+    /**
+     * Matches the slots against a filter, comparing the encoded strings in place.
+     */
+    private final class Matcher {
+
+        private final byte[] make;
+
+        private final byte[] model;
+
+        private final int makeHash;
+
+        private final int modelHash;
+
+        private final long priceMin;
+
+        private final long priceMax;
+
+        private final boolean priceFiltered;
+
+        Matcher(PcFilter filter) {
+            this.make = filter.getMake() != null ? filter.getMake().getBytes(StandardCharsets.UTF_8) : null;
+            this.model = filter.getModel() != null ? filter.getModel().getBytes(StandardCharsets.UTF_8) : null;
+            this.makeHash = hash(make);
+            this.modelHash = hash(model);
+            this.priceFiltered = filter.getPriceMin() != null || filter.getPriceMax() != null;
+            this.priceMin = filter.getPriceMin() != null ? filter.getPriceMin() : Long.MIN_VALUE + 1;
+            this.priceMax = filter.getPriceMax() != null ? filter.getPriceMax() : Long.MAX_VALUE;
+        }
+
+        /**
+         * @return the order to visit the candidate slots in: grouped by make if filtered by make, or else grouped by
+         * model if filtered by model.
+         */
+        KeyOrder order(boolean byPriceKey) {
+            if (make != null) {
+                return byPriceKey ? byMakeAndPrice : byMakeAndId;
+            }
+            if (model != null) {
+                return byPriceKey ? byModelAndPrice : byModelAndId;
+            }
+            return byPriceKey ? byPrice : byId;
+        }
+
+        /**
+         * @return the group of the candidate slots in the {@link #order}.
+         */
+        long group() {
+            return make != null ? makeHash : model != null ? modelHash : 0;
+        }
+
+        /**
+         * @return whether the slot, and the ones following it in an order by price, are past the filtered price range.
+         */
+        boolean isPastPriceRange(int slot, boolean ascending) {
+            return priceFiltered && (ascending ? priceKeys[slot] > priceMax : priceKeys[slot] < priceMin);
+        }
+
+        boolean matches(int slot) {
+            // range operators never match pcs without price
+            if (priceFiltered && (priceKeys[slot] == NULL_PRICE || priceKeys[slot] < priceMin || priceKeys[slot] > priceMax)) {
+                return false;
+            }
+            if (make == null && model == null) {
+                return true;
+            }
+            ByteBuffer slab = slab(offsets[slot]);
+            int position = position(offsets[slot]) + Long.BYTES;
+            if (make != null && (makeHashes[slot] != makeHash || !equal(slab, position, make))) {
+                return false;
+            }
+            position += Integer.BYTES + Math.max(0, slab.getInt(position));
+            return model == null || (modelHashes[slot] == modelHash && equal(slab, position, model));
+        }
+
+        private boolean equal(ByteBuffer slab, int position, byte[] value) {
+            if (slab.getInt(position) != value.length) {
+                return false;
+            }
+            for (int i = 0; i < value.length; i++) {
+                if (slab.get(position + Integer.BYTES + i) != value[i]) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+
+    /**
+     * Slots sorted by ID, or by price then ID, within groups of slots sorted by a hash of their make or model, if any.
+     */
+    private final class KeyOrder extends SlotOrder {
+
+        private final IntUnaryOperator grouping;
+
+        private final boolean byPriceKey;
+
+        /**
+         * @param grouping the hash the slots are grouped by, or {@code null} for a single group.
+         * @param byPriceKey whether the slots of a group are sorted by price then ID, or by ID.
+         */
+        KeyOrder(IntUnaryOperator grouping, boolean byPriceKey) {
+            this.grouping = grouping;
+            this.byPriceKey = byPriceKey;
+        }
+
+        long group(int slot) {
+            return grouping != null ? grouping.applyAsInt(slot) : 0;
+        }
+
+        @Override
+        int compare(int left, int right) {
+            return compareProbe(group(left), priceKeys[left], idHighs[left], idLows[left], right);
+        }
+
+        @Override
+        int compareProbe(long group, long priceKey, long idHigh, int idLow, int slot) {
+            int result = Long.compare(group, group(slot));
+            if (result == 0 && byPriceKey) {
+                result = Long.compare(priceKey, priceKeys[slot]);
+            }
+            return result != 0 ? result : compareIds(idHigh, idLow, idHighs[slot], idLows[slot]);
+        }
+    }
+
+    @FunctionalInterface
+    private interface SlotVisitor {
+        /**
+         * @return whether to visit the next slot.
+         */
+        boolean visit(int slot);
+    }
+
+    /**
+     * Slots sorted by a unique key, in chunks of at most {@value #CHUNK_SIZE} so that an insertion or a removal only
+     * moves the slots of one chunk.
+     */
+    private abstract static class SlotOrder {
+
+        private int[][] chunks = new int[16][];
+
+        private int[] chunkSizes = new int[16];
+
+        private int chunkCount;
+
+        abstract int compare(int left, int right);
+
+        abstract int compareProbe(long group, long priceKey, long idHigh, int idLow, int slot);
+
+        void clear() {
+            chunks = new int[16][];
+            chunkSizes = new int[16];
+            chunkCount = 0;
+        }
+
+        /**
+         * Visits the slots from the first one of a group, or from its last one in descending order, until the visitor
+         * stops.
+         */
+        void forEachIn(long group, boolean ascending, SlotVisitor visitor) {
+            // probes past every slot of the previous group, or before every slot of the next one
+            if (ascending) {
+                forEachAfter(group - 1, Long.MAX_VALUE, -1L, -1, true, visitor);
+            } else {
+                forEachAfter(group + 1, NULL_PRICE, 0L, 0, false, visitor);
+            }
+        }
+
+        /**
+         * Visits the slots following a probe key, greater than it in ascending order and less than it in descending
+         * order, until the visitor stops.
+         */
+        void forEachAfter(long group, long priceKey, long idHigh, int idLow, boolean ascending, SlotVisitor visitor) {
+            // finds the first slot that is after the probe, or not before it in descending order
+            int threshold = ascending ? 0 : 1;
+            int chunk = 0;
+            int high = chunkCount;
+            while (chunk < high) {
+                int middle = (chunk + high) >>> 1;
+                if (compareProbe(group, priceKey, idHigh, idLow, chunks[middle][chunkSizes[middle] - 1]) >= threshold) {
+                    chunk = middle + 1;
+                } else {
+                    high = middle;
+                }
+            }
+            int index = 0;
+            if (chunk < chunkCount) {
+                int[] slots = chunks[chunk];
+                high = chunkSizes[chunk];
+                while (index < high) {
+                    int middle = (index + high) >>> 1;
+                    if (compareProbe(group, priceKey, idHigh, idLow, slots[middle]) >= threshold) {
+                        index = middle + 1;
+                    } else {
+                        high = middle;
+                    }
+                }
+            }
+            if (ascending) {
+                visit(chunk, index, true, visitor);
+            } else if (index > 0) {
+                visit(chunk, index - 1, false, visitor);
+            } else if (chunk > 0) {
+                visit(chunk - 1, chunkSizes[chunk - 1] - 1, false, visitor);
+            }
+        }
+
+        private void visit(int chunk, int index, boolean ascending, SlotVisitor visitor) {
+            while (chunk >= 0 && chunk < chunkCount) {
+                int[] slots = chunks[chunk];
+                if (ascending) {
+                    for (; index < chunkSizes[chunk]; index++) {
+                        if (!visitor.visit(slots[index])) {
+                            return;
+                        }
+                    }
+                    chunk++;
+                    index = 0;
+                } else {
+                    for (; index >= 0; index--) {
+                        if (!visitor.visit(slots[index])) {
+                            return;
+                        }
+                    }
+                    chunk--;
+                    index = chunk >= 0 ? chunkSizes[chunk] - 1 : -1;
+                }
+            }
+        }
+
+        void insert(int slot) {
+            if (chunkCount == 0) {
+                chunks[0] = new int[CHUNK_SIZE];
+                chunkCount = 1;
+            }
+            int chunk = chunkOf(slot);
+            if (chunkSizes[chunk] == CHUNK_SIZE) {
+                split(chunk);
+                if (compare(slot, chunks[chunk][chunkSizes[chunk] - 1]) > 0) {
+                    chunk++;
+                }
+            }
+            int[] slots = chunks[chunk];
+            int index = indexIn(chunk, slot);
+            System.arraycopy(slots, index, slots, index + 1, chunkSizes[chunk] - index);
+            slots[index] = slot;
+            chunkSizes[chunk]++;
+        }
+
+        void remove(int slot) {
+            int chunk = chunkOf(slot);
+            int[] slots = chunks[chunk];
+            int index = indexIn(chunk, slot);
+            System.arraycopy(slots, index + 1, slots, index, chunkSizes[chunk] - index - 1);
+            if (--chunkSizes[chunk] == 0 && chunkCount > 1) {
+                System.arraycopy(chunks, chunk + 1, chunks, chunk, chunkCount - chunk - 1);
+                System.arraycopy(chunkSizes, chunk + 1, chunkSizes, chunk, chunkCount - chunk - 1);
+                chunkCount--;
+                chunks[chunkCount] = null;
+                chunkSizes[chunkCount] = 0;
+            }
+        }
+
+        /**
+         * @return the first chunk whose last slot is not before the given one, or the last chunk.
+         */
+        private int chunkOf(int slot) {
+            int low = 0;
+            int high = chunkCount - 1;
+            while (low < high) {
+                int middle = (low + high) >>> 1;
+                if (chunkSizes[middle] > 0 && compare(slot, chunks[middle][chunkSizes[middle] - 1]) > 0) {
+                    low = middle + 1;
+                } else {
+                    high = middle;
+                }
+            }
+            return low;
+        }
+
+        /**
+         * @return the index of the first slot of a chunk that is not before the given one.
+         */
+        private int indexIn(int chunk, int slot) {
+            int[] slots = chunks[chunk];
+            int low = 0;
+            int high = chunkSizes[chunk];
+            while (low < high) {
+                int middle = (low + high) >>> 1;
+                if (compare(slot, slots[middle]) > 0) {
+                    low = middle + 1;
+                } else {
+                    high = middle;
+                }
+            }
+            return low;
+        }
+
+        private void split(int chunk) {
+            if (chunkCount == chunks.length) {
+                chunks = Arrays.copyOf(chunks, chunkCount * 2);
+                chunkSizes = Arrays.copyOf(chunkSizes, chunkCount * 2);
+            }
+            System.arraycopy(chunks, chunk + 1, chunks, chunk + 2, chunkCount - chunk - 1);
+            System.arraycopy(chunkSizes, chunk + 1, chunkSizes, chunk + 2, chunkCount - chunk - 1);
+            int half = CHUNK_SIZE / 2;
+            int[] upper = new int[CHUNK_SIZE];
+            System.arraycopy(chunks[chunk], half, upper, 0, CHUNK_SIZE - half);
+            chunks[chunk + 1] = upper;
+            chunkSizes[chunk + 1] = CHUNK_SIZE - half;
+            chunkSizes[chunk] = half;
+            chunkCount++;
+        }
+    }
+}
@@ -10,4 +10,9 @@ import org.springframework.stereotype.Repository;
  */
 @SuppressWarnings("unused")
 @Repository
-public interface PcRepository extends MongoRepository<Pc, String> {}
+public interface PcRepository extends MongoRepository<Pc, String>, PcRepositoryCustom {
+    /**
+     * Cache of the pcs read by id, filled through the {@code PcCacheGuard} of the services.
+     */
+    String PCS_BY_ID_CACHE = "pcsById";
+}
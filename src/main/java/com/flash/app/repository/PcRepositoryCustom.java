@@ -0,0 +1,60 @@
+package com.flash.app.repository;
+
+import com.flash.app.domain.Pc;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Stream;
+
+/**
+ * Custom queries of the {@link PcRepository} that are not expressible as derived queries.
+ */
+public interface PcRepositoryCustom {
+    /**
+     * Finds the pcs matching a filter and following the given keyset position, in keyset order.
+     *
+     * @param filter the filter the pcs must match.
+     * @param keyset the position to resume after.
+     * @param limit the maximum number of pcs to return.
+     * @param fields the fields to read, or {@code null} for all of them; the keyset fields are always read.
+     * @return the list of pcs, at most {@code limit} long.
+     */
+    List<Pc> findAllAfter(PcFilter filter, PcKeyset keyset, int limit, Set<String> fields);
+
+    /**
+     * Finds the pcs matching a text search on their make and model, by decreasing relevance, following the given
+     * keyset position. The search uses the text index, so its cost grows with the number of matches.
+     *
+     * @param text the words to search, as accepted by the {@code $text} operator.
+     * @param keyset the position to resume after.
+     * @param limit the maximum number of pcs to return.
+     * @return the list of pcs with their score, at most {@code limit} long.
+     */
+    List<PcSearchHit> search(String text, PcSearchKeyset keyset, int limit);
+
+    /**
+     * Streams all the pcs from a server-side cursor, in natural order.
+     * <p>
+     * The returned stream holds the cursor open and must be closed, ideally with a try-with-resources block.
+     *
+     * @param batchSize the number of documents fetched from the server per round trip.
+     * @param fields the fields to read, or {@code null} for all of them.
+     * @return the stream of all pcs.
+     */
+    Stream<Pc> streamAll(int batchSize, Set<String> fields);
+
+    /**
+     * Returns the approximate number of pcs, read from the collection metadata instead of counting documents.
+     *
+     * @return the estimated number of pcs.
+     */
+    long estimatedCount();
+
+    /**
+     * Returns the number of pcs matching a filter: the collection metadata estimate without filter, an index count
+     * otherwise.
+     *
+     * @param filter the filter the pcs must match.
+     * @return the estimated number of matching pcs.
+     */
+    long estimatedCount(PcFilter filter);
+}
@@ -0,0 +1,56 @@
+package com.flash.app.repository;
+
+import com.flash.app.domain.Pc;
+import com.mongodb.client.MongoCollection;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Stream;
+import org.bson.Document;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.util.StreamUtils;
+
+/**
+ * {@link MongoTemplate} based implementation of {@link PcRepositoryCustom}.
+ */
+class PcRepositoryCustomImpl implements PcRepositoryCustom {
+
+    private final MongoTemplate mongoTemplate;
+
+    PcRepositoryCustomImpl(MongoTemplate mongoTemplate) {
+        this.mongoTemplate = mongoTemplate;
+    }
+
+    @Override
+    public List<Pc> findAllAfter(PcFilter filter, PcKeyset keyset, int limit, Set<String> fields) {
+        return mongoTemplate.find(PcQueries.findAllAfter(filter, keyset, limit, fields), Pc.class);
+    }
+
+    @Override
+    public List<PcSearchHit> search(String text, PcSearchKeyset keyset, int limit) {
+        List<PcSearchHit> hits = new ArrayList<>(limit);
+        MongoCollection<Document> pcs = mongoTemplate.getCollection(mongoTemplate.getCollectionName(Pc.class));
+        for (Document document : pcs.aggregate(PcQueries.search(text, keyset, limit))) {
+            hits.add(new PcSearchHit(mongoTemplate.getConverter().read(Pc.class, document), document.getDouble(PcQueries.SCORE)));
+        }
+        return hits;
+    }
+
+    @Override
+    public Stream<Pc> streamAll(int batchSize, Set<String> fields) {
+        return StreamUtils.createStreamFromIterator(mongoTemplate.stream(PcQueries.streamAll(batchSize, fields), Pc.class));
+    }
+
+    @Override
+    public long estimatedCount() {
+        return mongoTemplate.estimatedCount(Pc.class);
+    }
+
+    @Override
+    public long estimatedCount(PcFilter filter) {
+        if (filter.isEmpty()) {
+            return estimatedCount();
+        }
+        return mongoTemplate.count(PcQueries.count(filter), Pc.class);
+    }
+}
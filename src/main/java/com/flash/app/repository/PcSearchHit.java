@@ -0,0 +1,26 @@
+package com.flash.app.repository;
+
+import com.flash.app.domain.Pc;
+
+/**
+ * A pc found by a text search, with its relevance score.
+ */
+public final class PcSearchHit {
+
+    private final Pc pc;
+
+    private final double score;
+
+    public PcSearchHit(Pc pc, double score) {
+        this.pc = pc;
+        this.score = score;
+    }
+
+    public Pc getPc() {
+        return pc;
+    }
+
+    public double getScore() {
+        return score;
+    }
+}
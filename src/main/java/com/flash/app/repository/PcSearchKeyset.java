@@ -0,0 +1,112 @@
+package com.flash.app.repository;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.Objects;
+
+/**
+ * Position of a keyset (cursor) page over the results of a text search, which are ordered by decreasing relevance
+ * score and then by {@code _id} as a tie-breaker.
+ * <p>
+ * Like {@link PcKeyset}, the {@link #encode() encoded} form is opaque to clients and goes into the {@code next} link of
+ * a page.
+ */
+public final class PcSearchKeyset {
+
+    private static final String SEPARATOR = ":";
+
+    private static final PcSearchKeyset FIRST = new PcSearchKeyset(0, null);
+
+    private final double score;
+
+    private final String id;
+
+    private PcSearchKeyset(double score, String id) {
+        this.score = score;
+        this.id = id;
+    }
+
+    /**
+     * @return the keyset positioned before the most relevant result.
+     */
+    public static PcSearchKeyset first() {
+        return FIRST;
+    }
+
+    /**
+     * Decodes a cursor previously produced by {@link #encode()}.
+     *
+     * @param cursor the opaque cursor.
+     * @return the decoded keyset.
+     * @throws IllegalArgumentException if the cursor is not a valid keyset.
+     */
+    public static PcSearchKeyset decode(String cursor) {
+        String decoded = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+        String[] parts = decoded.split(SEPARATOR, 2);
+        if (parts.length != 2 || parts[1].isEmpty()) {
+            throw new IllegalArgumentException("Invalid cursor: " + cursor);
+        }
+        return new PcSearchKeyset(Double.parseDouble(parts[0]), parts[1]);
+    }
+
+    /**
+     * Returns the keyset positioned right after the given result.
+     *
+     * @param last the last result of the current page.
+     * @return the keyset of the next page.
+     */
+    public PcSearchKeyset after(PcSearchHit last) {
+        return new PcSearchKeyset(last.getScore(), last.getPc().getId());
+    }
+
+    /**
+     * Encodes this keyset as an opaque, URL-safe cursor.
+     *
+     * @return the cursor.
+     */
+    public String encode() {
+        String raw = Double.toString(score) + SEPARATOR + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public double getScore() {
+        return score;
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    /**
+     * @return true if this keyset is positioned before the first result.
+     */
+    public boolean isFirst() {
+        return id == null;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof PcSearchKeyset)) {
+            return false;
+        }
+        PcSearchKeyset other = (PcSearchKeyset) o;
+        return Double.compare(score, other.score) == 0 && Objects.equals(id, other.id);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(score, id);
+    }
+
+    // prettier-ignore
+    @Override
+    public String toString() {
+        return "PcSearchKeyset{" +
+            "score=" + score +
+            ", id='" + id + "'" +
+            "}";
+    }
+}
@@ -1,13 +1,20 @@
 package com.flash.app.security.jwt;
 
 import com.flash.app.management.SecurityMetersService;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
 import io.jsonwebtoken.*;
 import io.jsonwebtoken.io.Decoders;
 import io.jsonwebtoken.security.Keys;
 import io.jsonwebtoken.security.SignatureException;
+import java.nio.ByteBuffer;
 import java.nio.charset.StandardCharsets;
 import java.security.Key;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.util.*;
+import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -29,16 +36,29 @@ public class TokenProvider {
 
     private static final String INVALID_JWT_TOKEN = "Invalid JWT token.";
 
+    /**
+     * Maximum number of verified tokens whose authentication is cached.
+     */
+    private static final long AUTHENTICATION_CACHE_SIZE = 10_000;
+
     private final Key key;
 
     private final JwtParser jwtParser;
 
+    private final TokenVerifier tokenVerifier;
+
     private final long tokenValidityInMilliseconds;
 
     private final long tokenValidityInMillisecondsForRememberMe;
 
     private final SecurityMetersService securityMetersService;
 
+    /**
+     * Authentications of verified tokens, keyed by the SHA-256 digest of the token and expiring with it. A token is
+     * only valid until its expiration, so a cached authentication is as good as verifying the token again.
+     */
+    private final Cache<ByteBuffer, VerifiedToken> authentications;
+
     public TokenProvider(JHipsterProperties jHipsterProperties, SecurityMetersService securityMetersService) {
         byte[] keyBytes;
         String secret = jHipsterProperties.getSecurity().getAuthentication().getJwt().getBase64Secret();
@@ -55,11 +75,15 @@ public class TokenProvider {
         }
         key = Keys.hmacShaKeyFor(keyBytes);
         jwtParser = Jwts.parserBuilder().setSigningKey(key).build();
+        tokenVerifier = new TokenVerifier(key);
         this.tokenValidityInMilliseconds = 1000 * jHipsterProperties.getSecurity().getAuthentication().getJwt().getTokenValidityInSeconds();
         this.tokenValidityInMillisecondsForRememberMe =
             1000 * jHipsterProperties.getSecurity().getAuthentication().getJwt().getTokenValidityInSecondsForRememberMe();
 
         this.securityMetersService = securityMetersService;
+        this.authentications =
+            Caffeine.newBuilder().maximumSize(AUTHENTICATION_CACHE_SIZE).expireAfter(new VerifiedTokenExpiry()).recordStats().build();
+        securityMetersService.monitorAuthenticationCache(authentications);
     }
 
     public String createToken(Authentication authentication, boolean rememberMe) {
@@ -82,25 +106,75 @@ public class TokenProvider {
             .compact();
     }
 
+    /**
+     * Verifies a token and returns its authentication, parsing the token only if it was not verified before.
+     * <p>
+     * Tokens in the format created by {@link #createToken} are verified by the {@link TokenVerifier}, any other token
+     * by the {@link JwtParser}. Invalid tokens are never cached, so that each of them is counted by the
+     * {@link SecurityMetersService}.
+     *
+     * @param token the JWT.
+     * @return the authentication of the token, or empty if the token is not valid.
+     */
+    public Optional<Authentication> authenticate(String token) {
+        ByteBuffer digest = digest(token);
+        VerifiedToken verified = authentications.getIfPresent(digest);
+        if (verified != null) {
+            return Optional.of(verified.authentication);
+        }
+        TokenVerifier.VerifiedClaims verifiedClaims = tokenVerifier.verify(token, System.currentTimeMillis());
+        if (verifiedClaims != null) {
+            Authentication authentication = toAuthentication(verifiedClaims.getSubject(), verifiedClaims.getAuthorities(), token);
+            authentications.put(digest, new VerifiedToken(authentication, verifiedClaims.getExpirationMillis()));
+            return Optional.of(authentication);
+        }
+        Claims claims = parseClaims(token);
+        if (claims == null) {
+            return Optional.empty();
+        }
+        Authentication authentication = toAuthentication(claims, token);
+        if (claims.getExpiration() != null) {
+            authentications.put(digest, new VerifiedToken(authentication, claims.getExpiration().getTime()));
+        }
+        return Optional.of(authentication);
+    }
+
     public Authentication getAuthentication(String token) {
-        Claims claims = jwtParser.parseClaimsJws(token).getBody();
+        TokenVerifier.VerifiedClaims verifiedClaims = tokenVerifier.verify(token, System.currentTimeMillis());
+        if (verifiedClaims != null) {
+            return toAuthentication(verifiedClaims.getSubject(), verifiedClaims.getAuthorities(), token);
+        }
+        return toAuthentication(jwtParser.parseClaimsJws(token).getBody(), token);
+    }
+
+    private static Authentication toAuthentication(Claims claims, String token) {
+        return toAuthentication(claims.getSubject(), claims.get(AUTHORITIES_KEY).toString(), token);
+    }
 
+    private static Authentication toAuthentication(String subject, String authorityNames, String token) {
         Collection<? extends GrantedAuthority> authorities = Arrays
-            .stream(claims.get(AUTHORITIES_KEY).toString().split(","))
+            .stream(authorityNames.split(","))
             .filter(auth -> !auth.trim().isEmpty())
             .map(SimpleGrantedAuthority::new)
             .collect(Collectors.toList());
 
-        User principal = new User(claims.getSubject(), "", authorities);
+        User principal = new User(subject, "", authorities);
 
         return new UsernamePasswordAuthenticationToken(principal, token, authorities);
     }
 
     public boolean validateToken(String authToken) {
-        try {
-            jwtParser.parseClaimsJws(authToken);
+        return tokenVerifier.verify(authToken, System.currentTimeMillis()) != null || parseClaims(authToken) != null;
+    }
 
-            return true;
+    /**
+     * Verifies a token and parses its claims, counting invalid tokens by cause.
+     *
+     * @return the claims, or {@code null} if the token is not valid.
+     */
+    private Claims parseClaims(String authToken) {
+        try {
+            return jwtParser.parseClaimsJws(authToken).getBody();
         } catch (ExpiredJwtException e) {
             this.securityMetersService.trackTokenExpired();
 
@@ -121,6 +195,48 @@ public class TokenProvider {
             log.error("Token validation error {}", e.getMessage());
         }
 
-        return false;
+        return null;
+    }
+
+    private static ByteBuffer digest(String token) {
+        try {
+            return ByteBuffer.wrap(MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            // every Java platform supports SHA-256
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static final class VerifiedToken {
+
+        private final Authentication authentication;
+
+        private final long expiresAtMillis;
+
+        private VerifiedToken(Authentication authentication, long expiresAtMillis) {
+            this.authentication = authentication;
+            this.expiresAtMillis = expiresAtMillis;
+        }
+    }
+
+    /**
+     * Expires each cached authentication when its token expires.
+     */
+    private static final class VerifiedTokenExpiry implements Expiry<ByteBuffer, VerifiedToken> {
+
+        @Override
+        public long expireAfterCreate(ByteBuffer key, VerifiedToken value, long currentTime) {
+            return TimeUnit.MILLISECONDS.toNanos(Math.max(0, value.expiresAtMillis - System.currentTimeMillis()));
+        }
+
+        @Override
+        public long expireAfterUpdate(ByteBuffer key, VerifiedToken value, long currentTime, long currentDuration) {
+            return expireAfterCreate(key, value, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(ByteBuffer key, VerifiedToken value, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
     }
 }
@@ -0,0 +1,269 @@
+package com.flash.app.security.jwt;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.Key;
+import java.security.MessageDigest;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import javax.crypto.Mac;
+
+/**
+ * Verifier of the tokens created by {@link TokenProvider}, specialized for their fixed format: an HS512 signature over
+ * the {@code sub}, {@code auth} and {@code exp} claims.
+ * <p>
+ * It only accepts tokens that the general purpose {@link io.jsonwebtoken.JwtParser} accepts too. Any other token,
+ * invalid or just not in the fixed format, is left to the parser, which decides on it and tells why it is rejected.
+ * <p>
+ * The {@link Mac} instances and the decoding buffers are pooled, and the claims are read with a streaming parser, so a
+ * verification allocates little more than the claim strings.
+ */
+final class TokenVerifier {
+
+    private static final String ALGORITHM = "HmacSHA512";
+
+    private static final int SIGNATURE_LENGTH = 64;
+
+    /**
+     * Encoded length of a signature, without padding.
+     */
+    private static final int ENCODED_SIGNATURE_LENGTH = (SIGNATURE_LENGTH * 8 + 5) / 6;
+
+    /**
+     * Header written by jjwt for HS512 tokens.
+     */
+    private static final String HEADER = Base64
+        .getUrlEncoder()
+        .withoutPadding()
+        .encodeToString("{\"alg\":\"HS512\"}".getBytes(StandardCharsets.US_ASCII));
+
+    private static final byte[] BASE64_URL_VALUES = new byte[128];
+
+    static {
+        Arrays.fill(BASE64_URL_VALUES, (byte) -1);
+        String alphabet = "ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz0123456789-_";
+        for (int i = 0; i < alphabet.length(); i++) {
+            BASE64_URL_VALUES[alphabet.charAt(i)] = (byte) i;
+        }
+    }
+
+    private static final JsonFactory JSON_FACTORY = new JsonFactory();
+
+    private final Key key;
+
+    private final boolean enabled;
+
+    private final BlockingQueue<Verification> pool = new ArrayBlockingQueue<>(2 * Runtime.getRuntime().availableProcessors());
+
+    TokenVerifier(Key key) {
+        this.key = key;
+        // jjwt refuses to verify HS512 signatures with a key that is not an HS512 key, leave those tokens to it
+        byte[] encoded = key.getEncoded();
+        this.enabled = ALGORITHM.equalsIgnoreCase(key.getAlgorithm()) && encoded != null && encoded.length >= SIGNATURE_LENGTH;
+    }
+
+    /**
+     * Verifies a token in the fixed format.
+     *
+     * @param token the JWT.
+     * @param nowMillis the current time, in milliseconds since the epoch.
+     * @return the claims of the token, or {@code null} if the token is not valid or not in the fixed format, and must
+     * be left to the {@link io.jsonwebtoken.JwtParser}.
+     */
+    VerifiedClaims verify(String token, long nowMillis) {
+        if (!enabled || token == null || !token.startsWith(HEADER) || token.indexOf('.') != HEADER.length()) {
+            return null;
+        }
+        int signatureStart = token.indexOf('.', HEADER.length() + 1) + 1;
+        if (signatureStart == 0 || token.length() - signatureStart != ENCODED_SIGNATURE_LENGTH) {
+            return null;
+        }
+        Verification verification = acquire();
+        try {
+            int payloadLength = verification.decodePayload(token, HEADER.length() + 1, signatureStart - 1);
+            if (
+                payloadLength < 0 ||
+                decode(token, signatureStart, token.length(), verification.signature) != SIGNATURE_LENGTH ||
+                !verification.isSigned(token, signatureStart - 1)
+            ) {
+                return null;
+            }
+            VerifiedClaims claims = readClaims(verification.payload, payloadLength);
+            // jjwt accepts a token until the millisecond it expires
+            return claims != null && claims.expirationMillis >= nowMillis ? claims : null;
+        } finally {
+            pool.offer(verification);
+        }
+    }
+
+    private Verification acquire() {
+        Verification verification = pool.poll();
+        return verification != null ? verification : new Verification();
+    }
+
+    /**
+     * Decodes unpadded Base64URL characters.
+     *
+     * @return the number of decoded bytes, or {@code -1} if the characters are not strict Base64URL.
+     */
+    private static int decode(String source, int start, int end, byte[] destination) {
+        if ((end - start) % 4 == 1 || (end - start) * 3 / 4 > destination.length) {
+            return -1;
+        }
+        int length = 0;
+        int buffer = 0;
+        int bits = 0;
+        for (int i = start; i < end; i++) {
+            char c = source.charAt(i);
+            int value = c < BASE64_URL_VALUES.length ? BASE64_URL_VALUES[c] : -1;
+            if (value < 0) {
+                return -1;
+            }
+            buffer = (buffer << 6) | value;
+            bits += 6;
+            if (bits >= 8) {
+                bits -= 8;
+                destination[length++] = (byte) (buffer >> bits);
+                buffer &= (1 << bits) - 1;
+            }
+        }
+        return length;
+    }
+
+    /**
+     * Reads claims holding exactly a string {@code sub}, a string {@code auth} and an integer {@code exp}.
+     *
+     * @return the claims, or {@code null} if they hold anything else.
+     */
+    private static VerifiedClaims readClaims(byte[] payload, int length) {
+        try (JsonParser parser = JSON_FACTORY.createParser(payload, 0, length)) {
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                return null;
+            }
+            String subject = null;
+            String authorities = null;
+            Long expiration = null;
+            JsonToken token;
+            while ((token = parser.nextToken()) == JsonToken.FIELD_NAME) {
+                String name = parser.getCurrentName();
+                JsonToken value = parser.nextToken();
+                if ("sub".equals(name) && value == JsonToken.VALUE_STRING && subject == null) {
+                    subject = parser.getText();
+                } else if ("auth".equals(name) && value == JsonToken.VALUE_STRING && authorities == null) {
+                    authorities = parser.getText();
+                } else if ("exp".equals(name) && value == JsonToken.VALUE_NUMBER_INT && expiration == null) {
+                    expiration = parser.getLongValue();
+                } else {
+                    return null;
+                }
+            }
+            if (
+                token != JsonToken.END_OBJECT ||
+                parser.nextToken() != null ||
+                subject == null ||
+                authorities == null ||
+                expiration == null ||
+                expiration < 0 ||
+                expiration > Long.MAX_VALUE / 1000
+            ) {
+                return null;
+            }
+            return new VerifiedClaims(subject, authorities, expiration * 1000);
+        } catch (IOException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Claims of a verified token.
+     */
+    static final class VerifiedClaims {
+
+        private final String subject;
+
+        private final String authorities;
+
+        private final long expirationMillis;
+
+        private VerifiedClaims(String subject, String authorities, long expirationMillis) {
+            this.subject = subject;
+            this.authorities = authorities;
+            this.expirationMillis = expirationMillis;
+        }
+
+        String getSubject() {
+            return subject;
+        }
+
+        /**
+         * @return the comma separated authorities.
+         */
+        String getAuthorities() {
+            return authorities;
+        }
+
+        long getExpirationMillis() {
+            return expirationMillis;
+        }
+    }
+
+    /**
+     * {@link Mac} and buffers of one verification at a time.
+     */
+    private final class Verification {
+
+        private final Mac mac;
+
+        private final byte[] signature = new byte[SIGNATURE_LENGTH];
+
+        private final byte[] expectedSignature = new byte[SIGNATURE_LENGTH];
+
+        private byte[] signedContent = new byte[512];
+
+        private byte[] payload = new byte[384];
+
+        private Verification() {
+            try {
+                mac = Mac.getInstance(ALGORITHM);
+                mac.init(key);
+            } catch (GeneralSecurityException e) {
+                // every Java platform supports HmacSHA512, and the key was checked
+                throw new IllegalStateException(e);
+            }
+        }
+
+        int decodePayload(String token, int start, int end) {
+            int capacity = (end - start) * 3 / 4;
+            if (payload.length < capacity) {
+                payload = new byte[capacity];
+            }
+            return decode(token, start, end, payload);
+        }
+
+        /**
+         * Checks the signature against the content signed, the token up to the signature separator.
+         */
+        boolean isSigned(String token, int signedLength) {
+            if (signedContent.length < signedLength) {
+                signedContent = new byte[signedLength];
+            }
+            // the header and the payload were decoded, so they are ASCII
+            for (int i = 0; i < signedLength; i++) {
+                signedContent[i] = (byte) token.charAt(i);
+            }
+            mac.update(signedContent, 0, signedLength);
+            try {
+                mac.doFinal(expectedSignature, 0);
+            } catch (GeneralSecurityException e) {
+                throw new IllegalStateException(e);
+            }
+            return MessageDigest.isEqual(expectedSignature, signature);
+        }
+    }
+}
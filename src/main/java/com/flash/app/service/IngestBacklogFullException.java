@@ -0,0 +1,14 @@
+package com.flash.app.service;
+
+/**
+ * Thrown when a {@link com.flash.app.domain.Pc} cannot be accepted for an asynchronous creation, because too many are
+ * still waiting to be written to the database.
+ */
+public class IngestBacklogFullException extends RuntimeException {
+
+    private static final long serialVersionUID = 1L;
+
+    public IngestBacklogFullException(long backlog) {
+        super("The ingest backlog is full with " + backlog + " pcs waiting to be written");
+    }
+}
@@ -0,0 +1,384 @@
+package com.flash.app.service;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.zip.CRC32C;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Append-only journal of records kept in memory-mapped segment files, read back in order by a single consumer.
+ * <p>
+ * A record is written as its length, the CRC32C of the rest, its append time and its payload. The length goes last, so
+ * that a record torn by a crash reads as the end of the journal. Once the consumer has processed a batch it commits it:
+ * its position is saved in a checkpoint file and the segments before it are deleted. The records after the checkpoint
+ * are read again when the journal is reopened, so a record can be processed twice. A record is not lost once appended,
+ * unless the host itself crashes before the OS writes the mapped pages back.
+ */
+class IngestJournal implements Closeable {
+
+    /**
+     * Length, CRC32C and append time of a record.
+     */
+    static final int HEADER_SIZE = 16;
+
+    private static final int CHECKPOINT_SIZE = 16;
+
+    private static final String SEGMENT_PREFIX = "segment-";
+
+    private static final String SEGMENT_SUFFIX = ".journal";
+
+    private static final String CHECKPOINT_FILE = "checkpoint";
+
+    private final Logger log = LoggerFactory.getLogger(IngestJournal.class);
+
+    private final Path directory;
+
+    private final int segmentSize;
+
+    private final int maxSegments;
+
+    private final NavigableMap<Long, Segment> segments = new TreeMap<>();
+
+    private final MappedByteBuffer checkpoint;
+
+    private Segment head;
+
+    private long committedSequence;
+
+    private int committedPosition;
+
+    private long backlog;
+
+    private boolean awaited;
+
+    /**
+     * Opens the journal of a directory, creating it if needed, and finds the records that were not committed.
+     *
+     * @param directory the directory of the journal files.
+     * @param segmentSize the size of the segment files.
+     * @param maxSegments the number of segment files beyond which appends are refused.
+     * @throws IOException if the journal files cannot be read or created.
+     */
+    IngestJournal(Path directory, int segmentSize, int maxSegments) throws IOException {
+        this.directory = directory;
+        this.segmentSize = segmentSize;
+        this.maxSegments = maxSegments;
+        Files.createDirectories(directory);
+        checkpoint = map(directory.resolve(CHECKPOINT_FILE), CHECKPOINT_SIZE);
+        long checkpointSequence = -1;
+        int checkpointPosition = 0;
+        if (crc(checkpoint, 0, 12) == checkpoint.getInt(12) && checkpoint.getLong(0) != 0) {
+            checkpointSequence = checkpoint.getLong(0);
+            checkpointPosition = checkpoint.getInt(8);
+        }
+        for (Path path : segmentPaths()) {
+            long sequence = sequence(path);
+            if (sequence < checkpointSequence) {
+                Files.delete(path);
+                continue;
+            }
+            Segment segment = new Segment(sequence, path, map(path, (int) Files.size(path)));
+            segment.limit = scan(segment);
+            segments.put(sequence, segment);
+        }
+        if (segments.isEmpty()) {
+            head = createSegment(Math.max(checkpointSequence, 1));
+        } else {
+            head = segments.lastEntry().getValue();
+            if (head.corrupt) {
+                // the bytes of a torn record would otherwise be read as the header of a record when reopened
+                ByteBuffer tail = head.buffer.duplicate();
+                tail.position(head.limit);
+                byte[] zeros = new byte[Math.min(tail.remaining(), 64 * 1024)];
+                while (tail.hasRemaining()) {
+                    tail.put(zeros, 0, Math.min(zeros.length, tail.remaining()));
+                }
+            }
+        }
+        Segment committed = segments.get(checkpointSequence);
+        if (committed != null && checkpointPosition <= committed.limit) {
+            committedSequence = checkpointSequence;
+            committedPosition = checkpointPosition;
+        } else {
+            committedSequence = segments.firstKey();
+            committedPosition = 0;
+        }
+        backlog = countRecords(segments.get(committedSequence), committedPosition);
+        for (Segment segment : segments.tailMap(committedSequence, false).values()) {
+            backlog += countRecords(segment, 0);
+        }
+        if (backlog > 0) {
+            log.info("Ingest journal {} has {} records to replay", directory, backlog);
+        }
+    }
+
+    /**
+     * Appends a record, and wakes up the consumer if it waits for one.
+     *
+     * @param payload the content of the record.
+     * @param timestamp the append time of the record, in milliseconds.
+     * @return whether the record is appended, or not because the journal has reached its maximum number of segments.
+     * @throws IOException if a new segment cannot be created.
+     */
+    synchronized boolean append(byte[] payload, long timestamp) throws IOException {
+        int size = HEADER_SIZE + payload.length;
+        if (size > segmentSize) {
+            throw new IllegalArgumentException("A record of " + payload.length + " bytes does not fit in a journal segment");
+        }
+        if (head.limit + size > head.buffer.capacity()) {
+            if (segments.size() >= maxSegments) {
+                return false;
+            }
+            head = createSegment(head.sequence + 1);
+        }
+        int position = head.limit;
+        ByteBuffer record = head.buffer.duplicate();
+        record.position(position + 8);
+        record.putLong(timestamp);
+        record.put(payload);
+        head.buffer.putInt(position + 4, crc(head.buffer, position + 8, size - 8));
+        head.buffer.putInt(position, payload.length);
+        head.limit = position + size;
+        backlog++;
+        if (awaited) {
+            notifyAll();
+        }
+        return true;
+    }
+
+    /**
+     * Reads the records following the last committed batch; they are read again until the batch is committed.
+     *
+     * @param maxRecords the maximum number of records to read.
+     * @param timeoutMillis the maximum time to wait for a record when there is none.
+     * @return the records read, possibly none.
+     * @throws InterruptedException if interrupted while waiting.
+     */
+    synchronized Batch poll(int maxRecords, long timeoutMillis) throws InterruptedException {
+        if (backlog == 0 && timeoutMillis > 0) {
+            awaited = true;
+            try {
+                wait(timeoutMillis);
+            } finally {
+                awaited = false;
+            }
+        }
+        List<Record> records = new ArrayList<>((int) Math.min(backlog, maxRecords));
+        Segment segment = segments.get(committedSequence);
+        int position = committedPosition;
+        while (records.size() < maxRecords) {
+            if (position >= segment.limit) {
+                if (segment == head) {
+                    break;
+                }
+                segment = segments.higherEntry(segment.sequence).getValue();
+                position = 0;
+                continue;
+            }
+            int length = segment.buffer.getInt(position);
+            byte[] payload = new byte[length];
+            ByteBuffer record = segment.buffer.duplicate();
+            record.position(position + HEADER_SIZE);
+            record.get(payload);
+            records.add(new Record(payload, segment.buffer.getLong(position + 8)));
+            position += HEADER_SIZE + length;
+        }
+        return new Batch(records, segment.sequence, position);
+    }
+
+    /**
+     * Commits a batch once its records are processed, so that they are not read again.
+     *
+     * @param batch the last batch returned by {@link #poll}.
+     */
+    synchronized void commit(Batch batch) {
+        committedSequence = batch.sequence;
+        committedPosition = batch.position;
+        backlog -= batch.records.size();
+        checkpoint.putLong(0, batch.sequence);
+        checkpoint.putInt(8, batch.position);
+        checkpoint.putInt(12, crc(checkpoint, 0, 12));
+        while (segments.firstKey() < committedSequence) {
+            Segment segment = segments.pollFirstEntry().getValue();
+            try {
+                Files.delete(segment.path);
+            } catch (IOException e) {
+                log.warn("Could not delete the ingest journal segment {}: {}", segment.path, e.toString());
+            }
+        }
+    }
+
+    /**
+     * @return the number of records appended and not committed.
+     */
+    synchronized long backlog() {
+        return backlog;
+    }
+
+    @Override
+    public synchronized void close() {
+        for (Segment segment : segments.values()) {
+            segment.buffer.force();
+        }
+        checkpoint.force();
+    }
+
+    private Segment createSegment(long sequence) throws IOException {
+        Path path = directory.resolve(String.format("%s%020d%s", SEGMENT_PREFIX, sequence, SEGMENT_SUFFIX));
+        Segment segment = new Segment(sequence, path, map(path, segmentSize));
+        segments.put(sequence, segment);
+        return segment;
+    }
+
+    /**
+     * @return the position following the last valid record of a segment.
+     */
+    private int scan(Segment segment) {
+        int position = 0;
+        int next;
+        while ((next = next(segment, position)) > 0) {
+            position = next;
+        }
+        return position;
+    }
+
+    private long countRecords(Segment segment, int from) {
+        long count = 0;
+        for (int position = from; position < segment.limit; position += HEADER_SIZE + segment.buffer.getInt(position)) {
+            count++;
+        }
+        return count;
+    }
+
+    /**
+     * @return the position following the record at a position, or -1 if there is no valid record there.
+     */
+    private int next(Segment segment, int position) {
+        ByteBuffer buffer = segment.buffer;
+        if (position + HEADER_SIZE > buffer.capacity()) {
+            return -1;
+        }
+        int length = buffer.getInt(position);
+        if (length == 0) {
+            return -1;
+        }
+        boolean valid =
+            length > 0 &&
+            length <= buffer.capacity() - position - HEADER_SIZE &&
+            crc(buffer, position + 8, length + 8) == buffer.getInt(position + 4);
+        if (!valid) {
+            log.warn("Ingest journal segment {} is corrupt at position {}, the records after it are lost", segment.path, position);
+            segment.corrupt = true;
+            return -1;
+        }
+        return position + HEADER_SIZE + length;
+    }
+
+    private List<Path> segmentPaths() throws IOException {
+        List<Path> paths = new ArrayList<>();
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory, SEGMENT_PREFIX + "*" + SEGMENT_SUFFIX)) {
+            stream.forEach(paths::add);
+        }
+        // the sequence numbers are padded, so their order is the order of the names
+        paths.sort(null);
+        return paths;
+    }
+
+    private static long sequence(Path path) {
+        String name = path.getFileName().toString();
+        return Long.parseLong(name.substring(SEGMENT_PREFIX.length(), name.length() - SEGMENT_SUFFIX.length()));
+    }
+
+    private static MappedByteBuffer map(Path path, int size) throws IOException {
+        try (
+            FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE)
+        ) {
+            return channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+        }
+    }
+
+    private static int crc(ByteBuffer buffer, int position, int length) {
+        ByteBuffer bytes = buffer.duplicate();
+        bytes.position(position);
+        bytes.limit(position + length);
+        CRC32C crc = new CRC32C();
+        crc.update(bytes);
+        return (int) crc.getValue();
+    }
+
+    private static class Segment {
+
+        private final long sequence;
+
+        private final Path path;
+
+        private final MappedByteBuffer buffer;
+
+        /**
+         * Position following the last record.
+         */
+        private int limit;
+
+        /**
+         * Whether the bytes after the last record are not all zeros.
+         */
+        private boolean corrupt;
+
+        Segment(long sequence, Path path, MappedByteBuffer buffer) {
+            this.sequence = sequence;
+            this.path = path;
+            this.buffer = buffer;
+        }
+    }
+
+    static class Record {
+
+        private final byte[] payload;
+
+        private final long timestamp;
+
+        Record(byte[] payload, long timestamp) {
+            this.payload = payload;
+            this.timestamp = timestamp;
+        }
+
+        byte[] getPayload() {
+            return payload;
+        }
+
+        long getTimestamp() {
+            return timestamp;
+        }
+    }
+
+    static class Batch {
+
+        private final List<Record> records;
+
+        private final long sequence;
+
+        private final int position;
+
+        Batch(List<Record> records, long sequence, int position) {
+            this.records = records;
+            this.sequence = sequence;
+            this.position = position;
+        }
+
+        List<Record> getRecords() {
+            return records;
+        }
+    }
+}
@@ -0,0 +1,13 @@
+package com.flash.app.service;
+
+/**
+ * Thrown when a patch document cannot be applied to a {@link com.flash.app.domain.Pc}.
+ */
+public class InvalidPatchException extends RuntimeException {
+
+    private static final long serialVersionUID = 1L;
+
+    public InvalidPatchException(String message) {
+        super(message);
+    }
+}
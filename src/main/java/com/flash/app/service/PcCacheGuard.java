@@ -0,0 +1,95 @@
+package com.flash.app.service;
+
+import com.flash.app.domain.Pc;
+import com.flash.app.repository.PcRepository;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicLongArray;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Component;
+
+/**
+ * Evictions of the {@link PcRepository#PCS_BY_ID_CACHE} cache on writes, and puts of pcs read from the database that
+ * cannot overwrite those evictions.
+ * <p>
+ * A pc read before a write and put in the cache after the write has evicted it would stay stale until it expires. Every
+ * eviction increments a stamp of the id, taken from a fixed number of stripes: a reader takes the stamp before reading,
+ * and its put is undone if the stamp has changed by the time the pc is in the cache.
+ */
+@Component
+public class PcCacheGuard {
+
+    private static final int STRIPES = 64;
+
+    private final AtomicLongArray stamps = new AtomicLongArray(STRIPES);
+
+    private final CacheManager cacheManager;
+
+    public PcCacheGuard(CacheManager cacheManager) {
+        this.cacheManager = cacheManager;
+    }
+
+    /**
+     * @param id the id of the pc.
+     * @return the cached pc, or {@code null} if it is not in the cache.
+     */
+    public Pc get(String id) {
+        return getCache().get(id, Pc.class);
+    }
+
+    /**
+     * @param id the id of the pc about to be read.
+     * @return the stamp to put the pc read with.
+     */
+    public long stamp(String id) {
+        return stamps.get(stripe(id));
+    }
+
+    /**
+     * Puts a pc read from the database in the cache, unless it was evicted since the stamp was taken.
+     *
+     * @param id the id of the pc.
+     * @param pc the pc read.
+     * @param stamp the stamp taken before reading.
+     */
+    public void put(String id, Pc pc, long stamp) {
+        int stripe = stripe(id);
+        if (stamps.get(stripe) != stamp) {
+            return;
+        }
+        Cache cache = getCache();
+        cache.put(id, pc);
+        // an eviction that happened before this put would have been lost
+        if (stamps.get(stripe) != stamp) {
+            cache.evict(id);
+        }
+    }
+
+    /**
+     * Evicts a pc once it is written.
+     *
+     * @param id the id of the pc written.
+     */
+    public void evict(String id) {
+        stamps.incrementAndGet(stripe(id));
+        getCache().evict(id);
+    }
+
+    /**
+     * Evicts all the pcs, when the writes are not known.
+     */
+    public void clear() {
+        for (int stripe = 0; stripe < STRIPES; stripe++) {
+            stamps.incrementAndGet(stripe);
+        }
+        getCache().clear();
+    }
+
+    private static int stripe(String id) {
+        return Math.floorMod(id.hashCode(), STRIPES);
+    }
+
+    private Cache getCache() {
+        return Objects.requireNonNull(cacheManager.getCache(PcRepository.PCS_BY_ID_CACHE));
+    }
+}
@@ -0,0 +1,303 @@
+package com.flash.app.service;
+
+import com.flash.app.config.ApplicationProperties;
+import com.flash.app.domain.Pc;
+import com.flash.app.repository.PcRepository;
+import com.mongodb.MongoException;
+import com.mongodb.MongoServerException;
+import com.mongodb.client.ChangeStreamIterable;
+import com.mongodb.client.MongoChangeStreamCursor;
+import com.mongodb.client.MongoCollection;
+import com.mongodb.client.model.Aggregates;
+import com.mongodb.client.model.Filters;
+import com.mongodb.client.model.Projections;
+import com.mongodb.client.model.ReplaceOptions;
+import com.mongodb.client.model.changestream.ChangeStreamDocument;
+import com.mongodb.client.model.changestream.OperationType;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.bson.BsonDocument;
+import org.bson.BsonValue;
+import org.bson.Document;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.stereotype.Service;
+
+/**
+ * Evicts {@link Pc} entries from the local caches when any instance writes them, by following a change stream on the
+ * {@code pc} collection.
+ * <p>
+ * The resume token is saved per instance, so that a restarted listener picks up the events it missed. When the token
+ * has fallen off the oplog the missed events cannot be known, and the whole cache is cleared instead. The tokens left by
+ * the instances that are gone expire, see {@link com.flash.app.config.dbmigrations.ResumeTokenTtlMigration}. An
+ * unreadable saved token is handled the same way. Any other failure is logged and the stream is opened again after a
+ * backoff, the listener only stops with the application.
+ */
+@Service
+@ConditionalOnProperty(prefix = "application.cache.change-stream", name = "enabled", havingValue = "true")
+public class PcChangeStreamListener implements SmartLifecycle {
+
+    public static final String RESUME_TOKEN_COLLECTION = "change_stream_resume_token";
+
+    /**
+     * Server errors telling that a change stream cannot be resumed from the given token.
+     */
+    private static final List<Integer> HISTORY_LOST_ERROR_CODES = List.of(
+        286, // ChangeStreamHistoryLost
+        280, // ChangeStreamFatalError, returned by older servers for a token that is not in the oplog anymore
+        260 // InvalidResumeToken
+    );
+
+    /**
+     * Server error telling that change streams are not available, on standalone servers.
+     */
+    private static final int CHANGE_STREAM_NOT_SUPPORTED_ERROR_CODE = 40573;
+
+    private static final long MAX_RETRY_DELAY_MILLIS = 30_000;
+
+    private final Logger log = LoggerFactory.getLogger(PcChangeStreamListener.class);
+
+    private final MongoTemplate mongoTemplate;
+
+    private final PcCacheGuard pcCacheGuard;
+
+    private final ApplicationProperties.Cache.ChangeStream properties;
+
+    private final Counter evictions;
+
+    private final Counter invalidations;
+
+    private volatile boolean running;
+
+    private Thread thread;
+
+    public PcChangeStreamListener(
+        MongoTemplate mongoTemplate,
+        PcCacheGuard pcCacheGuard,
+        ApplicationProperties applicationProperties,
+        MeterRegistry meterRegistry
+    ) {
+        this.mongoTemplate = mongoTemplate;
+        this.pcCacheGuard = pcCacheGuard;
+        this.properties = applicationProperties.getCache().getChangeStream();
+        this.evictions = Counter
+            .builder("cache.change.stream.evictions")
+            .description("Cache entries evicted on writes seen in the change stream")
+            .tag("cache", PcRepository.PCS_BY_ID_CACHE)
+            .register(meterRegistry);
+        this.invalidations = Counter
+            .builder("cache.change.stream.invalidations")
+            .description("Full cache clears on change stream history loss")
+            .tag("cache", PcRepository.PCS_BY_ID_CACHE)
+            .register(meterRegistry);
+    }
+
+    @Override
+    public synchronized void start() {
+        running = true;
+        thread = new Thread(this::listen, "pc-change-stream");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    @Override
+    public void stop() {
+        Thread listener;
+        synchronized (this) {
+            running = false;
+            listener = thread;
+            thread = null;
+        }
+        if (listener != null) {
+            try {
+                // the listener notices it must stop at the latest when its await on the change stream times out
+                listener.join(properties.getMaxAwaitTime().toMillis() * 2);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    private void listen() {
+        BsonDocument resumeToken = null;
+        boolean resumeTokenLoaded = false;
+        long retryDelay = 0;
+        while (running) {
+            try {
+                if (!resumeTokenLoaded) {
+                    resumeToken = loadResumeToken();
+                    resumeTokenLoaded = true;
+                }
+                try (MongoChangeStreamCursor<ChangeStreamDocument<Document>> cursor = watch(resumeToken).cursor()) {
+                    log.info("Listening to changes of {} from {}", PcRepository.PCS_BY_ID_CACHE, resumeToken == null ? "now" : resumeToken);
+                    retryDelay = 0;
+                    resumeToken = consume(cursor, resumeToken);
+                }
+            } catch (MongoServerException e) {
+                if (e.getCode() == CHANGE_STREAM_NOT_SUPPORTED_ERROR_CODE) {
+                    log.error("Change streams are not supported by this MongoDB deployment, local caches will only expire", e);
+                    running = false;
+                } else if (HISTORY_LOST_ERROR_CODES.contains(e.getCode())) {
+                    log.warn("Cannot resume the change stream from {}, clearing the whole cache: {}", resumeToken, e.getMessage());
+                    resumeToken = null;
+                    invalidateAll();
+                } else {
+                    retryDelay = retry(retryDelay, e);
+                }
+            } catch (MongoException e) {
+                retryDelay = retry(retryDelay, e);
+            } catch (RuntimeException e) {
+                // not expected, but the listener must go on: the caches would otherwise go stale without any sign
+                log.error("Could not follow the changes of {}", PcRepository.PCS_BY_ID_CACHE, e);
+                retryDelay = retry(retryDelay, e);
+            }
+        }
+    }
+
+    /**
+     * Evicts the documents of the change events until the listener is stopped or the stream is invalidated.
+     *
+     * @return the token to resume from, or {@code null} to start again from now.
+     */
+    private BsonDocument consume(MongoChangeStreamCursor<ChangeStreamDocument<Document>> cursor, BsonDocument resumeToken) {
+        int unsavedEvents = 0;
+        while (running) {
+            ChangeStreamDocument<Document> event = cursor.tryNext();
+            if (event == null) {
+                // idle: the post batch token is past the events of other collections, so they are not scanned again
+                BsonDocument idleToken = cursor.getResumeToken();
+                if (idleToken != null) {
+                    resumeToken = idleToken;
+                }
+                if (unsavedEvents > 0) {
+                    saveResumeToken(resumeToken);
+                    unsavedEvents = 0;
+                }
+                continue;
+            }
+            if (event.getOperationType() == OperationType.INVALIDATE) {
+                // the collection was dropped or renamed, every cached pc is gone
+                log.warn("The change stream was invalidated, clearing the whole cache");
+                invalidateAll();
+                return null;
+            }
+            evict(event.getDocumentKey());
+            resumeToken = event.getResumeToken();
+            if (++unsavedEvents >= properties.getTokenSaveInterval()) {
+                saveResumeToken(resumeToken);
+                unsavedEvents = 0;
+            }
+        }
+        if (unsavedEvents > 0) {
+            saveResumeToken(resumeToken);
+        }
+        return resumeToken;
+    }
+
+    private ChangeStreamIterable<Document> watch(BsonDocument resumeToken) {
+        MongoCollection<Document> collection = mongoTemplate.getCollection(mongoTemplate.getCollectionName(Pc.class));
+        ChangeStreamIterable<Document> changeStream = collection
+            .watch(
+                List.of(
+                    Aggregates.match(
+                        Filters.in(
+                            "operationType",
+                            OperationType.INSERT.getValue(),
+                            OperationType.UPDATE.getValue(),
+                            OperationType.REPLACE.getValue(),
+                            OperationType.DELETE.getValue(),
+                            OperationType.INVALIDATE.getValue()
+                        )
+                    ),
+                    // only the document key is needed to evict, do not ship inserted documents
+                    Aggregates.project(Projections.exclude("fullDocument"))
+                )
+            )
+            .maxAwaitTime(properties.getMaxAwaitTime().toMillis(), TimeUnit.MILLISECONDS);
+        return resumeToken == null ? changeStream : changeStream.resumeAfter(resumeToken);
+    }
+
+    private void evict(BsonDocument documentKey) {
+        if (documentKey == null) {
+            return;
+        }
+        BsonValue id = documentKey.get("_id");
+        if (id == null) {
+            return;
+        }
+        // ids are cached as strings, as received by the repository
+        String key = id.isObjectId() ? id.asObjectId().getValue().toHexString() : id.isString() ? id.asString().getValue() : null;
+        if (key == null) {
+            log.debug("Ignoring change of a pc with a non string id: {}", id);
+            return;
+        }
+        pcCacheGuard.evict(key);
+        evictions.increment();
+    }
+
+    private void invalidateAll() {
+        pcCacheGuard.clear();
+        invalidations.increment();
+        deleteResumeToken();
+    }
+
+    private long retry(long retryDelay, RuntimeException e) {
+        long delay = Math.min(MAX_RETRY_DELAY_MILLIS, Math.max(1000, retryDelay * 2));
+        log.warn("Change stream on {} failed, retrying in {} ms: {}", PcRepository.PCS_BY_ID_CACHE, delay, e.getMessage());
+        try {
+            Thread.sleep(delay);
+        } catch (InterruptedException ie) {
+            Thread.currentThread().interrupt();
+            running = false;
+        }
+        return delay;
+    }
+
+    private BsonDocument loadResumeToken() {
+        Document document;
+        try {
+            document = resumeTokens().find(Filters.eq("_id", properties.getConsumerId())).first();
+        } catch (MongoException e) {
+            log.warn("Could not load the change stream resume token, starting from now: {}", e.getMessage());
+            return null;
+        }
+        if (document == null) {
+            return null;
+        }
+        try {
+            return BsonDocument.parse(document.getString("token"));
+        } catch (RuntimeException e) {
+            // the events missed since the token was saved cannot be known, like when it has fallen off the oplog
+            log.warn("Cannot read the change stream resume token {}, clearing the whole cache: {}", document.get("token"), e.getMessage());
+            invalidateAll();
+            return null;
+        }
+    }
+
+    private void saveResumeToken(BsonDocument resumeToken) {
+        Document document = new Document("_id", properties.getConsumerId())
+            .append("collection", mongoTemplate.getCollectionName(Pc.class))
+            .append("token", resumeToken.toJson())
+            .append("savedAt", new Date());
+        resumeTokens().replaceOne(Filters.eq("_id", properties.getConsumerId()), document, new ReplaceOptions().upsert(true));
+    }
+
+    private void deleteResumeToken() {
+        resumeTokens().deleteOne(Filters.eq("_id", properties.getConsumerId()));
+    }
+
+    private MongoCollection<Document> resumeTokens() {
+        return mongoTemplate.getCollection(RESUME_TOKEN_COLLECTION);
+    }
+}
@@ -0,0 +1,44 @@
+package com.flash.app.service;
+
+import java.util.concurrent.TimeUnit;
+import org.springframework.boot.actuate.health.AbstractHealthIndicator;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+/**
+ * Health of the background writer of the {@link PcIngestService}: down when its thread died, when it is retrying a
+ * batch that failed, or when it has not made progress for a while.
+ */
+@Component
+@ConditionalOnProperty(prefix = "application.ingest", name = "enabled", havingValue = "true")
+public class PcIngestHealthIndicator extends AbstractHealthIndicator {
+
+    /**
+     * Time without progress after which the writer is considered stuck; it polls the journal twice a second when idle.
+     */
+    private static final long STALLED_MILLIS = TimeUnit.MINUTES.toMillis(1);
+
+    private final PcIngestService pcIngestService;
+
+    public PcIngestHealthIndicator(PcIngestService pcIngestService) {
+        super("Ingest writer health check failed");
+        this.pcIngestService = pcIngestService;
+    }
+
+    @Override
+    protected void doHealthCheck(Health.Builder builder) {
+        long sinceProgress = System.currentTimeMillis() - pcIngestService.getLastProgressMillis();
+        RuntimeException failure = pcIngestService.getLastFailure();
+        if (!pcIngestService.isWriterAlive()) {
+            builder.down().withDetail("writer", "stopped");
+        } else if (failure != null) {
+            builder.down().withDetail("writer", "retrying").withDetail("error", failure.toString());
+        } else if (sinceProgress > STALLED_MILLIS) {
+            builder.down().withDetail("writer", "stalled");
+        } else {
+            builder.up().withDetail("writer", "running");
+        }
+        builder.withDetail("backlog", pcIngestService.getBacklog()).withDetail("millisSinceProgress", sinceProgress);
+    }
+}
@@ -0,0 +1,305 @@
+package com.flash.app.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.flash.app.config.ApplicationProperties;
+import com.flash.app.domain.Pc;
+import com.mongodb.ErrorCategory;
+import com.mongodb.bulk.BulkWriteError;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import org.bson.types.ObjectId;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.mongodb.BulkOperationException;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.stereotype.Service;
+
+/**
+ * Creates {@link Pc}s asynchronously, for producers sending more of them than can be saved one at a time: an accepted
+ * pc is appended to a local {@link IngestJournal}, and a background writer inserts the journal records in unordered
+ * {@code insertMany} batches.
+ * <p>
+ * The ID of a pc is assigned when it is accepted, so the records replayed from the journal after a restart are
+ * inserted again with the same ID and the duplicates are skipped. While MongoDB is unavailable, or anything else fails
+ * while writing a batch, the records stay in the journal and the writer retries the batch with a backoff; pcs are
+ * rejected once the journal has reached its maximum size. The {@link PcIngestHealthIndicator} tells whether the writer
+ * is alive and keeping up.
+ * <p>
+ * The {@link PcStatsService} and {@link PcSuggestService} count the pcs inserted by a batch. The pcs of a retried
+ * batch that were inserted by a previous attempt are skipped as duplicates, and are not counted: they are only counted
+ * by the next stats reconciliation and suggestions rebuild.
+ */
+@Service
+@ConditionalOnProperty(prefix = "application.ingest", name = "enabled", havingValue = "true")
+public class PcIngestService implements SmartLifecycle {
+
+    /**
+     * Below the phases of the web server, so that the writer starts before the first request is served and stops after
+     * the last one.
+     */
+    private static final int PHASE = SmartLifecycle.DEFAULT_PHASE - 4096;
+
+    private static final long POLL_TIMEOUT_MILLIS = 500;
+
+    private static final long MAX_RETRY_DELAY_MILLIS = 30_000;
+
+    private final Logger log = LoggerFactory.getLogger(PcIngestService.class);
+
+    private final MongoTemplate mongoTemplate;
+
+    private final PcStatsService pcStatsService;
+
+    private final PcSuggestService pcSuggestService;
+
+    private final ObjectWriter pcWriter;
+
+    private final ObjectReader pcReader;
+
+    private final IngestJournal journal;
+
+    private final int maxBatchSize;
+
+    private final Timer flushes;
+
+    private final Timer flushLag;
+
+    private final Counter rejections;
+
+    private final Counter failures;
+
+    private volatile boolean running;
+
+    private volatile long lastProgressMillis;
+
+    private volatile RuntimeException lastFailure;
+
+    private Thread thread;
+
+    public PcIngestService(
+        MongoTemplate mongoTemplate,
+        PcStatsService pcStatsService,
+        PcSuggestService pcSuggestService,
+        ObjectMapper objectMapper,
+        ApplicationProperties applicationProperties,
+        MeterRegistry meterRegistry
+    ) throws IOException {
+        ApplicationProperties.Ingest properties = applicationProperties.getIngest();
+        this.mongoTemplate = mongoTemplate;
+        this.pcStatsService = pcStatsService;
+        this.pcSuggestService = pcSuggestService;
+        this.pcWriter = objectMapper.writerFor(Pc.class);
+        this.pcReader = objectMapper.readerFor(Pc.class);
+        this.journal =
+            new IngestJournal(
+                Paths.get(properties.getJournalDirectory()),
+                Math.toIntExact(properties.getSegmentSize().toBytes()),
+                properties.getMaxSegments()
+            );
+        this.maxBatchSize = properties.getMaxBatchSize();
+        Gauge
+            .builder("ingest.backlog", journal, IngestJournal::backlog)
+            .description("Pcs accepted and not written to the database yet")
+            .register(meterRegistry);
+        this.flushes = Timer.builder("ingest.flush").description("Time to insert a batch of accepted pcs").register(meterRegistry);
+        this.flushLag =
+            Timer.builder("ingest.flush.lag").description("Time from the acceptance of a pc to its insertion").register(meterRegistry);
+        this.rejections =
+            Counter.builder("ingest.rejected").description("Pcs rejected because the backlog was full").register(meterRegistry);
+        this.failures =
+            Counter
+                .builder("ingest.failed")
+                .description("Accepted pcs dropped because they could not be inserted")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Accepts a new pc, to be inserted later.
+     *
+     * @param pc the entity to create, without ID.
+     * @return the accepted entity, with its ID.
+     * @throws IngestBacklogFullException if too many pcs are waiting to be inserted.
+     */
+    public Pc ingest(Pc pc) {
+        log.debug("Request to ingest Pc : {}", pc);
+        pc.setId(new ObjectId().toHexString());
+        pc.setVersion(0L);
+        try {
+            if (!journal.append(pcWriter.writeValueAsBytes(pc), System.currentTimeMillis())) {
+                rejections.increment();
+                throw new IngestBacklogFullException(journal.backlog());
+            }
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Cannot serialize Pc " + pc.getId(), e);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return pc;
+    }
+
+    /**
+     * @return whether the writer thread is started and has not died.
+     */
+    public boolean isWriterAlive() {
+        Thread writer = thread;
+        return running && writer != null && writer.isAlive();
+    }
+
+    /**
+     * @return the time the writer last polled the journal or inserted a batch, in milliseconds.
+     */
+    public long getLastProgressMillis() {
+        return lastProgressMillis;
+    }
+
+    /**
+     * @return the failure of the batch being retried, or {@code null} if the last batch was written.
+     */
+    public RuntimeException getLastFailure() {
+        return lastFailure;
+    }
+
+    /**
+     * @return the number of pcs accepted and not written yet.
+     */
+    public long getBacklog() {
+        return journal.backlog();
+    }
+
+    @Override
+    public synchronized void start() {
+        running = true;
+        lastProgressMillis = System.currentTimeMillis();
+        thread = new Thread(this::write, "pc-ingest-writer");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    @Override
+    public void stop() {
+        Thread writer;
+        synchronized (this) {
+            running = false;
+            writer = thread;
+            thread = null;
+        }
+        if (writer != null) {
+            try {
+                // the writer finishes its batch, the records left are replayed on the next start
+                writer.join(TimeUnit.SECONDS.toMillis(30));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        journal.close();
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    @Override
+    public int getPhase() {
+        return PHASE;
+    }
+
+    private void write() {
+        long retryDelay = 0;
+        while (running) {
+            try {
+                IngestJournal.Batch batch = journal.poll(maxBatchSize, POLL_TIMEOUT_MILLIS);
+                if (!batch.getRecords().isEmpty()) {
+                    insert(batch.getRecords());
+                    journal.commit(batch);
+                }
+                lastProgressMillis = System.currentTimeMillis();
+                lastFailure = null;
+                retryDelay = 0;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                running = false;
+            } catch (DataAccessException e) {
+                retryDelay = retry(retryDelay, e);
+            } catch (RuntimeException e) {
+                // not expected, but the writer must go on: the batch is retried like when MongoDB is unavailable
+                log.error("Could not write ingested pcs", e);
+                retryDelay = retry(retryDelay, e);
+            }
+        }
+    }
+
+    /**
+     * Inserts the pcs of journal records in one unordered bulk write, skipping the ones already inserted before a
+     * restart.
+     */
+    private void insert(List<IngestJournal.Record> records) {
+        List<Pc> pcs = new ArrayList<>(records.size());
+        for (IngestJournal.Record record : records) {
+            try {
+                pcs.add(pcReader.readValue(record.getPayload()));
+            } catch (IOException e) {
+                log.error("Dropping an ingest journal record that is not a Pc", e);
+                failures.increment();
+            }
+        }
+        if (pcs.isEmpty()) {
+            return;
+        }
+        Set<Integer> notInserted = new HashSet<>();
+        long start = System.nanoTime();
+        try {
+            mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Pc.class).insert(pcs).execute();
+        } catch (BulkOperationException e) {
+            for (BulkWriteError error : e.getErrors()) {
+                notInserted.add(error.getIndex());
+                if (ErrorCategory.fromErrorCode(error.getCode()) != ErrorCategory.DUPLICATE_KEY) {
+                    log.error("Dropping Pc {} that could not be inserted: {}", pcs.get(error.getIndex()).getId(), error.getMessage());
+                    failures.increment();
+                }
+            }
+        }
+        flushes.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        long now = System.currentTimeMillis();
+        for (IngestJournal.Record record : records) {
+            flushLag.record(now - record.getTimestamp(), TimeUnit.MILLISECONDS);
+        }
+        List<Pc> inserted = new ArrayList<>(pcs.size());
+        for (int index = 0; index < pcs.size(); index++) {
+            if (!notInserted.contains(index)) {
+                inserted.add(pcs.get(index));
+            }
+        }
+        pcStatsService.record(List.of(), inserted);
+        pcSuggestService.record(List.of(), inserted);
+    }
+
+    private long retry(long retryDelay, RuntimeException e) {
+        lastFailure = e;
+        long delay = Math.min(MAX_RETRY_DELAY_MILLIS, Math.max(1000, retryDelay * 2));
+        log.warn("Could not insert ingested pcs, {} waiting, retrying in {} ms: {}", journal.backlog(), delay, e.getMessage());
+        try {
+            Thread.sleep(delay);
+        } catch (InterruptedException ie) {
+            Thread.currentThread().interrupt();
+            running = false;
+        }
+        return delay;
+    }
+}
@@ -0,0 +1,181 @@
+package com.flash.app.service;
+
+import com.flash.app.config.Constants;
+import com.flash.app.domain.Pc;
+import com.flash.app.repository.PcFilter;
+import com.flash.app.repository.PcKeyset;
+import com.flash.app.repository.PcReactiveRepository;
+import com.flash.app.repository.PcRepository;
+import com.flash.app.repository.PcSearchHit;
+import com.flash.app.repository.PcSearchKeyset;
+import com.flash.app.service.dto.PcBulkOperationDTO;
+import com.flash.app.service.dto.PcBulkResultDTO;
+import com.flash.app.service.dto.PcMakeStatsDTO;
+import com.flash.app.service.dto.PcPatchOperationDTO;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+/**
+ * Access to the {@link Pc} for the {@link Constants#SPRING_PROFILE_REACTIVE reactive} profile.
+ * <p>
+ * Reads of pcs go through the reactive driver, and share the {@link PcRepository#PCS_BY_ID_CACHE} cache with the
+ * blocking mode. Writes and statistics are only an asynchronous facade: they call {@link PcService} and
+ * {@link PcStatsService}, which keep the cache, version and statistics invariants, on the bounded elastic scheduler.
+ * Each of them still holds a thread of that scheduler while it waits for MongoDB; they only keep the threads of the
+ * reactive driver and of the web server free.
+ */
+@Service
+@Profile(Constants.SPRING_PROFILE_REACTIVE)
+public class PcReactiveService {
+
+    private final Logger log = LoggerFactory.getLogger(PcReactiveService.class);
+
+    private final PcReactiveRepository pcReactiveRepository;
+
+    private final PcService pcService;
+
+    private final PcStatsService pcStatsService;
+
+    private final CacheManager cacheManager;
+
+    private final PcCacheGuard pcCacheGuard;
+
+    public PcReactiveService(
+        PcReactiveRepository pcReactiveRepository,
+        PcService pcService,
+        PcStatsService pcStatsService,
+        CacheManager cacheManager,
+        PcCacheGuard pcCacheGuard
+    ) {
+        this.pcReactiveRepository = pcReactiveRepository;
+        this.pcService = pcService;
+        this.pcStatsService = pcStatsService;
+        this.cacheManager = cacheManager;
+        this.pcCacheGuard = pcCacheGuard;
+    }
+
+    /**
+     * Get one pc by id, from the cache when it is there.
+     * <p>
+     * A pc read from the database is put in the cache through the {@link PcCacheGuard}, so that a write completing
+     * while it is read evicts it rather than being overwritten.
+     *
+     * @param id the id of the entity.
+     * @return the entity, or empty if it does not exist.
+     */
+    public Mono<Pc> findOne(String id) {
+        log.debug("Request to get Pc : {}", id);
+        return Mono.defer(() -> {
+            Cache cache = getCache();
+            Pc cached = cache.get(id, Pc.class);
+            if (cached != null) {
+                return Mono.just(cached);
+            }
+            long stamp = pcCacheGuard.stamp(id);
+            return pcReactiveRepository.findById(id).doOnNext(pc -> pcCacheGuard.put(id, pc, stamp));
+        });
+    }
+
+    /**
+     * @see PcReactiveRepository#findAllAfter(PcFilter, PcKeyset, int, Set)
+     */
+    public Flux<Pc> findAllAfter(PcFilter filter, PcKeyset keyset, int limit, Set<String> fields) {
+        return pcReactiveRepository.findAllAfter(filter, keyset, limit, fields);
+    }
+
+    /**
+     * @see PcReactiveRepository#search(String, PcSearchKeyset, int)
+     */
+    public Flux<PcSearchHit> search(String text, PcSearchKeyset keyset, int limit) {
+        return pcReactiveRepository.search(text, keyset, limit);
+    }
+
+    /**
+     * @see PcReactiveRepository#streamAll(int, Set)
+     */
+    public Flux<Pc> streamAll(int batchSize, Set<String> fields) {
+        return pcReactiveRepository.streamAll(batchSize, fields);
+    }
+
+    /**
+     * @see PcReactiveRepository#estimatedCount(PcFilter)
+     */
+    public Mono<Long> estimatedCount(PcFilter filter) {
+        return pcReactiveRepository.estimatedCount(filter);
+    }
+
+    /**
+     * @see PcService#save(Pc)
+     */
+    public Mono<Pc> save(Pc pc) {
+        return blocking(() -> pcService.save(pc));
+    }
+
+    /**
+     * @see PcService#update(Pc, List)
+     */
+    public Mono<Pc> update(Pc pc, List<Long> expectedVersions) {
+        return blocking(() -> pcService.update(pc, expectedVersions).orElse(null));
+    }
+
+    /**
+     * @see PcService#partialUpdate(Pc, List)
+     */
+    public Mono<Pc> partialUpdate(Pc pc, List<Long> expectedVersions) {
+        return blocking(() -> pcService.partialUpdate(pc, expectedVersions).orElse(null));
+    }
+
+    /**
+     * @see PcService#patch(String, List, List)
+     */
+    public Mono<Pc> patch(String id, List<PcPatchOperationDTO> operations, List<Long> expectedVersions) {
+        return blocking(() -> pcService.patch(id, operations, expectedVersions).orElse(null));
+    }
+
+    /**
+     * @see PcService#delete(String)
+     */
+    public Mono<Void> delete(String id) {
+        return blocking(() -> {
+                pcService.delete(id);
+                return null;
+            })
+            .then();
+    }
+
+    /**
+     * @see PcService#bulkWrite(List)
+     */
+    public Mono<List<PcBulkResultDTO>> bulkWrite(List<PcBulkOperationDTO> operations) {
+        return blocking(() -> pcService.bulkWrite(operations));
+    }
+
+    /**
+     * @see PcStatsService#findAll()
+     */
+    public Mono<List<PcMakeStatsDTO>> findAllStats() {
+        return blocking(pcStatsService::findAll);
+    }
+
+    /**
+     * Runs a blocking call on the bounded elastic scheduler; a {@code null} result completes empty.
+     */
+    private static <T> Mono<T> blocking(Callable<T> call) {
+        return Mono.fromCallable(call).subscribeOn(Schedulers.boundedElastic());
+    }
+
+    private Cache getCache() {
+        return Objects.requireNonNull(cacheManager.getCache(PcRepository.PCS_BY_ID_CACHE));
+    }
+}
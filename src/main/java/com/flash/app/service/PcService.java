@@ -0,0 +1,535 @@
+package com.flash.app.service;
+
+import com.flash.app.domain.Pc;
+import com.flash.app.repository.PcRepository;
+import com.flash.app.service.dto.PcBulkOperationDTO;
+import com.flash.app.service.dto.PcBulkResultDTO;
+import com.flash.app.service.dto.PcPatchOperationDTO;
+import com.mongodb.ErrorCategory;
+import com.mongodb.bulk.BulkWriteError;
+import com.mongodb.bulk.BulkWriteResult;
+import com.mongodb.bulk.BulkWriteUpsert;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import org.bson.Document;
+import org.bson.types.ObjectId;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.mongodb.BulkOperationException;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+
+/**
+ * Service Implementation for managing {@link Pc}.
+ */
+@Service
+public class PcService {
+
+    private final Logger log = LoggerFactory.getLogger(PcService.class);
+
+    private static final String VERSION = "version";
+
+    /**
+     * Fields that can be targeted by a JSON Patch, with the type of their values.
+     */
+    private static final Map<String, Class<?>> PATCHABLE_FIELDS = Map.of("make", String.class, "model", String.class, "price", Integer.class);
+
+    private final PcRepository pcRepository;
+
+    private final MongoTemplate mongoTemplate;
+
+    private final PcCacheGuard pcCacheGuard;
+
+    private final PcStatsService pcStatsService;
+
+    private final PcSuggestService pcSuggestService;
+
+    public PcService(
+        PcRepository pcRepository,
+        MongoTemplate mongoTemplate,
+        PcCacheGuard pcCacheGuard,
+        PcStatsService pcStatsService,
+        PcSuggestService pcSuggestService
+    ) {
+        this.pcRepository = pcRepository;
+        this.mongoTemplate = mongoTemplate;
+        this.pcCacheGuard = pcCacheGuard;
+        this.pcStatsService = pcStatsService;
+        this.pcSuggestService = pcSuggestService;
+    }
+
+    /**
+     * Save a new pc.
+     *
+     * @param pc the entity to save, without ID.
+     * @return the persisted entity.
+     */
+    public Pc save(Pc pc) {
+        log.debug("Request to save Pc : {}", pc);
+        Pc result = pcRepository.save(pc);
+        clearPcCaches(result.getId());
+        pcStatsService.added(result);
+        pcSuggestService.record(List.of(), List.of(result));
+        return result;
+    }
+
+    /**
+     * Get one pc by id, from the cache when it is there.
+     * <p>
+     * A pc read from the database is put in the cache through the {@link PcCacheGuard}, so that a write completing
+     * while it is read evicts it rather than being overwritten.
+     *
+     * @param id the id of the entity.
+     * @return the entity, or empty if it does not exist.
+     */
+    public Optional<Pc> findOne(String id) {
+        log.debug("Request to get Pc : {}", id);
+        Pc cached = pcCacheGuard.get(id);
+        if (cached != null) {
+            return Optional.of(cached);
+        }
+        long stamp = pcCacheGuard.stamp(id);
+        Optional<Pc> pc = pcRepository.findById(id);
+        pc.ifPresent(found -> pcCacheGuard.put(id, found, stamp));
+        return pc;
+    }
+
+    /**
+     * Replaces an existing pc in a single {@code findAndModify} round trip, incrementing its version.
+     * <p>
+     * The version is managed by the database: the one of the given pc is ignored, optimistic locking goes through the
+     * expected versions instead.
+     *
+     * @param pc the new state of the pc, with its ID.
+     * @param expectedVersions the versions the pc must have to be replaced, or {@code null} to replace any version.
+     * @return the replaced pc, or empty if it does not exist.
+     * @throws VersionMismatchException if the pc exists with another version than the expected ones.
+     */
+    public Optional<Pc> update(Pc pc, List<Long> expectedVersions) {
+        log.debug("Request to update Pc : {}", pc);
+        return findAndModify(pc.getId(), replacement(pc), expectedVersions);
+    }
+
+    /**
+     * Partially updates a pc in a single {@code findAndModify} round trip, setting only its non-null fields.
+     *
+     * @param pc the fields to set, with the ID of the pc.
+     * @param expectedVersions the versions the pc must have to be updated, or {@code null} to update any version.
+     * @return the updated pc, or empty if it does not exist.
+     * @throws VersionMismatchException if the pc exists with another version than the expected ones.
+     */
+    public Optional<Pc> partialUpdate(Pc pc, List<Long> expectedVersions) {
+        log.debug("Request to partially update Pc : {}", pc);
+        Update update = new Update();
+        if (pc.getMake() != null) {
+            update.set("make", pc.getMake());
+        }
+        if (pc.getModel() != null) {
+            update.set("model", pc.getModel());
+        }
+        if (pc.getPrice() != null) {
+            update.set("price", pc.getPrice());
+        }
+        return findAndModify(pc.getId(), update, expectedVersions);
+    }
+
+    /**
+     * Applies a JSON Patch document to a pc in a single {@code findAndModify} round trip.
+     * <p>
+     * {@code add} and {@code replace} map to {@code $set}, {@code remove} to {@code $unset} and the non-standard
+     * {@code inc} to {@code $inc}, so that no operation needs the current state of the pc. Each field can be targeted
+     * by one operation at most.
+     *
+     * @param id the ID of the pc to patch.
+     * @param operations the patch operations.
+     * @param expectedVersions the versions the pc must have to be patched, or {@code null} to patch any version.
+     * @return the patched pc, or empty if it does not exist.
+     * @throws InvalidPatchException if an operation is not supported.
+     * @throws VersionMismatchException if the pc exists with another version than the expected ones.
+     */
+    public Optional<Pc> patch(String id, List<PcPatchOperationDTO> operations, List<Long> expectedVersions) {
+        log.debug("Request to patch Pc : {}, {}", id, operations);
+        Update update = new Update();
+        Set<String> patchedFields = new HashSet<>();
+        for (PcPatchOperationDTO operation : operations) {
+            String field = toPatchableField(operation.getPath());
+            if (!patchedFields.add(field)) {
+                throw new InvalidPatchException("Field patched more than once: " + field);
+            }
+            String op = String.valueOf(operation.getOp());
+            switch (op) {
+                case "add":
+                case "replace":
+                    update.set(field, checkValue(field, operation.getValue()));
+                    break;
+                case "remove":
+                    update.unset(field);
+                    break;
+                case "inc":
+                    if (!PATCHABLE_FIELDS.get(field).equals(Integer.class) || operation.getValue() == null) {
+                        throw new InvalidPatchException("Cannot increment field: " + field);
+                    }
+                    update.inc(field, (Number) checkValue(field, operation.getValue()));
+                    break;
+                default:
+                    throw new InvalidPatchException("Unsupported patch operation: " + op);
+            }
+        }
+        return findAndModify(id, update, expectedVersions);
+    }
+
+    /**
+     * Delete the pc by id.
+     *
+     * @param id the id of the entity.
+     */
+    public void delete(String id) {
+        log.debug("Request to delete Pc : {}", id);
+        Pc previous = mongoTemplate.findAndRemove(byId(id), Pc.class);
+        clearPcCaches(id);
+        if (previous != null) {
+            pcStatsService.removed(previous);
+            pcSuggestService.record(List.of(previous), List.of());
+        }
+    }
+
+    /**
+     * Applies an update and increments the version in one round trip. Telling a version mismatch from a missing pc
+     * needs a second query, on the failure path only.
+     * <p>
+     * The previous state is returned by the database, to update the stats, and the new state is computed from it.
+     */
+    private Optional<Pc> findAndModify(String id, Update update, List<Long> expectedVersions) {
+        if (update.getUpdateObject().isEmpty()) {
+            Optional<Pc> current = findOne(id);
+            if (current.isPresent() && expectedVersions != null && !expectedVersions.contains(current.get().getVersion())) {
+                throw new VersionMismatchException(id, expectedVersions);
+            }
+            return current;
+        }
+        Query query = byId(id);
+        if (expectedVersions != null) {
+            query.addCriteria(Criteria.where(VERSION).in(expectedVersions));
+        }
+        update.inc(VERSION, 1);
+        Pc previous = mongoTemplate.findAndModify(query, update, FindAndModifyOptions.options().returnNew(false), Pc.class);
+        clearPcCaches(id);
+        if (previous == null) {
+            if (expectedVersions != null && mongoTemplate.exists(byId(id), Pc.class)) {
+                throw new VersionMismatchException(id, expectedVersions);
+            }
+            return Optional.empty();
+        }
+        Pc result = applied(previous, update);
+        pcStatsService.replaced(previous, result);
+        pcSuggestService.replaced(previous, result);
+        return Optional.of(result);
+    }
+
+    /**
+     * Computes the state of a pc after an update, which only uses {@code $set}, {@code $unset} and {@code $inc} on its
+     * top level fields.
+     */
+    private static Pc applied(Pc previous, Update update) {
+        Pc result = new Pc().make(previous.getMake()).model(previous.getModel()).price(previous.getPrice()).version(previous.getVersion());
+        result.setId(previous.getId());
+        Document operations = update.getUpdateObject();
+        Document set = operations.get("$set", new Document());
+        Document unset = operations.get("$unset", new Document());
+        Document inc = operations.get("$inc", new Document());
+        set.forEach((field, value) -> setField(result, field, value));
+        unset.keySet().forEach(field -> setField(result, field, null));
+        inc.forEach((field, value) -> {
+            Number current = (Number) getField(result, field);
+            long sum = (current != null ? current.longValue() : 0) + ((Number) value).longValue();
+            setField(result, field, VERSION.equals(field) ? (Object) sum : (Object) Math.toIntExact(sum));
+        });
+        return result;
+    }
+
+    private static Object getField(Pc pc, String field) {
+        switch (field) {
+            case "make":
+                return pc.getMake();
+            case "model":
+                return pc.getModel();
+            case "price":
+                return pc.getPrice();
+            case VERSION:
+                return pc.getVersion();
+            default:
+                throw new IllegalArgumentException("Unknown field: " + field);
+        }
+    }
+
+    private static void setField(Pc pc, String field, Object value) {
+        switch (field) {
+            case "make":
+                pc.setMake((String) value);
+                break;
+            case "model":
+                pc.setModel((String) value);
+                break;
+            case "price":
+                pc.setPrice((Integer) value);
+                break;
+            case VERSION:
+                pc.setVersion((Long) value);
+                break;
+            default:
+                throw new IllegalArgumentException("Unknown field: " + field);
+        }
+    }
+
+    /**
+     * Update replacing all the fields of a pc but its ID and version.
+     */
+    private static Update replacement(Pc pc) {
+        Update update = new Update();
+        setOrUnset(update, "make", pc.getMake());
+        setOrUnset(update, "model", pc.getModel());
+        setOrUnset(update, "price", pc.getPrice());
+        return update;
+    }
+
+    private static void setOrUnset(Update update, String field, Object value) {
+        if (value != null) {
+            update.set(field, value);
+        } else {
+            update.unset(field);
+        }
+    }
+
+    /**
+     * Evicts a pc from the caches once it is written, rather than refreshing them with the written state: concurrent
+     * writers could otherwise put their results in a different order than they were applied in the database.
+     */
+    private void clearPcCaches(String id) {
+        pcCacheGuard.evict(id);
+    }
+
+    private static String toPatchableField(String path) {
+        String field = path != null && path.startsWith("/") ? path.substring(1) : null;
+        if (field == null || !PATCHABLE_FIELDS.containsKey(field)) {
+            throw new InvalidPatchException("Unsupported patch path: " + path);
+        }
+        return field;
+    }
+
+    private static Object checkValue(String field, Object value) {
+        if (value != null && !PATCHABLE_FIELDS.get(field).isInstance(value)) {
+            throw new InvalidPatchException("Invalid value for field " + field + ": " + value);
+        }
+        return value;
+    }
+
+    /**
+     * Applies a list of creates, replaces and upserts in a single unordered bulk write.
+     * <p>
+     * Operations are independent: an invalid or failing operation does not prevent the others from being applied, and
+     * every operation gets its own result, at the same index as in the request.
+     *
+     * @param operations the operations to apply.
+     * @return the result of each operation.
+     */
+    public List<PcBulkResultDTO> bulkWrite(List<PcBulkOperationDTO> operations) {
+        log.debug("Request to bulk write {} Pcs", operations.size());
+        PcBulkResultDTO[] results = new PcBulkResultDTO[operations.size()];
+        Map<String, Pc> existingPcs = findExistingPcs(operations);
+
+        BulkOperations bulkOperations = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Pc.class);
+        // Index in the request of each operation queued in the bulk write
+        List<Integer> queuedIndexes = new ArrayList<>();
+        for (int index = 0; index < operations.size(); index++) {
+            PcBulkOperationDTO operation = operations.get(index);
+            PcBulkResultDTO rejection = validate(index, operation, existingPcs.keySet());
+            if (rejection != null) {
+                results[index] = rejection;
+                continue;
+            }
+            Pc pc = operation.getPc();
+            switch (operation.getAction()) {
+                case CREATE:
+                    pc.setId(new ObjectId().toHexString());
+                    pc.setVersion(0L);
+                    bulkOperations.insert(pc);
+                    results[index] = PcBulkResultDTO.success(index, pc.getId(), HttpStatus.CREATED.value());
+                    break;
+                case REPLACE:
+                    bulkOperations.updateOne(byId(pc.getId()), replacement(pc).inc(VERSION, 1));
+                    results[index] = PcBulkResultDTO.success(index, pc.getId(), HttpStatus.OK.value());
+                    break;
+                case UPSERT:
+                    if (existingPcs.containsKey(pc.getId())) {
+                        // recreates the pc with the next version if it was deleted since, so its previous ETags stay stale
+                        bulkOperations.upsert(byId(pc.getId()), replacement(pc).inc(VERSION, 1));
+                    } else {
+                        // created with version 0 like the other creations; a pc created since fails on its ID rather
+                        // than being updated without a new version
+                        bulkOperations.upsert(
+                            byId(pc.getId()).addCriteria(Criteria.where(VERSION).exists(false)),
+                            replacement(pc).setOnInsert(VERSION, 0L)
+                        );
+                    }
+                    results[index] = PcBulkResultDTO.success(index, pc.getId(), HttpStatus.OK.value());
+                    break;
+                default:
+                    throw new IllegalStateException("Unexpected bulk action: " + operation.getAction());
+            }
+            queuedIndexes.add(index);
+        }
+        if (queuedIndexes.isEmpty()) {
+            return Arrays.asList(results);
+        }
+
+        BulkWriteResult bulkWriteResult;
+        try {
+            bulkWriteResult = bulkOperations.execute();
+        } catch (BulkOperationException e) {
+            bulkWriteResult = e.getResult();
+            for (BulkWriteError error : e.getErrors()) {
+                int index = queuedIndexes.get(error.getIndex());
+                results[index] = toFailure(index, results[index].getId(), operations.get(index).getAction(), error);
+            }
+        } finally {
+            queuedIndexes.forEach(index -> clearPcCaches(results[index].getId()));
+        }
+        Set<Integer> upsertedIndexes = new HashSet<>();
+        for (BulkWriteUpsert upsert : bulkWriteResult.getUpserts()) {
+            upsertedIndexes.add(queuedIndexes.get(upsert.getIndex()));
+            results[queuedIndexes.get(upsert.getIndex())].setStatus(HttpStatus.CREATED.value());
+        }
+        rejectUnmatchedReplaces(operations, queuedIndexes, upsertedIndexes, results, bulkWriteResult.getMatchedCount());
+        recordCounts(operations, queuedIndexes, results, existingPcs);
+        return Arrays.asList(results);
+    }
+
+    /**
+     * Fails the replaces of the pcs deleted between the up-front existence check and the bulk write, which matched
+     * nothing. Every update that did not fail nor insert should have matched its pc: only when the matched count of the
+     * result falls short are the IDs of the replaces checked again.
+     */
+    private void rejectUnmatchedReplaces(
+        List<PcBulkOperationDTO> operations,
+        List<Integer> queuedIndexes,
+        Set<Integer> upsertedIndexes,
+        PcBulkResultDTO[] results,
+        int matchedCount
+    ) {
+        List<Integer> replaceIndexes = new ArrayList<>();
+        int expectedMatches = 0;
+        for (int index : queuedIndexes) {
+            PcBulkOperationDTO.Action action = operations.get(index).getAction();
+            if (action == PcBulkOperationDTO.Action.CREATE || results[index].getErrorKey() != null || upsertedIndexes.contains(index)) {
+                continue;
+            }
+            expectedMatches++;
+            if (action == PcBulkOperationDTO.Action.REPLACE) {
+                replaceIndexes.add(index);
+            }
+        }
+        if (matchedCount >= expectedMatches || replaceIndexes.isEmpty()) {
+            return;
+        }
+        Set<String> ids = replaceIndexes.stream().map(index -> results[index].getId()).collect(Collectors.toSet());
+        Query query = new Query(Criteria.where("id").in(ids));
+        query.fields().include("id");
+        Set<String> replacedIds = mongoTemplate.find(query, Pc.class).stream().map(Pc::getId).collect(Collectors.toSet());
+        for (int index : replaceIndexes) {
+            String id = results[index].getId();
+            if (!replacedIds.contains(id)) {
+                results[index] = PcBulkResultDTO.failure(index, id, HttpStatus.BAD_REQUEST.value(), "Entity not found", "idnotfound");
+            }
+        }
+    }
+
+    private void recordCounts(
+        List<PcBulkOperationDTO> operations,
+        List<Integer> queuedIndexes,
+        PcBulkResultDTO[] results,
+        Map<String, Pc> existingPcs
+    ) {
+        List<Pc> removed = new ArrayList<>();
+        List<Pc> added = new ArrayList<>();
+        for (int index : queuedIndexes) {
+            if (results[index].getErrorKey() == null) {
+                Pc pc = operations.get(index).getPc();
+                Pc previous = existingPcs.get(pc.getId());
+                if (previous != null) {
+                    removed.add(previous);
+                }
+                added.add(pc);
+            }
+        }
+        pcStatsService.record(removed, added);
+        pcSuggestService.record(removed, added);
+    }
+
+    private PcBulkResultDTO validate(int index, PcBulkOperationDTO operation, Set<String> existingIds) {
+        if (operation == null || operation.getAction() == null || operation.getPc() == null) {
+            return PcBulkResultDTO.failure(index, null, HttpStatus.BAD_REQUEST.value(), "Invalid operation", "bulkinvalid");
+        }
+        String id = operation.getPc().getId();
+        if (operation.getAction() == PcBulkOperationDTO.Action.CREATE) {
+            if (id != null) {
+                return PcBulkResultDTO.failure(index, id, HttpStatus.BAD_REQUEST.value(), "A new pc cannot already have an ID", "idexists");
+            }
+            return null;
+        }
+        if (id == null) {
+            return PcBulkResultDTO.failure(index, null, HttpStatus.BAD_REQUEST.value(), "Invalid id", "idnull");
+        }
+        if (operation.getAction() == PcBulkOperationDTO.Action.REPLACE && !existingIds.contains(id)) {
+            return PcBulkResultDTO.failure(index, id, HttpStatus.BAD_REQUEST.value(), "Entity not found", "idnotfound");
+        }
+        return null;
+    }
+
+    /**
+     * Replaces must not insert, but a bulk write cannot tell which replace matched nothing: the targeted IDs are
+     * checked up front with one indexed query instead, and again after the write only if it matched fewer pcs than
+     * expected. The same query reads the previous make and price of the replaced and upserted pcs, for the stats.
+     */
+    private Map<String, Pc> findExistingPcs(List<PcBulkOperationDTO> operations) {
+        Set<String> ids = operations
+            .stream()
+            .filter(operation -> operation != null && operation.getAction() != PcBulkOperationDTO.Action.CREATE)
+            .filter(operation -> operation.getPc() != null && operation.getPc().getId() != null)
+            .map(operation -> operation.getPc().getId())
+            .collect(Collectors.toSet());
+        if (ids.isEmpty()) {
+            return Map.of();
+        }
+        Query query = new Query(Criteria.where("id").in(ids));
+        query.fields().include("id").include("make").include("model").include("price");
+        return mongoTemplate.find(query, Pc.class).stream().collect(Collectors.toMap(Pc::getId, Function.identity()));
+    }
+
+    private static PcBulkResultDTO toFailure(int index, String id, PcBulkOperationDTO.Action action, BulkWriteError error) {
+        boolean duplicateKey = ErrorCategory.fromErrorCode(error.getCode()) == ErrorCategory.DUPLICATE_KEY;
+        if (duplicateKey && action == PcBulkOperationDTO.Action.UPSERT) {
+            return PcBulkResultDTO.failure(index, id, HttpStatus.CONFLICT.value(), "The pc was created concurrently", "concurrentcreate");
+        }
+        if (duplicateKey) {
+            return PcBulkResultDTO.failure(index, id, HttpStatus.BAD_REQUEST.value(), "A new pc cannot already have an ID", "idexists");
+        }
+        return PcBulkResultDTO.failure(index, id, HttpStatus.INTERNAL_SERVER_ERROR.value(), error.getMessage(), "bulkfailed");
+    }
+
+    private static Query byId(String id) {
+        return new Query(Criteria.where("id").is(id));
+    }
+}
@@ -0,0 +1,328 @@
+package com.flash.app.service;
+
+import com.flash.app.domain.Pc;
+import com.flash.app.service.dto.PcMakeStatsDTO;
+import com.mongodb.ErrorCategory;
+import com.mongodb.MongoWriteException;
+import com.mongodb.client.MongoCollection;
+import com.mongodb.client.model.Filters;
+import com.mongodb.client.model.Projections;
+import com.mongodb.client.model.UpdateOneModel;
+import com.mongodb.client.model.UpdateOptions;
+import com.mongodb.client.model.Updates;
+import com.mongodb.client.model.WriteModel;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import net.javacrumbs.shedlock.spring.annotation.SchedulerLock;
+import org.bson.Document;
+import org.bson.conversions.Bson;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+/**
+ * Price statistics of the {@link Pc} per make, materialized as one summary document per make.
+ * <p>
+ * Summaries are maintained incrementally by every write: added pcs are counted in with {@code $inc}, {@code $min} and
+ * {@code $max}, removed pcs are counted out with {@code $inc}. Removing the minimum or maximum price of a make cannot be
+ * undone from the summary alone, that bound is read again from the {@code make_price} index. Concurrent writes can
+ * still make the summaries drift slightly, which the scheduled {@link #reconcile()} fixes.
+ * <p>
+ * Every incremental update also increments the {@code version} of the summary, so that the reconciliation only replaces
+ * the summaries that no write changed while the pcs were aggregated.
+ */
+@Service
+public class PcStatsService {
+
+    private static final String COLLECTION = "pc_make_stats";
+
+    private static final UpdateOptions UPSERT = new UpdateOptions().upsert(true);
+
+    private static final String COUNT = "count";
+
+    private static final String PRICE_COUNT = "priceCount";
+
+    private static final String PRICE_SUM = "priceSum";
+
+    private static final String PRICE_MIN = "priceMin";
+
+    private static final String PRICE_MAX = "priceMax";
+
+    private static final String VERSION = "version";
+
+    private final Logger log = LoggerFactory.getLogger(PcStatsService.class);
+
+    private final MongoTemplate mongoTemplate;
+
+    public PcStatsService(MongoTemplate mongoTemplate) {
+        this.mongoTemplate = mongoTemplate;
+    }
+
+    /**
+     * Returns the statistics of every make, reading one summary document per make.
+     *
+     * @return the statistics, ordered by make.
+     */
+    public List<PcMakeStatsDTO> findAll() {
+        log.debug("Request to get all Pc stats");
+        List<PcMakeStatsDTO> stats = new ArrayList<>();
+        for (Document summary : summaries().find(Filters.gt(COUNT, 0)).sort(new Document("_id", 1))) {
+            stats.add(toDto(summary));
+        }
+        return stats;
+    }
+
+    /**
+     * Counts a created pc in.
+     *
+     * @param pc the created pc.
+     */
+    public void added(Pc pc) {
+        record(List.of(), List.of(pc));
+    }
+
+    /**
+     * Counts a deleted pc out.
+     *
+     * @param pc the deleted pc.
+     */
+    public void removed(Pc pc) {
+        record(List.of(pc), List.of());
+    }
+
+    /**
+     * Counts the previous state of an updated pc out and its new state in, when its make or price changed.
+     *
+     * @param previous the state before the update, or {@code null} if the pc was inserted.
+     * @param current the state after the update.
+     */
+    public void replaced(Pc previous, Pc current) {
+        if (previous == null) {
+            added(current);
+        } else if (!Objects.equals(previous.getMake(), current.getMake()) || !Objects.equals(previous.getPrice(), current.getPrice())) {
+            record(List.of(previous), List.of(current));
+        }
+    }
+
+    /**
+     * Counts pcs out and in, with one bulk write on the summaries of the makes involved.
+     *
+     * @param removed the states counted out.
+     * @param added the states counted in.
+     */
+    public void record(Collection<Pc> removed, Collection<Pc> added) {
+        Map<String, Delta> deltas = new HashMap<>();
+        removed.forEach(pc -> deltas.computeIfAbsent(pc.getMake(), make -> new Delta()).remove(pc.getPrice()));
+        added.forEach(pc -> deltas.computeIfAbsent(pc.getMake(), make -> new Delta()).add(pc.getPrice()));
+        if (deltas.isEmpty()) {
+            return;
+        }
+        List<WriteModel<Document>> updates = new ArrayList<>();
+        deltas.forEach((make, delta) -> updates.add(new UpdateOneModel<>(Filters.eq("_id", make), delta.toUpdate(), UPSERT)));
+        summaries().bulkWrite(updates);
+
+        Set<String> removedFrom = new HashSet<>();
+        deltas.forEach((make, delta) -> {
+            if (delta.removedMin != null || delta.count < 0) {
+                removedFrom.add(make);
+            }
+        });
+        if (!removedFrom.isEmpty()) {
+            fixSummaries(removedFrom, deltas);
+        }
+    }
+
+    /**
+     * Re-reads the bounds that may have been removed from the index, and drops the summaries of makes without pcs.
+     */
+    private void fixSummaries(Set<String> makes, Map<String, Delta> deltas) {
+        for (Document summary : summaries().find(Filters.in("_id", makes))) {
+            String make = summary.getString("_id");
+            Delta delta = deltas.get(make);
+            if (summary.get(COUNT, Number.class).longValue() <= 0) {
+                summaries().deleteOne(Filters.and(Filters.eq("_id", make), Filters.lte(COUNT, 0)));
+                continue;
+            }
+            Integer min = summary.getInteger(PRICE_MIN);
+            Integer max = summary.getInteger(PRICE_MAX);
+            boolean minRemoved = min != null && delta.removedMin != null && delta.removedMin <= min;
+            boolean maxRemoved = max != null && delta.removedMax != null && delta.removedMax >= max;
+            if (minRemoved || maxRemoved) {
+                Integer actualMin = findPriceBound(make, Sort.Direction.ASC);
+                Integer actualMax = findPriceBound(make, Sort.Direction.DESC);
+                summaries().updateOne(Filters.eq("_id", make), Updates.combine(setOrUnset(PRICE_MIN, actualMin), setOrUnset(PRICE_MAX, actualMax)));
+            }
+        }
+    }
+
+    private Integer findPriceBound(String make, Sort.Direction direction) {
+        Query query = new Query(Criteria.where("make").is(make).and("price").ne(null)).with(Sort.by(direction, "price")).limit(1);
+        query.fields().include("price");
+        Pc bound = mongoTemplate.findOne(query, Pc.class);
+        return bound != null ? bound.getPrice() : null;
+    }
+
+    /**
+     * Recomputes all the summaries from the pcs, fixing any drift of the incremental maintenance.
+     * <p>
+     * The aggregation reads every pc, it runs on one instance at a time. A summary is replaced only if its version is
+     * still the one read before the aggregation: one changed by a concurrent write is left as is, the aggregation may or
+     * may not have seen that write, and it is reconciled the next time.
+     */
+    @Scheduled(cron = "${application.stats.reconcile-cron:0 */15 * * * *}")
+    @SchedulerLock(name = "pcStatsReconcile", lockAtMostFor = "PT10M", lockAtLeastFor = "PT1M")
+    public void reconcile() {
+        log.debug("Reconciling Pc stats");
+        Map<Object, Long> versions = new HashMap<>();
+        for (Document summary : summaries().find().projection(Projections.include(VERSION))) {
+            versions.put(summary.get("_id"), version(summary));
+        }
+        List<Document> pipeline = List.of(
+            new Document(
+                "$group",
+                new Document("_id", "$make")
+                    .append(COUNT, new Document("$sum", 1))
+                    // missing and null prices compare lower than any number
+                    .append(PRICE_COUNT, new Document("$sum", new Document("$cond", Arrays.asList(new Document("$gt", Arrays.asList("$price", null)), 1, 0))))
+                    .append(PRICE_SUM, new Document("$sum", "$price"))
+                    .append(PRICE_MIN, new Document("$min", "$price"))
+                    .append(PRICE_MAX, new Document("$max", "$price"))
+            )
+        );
+        MongoCollection<Document> pcs = mongoTemplate.getCollection(mongoTemplate.getCollectionName(Pc.class));
+        int replaced = 0;
+        int skipped = 0;
+        for (Document summary : pcs.aggregate(pipeline).allowDiskUse(true)) {
+            Long version = versions.remove(summary.get("_id"));
+            if (replace(summary, version)) {
+                replaced++;
+            } else {
+                skipped++;
+            }
+        }
+        // the summaries left are those of makes without pcs anymore
+        long deleted = 0;
+        for (Map.Entry<Object, Long> summary : versions.entrySet()) {
+            Bson unchanged = Filters.and(Filters.eq("_id", summary.getKey()), versionIs(summary.getValue()));
+            deleted += summaries().deleteOne(unchanged).getDeletedCount();
+        }
+        log.debug("Reconciled {} Pc stats, skipped {} changed meanwhile, deleted {}", replaced, skipped, deleted);
+    }
+
+    /**
+     * Replaces a summary if it still has the version read before the aggregation, or inserts it if there was none.
+     */
+    private boolean replace(Document summary, Long version) {
+        summary.put(VERSION, version != null ? version + 1 : 0L);
+        if (version == null) {
+            try {
+                summaries().insertOne(summary);
+                return true;
+            } catch (MongoWriteException e) {
+                if (e.getError().getCategory() == ErrorCategory.DUPLICATE_KEY) {
+                    return false;
+                }
+                throw e;
+            }
+        }
+        Bson unchanged = Filters.and(Filters.eq("_id", summary.get("_id")), versionIs(version));
+        return summaries().replaceOne(unchanged, summary).getMatchedCount() > 0;
+    }
+
+    private static Bson versionIs(long version) {
+        // summaries written before they were versioned count as version 0
+        return version == 0 ? Filters.in(VERSION, 0L, null) : Filters.eq(VERSION, version);
+    }
+
+    private static long version(Document summary) {
+        Number version = summary.get(VERSION, Number.class);
+        return version != null ? version.longValue() : 0;
+    }
+
+    private MongoCollection<Document> summaries() {
+        return mongoTemplate.getCollection(COLLECTION);
+    }
+
+    private static Bson setOrUnset(String field, Integer value) {
+        return value != null ? Updates.set(field, value) : Updates.unset(field);
+    }
+
+    private static PcMakeStatsDTO toDto(Document summary) {
+        PcMakeStatsDTO stats = new PcMakeStatsDTO();
+        stats.setMake(summary.getString("_id"));
+        stats.setCount(summary.get(COUNT, Number.class).longValue());
+        stats.setMinPrice(summary.getInteger(PRICE_MIN));
+        stats.setMaxPrice(summary.getInteger(PRICE_MAX));
+        Number priceCount = summary.get(PRICE_COUNT, Number.class);
+        Number priceSum = summary.get(PRICE_SUM, Number.class);
+        if (priceCount != null && priceCount.longValue() > 0 && priceSum != null) {
+            stats.setAveragePrice(priceSum.doubleValue() / priceCount.longValue());
+        }
+        return stats;
+    }
+
+    /**
+     * Change of the summary of one make.
+     */
+    private static final class Delta {
+
+        private long count;
+
+        private long priceCount;
+
+        private long priceSum;
+
+        private Integer addedMin;
+
+        private Integer addedMax;
+
+        private Integer removedMin;
+
+        private Integer removedMax;
+
+        void add(Integer price) {
+            count++;
+            if (price != null) {
+                priceCount++;
+                priceSum += price;
+                addedMin = addedMin == null ? price : Math.min(addedMin, price);
+                addedMax = addedMax == null ? price : Math.max(addedMax, price);
+            }
+        }
+
+        void remove(Integer price) {
+            count--;
+            if (price != null) {
+                priceCount--;
+                priceSum -= price;
+                removedMin = removedMin == null ? price : Math.min(removedMin, price);
+                removedMax = removedMax == null ? price : Math.max(removedMax, price);
+            }
+        }
+
+        Bson toUpdate() {
+            List<Bson> updates = new ArrayList<>();
+            updates.add(Updates.inc(COUNT, count));
+            updates.add(Updates.inc(PRICE_COUNT, priceCount));
+            updates.add(Updates.inc(PRICE_SUM, priceSum));
+            updates.add(Updates.inc(VERSION, 1));
+            if (addedMin != null) {
+                updates.add(Updates.min(PRICE_MIN, addedMin));
+                updates.add(Updates.max(PRICE_MAX, addedMax));
+            }
+            return Updates.combine(updates);
+        }
+    }
+}
@@ -0,0 +1,214 @@
+package com.flash.app.service;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Counts of the distinct values of a field, in a trie keyed by their lower case characters, where every node keeps the
+ * most frequent values starting with its prefix.
+ * <p>
+ * A suggestion only walks down the prefix and returns the list of its node, whatever the number of values. Writes
+ * update the lists of the nodes along the path of their value, replacing the nodes' arrays rather than changing them,
+ * so that they can run while suggestions are read without locks. Values differing only by case are counted together,
+ * under the spelling counted first.
+ */
+final class PcSuggestIndex {
+
+    private static final Entry[] NO_ENTRIES = new Entry[0];
+
+    private static final Comparator<Entry> BY_FREQUENCY = Comparator
+        .comparingLong(Entry::getCount)
+        .reversed()
+        .thenComparing(Entry::getValue);
+
+    private final int maxSize;
+
+    private final Node root = new Node('\0');
+
+    /**
+     * @param maxSize the number of most frequent values kept per prefix, the maximum size of a suggestion.
+     */
+    PcSuggestIndex(int maxSize) {
+        this.maxSize = maxSize;
+    }
+
+    /**
+     * Changes the count of a value.
+     *
+     * @param value the value, ignored if {@code null} or empty.
+     * @param delta the number of pcs added with the value, negative for pcs removed.
+     */
+    synchronized void add(String value, long delta) {
+        if (value == null || value.isEmpty() || delta == 0) {
+            return;
+        }
+        String key = value.toLowerCase(Locale.ROOT);
+        Node[] path = new Node[key.length() + 1];
+        path[0] = root;
+        for (int i = 0; i < key.length(); i++) {
+            path[i + 1] = path[i].getOrAddChild(key.charAt(i));
+        }
+        Node node = path[key.length()];
+        Entry previous = node.entry;
+        long count = Math.max(0, (previous != null ? previous.count : 0) + delta);
+        Entry entry = count > 0 ? new Entry(node, previous != null ? previous.value : value, count) : null;
+        node.entry = entry;
+        boolean grew = entry != null && (previous == null || entry.count > previous.count);
+        for (int i = path.length - 1; i >= 0; i--) {
+            path[i].top = grew ? promote(path[i].top, entry) : merge(path[i]);
+        }
+    }
+
+    /**
+     * Finds the most frequent values starting with a prefix, ignoring case.
+     *
+     * @param prefix the prefix of the values.
+     * @param size the maximum number of values to return.
+     * @return the values by decreasing count.
+     */
+    List<Entry> suggest(String prefix, int size) {
+        String key = prefix.toLowerCase(Locale.ROOT);
+        Node node = root;
+        for (int i = 0; i < key.length() && node != null; i++) {
+            node = node.getChild(key.charAt(i));
+        }
+        if (node == null) {
+            return List.of();
+        }
+        Entry[] top = node.top;
+        return Arrays.asList(top).subList(0, Math.min(size, top.length));
+    }
+
+    /**
+     * Updates the list of a node when the count of one of its values grew, which can only move that value up.
+     */
+    private Entry[] promote(Entry[] top, Entry entry) {
+        List<Entry> entries = new ArrayList<>(top.length + 1);
+        for (Entry other : top) {
+            if (other.node != entry.node) {
+                entries.add(other);
+            }
+        }
+        if (entries.size() == maxSize && BY_FREQUENCY.compare(entry, entries.get(maxSize - 1)) > 0) {
+            return top;
+        }
+        entries.add(entry);
+        return sorted(entries);
+    }
+
+    /**
+     * Computes the list of a node from its own value and the lists of its children, which hold the most frequent values
+     * of each branch.
+     */
+    private Entry[] merge(Node node) {
+        List<Entry> entries = new ArrayList<>();
+        if (node.entry != null) {
+            entries.add(node.entry);
+        }
+        for (Node child : node.children) {
+            entries.addAll(Arrays.asList(child.top));
+        }
+        return sorted(entries);
+    }
+
+    private Entry[] sorted(List<Entry> entries) {
+        if (entries.isEmpty()) {
+            return NO_ENTRIES;
+        }
+        entries.sort(BY_FREQUENCY);
+        return entries.subList(0, Math.min(maxSize, entries.size())).toArray(NO_ENTRIES);
+    }
+
+    private static final class Node {
+
+        private static final Node[] NO_CHILDREN = new Node[0];
+
+        private final char label;
+
+        /**
+         * The children by label, replaced on additions.
+         */
+        private volatile Node[] children = NO_CHILDREN;
+
+        /**
+         * The most frequent values of the node and its descendants, replaced on changes.
+         */
+        private volatile Entry[] top = NO_ENTRIES;
+
+        /**
+         * The value ending at this node, or {@code null} if it has no pcs.
+         */
+        private Entry entry;
+
+        Node(char label) {
+            this.label = label;
+        }
+
+        Node getChild(char label) {
+            Node[] nodes = children;
+            int index = indexOf(nodes, label);
+            return index >= 0 ? nodes[index] : null;
+        }
+
+        Node getOrAddChild(char label) {
+            Node[] nodes = children;
+            int index = indexOf(nodes, label);
+            if (index >= 0) {
+                return nodes[index];
+            }
+            int insertion = -index - 1;
+            Node child = new Node(label);
+            Node[] updated = new Node[nodes.length + 1];
+            System.arraycopy(nodes, 0, updated, 0, insertion);
+            updated[insertion] = child;
+            System.arraycopy(nodes, insertion, updated, insertion + 1, nodes.length - insertion);
+            children = updated;
+            return child;
+        }
+
+        private static int indexOf(Node[] nodes, char label) {
+            int low = 0;
+            int high = nodes.length - 1;
+            while (low <= high) {
+                int middle = (low + high) >>> 1;
+                if (nodes[middle].label < label) {
+                    low = middle + 1;
+                } else if (nodes[middle].label > label) {
+                    high = middle - 1;
+                } else {
+                    return middle;
+                }
+            }
+            return -(low + 1);
+        }
+    }
+
+    /**
+     * A value and its count, immutable so that suggestions can be read while the counts change.
+     */
+    static final class Entry {
+
+        private final Node node;
+
+        private final String value;
+
+        private final long count;
+
+        private Entry(Node node, String value, long count) {
+            this.node = node;
+            this.value = value;
+            this.count = count;
+        }
+
+        String getValue() {
+            return value;
+        }
+
+        long getCount() {
+            return count;
+        }
+    }
+}
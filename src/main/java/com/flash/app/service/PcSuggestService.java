@@ -0,0 +1,229 @@
+package com.flash.app.service;
+
+import com.flash.app.domain.Pc;
+import com.flash.app.service.dto.PcSuggestionDTO;
+import com.mongodb.client.MongoCollection;
+import com.mongodb.client.model.Filters;
+import com.mongodb.client.model.FindOneAndUpdateOptions;
+import com.mongodb.client.model.ReturnDocument;
+import com.mongodb.client.model.Updates;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Objects;
+import net.javacrumbs.shedlock.spring.annotation.SchedulerLock;
+import org.bson.Document;
+import org.bson.conversions.Bson;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+/**
+ * Suggestions of makes and models for a typeahead, answered from in-memory {@link PcSuggestIndex}es without reading the
+ * database.
+ * <p>
+ * The indexes are maintained incrementally by the writes of this instance, like the {@link PcStatsService} summaries.
+ * To see the writes of other instances, the scheduled {@link #rebuild()} counts the distinct makes and models of all
+ * the pcs, on one instance at a time, and publishes them as a snapshot in the {@value #SNAPSHOT_COLLECTION}
+ * collection. Every instance loads each new snapshot with {@link #refresh()}: the few documents of the snapshot are read,
+ * not the pcs. Writes of this instance made between the counting and the loading are only seen again in the next
+ * snapshot.
+ */
+@Service
+public class PcSuggestService {
+
+    public static final String MAKE = "make";
+
+    public static final String MODEL = "model";
+
+    /**
+     * Maximum number of suggestions for a prefix.
+     */
+    public static final int MAX_SIZE = 20;
+
+    static final String SNAPSHOT_COLLECTION = "pc_suggestions";
+
+    /**
+     * Id of the document of the snapshot collection holding the number of the last build, and of the current one.
+     */
+    private static final String BUILD_ID = "build";
+
+    private static final String LAST = "last";
+
+    private static final String BUILD = "build";
+
+    private static final String CURRENT = "current";
+
+    private static final String FIELD = "field";
+
+    private static final String VALUE = "value";
+
+    private static final String COUNT = "count";
+
+    private static final Comparator<PcSuggestionDTO> BY_COUNT = Comparator
+        .comparingLong(PcSuggestionDTO::getCount)
+        .reversed()
+        .thenComparing(PcSuggestionDTO::getValue)
+        .thenComparing(PcSuggestionDTO::getField);
+
+    private final Logger log = LoggerFactory.getLogger(PcSuggestService.class);
+
+    private final MongoTemplate mongoTemplate;
+
+    private volatile PcSuggestIndex makes = new PcSuggestIndex(MAX_SIZE);
+
+    private volatile PcSuggestIndex models = new PcSuggestIndex(MAX_SIZE);
+
+    /**
+     * Number of the snapshot the indexes were loaded from.
+     */
+    private volatile long loadedBuild = -1;
+
+    public PcSuggestService(MongoTemplate mongoTemplate) {
+        this.mongoTemplate = mongoTemplate;
+    }
+
+    /**
+     * Finds the most frequent makes and models starting with a prefix, ignoring case.
+     *
+     * @param prefix the prefix of the values.
+     * @param size the maximum number of suggestions, at most {@link #MAX_SIZE}.
+     * @return the suggestions, by decreasing number of pcs.
+     */
+    public List<PcSuggestionDTO> suggest(String prefix, int size) {
+        List<PcSuggestionDTO> suggestions = new ArrayList<>(size * 2);
+        makes.suggest(prefix, size).forEach(entry -> suggestions.add(new PcSuggestionDTO(MAKE, entry.getValue(), entry.getCount())));
+        models.suggest(prefix, size).forEach(entry -> suggestions.add(new PcSuggestionDTO(MODEL, entry.getValue(), entry.getCount())));
+        suggestions.sort(BY_COUNT);
+        return suggestions.subList(0, Math.min(size, suggestions.size()));
+    }
+
+    /**
+     * Counts the makes and models of pcs out and in.
+     *
+     * @param removed the states counted out.
+     * @param added the states counted in.
+     */
+    public void record(Collection<Pc> removed, Collection<Pc> added) {
+        PcSuggestIndex makeIndex = makes;
+        PcSuggestIndex modelIndex = models;
+        for (Pc pc : removed) {
+            makeIndex.add(pc.getMake(), -1);
+            modelIndex.add(pc.getModel(), -1);
+        }
+        for (Pc pc : added) {
+            makeIndex.add(pc.getMake(), 1);
+            modelIndex.add(pc.getModel(), 1);
+        }
+    }
+
+    /**
+     * Counts the previous state of an updated pc out and its new state in, when its make or model changed.
+     *
+     * @param previous the state before the update, or {@code null} if the pc was inserted.
+     * @param current the state after the update.
+     */
+    public void replaced(Pc previous, Pc current) {
+        if (previous == null) {
+            record(List.of(), List.of(current));
+        } else if (!Objects.equals(previous.getMake(), current.getMake()) || !Objects.equals(previous.getModel(), current.getModel())) {
+            record(List.of(previous), List.of(current));
+        }
+    }
+
+    /**
+     * Loads the indexes from the last snapshot, or builds the first one.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        if (!refresh()) {
+            rebuild();
+        }
+    }
+
+    /**
+     * Counts the distinct makes and models of the pcs, then publishes them as a new snapshot and loads it.
+     */
+    @Scheduled(cron = "${application.suggest.rebuild-cron:0 */15 * * * *}")
+    @SchedulerLock(name = "pcSuggestRebuild", lockAtMostFor = "PT10M", lockAtLeastFor = "PT1M")
+    public void rebuild() {
+        log.debug("Rebuilding Pc suggestions");
+        List<Document> entries = new ArrayList<>();
+        count(MAKE, entries);
+        count(MODEL, entries);
+
+        Document build = snapshot()
+            .findOneAndUpdate(
+                Filters.eq("_id", BUILD_ID),
+                Updates.inc(LAST, 1L),
+                new FindOneAndUpdateOptions().upsert(true).returnDocument(ReturnDocument.AFTER)
+            );
+        long number = build.get(LAST, Number.class).longValue();
+        entries.forEach(entry -> entry.append(BUILD, number));
+        if (!entries.isEmpty()) {
+            snapshot().insertMany(entries);
+        }
+        // a slower rebuild that started earlier must not replace a newer snapshot
+        Bson older = Filters.and(Filters.eq("_id", BUILD_ID), Filters.not(Filters.gte(CURRENT, number)));
+        snapshot().updateOne(older, Updates.set(CURRENT, number));
+        // the previous snapshot is kept for the instances still loading it
+        snapshot().deleteMany(Filters.lt(BUILD, number - 1));
+        loadEntries(number, entries);
+    }
+
+    /**
+     * Loads the indexes from the snapshot, if one newer than the loaded one was published.
+     *
+     * @return whether a snapshot was published.
+     */
+    @Scheduled(cron = "${application.suggest.refresh-cron:30 * * * * *}")
+    public boolean refresh() {
+        Document build = snapshot().find(Filters.eq("_id", BUILD_ID)).first();
+        if (build == null || build.get(CURRENT) == null) {
+            return false;
+        }
+        long number = build.get(CURRENT, Number.class).longValue();
+        if (number > loadedBuild) {
+            log.debug("Loading Pc suggestions {}", number);
+            loadEntries(number, snapshot().find(Filters.eq(BUILD, number)).into(new ArrayList<>()));
+        }
+        return true;
+    }
+
+    private synchronized void loadEntries(long number, List<Document> entries) {
+        if (number <= loadedBuild) {
+            return;
+        }
+        PcSuggestIndex makeIndex = new PcSuggestIndex(MAX_SIZE);
+        PcSuggestIndex modelIndex = new PcSuggestIndex(MAX_SIZE);
+        for (Document entry : entries) {
+            PcSuggestIndex index = MAKE.equals(entry.getString(FIELD)) ? makeIndex : modelIndex;
+            index.add(entry.getString(VALUE), entry.get(COUNT, Number.class).longValue());
+        }
+        makes = makeIndex;
+        models = modelIndex;
+        loadedBuild = number;
+    }
+
+    private void count(String field, List<Document> entries) {
+        List<Document> pipeline = List.of(
+            new Document("$group", new Document("_id", "$" + field).append(COUNT, new Document("$sum", 1)))
+        );
+        MongoCollection<Document> pcs = mongoTemplate.getCollection(mongoTemplate.getCollectionName(Pc.class));
+        for (Document value : pcs.aggregate(pipeline).allowDiskUse(true)) {
+            if (value.get("_id") instanceof String) {
+                long count = value.get(COUNT, Number.class).longValue();
+                entries.add(new Document(FIELD, field).append(VALUE, value.getString("_id")).append(COUNT, count));
+            }
+        }
+    }
+
+    private MongoCollection<Document> snapshot() {
+        return mongoTemplate.getCollection(SNAPSHOT_COLLECTION);
+    }
+}
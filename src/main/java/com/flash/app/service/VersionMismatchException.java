@@ -0,0 +1,16 @@
+package com.flash.app.service;
+
+import java.util.List;
+
+/**
+ * Thrown when a conditional write targets a {@link com.flash.app.domain.Pc} that exists with another version than the
+ * expected ones.
+ */
+public class VersionMismatchException extends RuntimeException {
+
+    private static final long serialVersionUID = 1L;
+
+    public VersionMismatchException(String id, List<Long> expectedVersions) {
+        super("Pc " + id + " does not have any of the expected versions " + expectedVersions);
+    }
+}
@@ -0,0 +1,78 @@
+package com.flash.app.service.dto;
+
+import com.flash.app.domain.Pc;
+import java.io.Serializable;
+import java.util.Objects;
+
+/**
+ * A DTO for one operation of a bulk write on {@link Pc} documents.
+ */
+public class PcBulkOperationDTO implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * The kind of write applied to the pc of an operation.
+     */
+    public enum Action {
+        /** Inserts a new pc, which must not have an ID yet. */
+        CREATE,
+        /** Replaces an existing pc, which must have an ID. */
+        REPLACE,
+        /** Replaces the pc with the same ID, or inserts it when there is none. */
+        UPSERT,
+    }
+
+    private Action action;
+
+    private Pc pc;
+
+    public PcBulkOperationDTO() {}
+
+    public PcBulkOperationDTO(Action action, Pc pc) {
+        this.action = action;
+        this.pc = pc;
+    }
+
+    public Action getAction() {
+        return action;
+    }
+
+    public void setAction(Action action) {
+        this.action = action;
+    }
+
+    public Pc getPc() {
+        return pc;
+    }
+
+    public void setPc(Pc pc) {
+        this.pc = pc;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof PcBulkOperationDTO)) {
+            return false;
+        }
+        PcBulkOperationDTO that = (PcBulkOperationDTO) o;
+        return action == that.action && Objects.equals(pc, that.pc);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(action, pc);
+    }
+
+    // prettier-ignore
+    @Override
+    public String toString() {
+        return "PcBulkOperationDTO{" +
+            "action=" + getAction() +
+            ", pc=" + getPc() +
+            "}";
+    }
+}
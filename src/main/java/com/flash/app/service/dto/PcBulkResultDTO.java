@@ -0,0 +1,120 @@
+package com.flash.app.service.dto;
+
+import java.io.Serializable;
+import java.util.Objects;
+
+/**
+ * A DTO for the outcome of one {@link PcBulkOperationDTO}, at the same index as the operation in the bulk request.
+ */
+public class PcBulkResultDTO implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private int index;
+
+    private String id;
+
+    private int status;
+
+    private String errorKey;
+
+    private String message;
+
+    public PcBulkResultDTO() {}
+
+    public static PcBulkResultDTO success(int index, String id, int status) {
+        PcBulkResultDTO result = new PcBulkResultDTO();
+        result.setIndex(index);
+        result.setId(id);
+        result.setStatus(status);
+        return result;
+    }
+
+    public static PcBulkResultDTO failure(int index, String id, int status, String message, String errorKey) {
+        PcBulkResultDTO result = success(index, id, status);
+        result.setMessage(message);
+        result.setErrorKey(errorKey);
+        return result;
+    }
+
+    public int getIndex() {
+        return index;
+    }
+
+    public void setIndex(int index) {
+        this.index = index;
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public void setId(String id) {
+        this.id = id;
+    }
+
+    /**
+     * @return the HTTP status the operation would have had as a single request.
+     */
+    public int getStatus() {
+        return status;
+    }
+
+    public void setStatus(int status) {
+        this.status = status;
+    }
+
+    /**
+     * @return the error key of a failed operation, as used by {@code BadRequestAlertException}.
+     */
+    public String getErrorKey() {
+        return errorKey;
+    }
+
+    public void setErrorKey(String errorKey) {
+        this.errorKey = errorKey;
+    }
+
+    public String getMessage() {
+        return message;
+    }
+
+    public void setMessage(String message) {
+        this.message = message;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof PcBulkResultDTO)) {
+            return false;
+        }
+        PcBulkResultDTO that = (PcBulkResultDTO) o;
+        return (
+            index == that.index &&
+            status == that.status &&
+            Objects.equals(id, that.id) &&
+            Objects.equals(errorKey, that.errorKey) &&
+            Objects.equals(message, that.message)
+        );
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(index, id, status, errorKey, message);
+    }
+
+    // prettier-ignore
+    @Override
+    public String toString() {
+        return "PcBulkResultDTO{" +
+            "index=" + getIndex() +
+            ", id='" + getId() + "'" +
+            ", status=" + getStatus() +
+            ", errorKey='" + getErrorKey() + "'" +
+            ", message='" + getMessage() + "'" +
+            "}";
+    }
+}
@@ -0,0 +1,103 @@
+package com.flash.app.service.dto;
+
+import java.io.Serializable;
+import java.util.Objects;
+
+/**
+ * A DTO for the price statistics of the pcs of one make.
+ */
+public class PcMakeStatsDTO implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private String make;
+
+    private long count;
+
+    private Integer minPrice;
+
+    private Integer maxPrice;
+
+    private Double averagePrice;
+
+    public String getMake() {
+        return make;
+    }
+
+    public void setMake(String make) {
+        this.make = make;
+    }
+
+    /**
+     * @return the number of pcs of the make, including those without a price.
+     */
+    public long getCount() {
+        return count;
+    }
+
+    public void setCount(long count) {
+        this.count = count;
+    }
+
+    public Integer getMinPrice() {
+        return minPrice;
+    }
+
+    public void setMinPrice(Integer minPrice) {
+        this.minPrice = minPrice;
+    }
+
+    public Integer getMaxPrice() {
+        return maxPrice;
+    }
+
+    public void setMaxPrice(Integer maxPrice) {
+        this.maxPrice = maxPrice;
+    }
+
+    /**
+     * @return the average price of the pcs of the make that have a price.
+     */
+    public Double getAveragePrice() {
+        return averagePrice;
+    }
+
+    public void setAveragePrice(Double averagePrice) {
+        this.averagePrice = averagePrice;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof PcMakeStatsDTO)) {
+            return false;
+        }
+        PcMakeStatsDTO that = (PcMakeStatsDTO) o;
+        return (
+            count == that.count &&
+            Objects.equals(make, that.make) &&
+            Objects.equals(minPrice, that.minPrice) &&
+            Objects.equals(maxPrice, that.maxPrice) &&
+            Objects.equals(averagePrice, that.averagePrice)
+        );
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(make, count, minPrice, maxPrice, averagePrice);
+    }
+
+    // prettier-ignore
+    @Override
+    public String toString() {
+        return "PcMakeStatsDTO{" +
+            "make='" + getMake() + "'" +
+            ", count=" + getCount() +
+            ", minPrice=" + getMinPrice() +
+            ", maxPrice=" + getMaxPrice() +
+            ", averagePrice=" + getAveragePrice() +
+            "}";
+    }
+}
@@ -0,0 +1,80 @@
+package com.flash.app.service.dto;
+
+import java.io.Serializable;
+import java.util.Objects;
+
+/**
+ * A DTO for one operation of a JSON Patch (RFC 6902) document applied to a {@link com.flash.app.domain.Pc}.
+ * <p>
+ * Besides the standard {@code add}, {@code replace} and {@code remove} operations, the non-standard {@code inc}
+ * operation adds its numeric value to the target field.
+ */
+public class PcPatchOperationDTO implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private String op;
+
+    private String path;
+
+    private Object value;
+
+    public PcPatchOperationDTO() {}
+
+    public PcPatchOperationDTO(String op, String path, Object value) {
+        this.op = op;
+        this.path = path;
+        this.value = value;
+    }
+
+    public String getOp() {
+        return op;
+    }
+
+    public void setOp(String op) {
+        this.op = op;
+    }
+
+    public String getPath() {
+        return path;
+    }
+
+    public void setPath(String path) {
+        this.path = path;
+    }
+
+    public Object getValue() {
+        return value;
+    }
+
+    public void setValue(Object value) {
+        this.value = value;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof PcPatchOperationDTO)) {
+            return false;
+        }
+        PcPatchOperationDTO that = (PcPatchOperationDTO) o;
+        return Objects.equals(op, that.op) && Objects.equals(path, that.path) && Objects.equals(value, that.value);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(op, path, value);
+    }
+
+    // prettier-ignore
+    @Override
+    public String toString() {
+        return "PcPatchOperationDTO{" +
+            "op='" + getOp() + "'" +
+            ", path='" + getPath() + "'" +
+            ", value=" + getValue() +
+            "}";
+    }
+}
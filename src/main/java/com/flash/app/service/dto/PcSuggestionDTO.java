@@ -0,0 +1,83 @@
+package com.flash.app.service.dto;
+
+import java.io.Serializable;
+import java.util.Objects;
+
+/**
+ * A DTO for a make or model suggested for a prefix.
+ */
+public class PcSuggestionDTO implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private String field;
+
+    private String value;
+
+    private long count;
+
+    public PcSuggestionDTO() {}
+
+    public PcSuggestionDTO(String field, String value, long count) {
+        this.field = field;
+        this.value = value;
+        this.count = count;
+    }
+
+    /**
+     * @return the field of the value, {@code make} or {@code model}.
+     */
+    public String getField() {
+        return field;
+    }
+
+    public void setField(String field) {
+        this.field = field;
+    }
+
+    public String getValue() {
+        return value;
+    }
+
+    public void setValue(String value) {
+        this.value = value;
+    }
+
+    /**
+     * @return the number of pcs with the value.
+     */
+    public long getCount() {
+        return count;
+    }
+
+    public void setCount(long count) {
+        this.count = count;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof PcSuggestionDTO)) {
+            return false;
+        }
+        PcSuggestionDTO that = (PcSuggestionDTO) o;
+        return count == that.count && Objects.equals(field, that.field) && Objects.equals(value, that.value);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(field, value, count);
+    }
+
+    // prettier-ignore
+    @Override
+    public String toString() {
+        return "PcSuggestionDTO{" +
+            "field='" + getField() + "'" +
+            ", value='" + getValue() + "'" +
+            ", count=" + getCount() +
+            "}";
+    }
+}
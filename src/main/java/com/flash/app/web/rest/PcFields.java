@@ -0,0 +1,103 @@
+package com.flash.app.web.rest;
+
+import com.fasterxml.jackson.annotation.JsonFilter;
+import com.fasterxml.jackson.databind.ser.FilterProvider;
+import com.fasterxml.jackson.databind.ser.impl.SimpleBeanPropertyFilter;
+import com.fasterxml.jackson.databind.ser.impl.SimpleFilterProvider;
+import com.flash.app.domain.Pc;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+
+/**
+ * Sparse fieldset of a {@link Pc} read, as requested with the {@code fields} parameter.
+ * <p>
+ * The same fields select the MongoDB projection and, through the {@link Mixin} filter, the serialized properties.
+ */
+public final class PcFields {
+
+    /**
+     * Jackson filter of the {@link Pc} properties, applied to {@link Pc} by the {@link Mixin}.
+     */
+    public static final String FILTER_ID = "pcFields";
+
+    private static final Map<String, Function<Pc, Object>> FIELDS = Map.of(
+        "id",
+        Pc::getId,
+        "make",
+        Pc::getMake,
+        "model",
+        Pc::getModel,
+        "price",
+        Pc::getPrice,
+        "version",
+        Pc::getVersion
+    );
+
+    private final Set<String> names;
+
+    private PcFields(Set<String> names) {
+        this.names = names;
+    }
+
+    /**
+     * Parses a comma separated list of fields; {@code id} is always part of the fieldset.
+     *
+     * @param fields the fields, or {@code null} for all of them.
+     * @return the fieldset, or {@code null} for all the fields.
+     * @throws IllegalArgumentException if a field is unknown.
+     */
+    public static PcFields parse(String fields) {
+        if (fields == null) {
+            return null;
+        }
+        Set<String> names = new LinkedHashSet<>();
+        names.add("id");
+        for (String field : fields.split(",")) {
+            String name = field.trim();
+            if (!FIELDS.containsKey(name)) {
+                throw new IllegalArgumentException("Unknown field: " + name);
+            }
+            names.add(name);
+        }
+        return new PcFields(Collections.unmodifiableSet(names));
+    }
+
+    /**
+     * @return the names of the fields, in request order.
+     */
+    public Set<String> getNames() {
+        return names;
+    }
+
+    /**
+     * @param pc a pc.
+     * @param name the name of one of the fields.
+     * @return the value of the field in the pc.
+     */
+    public static Object value(Pc pc, String name) {
+        return FIELDS.get(name).apply(pc);
+    }
+
+    /**
+     * @return the Jackson filters serializing only these fields.
+     */
+    public FilterProvider toFilterProvider() {
+        return new SimpleFilterProvider().addFilter(FILTER_ID, SimpleBeanPropertyFilter.filterOutAllExcept(names));
+    }
+
+    /**
+     * @return the Jackson filters serializing all the fields, used when no fieldset is requested.
+     */
+    public static FilterProvider allFields() {
+        return new SimpleFilterProvider().setDefaultFilter(SimpleBeanPropertyFilter.serializeAll());
+    }
+
+    /**
+     * Jackson mix-in making {@link Pc} serialization go through the {@link #FILTER_ID} filter.
+     */
+    @JsonFilter(FILTER_ID)
+    public interface Mixin {}
+}
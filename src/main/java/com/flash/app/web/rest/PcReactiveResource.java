@@ -0,0 +1,600 @@
+package com.flash.app.web.rest;
+
+import static com.flash.app.web.rest.PcResource.APPLICATION_SMILE_VALUE;
+import static com.flash.app.web.rest.PcResource.ENTITY_NAME;
+import static com.flash.app.web.rest.PcResource.MAX_PAGE_SIZE;
+import static com.flash.app.web.rest.PcResource.MAX_SEARCH_PAGE_SIZE;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.flash.app.config.ApplicationProperties;
+import com.flash.app.config.Constants;
+import com.flash.app.domain.Pc;
+import com.flash.app.repository.PcFilter;
+import com.flash.app.repository.PcKeyset;
+import com.flash.app.repository.PcSearchKeyset;
+import com.flash.app.service.InvalidPatchException;
+import com.flash.app.service.PcIngestService;
+import com.flash.app.service.PcReactiveService;
+import com.flash.app.service.PcSuggestService;
+import com.flash.app.service.VersionMismatchException;
+import com.flash.app.service.dto.PcBulkOperationDTO;
+import com.flash.app.service.dto.PcBulkResultDTO;
+import com.flash.app.service.dto.PcMakeStatsDTO;
+import com.flash.app.service.dto.PcPatchOperationDTO;
+import com.flash.app.service.dto.PcSuggestionDTO;
+import com.flash.app.web.rest.errors.BadRequestAlertException;
+import com.flash.app.web.rest.errors.PreconditionFailedAlertException;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.json.MappingJacksonValue;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
+import org.springframework.web.util.UriComponentsBuilder;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+import tech.jhipster.web.util.HeaderUtil;
+
+/**
+ * Asynchronous twin of {@link PcResource}, serving the same API when the {@link Constants#SPRING_PROFILE_REACTIVE
+ * reactive} profile is active.
+ * <p>
+ * Handlers return {@link Mono} and {@link Flux} and are completed through Spring MVC asynchronous requests, so a
+ * worker thread is not held while waiting for MongoDB. Reads of pcs use the reactive driver; writes and statistics run
+ * the blocking services on the bounded elastic scheduler instead, see {@link PcReactiveService}. Headers and errors are
+ * the same as in {@link PcResource}: errors signalled by the publishers go through the
+ * {@link com.flash.app.web.rest.errors.ExceptionTranslator} as well.
+ */
+@RestController
+@RequestMapping("/api")
+@Profile(Constants.SPRING_PROFILE_REACTIVE)
+public class PcReactiveResource {
+
+    private final Logger log = LoggerFactory.getLogger(PcReactiveResource.class);
+
+    @Value("${jhipster.clientApp.name}")
+    private String applicationName;
+
+    private final PcReactiveService pcReactiveService;
+
+    private final ObjectProvider<PcIngestService> pcIngestService;
+
+    private final PcSuggestService pcSuggestService;
+
+    private final ApplicationProperties applicationProperties;
+
+    private final ObjectMapper objectMapper;
+
+    /**
+     * The mappers writing the streamed arrays of pcs, by format.
+     */
+    private final Map<MediaType, ObjectMapper> streamMappers;
+
+    public PcReactiveResource(
+        PcReactiveService pcReactiveService,
+        ObjectProvider<PcIngestService> pcIngestService,
+        PcSuggestService pcSuggestService,
+        ApplicationProperties applicationProperties,
+        ObjectMapper objectMapper,
+        MappingJackson2SmileHttpMessageConverter smileHttpMessageConverter,
+        MappingJackson2CborHttpMessageConverter cborHttpMessageConverter
+    ) {
+        this.pcReactiveService = pcReactiveService;
+        this.pcIngestService = pcIngestService;
+        this.pcSuggestService = pcSuggestService;
+        this.applicationProperties = applicationProperties;
+        this.objectMapper = objectMapper;
+        this.streamMappers =
+            Map.of(
+                MediaType.APPLICATION_JSON,
+                objectMapper,
+                PcResource.APPLICATION_SMILE,
+                smileHttpMessageConverter.getObjectMapper(),
+                MediaType.APPLICATION_CBOR,
+                cborHttpMessageConverter.getObjectMapper()
+            );
+    }
+
+    /**
+     * {@code POST  /pcs} : Create a new pc.
+     *
+     * @param pc the pc to create.
+     * @return the {@link ResponseEntity} with status {@code 201 (Created)} and with body the new pc, or with status {@code 400 (Bad Request)} if the pc has already an ID.
+     */
+    @PostMapping("/pcs")
+    public Mono<ResponseEntity<Pc>> createPc(@RequestBody Pc pc) {
+        log.debug("REST request to save Pc : {}", pc);
+        if (pc.getId() != null) {
+            throw new BadRequestAlertException("A new pc cannot already have an ID", ENTITY_NAME, "idexists");
+        }
+        return pcReactiveService
+            .save(pc)
+            .map(result ->
+                ResponseEntity
+                    .created(URI.create("/api/pcs/" + result.getId()))
+                    .headers(HeaderUtil.createEntityCreationAlert(applicationName, false, ENTITY_NAME, result.getId()))
+                    .body(result)
+            );
+    }
+
+    /**
+     * {@code POST  /pcs?mode=async} : Accepts a new pc, to be created asynchronously.
+     * <p>
+     * Appending to the journal does not wait for MongoDB, the pc is accepted on the calling thread.
+     *
+     * @param pc the pc to create.
+     * @return the {@link ResponseEntity} with status {@code 202 (Accepted)} and with body the accepted pc,
+     * or with status {@code 400 (Bad Request)} if the pc has already an ID or asynchronous creations are disabled,
+     * or with status {@code 503 (Service Unavailable)} if too many pcs are waiting to be created.
+     * @throws URISyntaxException if the Location URI syntax is incorrect.
+     * @see PcResource#ingestPc(Pc)
+     */
+    @PostMapping(value = "/pcs", params = "mode=async")
+    public ResponseEntity<Pc> ingestPc(@RequestBody Pc pc) throws URISyntaxException {
+        log.debug("REST request to ingest Pc : {}", pc);
+        return PcResource.ingest(pcIngestService, pc, applicationName);
+    }
+
+    /**
+     * {@code POST  /pcs/_bulk} : Creates, replaces and upserts many pcs in a single unordered bulk write.
+     *
+     * @param operations the operations to apply.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the result of each operation,
+     * or with status {@code 400 (Bad Request)} if there are too many operations.
+     * @see PcResource#bulkPcs(List)
+     */
+    @PostMapping("/pcs/_bulk")
+    public Mono<ResponseEntity<List<PcBulkResultDTO>>> bulkPcs(@RequestBody List<PcBulkOperationDTO> operations) {
+        log.debug("REST request to bulk write {} Pcs", operations.size());
+        int maxOperations = applicationProperties.getBulk().getMaxOperations();
+        if (operations.size() > maxOperations) {
+            throw new BadRequestAlertException("A bulk request cannot exceed " + maxOperations + " operations", ENTITY_NAME, "bulktoolarge");
+        }
+        return pcReactiveService
+            .bulkWrite(operations)
+            .map(results ->
+                ResponseEntity
+                    .ok()
+                    .headers(
+                        HeaderUtil.createAlert(
+                            applicationName,
+                            "A bulk of " + operations.size() + " pc operations is processed",
+                            Integer.toString(operations.size())
+                        )
+                    )
+                    .body(results)
+            );
+    }
+
+    /**
+     * {@code PUT  /pcs/:id} : Updates an existing pc.
+     *
+     * @param id the id of the pc to save.
+     * @param ifMatch the ETags of the versions the pc must have to be updated.
+     * @param pc the pc to update.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the updated pc,
+     * or with status {@code 400 (Bad Request)} if the pc is not valid,
+     * or with status {@code 412 (Precondition Failed)} if the pc does not match {@code If-Match}.
+     */
+    @PutMapping("/pcs/{id}")
+    public Mono<ResponseEntity<Pc>> updatePc(
+        @PathVariable(value = "id", required = false) final String id,
+        @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+        @RequestBody Pc pc
+    ) {
+        log.debug("REST request to update Pc : {}, {}", id, pc);
+        checkId(id, pc);
+        return updated(pcReactiveService.update(pc, PcResource.expectedVersions(ifMatch)), pc.getId());
+    }
+
+    /**
+     * {@code PATCH  /pcs/:id} : Partial updates given fields of an existing pc, field will ignore if it is null
+     *
+     * @param id the id of the pc to save.
+     * @param ifMatch the ETags of the versions the pc must have to be updated.
+     * @param pc the pc to update.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the updated pc,
+     * or with status {@code 400 (Bad Request)} if the pc is not valid or not found,
+     * or with status {@code 412 (Precondition Failed)} if the pc does not match {@code If-Match}.
+     */
+    @PatchMapping(
+        value = "/pcs/{id}",
+        consumes = { "application/json", "application/merge-patch+json", APPLICATION_SMILE_VALUE, MediaType.APPLICATION_CBOR_VALUE }
+    )
+    public Mono<ResponseEntity<Pc>> partialUpdatePc(
+        @PathVariable(value = "id", required = false) final String id,
+        @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+        @RequestBody Pc pc
+    ) {
+        log.debug("REST request to partial update Pc partially : {}, {}", id, pc);
+        checkId(id, pc);
+        return updated(pcReactiveService.partialUpdate(pc, PcResource.expectedVersions(ifMatch)), pc.getId());
+    }
+
+    /**
+     * {@code PATCH  /pcs/:id} : Applies a JSON Patch document to an existing pc.
+     *
+     * @param id the id of the pc to patch.
+     * @param ifMatch the ETags of the versions the pc must have to be patched.
+     * @param operations the JSON Patch operations.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the patched pc,
+     * or with status {@code 400 (Bad Request)} if the patch is not valid or the pc is not found,
+     * or with status {@code 412 (Precondition Failed)} if the pc does not match {@code If-Match}.
+     * @see PcResource#patchPc(String, String, List)
+     */
+    @PatchMapping(value = "/pcs/{id}", consumes = "application/json-patch+json")
+    public Mono<ResponseEntity<Pc>> patchPc(
+        @PathVariable(value = "id") final String id,
+        @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+        @RequestBody List<PcPatchOperationDTO> operations
+    ) {
+        log.debug("REST request to patch Pc : {}, {}", id, operations);
+        Mono<Pc> result = pcReactiveService
+            .patch(id, operations, PcResource.expectedVersions(ifMatch))
+            .onErrorMap(InvalidPatchException.class, e -> new BadRequestAlertException(e.getMessage(), ENTITY_NAME, "patchinvalid"));
+        return updated(result, id);
+    }
+
+    private static void checkId(String id, Pc pc) {
+        if (pc.getId() == null) {
+            throw new BadRequestAlertException("Invalid id", ENTITY_NAME, "idnull");
+        }
+        if (!Objects.equals(id, pc.getId())) {
+            throw new BadRequestAlertException("Invalid ID", ENTITY_NAME, "idinvalid");
+        }
+    }
+
+    private Mono<ResponseEntity<Pc>> updated(Mono<Pc> result, String id) {
+        return result
+            .onErrorMap(
+                VersionMismatchException.class,
+                e -> new PreconditionFailedAlertException(e.getMessage(), ENTITY_NAME, "versionmismatch")
+            )
+            .switchIfEmpty(Mono.error(() -> new BadRequestAlertException("Entity not found", ENTITY_NAME, "idnotfound")))
+            .map(pc ->
+                PcResource
+                    .withETag(ResponseEntity.ok(), pc)
+                    .headers(HeaderUtil.createEntityUpdateAlert(applicationName, false, ENTITY_NAME, id))
+                    .body(pc)
+            );
+    }
+
+    /**
+     * {@code GET  /pcs} : get a page of pcs, optionally filtered.
+     * <p>
+     * The page and its estimated total are read concurrently.
+     *
+     * @param make the make the pcs must have.
+     * @param model the model the pcs must have.
+     * @param priceMin the minimum price of the pcs, inclusive.
+     * @param priceMax the maximum price of the pcs, inclusive.
+     * @param cursor the cursor of the page to retrieve, taken from a previous {@code next} link.
+     * @param size the maximum number of pcs in the page.
+     * @param sort the ordering of the first page, as {@code property,direction} with property {@code id} or {@code price}.
+     * @param estimateTotal whether to add an approximate {@code X-Total-Count} header, counting the filtered pcs.
+     * @param fields the comma separated fields of the pcs to return, all of them by default.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the list of pcs in body,
+     * or with status {@code 304 (Not Modified)} if the page matches {@code If-None-Match},
+     * or with status {@code 400 (Bad Request)} if the cursor, size, sort or fields are not valid.
+     * @see PcResource#getAllPcs(String, String, Integer, Integer, String, int, String, boolean, String)
+     */
+    @GetMapping("/pcs")
+    public Mono<ResponseEntity<MappingJacksonValue>> getAllPcs(
+        @RequestParam(value = "make", required = false) String make,
+        @RequestParam(value = "model", required = false) String model,
+        @RequestParam(value = "priceMin", required = false) Integer priceMin,
+        @RequestParam(value = "priceMax", required = false) Integer priceMax,
+        @RequestParam(value = "cursor", required = false) String cursor,
+        @RequestParam(value = "size", defaultValue = "20") int size,
+        @RequestParam(value = "sort", required = false) String sort,
+        @RequestParam(value = "estimateTotal", defaultValue = "false") boolean estimateTotal,
+        @RequestParam(value = "fields", required = false) String fields
+    ) {
+        PcFields fieldset = PcResource.parseFields(fields);
+        PcFilter filter = new PcFilter(make, model, priceMin, priceMax);
+        log.debug("REST request to get a page of Pcs by {} after cursor : {}", filter, cursor);
+        if (size < 1 || size > MAX_PAGE_SIZE) {
+            throw new BadRequestAlertException("Page size must be between 1 and " + MAX_PAGE_SIZE, ENTITY_NAME, "sizeinvalid");
+        }
+        PcKeyset keyset = cursor != null ? PcResource.decodeCursor(cursor) : PcResource.firstKeyset(sort);
+        // the request is not bound to the threads completing the publishers, its URI is read now
+        UriComponentsBuilder currentUri = ServletUriComponentsBuilder.fromCurrentRequest();
+
+        Mono<List<Pc>> page = pcReactiveService
+            .findAllAfter(filter, keyset, size + 1, fieldset != null ? fieldset.getNames() : null)
+            .collectList();
+        Mono<Optional<Long>> total = estimateTotal
+            ? pcReactiveService.estimatedCount(filter).map(Optional::of)
+            : Mono.just(Optional.empty());
+        return Mono
+            .zip(page, total)
+            .map(result -> PcResource.pageResponse(result.getT1(), size, keyset, currentUri, result.getT2().orElse(null), fieldset));
+    }
+
+    /**
+     * {@code GET  /pcs?stream=true} : stream all the pcs as a JSON, Smile or CBOR array, depending on {@code Accept}.
+     *
+     * @param fields the comma separated fields of the pcs to return, all of them by default.
+     * @param accept the accepted formats of the array.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the pcs written as they are read.
+     * @see PcResource#streamAllPcs(String, String, javax.servlet.http.HttpServletResponse)
+     */
+    @GetMapping(
+        value = "/pcs",
+        params = "stream=true",
+        produces = { MediaType.APPLICATION_JSON_VALUE, APPLICATION_SMILE_VALUE, MediaType.APPLICATION_CBOR_VALUE }
+    )
+    public ResponseEntity<ResponseBodyEmitter> streamAllPcs(
+        @RequestParam(value = "fields", required = false) String fields,
+        @RequestHeader(value = HttpHeaders.ACCEPT, defaultValue = MediaType.ALL_VALUE) String accept
+    ) {
+        log.debug("REST request to stream all Pcs");
+        return emitAllPcs(PcResource.parseFields(fields), PcResource.streamMediaType(accept), true);
+    }
+
+    /**
+     * {@code GET  /pcs} : stream all the pcs as newline delimited JSON, when {@code application/x-ndjson} is accepted.
+     *
+     * @param fields the comma separated fields of the pcs to return, all of them by default.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the pcs written as they are read.
+     */
+    @GetMapping(value = "/pcs", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<ResponseBodyEmitter> streamAllPcsAsNdjson(@RequestParam(value = "fields", required = false) String fields) {
+        log.debug("REST request to stream all Pcs as NDJSON");
+        return emitAllPcs(PcResource.parseFields(fields), MediaType.APPLICATION_NDJSON, false);
+    }
+
+    /**
+     * Writes the pcs one cursor batch at a time, as the reactive driver reads them.
+     */
+    private ResponseEntity<ResponseBodyEmitter> emitAllPcs(PcFields fieldset, MediaType mediaType, boolean asArray) {
+        int batchSize = applicationProperties.getStreaming().getCursorBatchSize();
+        ObjectMapper mapper = streamMappers.getOrDefault(mediaType, objectMapper);
+        ObjectWriter writer = mapper.writerFor(Pc.class).without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        ObjectWriter pcWriter = fieldset != null ? writer.with(fieldset.toFilterProvider()) : writer;
+        // the stream lasts as long as reading the whole collection, it must not time out
+        ResponseBodyEmitter emitter = new ResponseBodyEmitter(0L);
+        Flux<byte[]> chunks = Flux.using(
+            () -> new ChunkWriter(mapper, pcWriter, asArray),
+            chunkWriter ->
+                pcReactiveService
+                    .streamAll(batchSize, fieldset != null ? fieldset.getNames() : null)
+                    .buffer(batchSize)
+                    .map(chunkWriter::write)
+                    .concatWith(Mono.fromCallable(chunkWriter::end)),
+            ChunkWriter::close
+        );
+        Disposable subscription = chunks
+            // servlet writes block, keep them off the threads of the driver
+            .publishOn(Schedulers.boundedElastic(), 1)
+            .subscribe(
+                chunk -> {
+                    try {
+                        emitter.send(chunk, mediaType);
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                },
+                emitter::completeWithError,
+                emitter::complete
+            );
+        emitter.onCompletion(subscription::dispose);
+        emitter.onError(e -> subscription.dispose());
+        return ResponseEntity.ok().contentType(mediaType).body(emitter);
+    }
+
+    /**
+     * Serializes a stream of pcs into chunks with a single generator, so that the chunks concatenated are one valid
+     * document of the format: separators of JSON and shared names of Smile span the chunks.
+     */
+    private static final class ChunkWriter implements Closeable {
+
+        private final ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+
+        private final ObjectWriter writer;
+
+        private final boolean asArray;
+
+        private final JsonGenerator generator;
+
+        ChunkWriter(ObjectMapper mapper, ObjectWriter writer, boolean asArray) throws IOException {
+            this.writer = writer;
+            this.asArray = asArray;
+            this.generator = mapper.getFactory().createGenerator(buffer);
+            if (asArray) {
+                generator.writeStartArray();
+            } else {
+                generator.setRootValueSeparator(null);
+            }
+        }
+
+        byte[] write(List<Pc> batch) {
+            try {
+                for (Pc pc : batch) {
+                    writer.writeValue(generator, pc);
+                    if (!asArray) {
+                        generator.writeRaw('\n');
+                    }
+                }
+                return drain();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        byte[] end() throws IOException {
+            if (asArray) {
+                generator.writeEndArray();
+            }
+            return drain();
+        }
+
+        private byte[] drain() throws IOException {
+            generator.flush();
+            byte[] chunk = buffer.toByteArray();
+            buffer.reset();
+            return chunk;
+        }
+
+        @Override
+        public void close() {
+            try {
+                generator.close();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+    }
+
+    /**
+     * {@code GET  /pcs/stats} : get the price statistics of the pcs per make.
+     *
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the statistics of each make in body.
+     */
+    @GetMapping("/pcs/stats")
+    public Mono<List<PcMakeStatsDTO>> getPcStats() {
+        log.debug("REST request to get Pc stats");
+        return pcReactiveService.findAllStats();
+    }
+
+    /**
+     * {@code GET  /pcs/_suggest} : get the makes and models starting with a prefix, for a typeahead.
+     * <p>
+     * Suggestions are read from memory, they are answered on the calling thread.
+     *
+     * @param prefix the prefix of the makes and models, ignoring case.
+     * @param size the maximum number of suggestions.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the most frequent makes and models in body,
+     * or with status {@code 400 (Bad Request)} if the size is not valid.
+     * @see PcResource#suggestPcs(String, int)
+     */
+    @GetMapping("/pcs/_suggest")
+    public List<PcSuggestionDTO> suggestPcs(
+        @RequestParam(value = "prefix", defaultValue = "") String prefix,
+        @RequestParam(value = "size", defaultValue = "10") int size
+    ) {
+        log.debug("REST request to suggest Pc makes and models for : {}", prefix);
+        if (size < 1 || size > PcSuggestService.MAX_SIZE) {
+            throw new BadRequestAlertException("Size must be between 1 and " + PcSuggestService.MAX_SIZE, ENTITY_NAME, "sizeinvalid");
+        }
+        return pcSuggestService.suggest(prefix, size);
+    }
+
+    /**
+     * {@code GET  /pcs/_search} : get a page of the pcs matching a text search on their make and model.
+     *
+     * @param q the words to search.
+     * @param cursor the cursor of the page to retrieve, taken from a previous {@code next} link.
+     * @param size the maximum number of pcs in the page.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the list of pcs in body,
+     * or with status {@code 400 (Bad Request)} if the search, cursor or size are not valid.
+     * @see PcResource#searchPcs(String, String, int)
+     */
+    @GetMapping("/pcs/_search")
+    public Mono<ResponseEntity<List<Pc>>> searchPcs(
+        @RequestParam("q") String q,
+        @RequestParam(value = "cursor", required = false) String cursor,
+        @RequestParam(value = "size", defaultValue = "20") int size
+    ) {
+        log.debug("REST request to search Pcs for : {} after cursor : {}", q, cursor);
+        if (q.isBlank()) {
+            throw new BadRequestAlertException("Search must not be blank", ENTITY_NAME, "searchinvalid");
+        }
+        if (size < 1 || size > MAX_SEARCH_PAGE_SIZE) {
+            throw new BadRequestAlertException("Page size must be between 1 and " + MAX_SEARCH_PAGE_SIZE, ENTITY_NAME, "sizeinvalid");
+        }
+        PcSearchKeyset keyset;
+        try {
+            keyset = cursor != null ? PcSearchKeyset.decode(cursor) : PcSearchKeyset.first();
+        } catch (IllegalArgumentException e) {
+            throw new BadRequestAlertException("Invalid cursor", ENTITY_NAME, "cursorinvalid");
+        }
+        // the request is not bound to the threads completing the publishers, its URI is read now
+        UriComponentsBuilder currentUri = ServletUriComponentsBuilder.fromCurrentRequest();
+
+        return pcReactiveService
+            .search(q, keyset, size + 1)
+            .collectList()
+            .map(hits -> {
+                HttpHeaders headers = new HttpHeaders();
+                if (hits.size() > size) {
+                    hits = hits.subList(0, size);
+                    String next = keyset.after(hits.get(size - 1)).encode();
+                    headers.add(HttpHeaders.LINK, "<" + currentUri.replaceQueryParam("cursor", next).toUriString() + ">; rel=\"next\"");
+                }
+                List<Pc> page = new ArrayList<>(hits.size());
+                hits.forEach(hit -> page.add(hit.getPc()));
+                return ResponseEntity.ok().headers(headers).body(page);
+            });
+    }
+
+    /**
+     * {@code GET  /pcs/:id} : get the "id" pc.
+     *
+     * @param id the id of the pc to retrieve.
+     * @param fields the comma separated fields of the pc to return, all of them by default.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the pc,
+     * or with status {@code 304 (Not Modified)} if the pc matches {@code If-None-Match},
+     * or with status {@code 400 (Bad Request)} if the fields are not valid,
+     * or with status {@code 404 (Not Found)}.
+     */
+    @GetMapping("/pcs/{id}")
+    public Mono<ResponseEntity<MappingJacksonValue>> getPc(
+        @PathVariable String id,
+        @RequestParam(value = "fields", required = false) String fields
+    ) {
+        log.debug("REST request to get Pc : {}", id);
+        PcFields fieldset = PcResource.parseFields(fields);
+        return pcReactiveService
+            .findOne(id)
+            .map(pc -> PcResource.withETag(ResponseEntity.ok(), pc).body(PcResource.withFields(pc, fieldset)))
+            .switchIfEmpty(Mono.error(() -> new ResponseStatusException(HttpStatus.NOT_FOUND)));
+    }
+
+    /**
+     * {@code DELETE  /pcs/:id} : delete the "id" pc.
+     *
+     * @param id the id of the pc to delete.
+     * @return the {@link ResponseEntity} with status {@code 204 (NO_CONTENT)}.
+     */
+    @DeleteMapping("/pcs/{id}")
+    public Mono<ResponseEntity<Void>> deletePc(@PathVariable String id) {
+        log.debug("REST request to delete Pc : {}", id);
+        return pcReactiveService
+            .delete(id)
+            .then(
+                Mono.fromSupplier(() ->
+                    ResponseEntity
+                        .noContent()
+                        .headers(HeaderUtil.createEntityDeletionAlert(applicationName, false, ENTITY_NAME, id))
+                        .<Void>build()
+                )
+            );
+    }
+}
@@ -1,39 +1,152 @@
 package com.flash.app.web.rest;
 
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.flash.app.config.ApplicationProperties;
+import com.flash.app.config.Constants;
 import com.flash.app.domain.Pc;
+import com.flash.app.repository.PcFilter;
+import com.flash.app.repository.PcKeyset;
+import com.flash.app.repository.PcReplica;
 import com.flash.app.repository.PcRepository;
+import com.flash.app.repository.PcSearchHit;
+import com.flash.app.repository.PcSearchKeyset;
+import com.flash.app.service.IngestBacklogFullException;
+import com.flash.app.service.InvalidPatchException;
+import com.flash.app.service.PcIngestService;
+import com.flash.app.service.PcService;
+import com.flash.app.service.PcStatsService;
+import com.flash.app.service.PcSuggestService;
+import com.flash.app.service.VersionMismatchException;
+import com.flash.app.service.dto.PcBulkOperationDTO;
+import com.flash.app.service.dto.PcBulkResultDTO;
+import com.flash.app.service.dto.PcMakeStatsDTO;
+import com.flash.app.service.dto.PcPatchOperationDTO;
+import com.flash.app.service.dto.PcSuggestionDTO;
 import com.flash.app.web.rest.errors.BadRequestAlertException;
+import com.flash.app.web.rest.errors.PreconditionFailedAlertException;
+import java.io.IOException;
 import java.net.URI;
 import java.net.URISyntaxException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.OptionalLong;
+import java.util.stream.Stream;
+import javax.servlet.http.HttpServletResponse;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.domain.Sort;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.json.MappingJacksonValue;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+import org.springframework.util.DigestUtils;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
+import org.springframework.web.util.UriComponentsBuilder;
 import tech.jhipster.web.util.HeaderUtil;
-import tech.jhipster.web.util.ResponseUtil;
 
 /**
  * REST controller for managing {@link com.flash.app.domain.Pc}.
+ * <p>
+ * Serves the API from blocking worker threads; the {@link Constants#SPRING_PROFILE_REACTIVE reactive} profile serves it
+ * from {@link PcReactiveResource} instead. Bodies are JSON, or the binary Smile and CBOR encodings of the same documents
+ * when the {@code Accept} and {@code Content-Type} headers ask for them.
  */
 @RestController
 @RequestMapping("/api")
+@Profile("!" + Constants.SPRING_PROFILE_REACTIVE)
 public class PcResource {
 
     private final Logger log = LoggerFactory.getLogger(PcResource.class);
 
-    private static final String ENTITY_NAME = "flashAppPc";
+    static final String ENTITY_NAME = "flashAppPc";
+
+    static final String HEADER_X_TOTAL_COUNT = "X-Total-Count";
+
+    static final int MAX_PAGE_SIZE = 1000;
+
+    static final String APPLICATION_SMILE_VALUE = "application/x-jackson-smile";
+
+    static final MediaType APPLICATION_SMILE = MediaType.parseMediaType(APPLICATION_SMILE_VALUE);
+
+    /**
+     * The formats of the streamed arrays of pcs, in the order preferred when several are accepted equally.
+     */
+    static final List<MediaType> STREAM_MEDIA_TYPES = List.of(MediaType.APPLICATION_JSON, APPLICATION_SMILE, MediaType.APPLICATION_CBOR);
+
+    /**
+     * Sorting search results by relevance keeps a page of them in memory on the server, so their pages are smaller.
+     */
+    static final int MAX_SEARCH_PAGE_SIZE = 100;
 
     @Value("${jhipster.clientApp.name}")
     private String applicationName;
 
     private final PcRepository pcRepository;
 
-    public PcResource(PcRepository pcRepository) {
+    private final PcService pcService;
+
+    private final PcStatsService pcStatsService;
+
+    private final PcSuggestService pcSuggestService;
+
+    private final ObjectProvider<PcIngestService> pcIngestService;
+
+    private final ObjectProvider<PcReplica> pcReplica;
+
+    private final ApplicationProperties applicationProperties;
+
+    private final ObjectMapper objectMapper;
+
+    /**
+     * The mappers writing the streamed arrays of pcs, by format.
+     */
+    private final Map<MediaType, ObjectMapper> streamMappers;
+
+    public PcResource(
+        PcRepository pcRepository,
+        PcService pcService,
+        PcStatsService pcStatsService,
+        PcSuggestService pcSuggestService,
+        ObjectProvider<PcIngestService> pcIngestService,
+        ObjectProvider<PcReplica> pcReplica,
+        ApplicationProperties applicationProperties,
+        ObjectMapper objectMapper,
+        MappingJackson2SmileHttpMessageConverter smileHttpMessageConverter,
+        MappingJackson2CborHttpMessageConverter cborHttpMessageConverter
+    ) {
         this.pcRepository = pcRepository;
+        this.pcService = pcService;
+        this.pcStatsService = pcStatsService;
+        this.pcSuggestService = pcSuggestService;
+        this.pcIngestService = pcIngestService;
+        this.pcReplica = pcReplica;
+        this.applicationProperties = applicationProperties;
+        this.objectMapper = objectMapper;
+        this.streamMappers =
+            Map.of(
+                MediaType.APPLICATION_JSON,
+                objectMapper,
+                APPLICATION_SMILE,
+                smileHttpMessageConverter.getObjectMapper(),
+                MediaType.APPLICATION_CBOR,
+                cborHttpMessageConverter.getObjectMapper()
+            );
     }
 
     /**
@@ -49,26 +162,105 @@ public class PcResource {
         if (pc.getId() != null) {
             throw new BadRequestAlertException("A new pc cannot already have an ID", ENTITY_NAME, "idexists");
         }
-        Pc result = pcRepository.save(pc);
+        Pc result = pcService.save(pc);
         return ResponseEntity
             .created(new URI("/api/pcs/" + result.getId()))
             .headers(HeaderUtil.createEntityCreationAlert(applicationName, false, ENTITY_NAME, result.getId()))
             .body(result);
     }
 
+    /**
+     * {@code POST  /pcs?mode=async} : Accepts a new pc, to be created asynchronously.
+     * <p>
+     * The pc is journaled locally and inserted in a later batch, so it may not be readable yet when the response is
+     * sent. It keeps the ID of the response.
+     *
+     * @param pc the pc to create.
+     * @return the {@link ResponseEntity} with status {@code 202 (Accepted)} and with body the accepted pc,
+     * or with status {@code 400 (Bad Request)} if the pc has already an ID or asynchronous creations are disabled,
+     * or with status {@code 503 (Service Unavailable)} if too many pcs are waiting to be created.
+     * @throws URISyntaxException if the Location URI syntax is incorrect.
+     */
+    @PostMapping(value = "/pcs", params = "mode=async")
+    public ResponseEntity<Pc> ingestPc(@RequestBody Pc pc) throws URISyntaxException {
+        log.debug("REST request to ingest Pc : {}", pc);
+        return ingest(pcIngestService, pc, applicationName);
+    }
+
+    /**
+     * Accepts a new pc for an asynchronous creation, in the blocking and reactive modes alike: appending to the journal
+     * does not wait for MongoDB.
+     */
+    static ResponseEntity<Pc> ingest(ObjectProvider<PcIngestService> pcIngestService, Pc pc, String applicationName)
+        throws URISyntaxException {
+        if (pc.getId() != null) {
+            throw new BadRequestAlertException("A new pc cannot already have an ID", ENTITY_NAME, "idexists");
+        }
+        PcIngestService ingestService = pcIngestService.getIfAvailable();
+        if (ingestService == null) {
+            throw new BadRequestAlertException("Asynchronous creation is disabled", ENTITY_NAME, "ingestdisabled");
+        }
+        Pc result;
+        try {
+            result = ingestService.ingest(pc);
+        } catch (IngestBacklogFullException e) {
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, e.getMessage());
+        }
+        return ResponseEntity
+            .accepted()
+            .location(new URI("/api/pcs/" + result.getId()))
+            .headers(HeaderUtil.createEntityCreationAlert(applicationName, false, ENTITY_NAME, result.getId()))
+            .body(result);
+    }
+
+    /**
+     * {@code POST  /pcs/_bulk} : Creates, replaces and upserts many pcs in a single unordered bulk write.
+     * <p>
+     * Each operation is validated like the corresponding single-pc request and gets its own result, so that a failing
+     * operation does not fail the whole request.
+     *
+     * @param operations the operations to apply.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the result of each operation,
+     * or with status {@code 400 (Bad Request)} if there are too many operations.
+     */
+    @PostMapping("/pcs/_bulk")
+    public ResponseEntity<List<PcBulkResultDTO>> bulkPcs(@RequestBody List<PcBulkOperationDTO> operations) {
+        log.debug("REST request to bulk write {} Pcs", operations.size());
+        int maxOperations = applicationProperties.getBulk().getMaxOperations();
+        if (operations.size() > maxOperations) {
+            throw new BadRequestAlertException("A bulk request cannot exceed " + maxOperations + " operations", ENTITY_NAME, "bulktoolarge");
+        }
+        List<PcBulkResultDTO> results = pcService.bulkWrite(operations);
+        return ResponseEntity
+            .ok()
+            .headers(
+                HeaderUtil.createAlert(
+                    applicationName,
+                    "A bulk of " + operations.size() + " pc operations is processed",
+                    Integer.toString(operations.size())
+                )
+            )
+            .body(results);
+    }
+
     /**
      * {@code PUT  /pcs/:id} : Updates an existing pc.
      *
      * @param id the id of the pc to save.
+     * @param ifMatch the ETags of the versions the pc must have to be updated.
      * @param pc the pc to update.
      * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the updated pc,
      * or with status {@code 400 (Bad Request)} if the pc is not valid,
+     * or with status {@code 412 (Precondition Failed)} if the pc does not match {@code If-Match},
      * or with status {@code 500 (Internal Server Error)} if the pc couldn't be updated.
      * @throws URISyntaxException if the Location URI syntax is incorrect.
      */
     @PutMapping("/pcs/{id}")
-    public ResponseEntity<Pc> updatePc(@PathVariable(value = "id", required = false) final String id, @RequestBody Pc pc)
-        throws URISyntaxException {
+    public ResponseEntity<Pc> updatePc(
+        @PathVariable(value = "id", required = false) final String id,
+        @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+        @RequestBody Pc pc
+    ) throws URISyntaxException {
         log.debug("REST request to update Pc : {}, {}", id, pc);
         if (pc.getId() == null) {
             throw new BadRequestAlertException("Invalid id", ENTITY_NAME, "idnull");
@@ -77,13 +269,17 @@ public class PcResource {
             throw new BadRequestAlertException("Invalid ID", ENTITY_NAME, "idinvalid");
         }
 
-        if (!pcRepository.existsById(id)) {
-            throw new BadRequestAlertException("Entity not found", ENTITY_NAME, "idnotfound");
+        Pc result;
+        try {
+            result =
+                pcService
+                    .update(pc, expectedVersions(ifMatch))
+                    .orElseThrow(() -> new BadRequestAlertException("Entity not found", ENTITY_NAME, "idnotfound"));
+        } catch (VersionMismatchException e) {
+            throw new PreconditionFailedAlertException(e.getMessage(), ENTITY_NAME, "versionmismatch");
         }
 
-        Pc result = pcRepository.save(pc);
-        return ResponseEntity
-            .ok()
+        return withETag(ResponseEntity.ok(), result)
             .headers(HeaderUtil.createEntityUpdateAlert(applicationName, false, ENTITY_NAME, pc.getId()))
             .body(result);
     }
@@ -92,16 +288,24 @@ public class PcResource {
      * {@code PATCH  /pcs/:id} : Partial updates given fields of an existing pc, field will ignore if it is null
      *
      * @param id the id of the pc to save.
+     * @param ifMatch the ETags of the versions the pc must have to be updated.
      * @param pc the pc to update.
      * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the updated pc,
      * or with status {@code 400 (Bad Request)} if the pc is not valid,
      * or with status {@code 404 (Not Found)} if the pc is not found,
+     * or with status {@code 412 (Precondition Failed)} if the pc does not match {@code If-Match},
      * or with status {@code 500 (Internal Server Error)} if the pc couldn't be updated.
      * @throws URISyntaxException if the Location URI syntax is incorrect.
      */
-    @PatchMapping(value = "/pcs/{id}", consumes = { "application/json", "application/merge-patch+json" })
-    public ResponseEntity<Pc> partialUpdatePc(@PathVariable(value = "id", required = false) final String id, @RequestBody Pc pc)
-        throws URISyntaxException {
+    @PatchMapping(
+        value = "/pcs/{id}",
+        consumes = { "application/json", "application/merge-patch+json", APPLICATION_SMILE_VALUE, MediaType.APPLICATION_CBOR_VALUE }
+    )
+    public ResponseEntity<Pc> partialUpdatePc(
+        @PathVariable(value = "id", required = false) final String id,
+        @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+        @RequestBody Pc pc
+    ) throws URISyntaxException {
         log.debug("REST request to partial update Pc partially : {}, {}", id, pc);
         if (pc.getId() == null) {
             throw new BadRequestAlertException("Invalid id", ENTITY_NAME, "idnull");
@@ -110,52 +314,425 @@ public class PcResource {
             throw new BadRequestAlertException("Invalid ID", ENTITY_NAME, "idinvalid");
         }
 
-        if (!pcRepository.existsById(id)) {
-            throw new BadRequestAlertException("Entity not found", ENTITY_NAME, "idnotfound");
+        Pc result;
+        try {
+            result =
+                pcService
+                    .partialUpdate(pc, expectedVersions(ifMatch))
+                    .orElseThrow(() -> new BadRequestAlertException("Entity not found", ENTITY_NAME, "idnotfound"));
+        } catch (VersionMismatchException e) {
+            throw new PreconditionFailedAlertException(e.getMessage(), ENTITY_NAME, "versionmismatch");
+        }
+
+        return withETag(ResponseEntity.ok(), result)
+            .headers(HeaderUtil.createEntityUpdateAlert(applicationName, false, ENTITY_NAME, pc.getId()))
+            .body(result);
+    }
+
+    /**
+     * {@code PATCH  /pcs/:id} : Applies a JSON Patch document to an existing pc.
+     * <p>
+     * Supports the {@code add}, {@code replace} and {@code remove} operations, and the non-standard {@code inc}
+     * operation to add a number to the price without reading it first.
+     *
+     * @param id the id of the pc to patch.
+     * @param ifMatch the ETags of the versions the pc must have to be patched.
+     * @param operations the JSON Patch operations.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the patched pc,
+     * or with status {@code 400 (Bad Request)} if the patch is not valid or the pc is not found,
+     * or with status {@code 412 (Precondition Failed)} if the pc does not match {@code If-Match}.
+     */
+    @PatchMapping(value = "/pcs/{id}", consumes = "application/json-patch+json")
+    public ResponseEntity<Pc> patchPc(
+        @PathVariable(value = "id") final String id,
+        @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+        @RequestBody List<PcPatchOperationDTO> operations
+    ) {
+        log.debug("REST request to patch Pc : {}, {}", id, operations);
+        Optional<Pc> result;
+        try {
+            result = pcService.patch(id, operations, expectedVersions(ifMatch));
+        } catch (InvalidPatchException e) {
+            throw new BadRequestAlertException(e.getMessage(), ENTITY_NAME, "patchinvalid");
+        } catch (VersionMismatchException e) {
+            throw new PreconditionFailedAlertException(e.getMessage(), ENTITY_NAME, "versionmismatch");
+        }
+        Pc patched = result.orElseThrow(() -> new BadRequestAlertException("Entity not found", ENTITY_NAME, "idnotfound"));
+
+        return withETag(ResponseEntity.ok(), patched)
+            .headers(HeaderUtil.createEntityUpdateAlert(applicationName, false, ENTITY_NAME, id))
+            .body(patched);
+    }
+
+    /**
+     * Parses the versions of an {@code If-Match} header, or returns {@code null} when any version matches. Weak or
+     * malformed entity tags never match, as required by the strong comparison of {@code If-Match}.
+     */
+    static List<Long> expectedVersions(String ifMatch) {
+        if (ifMatch == null || ifMatch.trim().equals("*")) {
+            return null;
+        }
+        List<Long> versions = new ArrayList<>();
+        for (String tag : ifMatch.split(",")) {
+            tag = tag.trim();
+            if (tag.length() > 2 && tag.startsWith("\"") && tag.endsWith("\"")) {
+                try {
+                    versions.add(Long.valueOf(tag.substring(1, tag.length() - 1)));
+                } catch (NumberFormatException e) {
+                    // never matches
+                }
+            }
+        }
+        return versions;
+    }
+
+    /**
+     * Adds the strong ETag of a pc, which is its version: every write increments it.
+     */
+    static ResponseEntity.BodyBuilder withETag(ResponseEntity.BodyBuilder builder, Pc pc) {
+        if (pc.getVersion() != null) {
+            builder.eTag("\"" + pc.getVersion() + "\"");
+        }
+        return builder;
+    }
+
+    /**
+     * {@code GET  /pcs} : get a page of pcs, optionally filtered.
+     * <p>
+     * Pages are keyset based: the {@code next} link of the {@code Link} header carries an opaque cursor pointing right
+     * after the last pc of the page, so that every page costs the same as the first one. The filters are kept in the
+     * {@code next} link. When the read replica is enabled and caught up, the page is read from it instead of MongoDB.
+     *
+     * @param make the make the pcs must have.
+     * @param model the model the pcs must have.
+     * @param priceMin the minimum price of the pcs, inclusive.
+     * @param priceMax the maximum price of the pcs, inclusive.
+     * @param cursor the cursor of the page to retrieve, taken from a previous {@code next} link.
+     * @param size the maximum number of pcs in the page.
+     * @param sort the ordering of the first page, as {@code property,direction} with property {@code id} or {@code price}.
+     * @param estimateTotal whether to add an approximate {@code X-Total-Count} header, counting the filtered pcs.
+     * @param fields the comma separated fields of the pcs to return, all of them by default.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the list of pcs in body,
+     * or with status {@code 304 (Not Modified)} if the page matches {@code If-None-Match},
+     * or with status {@code 400 (Bad Request)} if the cursor, size, sort or fields are not valid.
+     */
+    @GetMapping("/pcs")
+    public ResponseEntity<MappingJacksonValue> getAllPcs(
+        @RequestParam(value = "make", required = false) String make,
+        @RequestParam(value = "model", required = false) String model,
+        @RequestParam(value = "priceMin", required = false) Integer priceMin,
+        @RequestParam(value = "priceMax", required = false) Integer priceMax,
+        @RequestParam(value = "cursor", required = false) String cursor,
+        @RequestParam(value = "size", defaultValue = "20") int size,
+        @RequestParam(value = "sort", required = false) String sort,
+        @RequestParam(value = "estimateTotal", defaultValue = "false") boolean estimateTotal,
+        @RequestParam(value = "fields", required = false) String fields
+    ) {
+        PcFields fieldset = parseFields(fields);
+        PcFilter filter = new PcFilter(make, model, priceMin, priceMax);
+        log.debug("REST request to get a page of Pcs by {} after cursor : {}", filter, cursor);
+        if (size < 1 || size > MAX_PAGE_SIZE) {
+            throw new BadRequestAlertException("Page size must be between 1 and " + MAX_PAGE_SIZE, ENTITY_NAME, "sizeinvalid");
+        }
+        PcKeyset keyset = cursor != null ? decodeCursor(cursor) : firstKeyset(sort);
+
+        PcReplica replica = pcReplica.getIfAvailable();
+        List<Pc> page = Optional
+            .ofNullable(replica)
+            .flatMap(r -> r.findAllAfter(filter, keyset, size + 1))
+            .orElseGet(() -> pcRepository.findAllAfter(filter, keyset, size + 1, fieldset != null ? fieldset.getNames() : null));
+        Long total = null;
+        if (estimateTotal) {
+            OptionalLong count = replica != null ? replica.count(filter) : OptionalLong.empty();
+            total = count.isPresent() ? count.getAsLong() : pcRepository.estimatedCount(filter);
+        }
+        return pageResponse(page, size, keyset, ServletUriComponentsBuilder.fromCurrentRequest(), total, fieldset);
+    }
+
+    /**
+     * Builds the response of a page read with one pc more than its size, which tells whether there is a next page.
+     *
+     * @param page the pcs read, up to {@code size + 1}.
+     * @param size the size of the page.
+     * @param keyset the position the page was read after.
+     * @param currentUri the URI of the current request, to link the next page from.
+     * @param total the estimated number of pcs, or {@code null} if it was not requested.
+     * @param fieldset the fields to return, or {@code null} for all of them.
+     * @return the page, with the {@code Link}, {@code X-Total-Count} and {@code ETag} headers.
+     */
+    static ResponseEntity<MappingJacksonValue> pageResponse(
+        List<Pc> page,
+        int size,
+        PcKeyset keyset,
+        UriComponentsBuilder currentUri,
+        Long total,
+        PcFields fieldset
+    ) {
+        HttpHeaders headers = new HttpHeaders();
+        boolean hasNext = page.size() > size;
+        if (hasNext) {
+            page = page.subList(0, size);
+            String next = keyset.after(page.get(size - 1)).encode();
+            UriComponentsBuilder uriBuilder = currentUri.replaceQueryParam("cursor", next).replaceQueryParam("sort");
+            headers.add(HttpHeaders.LINK, "<" + uriBuilder.toUriString() + ">; rel=\"next\"");
+        }
+        if (total != null) {
+            headers.add(HEADER_X_TOTAL_COUNT, Long.toString(total));
+        }
+        // a matching If-None-Match is answered with 304 before the page is serialized
+        return ResponseEntity.ok().headers(headers).eTag(pageETag(page, hasNext, fieldset)).body(withFields(page, fieldset));
+    }
+
+    /**
+     * Computes the strong ETag of a page from the IDs and versions of its pcs, which is much cheaper than hashing the
+     * serialized page. Sparse pages may not read the versions, the values of their fields are hashed instead.
+     */
+    private static String pageETag(List<Pc> page, boolean hasNext, PcFields fieldset) {
+        StringBuilder versions = new StringBuilder(page.size() * 32).append(hasNext);
+        for (Pc pc : page) {
+            versions.append(',').append(pc.getId());
+            if (fieldset == null) {
+                versions.append(':').append(pc.getVersion());
+            } else {
+                fieldset.getNames().forEach(name -> versions.append(':').append(PcFields.value(pc, name)));
+            }
+        }
+        return "\"" + DigestUtils.md5DigestAsHex(versions.toString().getBytes(StandardCharsets.UTF_8)) + "\"";
+    }
+
+    static PcFields parseFields(String fields) {
+        try {
+            return PcFields.parse(fields);
+        } catch (IllegalArgumentException e) {
+            throw new BadRequestAlertException("Invalid fields", ENTITY_NAME, "fieldsinvalid");
         }
+    }
 
-        Optional<Pc> result = pcRepository
-            .findById(pc.getId())
-            .map(existingPc -> {
-                if (pc.getMake() != null) {
-                    existingPc.setMake(pc.getMake());
+    static MappingJacksonValue withFields(Object body, PcFields fieldset) {
+        MappingJacksonValue value = new MappingJacksonValue(body);
+        if (fieldset != null) {
+            value.setFilters(fieldset.toFilterProvider());
+        }
+        return value;
+    }
+
+    static PcKeyset decodeCursor(String cursor) {
+        try {
+            return PcKeyset.decode(cursor);
+        } catch (IllegalArgumentException e) {
+            throw new BadRequestAlertException("Invalid cursor", ENTITY_NAME, "cursorinvalid");
+        }
+    }
+
+    static PcKeyset firstKeyset(String sort) {
+        if (sort == null) {
+            return PcKeyset.first(PcKeyset.ID, Sort.Direction.ASC);
+        }
+        String[] parts = sort.split(",");
+        if (parts.length > 2 || !PcKeyset.isSortable(parts[0])) {
+            throw new BadRequestAlertException("Invalid sort", ENTITY_NAME, "sortinvalid");
+        }
+        Sort.Direction direction = Sort.Direction.ASC;
+        if (parts.length == 2) {
+            direction = Sort.Direction.fromOptionalString(parts[1]).orElse(null);
+            if (direction == null) {
+                throw new BadRequestAlertException("Invalid sort", ENTITY_NAME, "sortinvalid");
+            }
+        }
+        return PcKeyset.first(parts[0], direction);
+    }
+
+    /**
+     * {@code GET  /pcs?stream=true} : stream all the pcs as a JSON, Smile or CBOR array, depending on {@code Accept}.
+     * <p>
+     * The array is written incrementally from a database cursor, so memory use does not depend on the number of pcs.
+     *
+     * @param fields the comma separated fields of the pcs to return, all of them by default.
+     * @param accept the accepted formats of the array.
+     * @param response the response to write the pcs to.
+     * @throws IOException if the response cannot be written.
+     */
+    @GetMapping(
+        value = "/pcs",
+        params = "stream=true",
+        produces = { MediaType.APPLICATION_JSON_VALUE, APPLICATION_SMILE_VALUE, MediaType.APPLICATION_CBOR_VALUE }
+    )
+    public void streamAllPcs(
+        @RequestParam(value = "fields", required = false) String fields,
+        @RequestHeader(value = HttpHeaders.ACCEPT, defaultValue = MediaType.ALL_VALUE) String accept,
+        HttpServletResponse response
+    ) throws IOException {
+        log.debug("REST request to stream all Pcs");
+        writeAllPcs(response, parseFields(fields), streamMediaType(accept), true);
+    }
+
+    /**
+     * Chooses the format of a streamed array: the first of {@link #STREAM_MEDIA_TYPES} matching the most specific and
+     * preferred accepted type, or JSON if none does.
+     */
+    static MediaType streamMediaType(String accept) {
+        List<MediaType> accepted = MediaType.parseMediaTypes(accept);
+        MediaType.sortBySpecificityAndQuality(accepted);
+        for (MediaType acceptedType : accepted) {
+            for (MediaType mediaType : STREAM_MEDIA_TYPES) {
+                if (acceptedType.isCompatibleWith(mediaType)) {
+                    return mediaType;
                 }
-                if (pc.getModel() != null) {
-                    existingPc.setModel(pc.getModel());
+            }
+        }
+        return MediaType.APPLICATION_JSON;
+    }
+
+    /**
+     * {@code GET  /pcs} : stream all the pcs as newline delimited JSON, when {@code application/x-ndjson} is accepted.
+     *
+     * @param fields the comma separated fields of the pcs to return, all of them by default.
+     * @param response the response to write the pcs to.
+     * @throws IOException if the response cannot be written.
+     */
+    @GetMapping(value = "/pcs", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public void streamAllPcsAsNdjson(@RequestParam(value = "fields", required = false) String fields, HttpServletResponse response)
+        throws IOException {
+        log.debug("REST request to stream all Pcs as NDJSON");
+        writeAllPcs(response, parseFields(fields), MediaType.APPLICATION_NDJSON, false);
+    }
+
+    private void writeAllPcs(HttpServletResponse response, PcFields fieldset, MediaType mediaType, boolean asArray) throws IOException {
+        int batchSize = applicationProperties.getStreaming().getCursorBatchSize();
+        ObjectMapper mapper = streamMappers.getOrDefault(mediaType, objectMapper);
+        ObjectWriter writer = mapper.writerFor(Pc.class).without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        if (fieldset != null) {
+            writer = writer.with(fieldset.toFilterProvider());
+        }
+        response.setContentType(mediaType.toString());
+        try (
+            Stream<Pc> pcs = pcRepository.streamAll(batchSize, fieldset != null ? fieldset.getNames() : null);
+            JsonGenerator generator = mapper.getFactory().createGenerator(response.getOutputStream())
+        ) {
+            if (asArray) {
+                generator.writeStartArray();
+            } else {
+                generator.setRootValueSeparator(null);
+            }
+            long written = 0;
+            for (Iterator<Pc> iterator = pcs.iterator(); iterator.hasNext();) {
+                writer.writeValue(generator, iterator.next());
+                if (!asArray) {
+                    generator.writeRaw('\n');
                 }
-                if (pc.getPrice() != null) {
-                    existingPc.setPrice(pc.getPrice());
+                if (++written % batchSize == 0) {
+                    generator.flush();
                 }
+            }
+            if (asArray) {
+                generator.writeEndArray();
+            }
+        }
+    }
 
-                return existingPc;
-            })
-            .map(pcRepository::save);
+    /**
+     * {@code GET  /pcs/stats} : get the price statistics of the pcs per make.
+     * <p>
+     * Statistics are read from one summary per make, maintained by every write.
+     *
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the statistics of each make in body.
+     */
+    @GetMapping("/pcs/stats")
+    public List<PcMakeStatsDTO> getPcStats() {
+        log.debug("REST request to get Pc stats");
+        return pcStatsService.findAll();
+    }
 
-        return ResponseUtil.wrapOrNotFound(result, HeaderUtil.createEntityUpdateAlert(applicationName, false, ENTITY_NAME, pc.getId()));
+    /**
+     * {@code GET  /pcs/_suggest} : get the makes and models starting with a prefix, for a typeahead.
+     * <p>
+     * Suggestions are read from in-memory indexes of the distinct makes and models, maintained by every write.
+     *
+     * @param prefix the prefix of the makes and models, ignoring case.
+     * @param size the maximum number of suggestions.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the most frequent makes and models in body,
+     * or with status {@code 400 (Bad Request)} if the size is not valid.
+     */
+    @GetMapping("/pcs/_suggest")
+    public List<PcSuggestionDTO> suggestPcs(
+        @RequestParam(value = "prefix", defaultValue = "") String prefix,
+        @RequestParam(value = "size", defaultValue = "10") int size
+    ) {
+        log.debug("REST request to suggest Pc makes and models for : {}", prefix);
+        if (size < 1 || size > PcSuggestService.MAX_SIZE) {
+            throw new BadRequestAlertException("Size must be between 1 and " + PcSuggestService.MAX_SIZE, ENTITY_NAME, "sizeinvalid");
+        }
+        return pcSuggestService.suggest(prefix, size);
     }
 
     /**
-     * {@code GET  /pcs} : get all the pcs.
+     * {@code GET  /pcs/_search} : get a page of the pcs matching a text search on their make and model.
+     * <p>
+     * Results are sorted by decreasing relevance and paged by keyset: the {@code next} link of the {@code Link} header
+     * carries an opaque cursor pointing right after the last pc of the page.
      *
-     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the list of pcs in body.
+     * @param q the words to search.
+     * @param cursor the cursor of the page to retrieve, taken from a previous {@code next} link.
+     * @param size the maximum number of pcs in the page.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the list of pcs in body,
+     * or with status {@code 400 (Bad Request)} if the search, cursor or size are not valid.
      */
-    @GetMapping("/pcs")
-    public List<Pc> getAllPcs() {
-        log.debug("REST request to get all Pcs");
-        return pcRepository.findAll();
+    @GetMapping("/pcs/_search")
+    public ResponseEntity<List<Pc>> searchPcs(
+        @RequestParam("q") String q,
+        @RequestParam(value = "cursor", required = false) String cursor,
+        @RequestParam(value = "size", defaultValue = "20") int size
+    ) {
+        log.debug("REST request to search Pcs for : {} after cursor : {}", q, cursor);
+        if (q.isBlank()) {
+            throw new BadRequestAlertException("Search must not be blank", ENTITY_NAME, "searchinvalid");
+        }
+        if (size < 1 || size > MAX_SEARCH_PAGE_SIZE) {
+            throw new BadRequestAlertException("Page size must be between 1 and " + MAX_SEARCH_PAGE_SIZE, ENTITY_NAME, "sizeinvalid");
+        }
+        PcSearchKeyset keyset;
+        try {
+            keyset = cursor != null ? PcSearchKeyset.decode(cursor) : PcSearchKeyset.first();
+        } catch (IllegalArgumentException e) {
+            throw new BadRequestAlertException("Invalid cursor", ENTITY_NAME, "cursorinvalid");
+        }
+
+        List<PcSearchHit> hits = pcRepository.search(q, keyset, size + 1);
+        HttpHeaders headers = new HttpHeaders();
+        if (hits.size() > size) {
+            hits = hits.subList(0, size);
+            String next = keyset.after(hits.get(size - 1)).encode();
+            UriComponentsBuilder uriBuilder = ServletUriComponentsBuilder.fromCurrentRequest().replaceQueryParam("cursor", next);
+            headers.add(HttpHeaders.LINK, "<" + uriBuilder.toUriString() + ">; rel=\"next\"");
+        }
+        List<Pc> page = new ArrayList<>(hits.size());
+        hits.forEach(hit -> page.add(hit.getPc()));
+        return ResponseEntity.ok().headers(headers).body(page);
     }
 
     /**
      * {@code GET  /pcs/:id} : get the "id" pc.
      *
      * @param id the id of the pc to retrieve.
-     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the pc, or with status {@code 404 (Not Found)}.
+     * @param fields the comma separated fields of the pc to return, all of them by default.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the pc,
+     * or with status {@code 304 (Not Modified)} if the pc matches {@code If-None-Match},
+     * or with status {@code 400 (Bad Request)} if the fields are not valid,
+     * or with status {@code 404 (Not Found)}.
      */
     @GetMapping("/pcs/{id}")
-    public ResponseEntity<Pc> getPc(@PathVariable String id) {
+    public ResponseEntity<MappingJacksonValue> getPc(
+        @PathVariable String id,
+        @RequestParam(value = "fields", required = false) String fields
+    ) {
         log.debug("REST request to get Pc : {}", id);
-        Optional<Pc> pc = pcRepository.findById(id);
-        return ResponseUtil.wrapOrNotFound(pc);
+        PcFields fieldset = parseFields(fields);
+        // the whole pc is read from the cache, which beats projecting it in the database: only serialization is sparse
+        Optional<Pc> pc = pcService.findOne(id);
+        // a matching If-None-Match is answered with 304 before the pc is serialized
+        return pc
+            .map(response -> withETag(ResponseEntity.ok(), response).body(withFields(response, fieldset)))
+            .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND));
     }
 
     /**
@@ -167,7 +744,7 @@ public class PcResource {
     @DeleteMapping("/pcs/{id}")
     public ResponseEntity<Void> deletePc(@PathVariable String id) {
         log.debug("REST request to delete Pc : {}", id);
-        pcRepository.deleteById(id);
+        pcService.delete(id);
         return ResponseEntity.noContent().headers(HeaderUtil.createEntityDeletionAlert(applicationName, false, ENTITY_NAME, id)).build();
     }
 }
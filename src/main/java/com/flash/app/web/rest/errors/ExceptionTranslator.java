@@ -124,6 +124,15 @@ public class ExceptionTranslator implements ProblemHandling, SecurityAdviceTrait
         );
     }
 
+    @ExceptionHandler
+    public ResponseEntity<Problem> handlePreconditionFailedAlertException(PreconditionFailedAlertException ex, NativeWebRequest request) {
+        return create(
+            ex,
+            request,
+            HeaderUtil.createFailureAlert(applicationName, false, ex.getEntityName(), ex.getErrorKey(), ex.getMessage())
+        );
+    }
+
     @ExceptionHandler
     public ResponseEntity<Problem> handleConcurrencyFailure(ConcurrencyFailureException ex, NativeWebRequest request) {
         Problem problem = Problem.builder().withStatus(Status.CONFLICT).with(MESSAGE_KEY, ErrorConstants.ERR_CONCURRENCY_FAILURE).build();
@@ -0,0 +1,37 @@
+package com.flash.app.web.rest.errors;
+
+import java.util.HashMap;
+import java.util.Map;
+import org.zalando.problem.AbstractThrowableProblem;
+import org.zalando.problem.Status;
+
+@SuppressWarnings("java:S110") // Inheritance tree of classes should not be too deep
+public class PreconditionFailedAlertException extends AbstractThrowableProblem {
+
+    private static final long serialVersionUID = 1L;
+
+    private final String entityName;
+
+    private final String errorKey;
+
+    public PreconditionFailedAlertException(String defaultMessage, String entityName, String errorKey) {
+        super(ErrorConstants.DEFAULT_TYPE, defaultMessage, Status.PRECONDITION_FAILED, null, null, null, getAlertParameters(entityName, errorKey));
+        this.entityName = entityName;
+        this.errorKey = errorKey;
+    }
+
+    public String getEntityName() {
+        return entityName;
+    }
+
+    public String getErrorKey() {
+        return errorKey;
+    }
+
+    private static Map<String, Object> getAlertParameters(String entityName, String errorKey) {
+        Map<String, Object> parameters = new HashMap<>();
+        parameters.put("message", "error." + errorKey);
+        parameters.put("params", entityName);
+        return parameters;
+    }
+}
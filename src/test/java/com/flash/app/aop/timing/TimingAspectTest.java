@@ -0,0 +1,120 @@
+package com.flash.app.aop.timing;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import com.flash.app.service.PcStatsService;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+class TimingAspectTest {
+
+    private MeterRegistry meterRegistry;
+
+    private ProceedingJoinPoint joinPoint;
+
+    @BeforeEach
+    public void setup() throws Exception {
+        meterRegistry = new SimpleMeterRegistry();
+        MethodSignature signature = mock(MethodSignature.class);
+        when(signature.getMethod()).thenReturn(PcStatsService.class.getMethod("findAll"));
+        when(signature.getDeclaringTypeName()).thenReturn(PcStatsService.class.getName());
+        when(signature.getName()).thenReturn("findAll");
+        joinPoint = mock(ProceedingJoinPoint.class);
+        when(joinPoint.getSignature()).thenReturn(signature);
+    }
+
+    @Test
+    void testTimesSampledExecutions() throws Throwable {
+        when(joinPoint.proceed()).thenReturn(List.of());
+        TimingAspect timingAspect = new TimingAspect(meterRegistry, true, 1);
+
+        assertThat(timingAspect.timeAround(joinPoint)).isEqualTo(List.of());
+        timingAspect.timeAround(joinPoint);
+
+        assertThat(
+            meterRegistry
+                .get(TimingAspect.METER_NAME)
+                .tag("layer", "service")
+                .tag("class", PcStatsService.class.getName())
+                .tag("method", "findAll")
+                .tag("exception", "none")
+                .timer()
+                .count()
+        )
+            .isEqualTo(2);
+    }
+
+    @Test
+    void testTimesExceptionsSeparately() throws Throwable {
+        when(joinPoint.proceed()).thenThrow(new IllegalStateException("failed"));
+        TimingAspect timingAspect = new TimingAspect(meterRegistry, true, 1);
+
+        assertThatThrownBy(() -> timingAspect.timeAround(joinPoint)).isInstanceOf(IllegalStateException.class);
+
+        assertThat(meterRegistry.get(TimingAspect.METER_NAME).tag("exception", "IllegalStateException").timer().count()).isEqualTo(1);
+    }
+
+    @Test
+    void testTimesMonosFromSubscriptionToCompletion() throws Throwable {
+        when(joinPoint.proceed()).thenReturn(Mono.delay(Duration.ofMillis(50)).thenReturn("done"));
+        TimingAspect timingAspect = new TimingAspect(meterRegistry, true, 1);
+
+        Mono<?> mono = (Mono<?>) timingAspect.timeAround(joinPoint);
+        assertThat(meterRegistry.find(TimingAspect.METER_NAME).timers()).isEmpty();
+        assertThat(mono.block()).isEqualTo("done");
+        mono.block();
+
+        Timer timer = meterRegistry.get(TimingAspect.METER_NAME).tag("exception", "none").timer();
+        assertThat(timer.count()).isEqualTo(2);
+        assertThat(timer.totalTime(TimeUnit.MILLISECONDS)).isGreaterThanOrEqualTo(100);
+    }
+
+    @Test
+    void testTimesFluxErrorsSeparately() throws Throwable {
+        when(joinPoint.proceed()).thenReturn(Flux.concat(Flux.just(1), Flux.error(new IllegalStateException("failed"))));
+        TimingAspect timingAspect = new TimingAspect(meterRegistry, true, 1);
+
+        Flux<?> flux = (Flux<?>) timingAspect.timeAround(joinPoint);
+        assertThatThrownBy(flux::blockLast).isInstanceOf(IllegalStateException.class);
+
+        assertThat(meterRegistry.get(TimingAspect.METER_NAME).tag("exception", "IllegalStateException").timer().count()).isEqualTo(1);
+        assertThat(meterRegistry.find(TimingAspect.METER_NAME).tag("exception", "none").timer()).isNull();
+    }
+
+    @Test
+    void testDoesNotTimeWhenDisabledOrNotSampled() throws Throwable {
+        when(joinPoint.proceed()).thenReturn(List.of());
+
+        new TimingAspect(meterRegistry, false, 1).timeAround(joinPoint);
+        new TimingAspect(meterRegistry, true, 0).timeAround(joinPoint);
+
+        assertThat(meterRegistry.find(TimingAspect.METER_NAME).timers()).isEmpty();
+    }
+
+    @Test
+    void testEndpointSwitchesTimingAtRuntime() throws Throwable {
+        when(joinPoint.proceed()).thenReturn(List.of());
+        TimingAspect timingAspect = new TimingAspect(meterRegistry, false, 0.01);
+        TimingEndpoint timingEndpoint = new TimingEndpoint(timingAspect);
+
+        assertThat(timingEndpoint.configure(true, 1.0)).containsEntry("enabled", true).containsEntry("sampleRate", 1.0);
+        timingAspect.timeAround(joinPoint);
+
+        assertThat(meterRegistry.get(TimingAspect.METER_NAME).timer().count()).isEqualTo(1);
+        assertThatThrownBy(() -> timingEndpoint.configure(null, 2.0)).isInstanceOf(IllegalArgumentException.class);
+        assertThat(timingEndpoint.settings()).containsEntry("enabled", true).containsEntry("sampleRate", 1.0);
+    }
+}
@@ -0,0 +1,177 @@
+package com.flash.app.config;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.classic.spi.LoggingEvent;
+import ch.qos.logback.core.ConsoleAppender;
+import ch.qos.logback.core.encoder.EncoderBase;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPInputStream;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class AsyncLogAppenderTest {
+
+    @TempDir
+    Path directory;
+
+    private MeterRegistry meterRegistry;
+
+    private AsyncLogAppender appender;
+
+    @BeforeEach
+    public void setup() {
+        meterRegistry = new SimpleMeterRegistry();
+        appender = new AsyncLogAppender();
+        appender.setContext(new LoggerContext());
+        appender.setName("TEST");
+    }
+
+    @Test
+    void testWritesEventsInBatchesToCompressedFile() throws Exception {
+        Path file = directory.resolve("app.log.gz");
+        appender.setEncoder(new MessageEncoder(null, null));
+        appender.setFile(file.toString());
+        appender.setCompress(true);
+        appender.bindTo(meterRegistry);
+        appender.start();
+
+        for (int i = 0; i < 100; i++) {
+            appender.doAppend(createEvent(Level.INFO, "event " + i));
+        }
+        appender.stop();
+
+        try (InputStream in = new GZIPInputStream(Files.newInputStream(file))) {
+            List<String> lines = List.of(new String(in.readAllBytes(), StandardCharsets.UTF_8).split("\n"));
+            assertThat(lines).hasSize(100).startsWith("event 0").endsWith("event 99");
+        }
+        assertThat(meterRegistry.get("logging.async.flush").tag("appender", "TEST").timer().count()).isPositive();
+        assertThat(meterRegistry.get("logging.async.dropped").tag("level", "info").functionCounter().count()).isZero();
+    }
+
+    @Test
+    void testDropsDebugEventsFirstWhenBufferFillsUp() throws Exception {
+        CountDownLatch writing = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        appender.setEncoder(new MessageEncoder(writing, release));
+        appender.setFile(directory.resolve("app.log").toString());
+        appender.setRingBufferSize(4);
+        appender.setDebugDropThreshold(0.5);
+        appender.setBlockOnError(false);
+        appender.bindTo(meterRegistry);
+        appender.start();
+
+        // the writer takes the first event and waits, leaving the whole buffer to the next ones
+        appender.doAppend(createEvent(Level.INFO, "first"));
+        assertThat(writing.await(5, TimeUnit.SECONDS)).isTrue();
+        appender.doAppend(createEvent(Level.INFO, "info"));
+        appender.doAppend(createEvent(Level.INFO, "info"));
+        appender.doAppend(createEvent(Level.DEBUG, "kept while half of the buffer is free"));
+        appender.doAppend(createEvent(Level.DEBUG, "dropped"));
+        appender.doAppend(createEvent(Level.INFO, "kept while the buffer is not full"));
+        appender.doAppend(createEvent(Level.INFO, "dropped"));
+        appender.doAppend(createEvent(Level.ERROR, "dropped without blocking"));
+
+        assertThat(meterRegistry.get("logging.async.queue.depth").gauge().value()).isEqualTo(4);
+        release.countDown();
+        appender.stop();
+
+        assertThat(meterRegistry.get("logging.async.dropped").tag("level", "debug").functionCounter().count()).isEqualTo(1);
+        assertThat(meterRegistry.get("logging.async.dropped").tag("level", "info").functionCounter().count()).isEqualTo(1);
+        assertThat(meterRegistry.get("logging.async.dropped").tag("level", "error").functionCounter().count()).isEqualTo(1);
+        assertThat(Files.readAllLines(directory.resolve("app.log"))).hasSize(5).doesNotContain("dropped", "dropped without blocking");
+    }
+
+    @Test
+    void testReplacesConsoleAppenderWithItsEncoder() {
+        LoggerContext context = new LoggerContext();
+        Logger root = context.getLogger(Logger.ROOT_LOGGER_NAME);
+        ConsoleAppender<ILoggingEvent> console = new ConsoleAppender<>();
+        console.setContext(context);
+        console.setName(JsonConsoleAppender.CONSOLE_APPENDER_NAME);
+        console.setEncoder(new MessageEncoder(null, null));
+        console.start();
+        root.addAppender(console);
+        AsyncLogAppender consoleAppender = new AsyncLogAppender();
+
+        consoleAppender.replaceConsoleAppender(context);
+        try {
+            assertThat(root.getAppender(JsonConsoleAppender.CONSOLE_APPENDER_NAME)).isSameAs(consoleAppender);
+            assertThat(consoleAppender.isStarted()).isTrue();
+        } finally {
+            consoleAppender.stop();
+        }
+    }
+
+    @Test
+    void testKeepsLoggersUntouchedWhenItCannotStart() {
+        LoggerContext context = new LoggerContext();
+        Logger root = context.getLogger(Logger.ROOT_LOGGER_NAME);
+        AsyncLogAppender consoleAppender = new AsyncLogAppender();
+
+        // no console appender to take the encoder from
+        consoleAppender.replaceConsoleAppender(context);
+
+        assertThat(consoleAppender.isStarted()).isFalse();
+        assertThat(root.iteratorForAppenders()).isExhausted();
+    }
+
+    private static ILoggingEvent createEvent(Level level, String message) {
+        LoggingEvent event = new LoggingEvent();
+        event.setLoggerName("com.flash.app.service.PcService");
+        event.setLevel(level);
+        event.setMessage(message);
+        return event;
+    }
+
+    /**
+     * Encodes the message of the events, optionally waiting before the first one.
+     */
+    private static class MessageEncoder extends EncoderBase<ILoggingEvent> {
+
+        private final CountDownLatch writing;
+
+        private final CountDownLatch release;
+
+        MessageEncoder(CountDownLatch writing, CountDownLatch release) {
+            this.writing = writing;
+            this.release = release;
+        }
+
+        @Override
+        public byte[] headerBytes() {
+            return null;
+        }
+
+        @Override
+        public byte[] encode(ILoggingEvent event) {
+            if (writing != null) {
+                writing.countDown();
+                try {
+                    release.await(5, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            return (event.getFormattedMessage() + "\n").getBytes(StandardCharsets.UTF_8);
+        }
+
+        @Override
+        public byte[] footerBytes() {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,61 @@
+package com.flash.app.config;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.spi.LoggingEvent;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.ansi.AnsiColor;
+import org.springframework.boot.ansi.AnsiOutput;
+
+class CRLFLogConverterTest {
+
+    @Test
+    void testReplacesLineBreaksAndTabs() {
+        CRLFLogConverter converter = new CRLFLogConverter();
+        converter.start();
+
+        String sanitized = converter.transform(createEvent("com.flash.app.web.rest.PcResource"), "a\r\nb\tc\n");
+
+        assertThat(sanitized).isEqualTo("a__b_c_");
+    }
+
+    @Test
+    void testReturnsMessageWithoutLineBreaksAsIs() {
+        CRLFLogConverter converter = new CRLFLogConverter();
+        converter.start();
+        String message = "REST request to get Pc : 42";
+
+        assertThat(converter.transform(createEvent("com.flash.app.web.rest.PcResource"), message)).isSameAs(message);
+    }
+
+    @Test
+    void testKeepsMessagesOfSafeLoggersAndMarkedEvents() {
+        CRLFLogConverter converter = new CRLFLogConverter();
+        converter.start();
+        LoggingEvent markedEvent = createEvent("com.flash.app.web.rest.PcResource");
+        markedEvent.setMarker(CRLFLogConverter.CRLF_SAFE_MARKER);
+
+        assertThat(converter.transform(createEvent("org.hibernate.SQL"), "a\nb")).isEqualTo("a\nb");
+        assertThat(converter.transform(markedEvent, "a\nb")).isEqualTo("a\nb");
+    }
+
+    @Test
+    void testHighlightsReplacementWithOption() {
+        CRLFLogConverter converter = new CRLFLogConverter();
+        converter.setOptionList(List.of("red"));
+        converter.start();
+
+        String sanitized = converter.transform(createEvent("com.flash.app.web.rest.PcResource"), "a\nb");
+
+        assertThat(sanitized).isEqualTo("a" + AnsiOutput.toString(AnsiColor.RED, "_") + "b");
+    }
+
+    private static LoggingEvent createEvent(String loggerName) {
+        LoggingEvent event = new LoggingEvent();
+        event.setLoggerName(loggerName);
+        event.setLevel(Level.INFO);
+        return event;
+    }
+}
@@ -0,0 +1,61 @@
+package com.flash.app.config;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.flash.app.domain.Pc;
+import com.flash.app.repository.PcRepository;
+import com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider;
+import java.net.URI;
+import java.util.Properties;
+import javax.cache.CacheManager;
+import javax.cache.Caching;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.Cache;
+import org.springframework.cache.jcache.JCacheCacheManager;
+import tech.jhipster.config.JHipsterProperties;
+
+class CacheConfigurationTest {
+
+    private CacheManager jcacheManager;
+
+    private Cache cache;
+
+    @BeforeEach
+    public void setup() {
+        jcacheManager =
+            Caching
+                .getCachingProvider(CaffeineCachingProvider.class.getName())
+                .getCacheManager(URI.create(getClass().getName()), getClass().getClassLoader(), new Properties());
+        new CacheConfiguration(new JHipsterProperties()).cacheManagerCustomizer().customize(jcacheManager);
+        JCacheCacheManager cacheManager = new JCacheCacheManager(jcacheManager);
+        cacheManager.afterPropertiesSet();
+        cache = cacheManager.getCache(PcRepository.PCS_BY_ID_CACHE);
+    }
+
+    @AfterEach
+    public void teardown() {
+        jcacheManager.close();
+    }
+
+    @Test
+    void testCachesCopiesOfThePcs() {
+        Pc pc = new Pc().id("1").make("dell").model("xps").price(1000).version(2L);
+        cache.put("1", pc);
+        pc.setPrice(900);
+
+        Pc cached = cache.get("1", Pc.class);
+        assertThat(cached).isNotSameAs(pc);
+        assertThat(cached.getPrice()).isEqualTo(1000);
+        cached.setPrice(800);
+
+        Pc readAgain = cache.get("1", Pc.class);
+        assertThat(readAgain).isNotSameAs(cached);
+        assertThat(readAgain.getId()).isEqualTo("1");
+        assertThat(readAgain.getMake()).isEqualTo("dell");
+        assertThat(readAgain.getModel()).isEqualTo("xps");
+        assertThat(readAgain.getPrice()).isEqualTo(1000);
+        assertThat(readAgain.getVersion()).isEqualTo(2L);
+    }
+}
@@ -0,0 +1,88 @@
+package com.flash.app.config;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.spi.LoggingEvent;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class JsonLogEncoderTest {
+
+    private final ObjectMapper mapper = new ObjectMapper();
+
+    private JsonLogEncoder encoder;
+
+    @BeforeEach
+    public void setup() {
+        encoder = new JsonLogEncoder();
+        encoder.setContext(new LoggerContext());
+        encoder.setCustomFields("{\"app_name\":\"flashApp\",\"app_port\":\"8080\"}");
+        encoder.start();
+    }
+
+    @Test
+    void testEncodesEventAsOneJsonLine() throws Exception {
+        LoggingEvent event = createEvent("REST request to get Pc : 42");
+        event.setTimeStamp(1_700_000_000_123L);
+        event.setMDCPropertyMap(Map.of("requestId", "abc"));
+
+        String line = new String(encoder.encode(event), StandardCharsets.UTF_8);
+
+        assertThat(line).endsWith("}\n").doesNotContain("\r").hasLineCount(1);
+        JsonNode json = mapper.readTree(line);
+        assertThat(json.get("timestamp").asText()).isEqualTo("2023-11-14T22:13:20.123Z");
+        assertThat(json.get("level").asText()).isEqualTo("INFO");
+        assertThat(json.get("logger_name").asText()).isEqualTo("c.f.a.w.r.PcResource");
+        assertThat(json.get("thread_name").asText()).isEqualTo("main");
+        assertThat(json.get("message").asText()).isEqualTo("REST request to get Pc : 42");
+        assertThat(json.get("app_name").asText()).isEqualTo("flashApp");
+        assertThat(json.get("app_port").asText()).isEqualTo("8080");
+        assertThat(json.get("requestId").asText()).isEqualTo("abc");
+        assertThat(json.has("stack_trace")).isFalse();
+    }
+
+    @Test
+    void testEscapesControlAndNonAsciiCharacters() throws Exception {
+        String message = "make='dell\r\nINFO forged entry' \"quoted\" \\ \u0001 é € 💻";
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        encoder.encode(createEvent(message), out);
+
+        String line = out.toString(StandardCharsets.UTF_8);
+        assertThat(line).hasLineCount(1);
+        assertThat(mapper.readTree(line).get("message").asText()).isEqualTo(message);
+    }
+
+    @Test
+    void testEncodesStackTrace() throws Exception {
+        LoggingEvent event = new LoggingEvent(
+            JsonLogEncoderTest.class.getName(),
+            new LoggerContext().getLogger("com.flash.app.service.PcService"),
+            Level.ERROR,
+            "Failed",
+            new IllegalStateException("root cause"),
+            null
+        );
+
+        JsonNode json = mapper.readTree(encoder.encode(event));
+
+        assertThat(json.get("stack_trace").asText()).contains("java.lang.IllegalStateException: root cause");
+    }
+
+    private static LoggingEvent createEvent(String message) {
+        LoggingEvent event = new LoggingEvent();
+        event.setLoggerName("com.flash.app.web.rest.PcResource");
+        event.setLevel(Level.INFO);
+        event.setThreadName("main");
+        event.setMessage(message);
+        event.setTimeStamp(System.currentTimeMillis());
+        return event;
+    }
+}
@@ -0,0 +1,135 @@
+package com.flash.app.config;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import com.mongodb.MongoClientSettings;
+import com.mongodb.MongoCompressor;
+import com.mongodb.ServerAddress;
+import com.mongodb.connection.ClusterId;
+import com.mongodb.connection.ConnectionDescription;
+import com.mongodb.connection.ConnectionId;
+import com.mongodb.connection.ServerId;
+import com.mongodb.event.CommandStartedEvent;
+import com.mongodb.event.CommandSucceededEvent;
+import com.mongodb.event.ConnectionCheckOutFailedEvent;
+import com.mongodb.event.ConnectionCheckOutStartedEvent;
+import com.mongodb.event.ConnectionCheckedOutEvent;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.bson.BsonDocument;
+import org.bson.RawBsonDocument;
+import org.bson.codecs.BsonDocumentCodec;
+import org.junit.jupiter.api.Test;
+
+class MongoClientConfigurationTest {
+
+    private static final ServerId SERVER_ID = new ServerId(new ClusterId(), new ServerAddress("localhost", 27017));
+
+    @Test
+    void testAppliesSetPropertiesAndKeepsOtherSettings() {
+        ApplicationProperties.Mongodb mongodb = new ApplicationProperties.Mongodb();
+        mongodb.getPool().setMaxSize(50);
+        mongodb.getPool().setMaxWaitTime(Duration.ofSeconds(3));
+        mongodb.getSocket().setReadTimeout(Duration.ofSeconds(30));
+        MongoClientSettings.Builder builder = MongoClientSettings
+            .builder()
+            .applyToConnectionPoolSettings(pool -> pool.minSize(5))
+            .applyToSocketSettings(socket -> socket.connectTimeout(2, TimeUnit.SECONDS));
+
+        MongoClientConfiguration.customize(builder, mongodb, MongoClientConfiguration.compressors(List.of("zstd", "snappy")));
+        MongoClientSettings settings = builder.build();
+
+        assertThat(settings.getConnectionPoolSettings().getMinSize()).isEqualTo(5);
+        assertThat(settings.getConnectionPoolSettings().getMaxSize()).isEqualTo(50);
+        assertThat(settings.getConnectionPoolSettings().getMaxWaitTime(TimeUnit.MILLISECONDS)).isEqualTo(3000);
+        assertThat(settings.getSocketSettings().getConnectTimeout(TimeUnit.MILLISECONDS)).isEqualTo(2000);
+        assertThat(settings.getSocketSettings().getReadTimeout(TimeUnit.MILLISECONDS)).isEqualTo(30000);
+        assertThat(settings.getCompressorList()).extracting(MongoCompressor::getName).containsExactly("zstd", "snappy");
+    }
+
+    @Test
+    void testRejectsUnknownCompressor() {
+        assertThatThrownBy(() -> MongoClientConfiguration.compressors(List.of("lz4")))
+            .isInstanceOf(IllegalArgumentException.class)
+            .hasMessageContaining("lz4");
+    }
+
+    @Test
+    void testMetersCommandSizesAndSlowCommands() {
+        MeterRegistry registry = new SimpleMeterRegistry();
+        MongoClientConfiguration.CommandMetrics listener = new MongoClientConfiguration.CommandMetrics(registry, Duration.ofMillis(100));
+        ConnectionDescription connection = new ConnectionDescription(SERVER_ID);
+        RawBsonDocument command = encode(BsonDocument.parse("{find: 'pc', filter: {make: 'dell'}}"));
+        RawBsonDocument reply = encode(BsonDocument.parse("{cursor: {firstBatch: [], id: 0, ns: 'flashApp.pc'}, ok: 1}"));
+
+        listener.commandStarted(new CommandStartedEvent(1, connection, "flashApp", "find", command));
+        listener.commandSucceeded(new CommandSucceededEvent(1, connection, "find", reply, TimeUnit.MILLISECONDS.toNanos(5)));
+        listener.commandStarted(new CommandStartedEvent(2, connection, "flashApp", "find", command));
+        listener.commandSucceeded(new CommandSucceededEvent(2, connection, "find", reply, TimeUnit.MILLISECONDS.toNanos(150)));
+
+        assertThat(registry.get("mongodb.driver.commands.request.size").tags("command", "find", "collection", "pc").summary())
+            .satisfies(summary -> {
+                assertThat(summary.count()).isEqualTo(2);
+                assertThat(summary.max()).isEqualTo(command.getByteBuffer().remaining());
+            });
+        assertThat(registry.get("mongodb.driver.commands.reply.size").tags("command", "find", "collection", "pc").summary().max())
+            .isEqualTo(reply.getByteBuffer().remaining());
+        assertThat(registry.get("mongodb.driver.commands.slow").tags("command", "find", "collection", "pc").counter().count()).isEqualTo(1);
+    }
+
+    @Test
+    void testIgnoresGetMoresOfIdleChangeStreams() {
+        MeterRegistry registry = new SimpleMeterRegistry();
+        MongoClientConfiguration.CommandMetrics listener = new MongoClientConfiguration.CommandMetrics(registry, Duration.ofMillis(500));
+        ConnectionDescription connection = new ConnectionDescription(SERVER_ID);
+        // an idle change stream gets an empty batch after waiting maxAwaitTime for new changes
+        RawBsonDocument awaitData = encode(BsonDocument.parse("{getMore: {$numberLong: '42'}, collection: 'pc', maxTimeMS: 1000}"));
+        RawBsonDocument emptyBatch = encode(BsonDocument.parse("{cursor: {nextBatch: [], id: 42, ns: 'flashApp.pc'}, ok: 1}"));
+        RawBsonDocument getMore = encode(BsonDocument.parse("{getMore: {$numberLong: '43'}, collection: 'pc'}"));
+
+        for (int i = 1; i <= 3; i++) {
+            listener.commandStarted(new CommandStartedEvent(i, connection, "flashApp", "getMore", awaitData));
+            listener.commandSucceeded(new CommandSucceededEvent(i, connection, "getMore", emptyBatch, TimeUnit.MILLISECONDS.toNanos(1001)));
+        }
+        listener.commandStarted(new CommandStartedEvent(4, connection, "flashApp", "getMore", getMore));
+        listener.commandSucceeded(new CommandSucceededEvent(4, connection, "getMore", emptyBatch, TimeUnit.MILLISECONDS.toNanos(700)));
+
+        assertThat(registry.get("mongodb.driver.commands.slow").tags("command", "getMore", "collection", "pc").counter().count())
+            .isEqualTo(1);
+        assertThat(registry.get("mongodb.driver.commands.reply.size").tags("command", "getMore", "collection", "pc").summary().count())
+            .isEqualTo(4);
+    }
+
+    @Test
+    void testFindsCollectionOfCommands() {
+        assertThat(MongoClientConfiguration.CommandMetrics.collection("insert", BsonDocument.parse("{insert: 'pc'}"))).isEqualTo("pc");
+        assertThat(MongoClientConfiguration.CommandMetrics.collection("getMore", BsonDocument.parse("{getMore: 42, collection: 'pc'}")))
+            .isEqualTo("pc");
+        assertThat(MongoClientConfiguration.CommandMetrics.collection("isMaster", BsonDocument.parse("{isMaster: 1}"))).isEqualTo("none");
+        assertThat(MongoClientConfiguration.CommandMetrics.size(BsonDocument.parse("{isMaster: 1}"))).isEqualTo(-1);
+    }
+
+    @Test
+    void testTimesCheckOutsAndCountsFailures() {
+        MeterRegistry registry = new SimpleMeterRegistry();
+        MongoClientConfiguration.ConnectionCheckOutMetrics listener = new MongoClientConfiguration.ConnectionCheckOutMetrics(registry);
+
+        listener.connectionCheckOutStarted(new ConnectionCheckOutStartedEvent(SERVER_ID));
+        listener.connectionCheckedOut(new ConnectionCheckedOutEvent(new ConnectionId(SERVER_ID)));
+        // completed without a start on this thread, as with the reactive client
+        listener.connectionCheckedOut(new ConnectionCheckedOutEvent(new ConnectionId(SERVER_ID)));
+        listener.connectionCheckOutStarted(new ConnectionCheckOutStartedEvent(SERVER_ID));
+        listener.connectionCheckOutFailed(new ConnectionCheckOutFailedEvent(SERVER_ID, ConnectionCheckOutFailedEvent.Reason.TIMEOUT));
+
+        assertThat(registry.get("mongodb.driver.pool.checkout.wait").tag("server.address", "localhost:27017").timer().count()).isEqualTo(1);
+        assertThat(registry.get("mongodb.driver.pool.checkout.failed").counter().count()).isEqualTo(1);
+    }
+
+    private static RawBsonDocument encode(BsonDocument document) {
+        return new RawBsonDocument(document, new BsonDocumentCodec());
+    }
+}
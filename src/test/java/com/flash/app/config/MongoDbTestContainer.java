@@ -36,6 +36,8 @@ public class MongoDbTestContainer implements InitializingBean, DisposableBean {
                 .withCreateContainerCmdModifier(cmd ->
                     cmd.getHostConfig().withMemory(memoryInBytes).withMemorySwap(memorySwapInBytes).withNanoCPUs(nanoCpu)
                 ) */
+                    // the single node replica set of the container, with the fail points of the tests of the change streams
+                    .withCommand("--replSet", "docker-rs", "--setParameter", "enableTestCommands=1")
                     .withLogConsumer(new Slf4jLogConsumer(log))
                     .withReuse(true);
         }
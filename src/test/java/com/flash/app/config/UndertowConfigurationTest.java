@@ -0,0 +1,113 @@
+package com.flash.app.config;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.undertow.Undertow;
+import io.undertow.UndertowOptions;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.context.event.ApplicationStartedEvent;
+import org.springframework.boot.web.embedded.undertow.UndertowServletWebServerFactory;
+
+class UndertowConfigurationTest {
+
+    private static final byte[] HTTP2_PREFACE = "PRI * HTTP/2.0\r\n\r\nSM\r\n\r\n".getBytes(StandardCharsets.US_ASCII);
+
+    private static final int SETTINGS_FRAME = 0x4;
+
+    private static final int SETTINGS_ACK_FLAG = 0x1;
+
+    private static final int SETTINGS_MAX_CONCURRENT_STREAMS = 0x3;
+
+    @Test
+    void testAdvertisesMaxConcurrentStreams() throws Exception {
+        ApplicationProperties applicationProperties = new ApplicationProperties();
+        applicationProperties.getUndertow().setMaxConcurrentStreams(37);
+        UndertowServletWebServerFactory factory = new UndertowServletWebServerFactory();
+        new UndertowConfiguration().undertowCustomizer(applicationProperties).customize(factory);
+        Undertow.Builder builder = Undertow.builder().setServerOption(UndertowOptions.ENABLE_HTTP2, true);
+        factory.getBuilderCustomizers().forEach(customizer -> customizer.customize(builder));
+        Undertow undertow = builder.addHttpListener(0, "localhost").setHandler(exchange -> exchange.getResponseSender().send("ok")).build();
+        undertow.start();
+        try (Socket socket = new Socket()) {
+            socket.setSoTimeout(5000);
+            socket.connect(undertow.getListenerInfo().get(0).getAddress());
+            // h2c with prior knowledge: the preface and an empty SETTINGS frame, answered by the SETTINGS of the server
+            OutputStream out = socket.getOutputStream();
+            out.write(HTTP2_PREFACE);
+            out.write(new byte[] { 0, 0, 0, SETTINGS_FRAME, 0, 0, 0, 0, 0 });
+            out.flush();
+
+            assertThat(serverSettings(new DataInputStream(socket.getInputStream()))).containsEntry(SETTINGS_MAX_CONCURRENT_STREAMS, 37L);
+        } finally {
+            undertow.stop();
+        }
+    }
+
+    @Test
+    void testMetersWorkerThreadsAndConnections() throws Exception {
+        MeterRegistry registry = new SimpleMeterRegistry();
+        UndertowServletWebServerFactory factory = new UndertowServletWebServerFactory();
+        new UndertowConfiguration().undertowCustomizer(new ApplicationProperties()).customize(factory);
+        Undertow.Builder builder = Undertow.builder().setIoThreads(2).setWorkerThreads(6);
+        factory.getBuilderCustomizers().forEach(customizer -> customizer.customize(builder));
+        Undertow undertow = builder.addHttpListener(0, "localhost").setHandler(exchange -> exchange.getResponseSender().send("ok")).build();
+        undertow.start();
+        try (Socket socket = new Socket()) {
+            new UndertowConfiguration.UndertowMetrics(registry)
+                .onApplicationEvent(new ApplicationStartedEvent(new SpringApplication(), new String[0], null, Duration.ZERO));
+            InetSocketAddress address = (InetSocketAddress) undertow.getListenerInfo().get(0).getAddress();
+            socket.connect(address);
+
+            assertThat(registry.get("undertow.io.threads").gauge().value()).isEqualTo(2);
+            assertThat(registry.get("undertow.worker.threads.max").gauge().value()).isEqualTo(6);
+            assertThat(registry.get("undertow.worker.threads.busy").gauge().value()).isZero();
+            assertThat(registry.get("undertow.worker.queue.size").gauge().value()).isZero();
+            // the connection is accepted by an IO thread, after connect returns
+            double connections = 0;
+            for (int i = 0; i < 100 && connections == 0; i++) {
+                Thread.sleep(20);
+                connections = registry.get("undertow.connections.active").gauge().value();
+            }
+            assertThat(connections).isEqualTo(1);
+        } finally {
+            undertow.stop();
+        }
+    }
+
+    /**
+     * Reads the frames sent by the server up to its SETTINGS frame.
+     *
+     * @return the value of each setting by identifier.
+     */
+    private static Map<Integer, Long> serverSettings(DataInputStream in) throws IOException {
+        while (true) {
+            int length = (in.readUnsignedShort() << 8) | in.readUnsignedByte();
+            int type = in.readUnsignedByte();
+            int flags = in.readUnsignedByte();
+            in.readInt();
+            byte[] payload = new byte[length];
+            in.readFully(payload);
+            if (type == SETTINGS_FRAME && (flags & SETTINGS_ACK_FLAG) == 0) {
+                Map<Integer, Long> settings = new HashMap<>();
+                ByteBuffer buffer = ByteBuffer.wrap(payload);
+                while (buffer.remaining() >= 6) {
+                    settings.put(buffer.getShort() & 0xFFFF, buffer.getInt() & 0xFFFFFFFFL);
+                }
+                return settings;
+            }
+        }
+    }
+}
@@ -0,0 +1,37 @@
+package com.flash.app.config;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.Test;
+
+class VirtualThreadSupportTest {
+
+    private static final int VIRTUAL_THREADS_FEATURE = 21;
+
+    @Test
+    void testRunsTasksOnNamedVirtualThreads() throws Exception {
+        assumeTrue(Runtime.version().feature() >= VIRTUAL_THREADS_FEATURE, "virtual threads need Java 21");
+        CompletableFuture<Thread> thread = new CompletableFuture<>();
+
+        VirtualThreadSupport.executor("test-virtual-").execute(() -> thread.complete(Thread.currentThread()));
+
+        Thread taskThread = thread.get(5, TimeUnit.SECONDS);
+        assertThat(taskThread.getName()).isEqualTo("test-virtual-0");
+        assertThat(Thread.class.getMethod("isVirtual").invoke(taskThread)).isEqualTo(true);
+    }
+
+    @Test
+    void testFailsFastWithoutVirtualThreads() {
+        assumeTrue(Runtime.version().feature() < VIRTUAL_THREADS_FEATURE, "virtual threads are available");
+
+        assertThatThrownBy(() -> VirtualThreadSupport.factory("test-virtual-"))
+            .isInstanceOf(IllegalStateException.class)
+            .hasMessageContaining("Java 21")
+            .hasCauseInstanceOf(NoSuchMethodException.class);
+        assertThatThrownBy(() -> VirtualThreadSupport.executor("test-virtual-")).isInstanceOf(IllegalStateException.class);
+    }
+}
@@ -0,0 +1,65 @@
+package com.flash.app.config;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.autoconfigure.AutoConfigurations;
+import org.springframework.boot.autoconfigure.context.ConfigurationPropertiesAutoConfiguration;
+import org.springframework.boot.test.context.runner.ApplicationContextRunner;
+import org.springframework.boot.web.server.WebServerFactoryCustomizer;
+
+class VirtualThreadsConfigurationTest {
+
+    private final ApplicationContextRunner contextRunner = new ApplicationContextRunner()
+        .withConfiguration(AutoConfigurations.of(ConfigurationPropertiesAutoConfiguration.class))
+        .withUserConfiguration(ApplicationProperties.class, VirtualThreadsConfiguration.class);
+
+    @Test
+    void testIsOffByDefault() {
+        contextRunner.run(context -> assertThat(context).doesNotHaveBean(VirtualThreadsConfiguration.class));
+    }
+
+    @Test
+    void testCustomizesUndertowWhenEnabled() {
+        assumeTrue(Runtime.version().feature() >= 21, "virtual threads need Java 21");
+
+        contextRunner
+            .withPropertyValues("application.virtual-threads.enabled=true")
+            .run(context -> assertThat(context).hasNotFailed().hasSingleBean(WebServerFactoryCustomizer.class));
+    }
+
+    @Test
+    void testFailsStartupWhenEnabledWithoutVirtualThreads() {
+        assumeTrue(Runtime.version().feature() < 21, "virtual threads are available");
+
+        contextRunner
+            .withPropertyValues("application.virtual-threads.enabled=true")
+            .run(context ->
+                assertThat(context)
+                    .hasFailed()
+                    .getFailure()
+                    .hasRootCauseInstanceOf(NoSuchMethodException.class)
+                    .hasMessageContaining("Virtual threads need Java 21")
+            );
+    }
+
+    @Test
+    void testKeepsPinningMetersAtZeroWithoutPinningEvents() throws Exception {
+        MeterRegistry registry = new SimpleMeterRegistry();
+        VirtualThreadsConfiguration.VirtualThreadPinningMetrics metrics = new VirtualThreadsConfiguration.VirtualThreadPinningMetrics(
+            Duration.ofMillis(20)
+        );
+
+        metrics.bindTo(registry);
+        try {
+            assertThat(registry.get("jvm.threads.virtual.pinned").timer().count()).isZero();
+            assertThat(registry.get("jvm.threads.virtual.submit.failed").counter().count()).isZero();
+        } finally {
+            metrics.destroy();
+        }
+    }
+}
@@ -0,0 +1,62 @@
+package com.flash.app.repository;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
+
+import com.flash.app.domain.Pc;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Sort;
+
+class PcKeysetTest {
+
+    @Test
+    void testFirstKeysetHasNoPosition() {
+        PcKeyset keyset = PcKeyset.first(PcKeyset.PRICE, Sort.Direction.DESC);
+
+        assertThat(keyset.isFirst()).isTrue();
+        assertThat(keyset.getProperty()).isEqualTo(PcKeyset.PRICE);
+        assertThat(keyset.getDirection()).isEqualTo(Sort.Direction.DESC);
+    }
+
+    @Test
+    void testAfterKeepsOrderingAndPosition() {
+        Pc last = new Pc().id("6322f2a1c7d3b85c1b1a2f3e").price(42);
+
+        PcKeyset keyset = PcKeyset.first(PcKeyset.PRICE, Sort.Direction.ASC).after(last);
+
+        assertThat(keyset.isFirst()).isFalse();
+        assertThat(keyset.getProperty()).isEqualTo(PcKeyset.PRICE);
+        assertThat(keyset.getValue()).isEqualTo(42);
+        assertThat(keyset.getId()).isEqualTo(last.getId());
+    }
+
+    @Test
+    void testEncodeDecodeRoundTrip() {
+        PcKeyset byPrice = PcKeyset.first(PcKeyset.PRICE, Sort.Direction.DESC).after(new Pc().id("id1").price(7));
+        PcKeyset byNullPrice = PcKeyset.first(PcKeyset.PRICE, Sort.Direction.ASC).after(new Pc().id("id2"));
+        PcKeyset byId = PcKeyset.first(PcKeyset.ID, Sort.Direction.ASC).after(new Pc().id("id3").price(7));
+
+        assertThat(PcKeyset.decode(byPrice.encode())).isEqualTo(byPrice);
+        assertThat(PcKeyset.decode(byNullPrice.encode())).isEqualTo(byNullPrice);
+        assertThat(PcKeyset.decode(byId.encode())).isEqualTo(byId);
+        assertThat(PcKeyset.decode(byId.encode()).getValue()).isNull();
+    }
+
+    @Test
+    void testEncodedCursorIsUrlSafe() {
+        String cursor = PcKeyset.first(PcKeyset.PRICE, Sort.Direction.ASC).after(new Pc().id("id/+?").price(-1)).encode();
+
+        assertThat(cursor).matches("[A-Za-z0-9_-]+");
+    }
+
+    @Test
+    void testUnsupportedPropertyIsRejected() {
+        assertThatIllegalArgumentException().isThrownBy(() -> PcKeyset.first("model", Sort.Direction.ASC));
+    }
+
+    @Test
+    void testInvalidCursorIsRejected() {
+        assertThatIllegalArgumentException().isThrownBy(() -> PcKeyset.decode("not a cursor"));
+        assertThatIllegalArgumentException().isThrownBy(() -> PcKeyset.decode("Zm9vOmJhcg"));
+    }
+}
@@ -0,0 +1,157 @@
+package com.flash.app.repository;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import com.flash.app.IntegrationTest;
+import com.flash.app.domain.Pc;
+import com.mongodb.client.MongoClient;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+import org.bson.Document;
+import org.hamcrest.Matchers;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.data.domain.Sort;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+
+/**
+ * Integration tests for the {@link PcReplica}, following the change stream of the replica set of the test container.
+ */
+@IntegrationTest
+@AutoConfigureMockMvc
+@WithMockUser
+@TestPropertySource(properties = { "application.read-replica.enabled=true", "application.read-replica.max-lag=1m" })
+class PcReplicaIT {
+
+    @Autowired
+    private PcReplica pcReplica;
+
+    @Autowired
+    private PcRepository pcRepository;
+
+    @Autowired
+    private MongoClient mongoClient;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private MockMvc restPcMockMvc;
+
+    @BeforeEach
+    public void initTest() throws Exception {
+        pcRepository.deleteAll();
+        awaitReplica(List::isEmpty);
+    }
+
+    @Test
+    void loadsTheCollectionOnStart() throws Exception {
+        pcReplica.stop();
+        List<Pc> pcs = pcRepository.saveAll(List.of(new Pc().make("dell").price(1), new Pc().make("hp").price(2)));
+        double loads = loads();
+
+        pcReplica.start();
+
+        assertThat(awaitReplica(replica -> replica.size() == 2)).extracting(Pc::getId).containsExactlyElementsOf(ids(pcs));
+        assertThat(loads()).isEqualTo(loads + 1);
+    }
+
+    @Test
+    void appliesTheWrites() throws Exception {
+        Pc pc = pcRepository.save(new Pc().make("dell").model("xps").price(1000));
+        awaitReplica(replica -> replica.size() == 1);
+
+        pc.setPrice(900);
+        pcRepository.save(pc);
+        List<Pc> replica = awaitReplica(pcs -> pcs.size() == 1 && pcs.get(0).getPrice() == 900);
+        assertThat(replica.get(0).getVersion()).isEqualTo(1L);
+        assertThat(replica.get(0).getModel()).isEqualTo("xps");
+
+        pcRepository.deleteById(pc.getId());
+        awaitReplica(List::isEmpty);
+    }
+
+    @Test
+    void loadsTheCollectionAgainWhenTheHistoryIsLost() throws Exception {
+        Pc first = pcRepository.save(new Pc().make("dell").price(1));
+        awaitReplica(replica -> replica.size() == 1);
+        double loads = loads();
+
+        // the next getMore of the change stream fails as if the oplog had rolled over its resume token
+        mongoClient
+            .getDatabase("admin")
+            .runCommand(
+                new Document("configureFailPoint", "failCommand")
+                    .append("mode", new Document("times", 1))
+                    .append("data", new Document("failCommands", List.of("getMore")).append("errorCode", 286))
+            );
+        Pc second = pcRepository.save(new Pc().make("hp").price(2));
+
+        assertThat(awaitReplica(replica -> replica.size() == 2))
+            .extracting(Pc::getId)
+            .containsExactlyElementsOf(ids(List.of(first, second)));
+        assertThat(loads()).isEqualTo(loads + 1);
+    }
+
+    @Test
+    void servesThePagesOfPcs() throws Exception {
+        List<Pc> pcs = pcRepository.saveAll(
+            List.of(new Pc().make("dell").price(3), new Pc().make("dell").price(1), new Pc().make("hp").price(2))
+        );
+        awaitReplica(replica -> replica.size() == 3);
+        double finds = commands("find");
+        double aggregates = commands("aggregate");
+
+        restPcMockMvc
+            .perform(get("/api/pcs?make=dell&sort=price,asc&estimateTotal=true"))
+            .andExpect(status().isOk())
+            .andExpect(header().string("X-Total-Count", "2"))
+            .andExpect(jsonPath("$.[*].id").value(Matchers.contains(pcs.get(1).getId(), pcs.get(0).getId())));
+
+        assertThat(commands("find")).isEqualTo(finds);
+        assertThat(commands("aggregate")).isEqualTo(aggregates);
+    }
+
+    /**
+     * Reads the pcs of the replica until they match a condition, as the events are applied asynchronously.
+     */
+    private List<Pc> awaitReplica(Predicate<List<Pc>> condition) throws InterruptedException {
+        PcKeyset keyset = PcKeyset.first(PcKeyset.ID, Sort.Direction.ASC);
+        for (int i = 0; i < 150; i++) {
+            Optional<List<Pc>> pcs = pcReplica.findAllAfter(PcFilter.none(), keyset, 1000);
+            if (pcs.isPresent() && condition.test(pcs.get())) {
+                return pcs.get();
+            }
+            Thread.sleep(100);
+        }
+        throw new AssertionError("The pc replica did not catch up with the collection");
+    }
+
+    private double loads() {
+        return meterRegistry.get("pc.replica.loads").counter().count();
+    }
+
+    private double commands(String command) {
+        DistributionSummary summary = meterRegistry
+            .find("mongodb.driver.commands.request.size")
+            .tags("command", command, "collection", "pc")
+            .summary();
+        return summary != null ? summary.count() : 0;
+    }
+
+    private static List<String> ids(List<Pc> pcs) {
+        return pcs.stream().map(Pc::getId).sorted().collect(Collectors.toList());
+    }
+}
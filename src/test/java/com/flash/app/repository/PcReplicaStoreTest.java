@@ -0,0 +1,183 @@
+package com.flash.app.repository;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.flash.app.domain.Pc;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.TreeMap;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+import org.bson.types.ObjectId;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Sort;
+
+class PcReplicaStoreTest {
+
+    private static final String[] MAKES = { "dell", "hp", "lenovo", "acer" };
+
+    private final PcReplicaStore store = new PcReplicaStore(4096);
+
+    private final Map<String, Pc> pcs = new TreeMap<>();
+
+    @Test
+    void testPagesInKeysetOrder() {
+        Random random = new Random(42);
+        List<ObjectId> ids = new ArrayList<>();
+        for (int i = 0; i < 3000; i++) {
+            ids.add(new ObjectId());
+        }
+        // inserts out of ID order, so that every chunk of the orders gets split
+        Collections.shuffle(ids, random);
+        for (ObjectId id : ids) {
+            Integer price = random.nextInt(10) == 0 ? null : random.nextInt(50);
+            put(id, MAKES[random.nextInt(MAKES.length)], "model " + random.nextInt(3), price, 0L);
+        }
+        // removes some pcs to leave free slots and holes in the orders
+        new ArrayList<>(pcs.keySet()).stream().filter(id -> random.nextInt(5) == 0).forEach(this::remove);
+
+        Comparator<Pc> byId = Comparator.comparing(Pc::getId);
+        Comparator<Pc> byPrice = Comparator.comparing(Pc::getPrice, Comparator.nullsFirst(Comparator.naturalOrder())).thenComparing(byId);
+        for (Sort.Direction direction : Sort.Direction.values()) {
+            Comparator<Pc> idOrder = direction.isAscending() ? byId : byId.reversed();
+            Comparator<Pc> priceOrder = direction.isAscending() ? byPrice : byPrice.reversed();
+            assertPages(PcFilter.none(), PcKeyset.first(PcKeyset.ID, direction), idOrder, 250);
+            assertPages(PcFilter.none(), PcKeyset.first(PcKeyset.PRICE, direction), priceOrder, 7);
+            assertPages(new PcFilter("dell", null, null, null), PcKeyset.first(PcKeyset.ID, direction), idOrder, 100);
+            assertPages(new PcFilter("hp", "model 1", 10, 20), PcKeyset.first(PcKeyset.PRICE, direction), priceOrder, 30);
+        }
+        assertThat(store.count(PcFilter.none())).isEqualTo(pcs.size());
+        assertThat(store.count(new PcFilter(null, "model 2", null, 25))).isEqualTo(count(matcher(new PcFilter(null, "model 2", null, 25))));
+    }
+
+    @Test
+    void testKeepsLatestVersion() {
+        ObjectId id = new ObjectId();
+        put(id, "dell", "xps", 1000, 2L);
+
+        store.put(id, "dell", "inspiron", 900, 1L);
+        assertThat(find(id)).satisfies(pc -> {
+            assertThat(pc.getModel()).isEqualTo("xps");
+            assertThat(pc.getVersion()).isEqualTo(2L);
+        });
+
+        store.put(id, null, "xps 13", null, 3L);
+        assertThat(find(id)).satisfies(pc -> {
+            assertThat(pc.getMake()).isNull();
+            assertThat(pc.getModel()).isEqualTo("xps 13");
+            assertThat(pc.getPrice()).isNull();
+        });
+
+        store.remove(id);
+        assertThat(store.size()).isZero();
+        store.put(id, "dell", "xps", 1000, 0L);
+        assertThat(find(id).getVersion()).isZero();
+    }
+
+    @Test
+    void testFiltersOnValuesUpdatedInPlace() {
+        Random random = new Random(7);
+        List<ObjectId> ids = new ArrayList<>();
+        for (int i = 0; i < 2000; i++) {
+            ids.add(new ObjectId());
+            put(ids.get(i), MAKES[random.nextInt(MAKES.length)], "model " + random.nextInt(4), random.nextInt(100), 0L);
+        }
+        // moves pcs between makes, models and prices, so that they leave their groups of the orders
+        for (int i = 0; i < ids.size(); i += 3) {
+            Integer price = random.nextInt(10) == 0 ? null : random.nextInt(100);
+            put(ids.get(i), random.nextInt(10) == 0 ? null : MAKES[random.nextInt(MAKES.length)], "model " + random.nextInt(4), price, 1L);
+        }
+
+        Comparator<Pc> byId = Comparator.comparing(Pc::getId);
+        Comparator<Pc> byPrice = Comparator.comparing(Pc::getPrice, Comparator.nullsFirst(Comparator.naturalOrder())).thenComparing(byId);
+        List<PcFilter> filters = List.of(
+            new PcFilter("lenovo", null, null, null),
+            new PcFilter(null, "model 3", null, null),
+            new PcFilter(null, null, 20, 40),
+            new PcFilter("acer", null, null, 50),
+            new PcFilter(null, "model 0", 60, null),
+            new PcFilter("toshiba", null, null, null)
+        );
+        for (PcFilter filter : filters) {
+            for (Sort.Direction direction : Sort.Direction.values()) {
+                assertPages(filter, PcKeyset.first(PcKeyset.ID, direction), direction.isAscending() ? byId : byId.reversed(), 40);
+                assertPages(filter, PcKeyset.first(PcKeyset.PRICE, direction), direction.isAscending() ? byPrice : byPrice.reversed(), 40);
+            }
+            assertThat(store.count(filter)).isEqualTo(count(matcher(filter)));
+        }
+    }
+
+    @Test
+    void testReclaimsPreviousStates() {
+        List<ObjectId> ids = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            ids.add(new ObjectId());
+            put(ids.get(i), "dell", "model", i, 0L);
+        }
+        long memory = store.memoryUsed();
+        for (long version = 1; version <= 50; version++) {
+            for (int i = 0; i < ids.size(); i++) {
+                put(ids.get(i), "dell", "model " + version, i, version);
+            }
+        }
+
+        assertThat(store.memoryUsed()).isLessThanOrEqualTo(memory * 4);
+        assertPages(PcFilter.none(), PcKeyset.first(PcKeyset.ID, Sort.Direction.ASC), Comparator.comparing(Pc::getId), 30);
+        assertThat(find(ids.get(99)).getModel()).isEqualTo("model 50");
+    }
+
+    private void put(ObjectId id, String make, String model, Integer price, Long version) {
+        store.put(id, make, model, price, version);
+        pcs.put(id.toHexString(), new Pc().id(id.toHexString()).make(make).model(model).price(price).version(version));
+    }
+
+    private void remove(String id) {
+        store.remove(new ObjectId(id));
+        pcs.remove(id);
+    }
+
+    private Pc find(ObjectId id) {
+        return store
+            .findAllAfter(PcFilter.none(), PcKeyset.first(PcKeyset.ID, Sort.Direction.ASC), Integer.MAX_VALUE)
+            .stream()
+            .filter(pc -> pc.getId().equals(id.toHexString()))
+            .findFirst()
+            .orElseThrow();
+    }
+
+    /**
+     * Reads every page after a keyset and compares them to the pcs sorted in memory.
+     */
+    private void assertPages(PcFilter filter, PcKeyset keyset, Comparator<Pc> order, int size) {
+        List<Pc> read = new ArrayList<>();
+        List<Pc> page;
+        do {
+            page = store.findAllAfter(filter, keyset, size);
+            assertThat(page.size()).isLessThanOrEqualTo(size);
+            read.addAll(page);
+            if (!page.isEmpty()) {
+                keyset = keyset.after(page.get(page.size() - 1));
+            }
+        } while (page.size() == size);
+
+        List<String> expected = pcs.values().stream().filter(matcher(filter)).sorted(order).map(Pc::getId).collect(Collectors.toList());
+        assertThat(read).extracting(Pc::getId).containsExactlyElementsOf(expected);
+        assertThat(read).allSatisfy(pc -> assertThat(pc).usingRecursiveComparison().isEqualTo(pcs.get(pc.getId())));
+    }
+
+    private long count(Predicate<Pc> matcher) {
+        return pcs.values().stream().filter(matcher).count();
+    }
+
+    private static Predicate<Pc> matcher(PcFilter filter) {
+        return pc ->
+            (filter.getMake() == null || filter.getMake().equals(pc.getMake())) &&
+            (filter.getModel() == null || filter.getModel().equals(pc.getModel())) &&
+            (filter.getPriceMin() == null || (pc.getPrice() != null && pc.getPrice() >= filter.getPriceMin())) &&
+            (filter.getPriceMax() == null || (pc.getPrice() != null && pc.getPrice() <= filter.getPriceMax()));
+    }
+}
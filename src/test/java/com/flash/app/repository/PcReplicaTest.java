@@ -0,0 +1,75 @@
+package com.flash.app.repository;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import com.flash.app.config.ApplicationProperties;
+import com.flash.app.domain.Pc;
+import com.mongodb.client.ChangeStreamIterable;
+import com.mongodb.client.FindIterable;
+import com.mongodb.client.MongoChangeStreamCursor;
+import com.mongodb.client.MongoCollection;
+import com.mongodb.client.MongoCursor;
+import com.mongodb.client.model.changestream.ChangeStreamDocument;
+import com.mongodb.client.model.changestream.FullDocument;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import org.bson.Document;
+import org.bson.types.ObjectId;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+
+class PcReplicaTest {
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testLoadsAgainAfterUnexpectedFailures() throws Exception {
+        MongoTemplate mongoTemplate = mock(MongoTemplate.class);
+        MongoCollection<Document> collection = mock(MongoCollection.class);
+        when(mongoTemplate.getCollectionName(Pc.class)).thenReturn("pc");
+        when(mongoTemplate.getCollection("pc")).thenReturn(collection);
+        ChangeStreamIterable<Document> changeStream = mock(ChangeStreamIterable.class);
+        when(collection.watch()).thenReturn(changeStream);
+        when(changeStream.fullDocument(any(FullDocument.class))).thenReturn(changeStream);
+        when(changeStream.maxAwaitTime(anyLong(), any(TimeUnit.class))).thenReturn(changeStream);
+        when(changeStream.cursor()).thenReturn(mock(MongoChangeStreamCursor.class));
+        FindIterable<Document> found = mock(FindIterable.class);
+        MongoCursor<Document> documents = mock(MongoCursor.class);
+        ObjectId id = new ObjectId();
+        // the first scan fails, the second one reads a pc with a make that is not a string
+        when(collection.find()).thenThrow(new IllegalStateException("unexpected")).thenReturn(found);
+        when(found.batchSize(anyInt())).thenReturn(found);
+        when(found.cursor()).thenReturn(documents);
+        when(documents.hasNext()).thenReturn(true, false);
+        when(documents.next()).thenReturn(new Document("_id", id).append("make", 5).append("model", "xps").append("version", 0L));
+        MeterRegistry meterRegistry = new SimpleMeterRegistry();
+        PcReplica pcReplica = new PcReplica(mongoTemplate, new ApplicationProperties(), meterRegistry);
+
+        pcReplica.start();
+        try {
+            PcKeyset keyset = PcKeyset.first(PcKeyset.ID, Sort.Direction.ASC);
+            Optional<List<Pc>> pcs = Optional.empty();
+            for (int i = 0; i < 300 && pcs.isEmpty(); i++) {
+                Thread.sleep(10);
+                pcs = pcReplica.findAllAfter(PcFilter.none(), keyset, 10);
+            }
+            assertThat(pcs).isPresent();
+            assertThat(pcs.get()).hasSize(1);
+            assertThat(pcs.get().get(0).getId()).isEqualTo(id.toHexString());
+            assertThat(pcs.get().get(0).getMake()).isNull();
+            assertThat(pcs.get().get(0).getModel()).isEqualTo("xps");
+            assertThat(pcReplica.isRunning()).isTrue();
+            assertThat(meterRegistry.get("pc.replica.loads").counter().count()).isEqualTo(2);
+        } finally {
+            pcReplica.stop();
+        }
+    }
+}
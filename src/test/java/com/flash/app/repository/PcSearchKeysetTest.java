@@ -0,0 +1,28 @@
+package com.flash.app.repository;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
+
+import com.flash.app.domain.Pc;
+import org.junit.jupiter.api.Test;
+
+class PcSearchKeysetTest {
+
+    @Test
+    void testEncodeDecodeRoundTrip() {
+        PcSearchKeyset keyset = PcSearchKeyset.first().after(new PcSearchHit(new Pc().id("id/+?"), 1.0 / 3));
+
+        String cursor = keyset.encode();
+
+        assertThat(PcSearchKeyset.first().isFirst()).isTrue();
+        assertThat(cursor).matches("[A-Za-z0-9_-]+");
+        assertThat(PcSearchKeyset.decode(cursor)).isEqualTo(keyset);
+        assertThat(PcSearchKeyset.decode(cursor).getScore()).isEqualTo(1.0 / 3);
+    }
+
+    @Test
+    void testInvalidCursorIsRejected() {
+        assertThatIllegalArgumentException().isThrownBy(() -> PcSearchKeyset.decode("not a cursor"));
+        assertThatIllegalArgumentException().isThrownBy(() -> PcSearchKeyset.decode("Zm9vOmJhcg"));
+    }
+}
@@ -63,6 +63,29 @@ class TokenProviderSecurityMetersTests {
         assertThat(aggregate(counters)).isZero();
     }
 
+    @Test
+    void testAuthenticationCacheHitCount() {
+        String validToken = createValidToken();
+
+        tokenProvider.authenticate(validToken);
+        tokenProvider.authenticate(validToken);
+
+        assertThat(meterRegistry.get("cache.gets").tag("cache", "jwtAuthentications").tag("result", "hit").functionCounter().count())
+            .isEqualTo(1);
+        assertThat(meterRegistry.get("cache.gets").tag("cache", "jwtAuthentications").tag("result", "miss").functionCounter().count())
+            .isEqualTo(1);
+    }
+
+    @Test
+    void testTokenExpiredCountedOnEveryAuthentication() {
+        String expiredToken = createExpiredToken();
+
+        tokenProvider.authenticate(expiredToken);
+        tokenProvider.authenticate(expiredToken);
+
+        assertThat(meterRegistry.get(INVALID_TOKENS_METER_EXPECTED_NAME).tag("cause", "expired").counter().count()).isEqualTo(2);
+    }
+
     @Test
     void testTokenExpiredCount() {
         assertThat(meterRegistry.get(INVALID_TOKENS_METER_EXPECTED_NAME).tag("cause", "expired").counter().count()).isZero();
@@ -88,6 +88,26 @@ class TokenProviderTest {
         assertThat(isTokenValid).isFalse();
     }
 
+    @Test
+    void testAuthenticateCachesVerifiedToken() {
+        String token = tokenProvider.createToken(createAuthentication(), false);
+
+        Optional<Authentication> authentication = tokenProvider.authenticate(token);
+
+        assertThat(authentication).isPresent();
+        assertThat(authentication.get().getName()).isEqualTo("anonymous");
+        assertThat(tokenProvider.authenticate(token)).containsSame(authentication.get());
+    }
+
+    @Test
+    void testAuthenticateReturnsEmptyWhenJWTisExpired() {
+        ReflectionTestUtils.setField(tokenProvider, "tokenValidityInMilliseconds", -ONE_MINUTE);
+        String token = tokenProvider.createToken(createAuthentication(), false);
+
+        assertThat(tokenProvider.authenticate(token)).isEmpty();
+        assertThat(tokenProvider.authenticate(token)).isEmpty();
+    }
+
     @Test
     void testKeyIsSetFromSecretWhenSecretIsNotEmpty() {
         final String secret = "NwskoUmKHZtzGRKJKVjsJF7BtQMMxNWi";
@@ -0,0 +1,131 @@
+package com.flash.app.security.jwt;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.ExpiredJwtException;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.JwtParser;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.SignatureAlgorithm;
+import io.jsonwebtoken.io.Decoders;
+import io.jsonwebtoken.security.Keys;
+import io.jsonwebtoken.security.SignatureException;
+import java.nio.charset.StandardCharsets;
+import java.security.Key;
+import java.util.Base64;
+import java.util.Date;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class TokenVerifierTest {
+
+    private static final long ONE_MINUTE = 60000;
+
+    private Key key;
+
+    private JwtParser jwtParser;
+
+    private TokenVerifier tokenVerifier;
+
+    @BeforeEach
+    public void setup() {
+        String base64Secret = "fd54a45s65fds737b9aafcb3412e07ed99b267f33413274720ddbb7f6c5e64e9f14075f2d7ed041592f0b7657baf8";
+        key = Keys.hmacShaKeyFor(Decoders.BASE64.decode(base64Secret));
+        jwtParser = Jwts.parserBuilder().setSigningKey(key).build();
+        tokenVerifier = new TokenVerifier(key);
+    }
+
+    @Test
+    void testVerifyReturnsSameClaimsAsParser() {
+        String token = createToken(key, SignatureAlgorithm.HS512, ONE_MINUTE);
+
+        TokenVerifier.VerifiedClaims verifiedClaims = tokenVerifier.verify(token, System.currentTimeMillis());
+
+        Claims claims = jwtParser.parseClaimsJws(token).getBody();
+        assertThat(verifiedClaims).isNotNull();
+        assertThat(verifiedClaims.getSubject()).isEqualTo(claims.getSubject()).isEqualTo("anonymous");
+        assertThat(verifiedClaims.getAuthorities()).isEqualTo(claims.get("auth")).isEqualTo("ROLE_USER,ROLE_ADMIN");
+        assertThat(verifiedClaims.getExpirationMillis()).isEqualTo(claims.getExpiration().getTime());
+    }
+
+    @Test
+    void testVerifyRejectsExpiredToken() {
+        String token = createToken(key, SignatureAlgorithm.HS512, -ONE_MINUTE);
+
+        assertThat(tokenVerifier.verify(token, System.currentTimeMillis())).isNull();
+        assertThatThrownBy(() -> jwtParser.parseClaimsJws(token)).isInstanceOf(ExpiredJwtException.class);
+    }
+
+    @Test
+    void testVerifyRejectsTokenSignedWithOtherKey() {
+        Key otherKey = Keys.hmacShaKeyFor(
+            Decoders.BASE64.decode("Xfd54a45s65fds737b9aafcb3412e07ed99b267f33413274720ddbb7f6c5e64e9f14075f2d7ed041592f0b7657baf8")
+        );
+        String token = createToken(otherKey, SignatureAlgorithm.HS512, ONE_MINUTE);
+
+        assertThat(tokenVerifier.verify(token, System.currentTimeMillis())).isNull();
+        assertThatThrownBy(() -> jwtParser.parseClaimsJws(token)).isInstanceOf(SignatureException.class);
+    }
+
+    @Test
+    void testVerifyRejectsTamperedPayload() {
+        String token = createToken(key, SignatureAlgorithm.HS512, ONE_MINUTE);
+        String[] parts = token.split("\\.");
+        String payload = new String(Base64.getUrlDecoder().decode(parts[1]), StandardCharsets.UTF_8).replace("anonymous", "admin");
+        String tamperedToken =
+            parts[0] + "." + Base64.getUrlEncoder().withoutPadding().encodeToString(payload.getBytes(StandardCharsets.UTF_8)) + "." + parts[2];
+
+        assertThat(tokenVerifier.verify(tamperedToken, System.currentTimeMillis())).isNull();
+        assertThatThrownBy(() -> jwtParser.parseClaimsJws(tamperedToken)).isInstanceOf(SignatureException.class);
+    }
+
+    @Test
+    void testVerifyRejectsMalformedToken() {
+        String token = createToken(key, SignatureAlgorithm.HS512, ONE_MINUTE);
+
+        assertThat(tokenVerifier.verify(token.substring(1), System.currentTimeMillis())).isNull();
+        assertThat(tokenVerifier.verify(token + "A", System.currentTimeMillis())).isNull();
+        assertThat(tokenVerifier.verify(token.substring(0, token.lastIndexOf('.') + 1), System.currentTimeMillis())).isNull();
+        assertThat(tokenVerifier.verify("", System.currentTimeMillis())).isNull();
+        assertThat(tokenVerifier.verify(null, System.currentTimeMillis())).isNull();
+        assertThatThrownBy(() -> jwtParser.parseClaimsJws(token.substring(1))).isInstanceOf(JwtException.class);
+    }
+
+    @Test
+    void testVerifyLeavesOtherFormatsToParser() {
+        String hs256Token = createToken(key, SignatureAlgorithm.HS256, ONE_MINUTE);
+        String tokenWithOtherClaims = Jwts
+            .builder()
+            .setSubject("anonymous")
+            .claim("auth", "ROLE_USER")
+            .setIssuedAt(new Date())
+            .signWith(key, SignatureAlgorithm.HS512)
+            .setExpiration(new Date(new Date().getTime() + ONE_MINUTE))
+            .compact();
+
+        assertThat(tokenVerifier.verify(hs256Token, System.currentTimeMillis())).isNull();
+        assertThat(tokenVerifier.verify(tokenWithOtherClaims, System.currentTimeMillis())).isNull();
+        assertThat(jwtParser.parseClaimsJws(hs256Token).getBody().getSubject()).isEqualTo("anonymous");
+        assertThat(jwtParser.parseClaimsJws(tokenWithOtherClaims).getBody().getSubject()).isEqualTo("anonymous");
+    }
+
+    @Test
+    void testVerifyIsDisabledForKeyShorterThanHS512() {
+        Key shortKey = Keys.hmacShaKeyFor("NwskoUmKHZtzGRKJKVjsJF7BtQMMxNWi".getBytes(StandardCharsets.UTF_8));
+        String token = createToken(shortKey, SignatureAlgorithm.HS256, ONE_MINUTE);
+
+        assertThat(new TokenVerifier(shortKey).verify(token, System.currentTimeMillis())).isNull();
+    }
+
+    private static String createToken(Key signingKey, SignatureAlgorithm algorithm, long validityInMilliseconds) {
+        return Jwts
+            .builder()
+            .setSubject("anonymous")
+            .claim("auth", "ROLE_USER,ROLE_ADMIN")
+            .signWith(signingKey, algorithm)
+            .setExpiration(new Date(new Date().getTime() + validityInMilliseconds))
+            .compact();
+    }
+}
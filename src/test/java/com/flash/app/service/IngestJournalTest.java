@@ -0,0 +1,121 @@
+package com.flash.app.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.RandomAccessFile;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class IngestJournalTest {
+
+    private static final int SEGMENT_SIZE = 256;
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void testReplaysRecordsNotCommitted() throws Exception {
+        IngestJournal journal = new IngestJournal(directory, SEGMENT_SIZE, 4);
+        for (int i = 0; i < 3; i++) {
+            assertThat(journal.append(payload("pc " + i), 1000 + i)).isTrue();
+        }
+        IngestJournal.Batch batch = journal.poll(2, 0);
+        assertThat(payloads(batch)).containsExactly("pc 0", "pc 1");
+        assertThat(batch.getRecords().get(1).getTimestamp()).isEqualTo(1001);
+        // read again until committed
+        assertThat(payloads(journal.poll(2, 0))).containsExactly("pc 0", "pc 1");
+        journal.commit(batch);
+        assertThat(journal.backlog()).isEqualTo(1);
+        journal.close();
+
+        IngestJournal reopened = new IngestJournal(directory, SEGMENT_SIZE, 4);
+
+        assertThat(reopened.backlog()).isEqualTo(1);
+        assertThat(payloads(reopened.poll(10, 0))).containsExactly("pc 2");
+        reopened.append(payload("pc 3"), 1003);
+        assertThat(payloads(reopened.poll(10, 0))).containsExactly("pc 2", "pc 3");
+    }
+
+    @Test
+    void testRollsSegmentsAndRefusesRecordsWhenFull() throws Exception {
+        IngestJournal journal = new IngestJournal(directory, SEGMENT_SIZE, 2);
+        byte[] record = new byte[100];
+        int appended = 0;
+        while (journal.append(record, 0)) {
+            appended++;
+        }
+        // two records of 116 bytes fit in a segment
+        assertThat(appended).isEqualTo(4);
+        assertThat(segments()).hasSize(2);
+
+        IngestJournal.Batch batch = journal.poll(3, 0);
+        assertThat(batch.getRecords()).hasSize(3);
+        journal.commit(batch);
+
+        assertThat(segments()).hasSize(1);
+        assertThat(journal.append(record, 0)).isTrue();
+        assertThat(journal.poll(10, 0).getRecords()).hasSize(2);
+    }
+
+    @Test
+    void testStopsAtTornRecordWhenReopened() throws Exception {
+        IngestJournal journal = new IngestJournal(directory, SEGMENT_SIZE, 4);
+        journal.append(payload("pc 0"), 0);
+        journal.append(payload("pc 1"), 0);
+        journal.close();
+        try (RandomAccessFile file = new RandomAccessFile(segments().get(0).toFile(), "rw")) {
+            // corrupts the payload of the second record
+            int position = IngestJournal.HEADER_SIZE + "pc 0".length() + IngestJournal.HEADER_SIZE;
+            file.seek(position);
+            file.write('x');
+        }
+
+        IngestJournal reopened = new IngestJournal(directory, SEGMENT_SIZE, 4);
+
+        assertThat(reopened.backlog()).isEqualTo(1);
+        reopened.append(payload("pc 2"), 0);
+        reopened.close();
+        assertThat(payloads(new IngestJournal(directory, SEGMENT_SIZE, 4).poll(10, 0))).containsExactly("pc 0", "pc 2");
+    }
+
+    @Test
+    void testWakesUpWaitingReader() throws Exception {
+        IngestJournal journal = new IngestJournal(directory, SEGMENT_SIZE, 4);
+        Thread appender = new Thread(() -> {
+            try {
+                Thread.sleep(100);
+                journal.append(payload("pc 0"), 0);
+            } catch (Exception e) {
+                throw new IllegalStateException(e);
+            }
+        });
+        appender.start();
+
+        long start = System.nanoTime();
+        IngestJournal.Batch batch = journal.poll(10, 10_000);
+        appender.join();
+
+        assertThat(payloads(batch)).containsExactly("pc 0");
+        assertThat(System.nanoTime() - start).isLessThan(5_000_000_000L);
+    }
+
+    private List<Path> segments() throws Exception {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.filter(file -> file.getFileName().toString().endsWith(".journal")).sorted().collect(Collectors.toList());
+        }
+    }
+
+    private static byte[] payload(String value) {
+        return value.getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static List<String> payloads(IngestJournal.Batch batch) {
+        return batch.getRecords().stream().map(record -> new String(record.getPayload(), StandardCharsets.UTF_8)).collect(Collectors.toList());
+    }
+}
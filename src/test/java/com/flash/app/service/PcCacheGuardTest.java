@@ -0,0 +1,49 @@
+package com.flash.app.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.flash.app.domain.Pc;
+import com.flash.app.repository.PcRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.Cache;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+
+class PcCacheGuardTest {
+
+    private final ConcurrentMapCacheManager cacheManager = new ConcurrentMapCacheManager(PcRepository.PCS_BY_ID_CACHE);
+
+    private final PcCacheGuard pcCacheGuard = new PcCacheGuard(cacheManager);
+
+    private final Cache cache = cacheManager.getCache(PcRepository.PCS_BY_ID_CACHE);
+
+    @Test
+    void testPutsPcsNotWrittenWhileRead() {
+        long stamp = pcCacheGuard.stamp("1");
+        pcCacheGuard.evict("2");
+
+        pcCacheGuard.put("1", new Pc().id("1").version(0L), stamp);
+
+        assertThat(cache.get("1", Pc.class)).isNotNull();
+    }
+
+    @Test
+    void testDoesNotPutPcsWrittenWhileRead() {
+        long stamp = pcCacheGuard.stamp("1");
+        // a write completes after the read, before the put
+        pcCacheGuard.evict("1");
+
+        pcCacheGuard.put("1", new Pc().id("1").version(0L), stamp);
+
+        assertThat(cache.get("1")).isNull();
+    }
+
+    @Test
+    void testDoesNotPutPcsReadBeforeAClear() {
+        long stamp = pcCacheGuard.stamp("1");
+        pcCacheGuard.clear();
+
+        pcCacheGuard.put("1", new Pc().id("1").version(0L), stamp);
+
+        assertThat(cache.get("1")).isNull();
+    }
+}
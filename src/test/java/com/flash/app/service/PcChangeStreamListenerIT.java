@@ -0,0 +1,121 @@
+package com.flash.app.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.flash.app.IntegrationTest;
+import com.flash.app.domain.Pc;
+import com.flash.app.repository.PcRepository;
+import com.mongodb.client.model.Filters;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.time.Duration;
+import java.util.Optional;
+import java.util.function.BooleanSupplier;
+import org.bson.Document;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.IndexInfo;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.test.context.TestPropertySource;
+
+/**
+ * Integration tests for the {@link PcChangeStreamListener}, following the change stream of the replica set of the test
+ * container. The pcs are written with the {@link MongoTemplate}, as by another instance, so that only the listener
+ * evicts them.
+ */
+@IntegrationTest
+@TestPropertySource(
+    properties = { "application.cache.change-stream.enabled=true", "application.cache.change-stream.consumer-id=flashApp:test" }
+)
+class PcChangeStreamListenerIT {
+
+    private static final String CONSUMER_ID = "flashApp:test";
+
+    @Autowired
+    private PcChangeStreamListener pcChangeStreamListener;
+
+    @Autowired
+    private PcRepository pcRepository;
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private Cache cache;
+
+    @BeforeEach
+    public void initTest() {
+        cache = cacheManager.getCache(PcRepository.PCS_BY_ID_CACHE);
+        cache.clear();
+    }
+
+    @Test
+    void evictsPcsWrittenByOtherInstances() throws Exception {
+        Pc pc = pcRepository.save(new Pc().make("dell").price(1000));
+        double evictions = evictions();
+        cache.put(pc.getId(), pc);
+
+        mongoTemplate.updateFirst(Query.query(Criteria.where("_id").is(pc.getId())), Update.update("price", 900), Pc.class);
+
+        await(() -> cache.get(pc.getId()) == null);
+        assertThat(evictions()).isGreaterThan(evictions);
+        // the token is saved once the stream is idle again
+        await(() -> resumeToken() != null);
+    }
+
+    @Test
+    void resumesFromTheSavedToken() throws Exception {
+        String previousToken = resumeToken();
+        Pc pc = pcRepository.save(new Pc().make("dell").price(1000));
+        // the token is saved past the insertion once the stream is idle again
+        await(() -> resumeToken() != null && !resumeToken().equals(previousToken));
+        pcChangeStreamListener.stop();
+
+        // written while the listener is stopped, and cached before the listener is back
+        mongoTemplate.updateFirst(Query.query(Criteria.where("_id").is(pc.getId())), Update.update("price", 900), Pc.class);
+        cache.put(pc.getId(), pc);
+        pcChangeStreamListener.start();
+
+        await(() -> cache.get(pc.getId()) == null);
+    }
+
+    @Test
+    void expiresTheResumeTokens() {
+        assertThat(mongoTemplate.indexOps(PcChangeStreamListener.RESUME_TOKEN_COLLECTION).getIndexInfo())
+            .filteredOn(index -> index.getIndexFields().stream().anyMatch(field -> field.getKey().equals("savedAt")))
+            .extracting(IndexInfo::getExpireAfter)
+            .containsExactly(Optional.of(Duration.ofDays(7)));
+    }
+
+    /**
+     * Waits for the listener to process the events, which it does asynchronously.
+     */
+    private static void await(BooleanSupplier condition) throws InterruptedException {
+        for (int i = 0; i < 150 && !condition.getAsBoolean(); i++) {
+            Thread.sleep(100);
+        }
+        assertThat(condition.getAsBoolean()).isTrue();
+    }
+
+    private String resumeToken() {
+        Document document = mongoTemplate
+            .getCollection(PcChangeStreamListener.RESUME_TOKEN_COLLECTION)
+            .find(Filters.eq("_id", CONSUMER_ID))
+            .first();
+        return document != null ? document.getString("token") : null;
+    }
+
+    private double evictions() {
+        return meterRegistry.get("cache.change.stream.evictions").counter().count();
+    }
+}
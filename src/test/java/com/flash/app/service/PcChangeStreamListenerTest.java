@@ -0,0 +1,76 @@
+package com.flash.app.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.atLeast;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.mockingDetails;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.flash.app.config.ApplicationProperties;
+import com.flash.app.domain.Pc;
+import com.flash.app.repository.PcRepository;
+import com.mongodb.client.ChangeStreamIterable;
+import com.mongodb.client.FindIterable;
+import com.mongodb.client.MongoChangeStreamCursor;
+import com.mongodb.client.MongoCollection;
+import com.mongodb.client.model.changestream.ChangeStreamDocument;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.concurrent.TimeUnit;
+import org.bson.Document;
+import org.bson.conversions.Bson;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.Cache;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.data.mongodb.core.MongoTemplate;
+
+class PcChangeStreamListenerTest {
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testKeepsListeningAfterUnexpectedFailures() throws Exception {
+        MongoTemplate mongoTemplate = mock(MongoTemplate.class);
+        MongoCollection<Document> resumeTokens = mock(MongoCollection.class);
+        FindIterable<Document> found = mock(FindIterable.class);
+        when(mongoTemplate.getCollection(PcChangeStreamListener.RESUME_TOKEN_COLLECTION)).thenReturn(resumeTokens);
+        when(resumeTokens.find(any(Bson.class))).thenReturn(found);
+        when(found.first()).thenReturn(new Document("_id", "consumer").append("token", "{corrupt"));
+        MongoCollection<Document> pcs = mock(MongoCollection.class);
+        ChangeStreamIterable<Document> changeStream = mock(ChangeStreamIterable.class);
+        MongoChangeStreamCursor<ChangeStreamDocument<Document>> cursor = mock(MongoChangeStreamCursor.class);
+        when(mongoTemplate.getCollectionName(Pc.class)).thenReturn("pc");
+        when(mongoTemplate.getCollection("pc")).thenReturn(pcs);
+        when(pcs.watch(anyList())).thenThrow(new IllegalStateException("unexpected")).thenReturn(changeStream);
+        when(changeStream.maxAwaitTime(anyLong(), any(TimeUnit.class))).thenReturn(changeStream);
+        when(changeStream.cursor()).thenReturn(cursor);
+        ConcurrentMapCacheManager cacheManager = new ConcurrentMapCacheManager(PcRepository.PCS_BY_ID_CACHE);
+        Cache cache = cacheManager.getCache(PcRepository.PCS_BY_ID_CACHE);
+        cache.put("1", new Pc().id("1"));
+        ApplicationProperties applicationProperties = new ApplicationProperties();
+        applicationProperties.getCache().getChangeStream().setConsumerId("consumer");
+        PcChangeStreamListener listener = new PcChangeStreamListener(
+            mongoTemplate,
+            new PcCacheGuard(cacheManager),
+            applicationProperties,
+            new SimpleMeterRegistry()
+        );
+
+        listener.start();
+        try {
+            // the first watch fails, the listener backs off and opens the stream again
+            for (int i = 0; i < 300 && mockingDetails(cursor).getInvocations().isEmpty(); i++) {
+                Thread.sleep(10);
+            }
+            verify(cursor, atLeast(1)).tryNext();
+            assertThat(listener.isRunning()).isTrue();
+            // the events missed since the unreadable token are not known
+            assertThat(cache.get("1")).isNull();
+            verify(resumeTokens).deleteOne(any(Bson.class));
+        } finally {
+            listener.stop();
+        }
+    }
+}
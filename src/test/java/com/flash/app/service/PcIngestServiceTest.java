@@ -0,0 +1,71 @@
+package com.flash.app.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.flash.app.config.ApplicationProperties;
+import com.flash.app.domain.Pc;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.nio.file.Path;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.boot.actuate.health.Status;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+
+class PcIngestServiceTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void testRetriesBatchesAfterUnexpectedFailures() throws Exception {
+        MongoTemplate mongoTemplate = mock(MongoTemplate.class);
+        BulkOperations bulkOperations = mock(BulkOperations.class);
+        when(mongoTemplate.bulkOps(any(BulkOperations.BulkMode.class), any(Class.class)))
+            .thenThrow(new IllegalStateException("unexpected"))
+            .thenReturn(bulkOperations);
+        when(bulkOperations.insert(anyList())).thenReturn(bulkOperations);
+        PcStatsService pcStatsService = mock(PcStatsService.class);
+        ApplicationProperties applicationProperties = new ApplicationProperties();
+        applicationProperties.getIngest().setJournalDirectory(directory.toString());
+        PcIngestService pcIngestService = new PcIngestService(
+            mongoTemplate,
+            pcStatsService,
+            mock(PcSuggestService.class),
+            new ObjectMapper(),
+            applicationProperties,
+            new SimpleMeterRegistry()
+        );
+        PcIngestHealthIndicator healthIndicator = new PcIngestHealthIndicator(pcIngestService);
+        assertThat(healthIndicator.health().getStatus()).isEqualTo(Status.DOWN);
+
+        pcIngestService.start();
+        try {
+            Pc pc = pcIngestService.ingest(new Pc().make("make").model("model"));
+
+            // the first attempt fails, the writer backs off and stays alive
+            for (int i = 0; i < 100 && pcIngestService.getLastFailure() == null; i++) {
+                Thread.sleep(10);
+            }
+            assertThat(healthIndicator.health().getStatus()).isEqualTo(Status.DOWN);
+            assertThat(healthIndicator.health().getDetails()).containsEntry("writer", "retrying");
+
+            for (int i = 0; i < 300 && pcIngestService.getBacklog() > 0; i++) {
+                Thread.sleep(10);
+            }
+            assertThat(pcIngestService.getBacklog()).isZero();
+            verify(pcStatsService).record(List.of(), List.of(pc));
+            assertThat(healthIndicator.health().getStatus()).isEqualTo(Status.UP);
+        } finally {
+            pcIngestService.stop();
+        }
+        assertThat(healthIndicator.health().getStatus()).isEqualTo(Status.DOWN);
+    }
+}
@@ -0,0 +1,95 @@
+package com.flash.app.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.flash.app.domain.Pc;
+import com.flash.app.repository.PcRepository;
+import com.flash.app.service.dto.PcBulkOperationDTO;
+import com.flash.app.service.dto.PcBulkResultDTO;
+import com.mongodb.bulk.BulkWriteResult;
+import java.util.List;
+import java.util.Optional;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+class PcServiceTest {
+
+    private final PcRepository pcRepository = mock(PcRepository.class);
+
+    private final MongoTemplate mongoTemplate = mock(MongoTemplate.class);
+
+    private final ConcurrentMapCacheManager cacheManager = new ConcurrentMapCacheManager(PcRepository.PCS_BY_ID_CACHE);
+
+    private final PcCacheGuard pcCacheGuard = new PcCacheGuard(cacheManager);
+
+    private final PcStatsService pcStatsService = mock(PcStatsService.class);
+
+    private final PcService pcService = new PcService(
+        pcRepository,
+        mongoTemplate,
+        pcCacheGuard,
+        pcStatsService,
+        mock(PcSuggestService.class)
+    );
+
+    @Test
+    void testCachesThePcsRead() {
+        Pc pc = new Pc().id("1").version(0L);
+        when(pcRepository.findById("1")).thenReturn(Optional.of(pc));
+
+        assertThat(pcService.findOne("1")).contains(pc);
+        assertThat(pcService.findOne("1")).contains(pc);
+
+        verify(pcRepository, times(1)).findById("1");
+        assertThat(cacheManager.getCache(PcRepository.PCS_BY_ID_CACHE).get("1")).isNotNull();
+    }
+
+    @Test
+    void testDoesNotCacheThePcsWrittenWhileRead() {
+        when(pcRepository.findById("1"))
+            .thenAnswer(invocation -> {
+                Pc pc = new Pc().id("1").version(0L);
+                // a write of the pc completes after it is read, before it is put in the cache
+                pcCacheGuard.evict("1");
+                return Optional.of(pc);
+            });
+
+        assertThat(pcService.findOne("1")).isPresent();
+
+        assertThat(cacheManager.getCache(PcRepository.PCS_BY_ID_CACHE).get("1")).isNull();
+    }
+
+    @Test
+    void testFailsTheReplacesOfPcsDeletedBeforeTheBulkWrite() {
+        BulkOperations bulkOperations = mock(BulkOperations.class);
+        when(mongoTemplate.bulkOps(any(BulkOperations.BulkMode.class), eq(Pc.class))).thenReturn(bulkOperations);
+        Pc deleted = new Pc().id("1").make("dell").price(1);
+        Pc replaced = new Pc().id("2").make("hp").price(2);
+        // both exist when checked up front, the first one is deleted before the write
+        when(mongoTemplate.find(any(Query.class), eq(Pc.class))).thenReturn(List.of(deleted, replaced)).thenReturn(List.of(replaced));
+        when(bulkOperations.updateOne(any(Query.class), any(Update.class))).thenReturn(bulkOperations);
+        when(bulkOperations.execute()).thenReturn(BulkWriteResult.acknowledged(0, 1, 0, 1, List.of(), List.of()));
+        Pc replacement = new Pc().id("2").make("hp").price(3);
+
+        List<PcBulkResultDTO> results = pcService.bulkWrite(
+            List.of(
+                new PcBulkOperationDTO(PcBulkOperationDTO.Action.REPLACE, new Pc().id("1").make("dell").price(2)),
+                new PcBulkOperationDTO(PcBulkOperationDTO.Action.REPLACE, replacement)
+            )
+        );
+
+        assertThat(results).extracting(PcBulkResultDTO::getStatus).containsExactly(400, 200);
+        assertThat(results).extracting(PcBulkResultDTO::getErrorKey).containsExactly("idnotfound", null);
+        verify(pcStatsService).record(List.of(replaced), List.of(replacement));
+    }
+}
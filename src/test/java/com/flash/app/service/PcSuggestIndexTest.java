@@ -0,0 +1,66 @@
+package com.flash.app.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Random;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
+import org.junit.jupiter.api.Test;
+
+class PcSuggestIndexTest {
+
+    @Test
+    void testSuggestsMostFrequentValuesOfPrefixIgnoringCase() {
+        PcSuggestIndex index = new PcSuggestIndex(3);
+        index.add("Latitude", 5);
+        index.add("latitude", 2);
+        index.add("Lat 2", 1);
+        index.add("Lenovo", 9);
+        index.add("XPS", 4);
+        index.add("Legion", 6);
+        index.add(null, 1);
+
+        assertThat(entries(index.suggest("la", 10))).containsExactly("Latitude=7", "Lat 2=1");
+        assertThat(entries(index.suggest("L", 10))).containsExactly("Lenovo=9", "Latitude=7", "Legion=6");
+        assertThat(entries(index.suggest("", 2))).containsExactly("Lenovo=9", "Latitude=7");
+        assertThat(index.suggest("lx", 10)).isEmpty();
+    }
+
+    @Test
+    void testKeepsSuggestionsExactWhenCountsChange() {
+        PcSuggestIndex index = new PcSuggestIndex(5);
+        Map<String, Long> counts = new TreeMap<>();
+        String[] values = new String[200];
+        Random random = new Random(7);
+        for (int i = 0; i < values.length; i++) {
+            values[i] = Integer.toString(random.nextInt(5000), 7);
+        }
+        for (int i = 0; i < 20_000; i++) {
+            String value = values[random.nextInt(values.length)];
+            long current = counts.getOrDefault(value, 0L);
+            // removals bring up values of other branches, which the lists of the nodes must not miss
+            long delta = current > 0 && random.nextInt(3) == 0 ? -1 - random.nextInt((int) current) : 1 + random.nextInt(3);
+            index.add(value, delta);
+            counts.put(value, current + delta);
+        }
+
+        for (String prefix : List.of("", "1", "2", "10", "21", "36", "6", "1000")) {
+            List<String> expected = counts
+                .entrySet()
+                .stream()
+                .filter(count -> count.getValue() > 0 && count.getKey().toLowerCase(Locale.ROOT).startsWith(prefix))
+                .sorted(Map.Entry.<String, Long>comparingByValue().reversed().thenComparing(Map.Entry.comparingByKey()))
+                .limit(5)
+                .map(count -> count.getKey() + "=" + count.getValue())
+                .collect(Collectors.toList());
+            assertThat(entries(index.suggest(prefix, 5))).as(prefix).containsExactlyElementsOf(expected);
+        }
+    }
+
+    private static List<String> entries(List<PcSuggestIndex.Entry> entries) {
+        return entries.stream().map(entry -> entry.getValue() + "=" + entry.getCount()).collect(Collectors.toList());
+    }
+}
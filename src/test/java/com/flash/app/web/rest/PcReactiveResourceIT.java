@@ -0,0 +1,337 @@
+package com.flash.app.web.rest;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.hasItem;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
+import com.fasterxml.jackson.dataformat.smile.databind.SmileMapper;
+import com.flash.app.IntegrationTest;
+import com.flash.app.config.Constants;
+import com.flash.app.domain.Pc;
+import com.flash.app.repository.PcRepository;
+import com.flash.app.service.PcSuggestService;
+import com.jayway.jsonpath.JsonPath;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.cache.CacheManager;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.RequestBuilder;
+import org.springframework.test.web.servlet.ResultActions;
+
+/**
+ * Integration tests for the {@link PcReactiveResource} REST controller.
+ */
+@IntegrationTest
+@AutoConfigureMockMvc
+@WithMockUser
+@ActiveProfiles(Constants.SPRING_PROFILE_REACTIVE)
+class PcReactiveResourceIT {
+
+    private static final String ENTITY_API_URL = "/api/pcs";
+    private static final String ENTITY_API_URL_ID = ENTITY_API_URL + "/{id}";
+
+    @Autowired
+    private PcRepository pcRepository;
+
+    @Autowired
+    private PcSuggestService pcSuggestService;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @Autowired
+    private MockMvc restPcMockMvc;
+
+    private Pc pc;
+
+    @BeforeEach
+    public void initTest() {
+        pcRepository.deleteAll();
+        cacheManager.getCache(PcRepository.PCS_BY_ID_CACHE).clear();
+        pc = PcResourceIT.createEntity();
+    }
+
+    /**
+     * Performs a request answered asynchronously, and dispatches its result.
+     */
+    private ResultActions performAsync(RequestBuilder request) throws Exception {
+        MvcResult result = restPcMockMvc.perform(request).andExpect(request().asyncStarted()).andReturn();
+        return restPcMockMvc.perform(asyncDispatch(result));
+    }
+
+    @Test
+    void createPc() throws Exception {
+        performAsync(post(ENTITY_API_URL).contentType(MediaType.APPLICATION_JSON).content(TestUtil.convertObjectToJsonBytes(pc)))
+            .andExpect(status().isCreated())
+            .andExpect(header().exists("X-flashApp-alert"));
+
+        List<Pc> pcList = pcRepository.findAll();
+        assertThat(pcList).hasSize(1);
+        assertThat(pcList.get(0).getMake()).isEqualTo(pc.getMake());
+    }
+
+    @Test
+    void createPcWithExistingId() throws Exception {
+        pc.setId("existing_id");
+
+        restPcMockMvc
+            .perform(post(ENTITY_API_URL).contentType(MediaType.APPLICATION_JSON).content(TestUtil.convertObjectToJsonBytes(pc)))
+            .andExpect(status().isBadRequest())
+            .andExpect(jsonPath("$.message").value("error.idexists"));
+    }
+
+    @Test
+    void ingestPc() throws Exception {
+        MvcResult result = restPcMockMvc
+            .perform(
+                post(ENTITY_API_URL)
+                    .param("mode", "async")
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(TestUtil.convertObjectToJsonBytes(pc))
+            )
+            .andExpect(status().isAccepted())
+            .andExpect(jsonPath("$.id").isNotEmpty())
+            .andReturn();
+        String id = JsonPath.read(result.getResponse().getContentAsString(), "$.id");
+
+        for (int attempt = 0; attempt < 100 && !pcRepository.existsById(id); attempt++) {
+            Thread.sleep(50);
+        }
+        assertThat(pcRepository.findById(id)).hasValueSatisfying(testPc -> assertThat(testPc.getMake()).isEqualTo(pc.getMake()));
+    }
+
+    @Test
+    void getPc() throws Exception {
+        pcRepository.save(pc);
+
+        performAsync(get(ENTITY_API_URL_ID, pc.getId()))
+            .andExpect(status().isOk())
+            .andExpect(header().string(HttpHeaders.ETAG, "\"0\""))
+            .andExpect(jsonPath("$.id").value(pc.getId()))
+            .andExpect(jsonPath("$.make").value(pc.getMake()));
+        assertThat(cacheManager.getCache(PcRepository.PCS_BY_ID_CACHE).get(pc.getId())).isNotNull();
+
+        // served from the cache, with the same validators
+        performAsync(get(ENTITY_API_URL_ID, pc.getId()).header(HttpHeaders.IF_NONE_MATCH, "\"0\"")).andExpect(status().isNotModified());
+    }
+
+    @Test
+    void getNonExistingPc() throws Exception {
+        performAsync(get(ENTITY_API_URL_ID, Long.MAX_VALUE)).andExpect(status().isNotFound());
+    }
+
+    @Test
+    void getAllPcsByKeysetPages() throws Exception {
+        for (int i = 0; i < 3; i++) {
+            pcRepository.save(PcResourceIT.createEntity().price(i));
+        }
+
+        MvcResult first = performAsync(get(ENTITY_API_URL + "?size=2&sort=price,desc&estimateTotal=true"))
+            .andExpect(status().isOk())
+            .andExpect(header().string("X-Total-Count", "3"))
+            .andExpect(header().string(HttpHeaders.LINK, containsString("rel=\"next\"")))
+            .andExpect(jsonPath("$.[*].price").value(contains(2, 1)))
+            .andReturn();
+        String link = first.getResponse().getHeader(HttpHeaders.LINK);
+        String next = link.substring(link.indexOf('<') + 1, link.indexOf('>'));
+
+        performAsync(get(next))
+            .andExpect(status().isOk())
+            .andExpect(header().doesNotExist(HttpHeaders.LINK))
+            .andExpect(jsonPath("$.[*].price").value(contains(0)));
+    }
+
+    @Test
+    void getAllPcsWithInvalidCursor() throws Exception {
+        restPcMockMvc.perform(get(ENTITY_API_URL + "?cursor=invalid")).andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void streamAllPcs() throws Exception {
+        pcRepository.save(pc);
+        pcRepository.save(PcResourceIT.createUpdatedEntity());
+
+        MvcResult result = restPcMockMvc
+            .perform(get(ENTITY_API_URL + "?stream=true&fields=make"))
+            .andExpect(request().asyncStarted())
+            .andReturn();
+        result.getAsyncResult(10_000);
+
+        assertThat(result.getResponse().getContentType()).startsWith(MediaType.APPLICATION_JSON_VALUE);
+        List<String> makes = JsonPath.read(result.getResponse().getContentAsString(), "$.[*].make");
+        assertThat(makes).containsExactlyInAnyOrder(pc.getMake(), PcResourceIT.createUpdatedEntity().getMake());
+        List<Object> models = JsonPath.read(result.getResponse().getContentAsString(), "$.[*].model");
+        assertThat(models).isEmpty();
+    }
+
+    @Test
+    void streamAllPcsAsSmile() throws Exception {
+        // more pcs than a cursor batch, so that the array spans several chunks
+        List<Pc> pcs = new ArrayList<>();
+        for (int i = 0; i < 501; i++) {
+            pcs.add(PcResourceIT.createEntity().price(i));
+        }
+        pcRepository.saveAll(pcs);
+
+        MvcResult result = restPcMockMvc
+            .perform(get(ENTITY_API_URL + "?stream=true").header(HttpHeaders.ACCEPT, "application/json;q=0.5, application/x-jackson-smile"))
+            .andExpect(request().asyncStarted())
+            .andReturn();
+        result.getAsyncResult(10_000);
+
+        assertThat(result.getResponse().getContentType()).isEqualTo(PcResource.APPLICATION_SMILE_VALUE);
+        JsonNode streamed = new SmileMapper().readTree(result.getResponse().getContentAsByteArray());
+        assertThat(streamed).hasSize(501);
+        assertThat(streamed.findValuesAsText("make")).containsOnly(pc.getMake());
+    }
+
+    @Test
+    void partialUpdatePcAsCbor() throws Exception {
+        pcRepository.save(pc);
+        ObjectMapper cborMapper = new CBORMapper();
+
+        byte[] body = performAsync(
+            patch(ENTITY_API_URL_ID, pc.getId())
+                .contentType(MediaType.APPLICATION_CBOR)
+                .accept(MediaType.APPLICATION_CBOR)
+                .content(cborMapper.writeValueAsBytes(new Pc().id(pc.getId()).price(42)))
+        )
+            .andExpect(status().isOk())
+            .andExpect(content().contentType(MediaType.APPLICATION_CBOR_VALUE))
+            .andReturn()
+            .getResponse()
+            .getContentAsByteArray();
+
+        assertThat(cborMapper.readTree(body).get("price").asInt()).isEqualTo(42);
+        assertThat(pcRepository.findById(pc.getId())).hasValueSatisfying(testPc -> assertThat(testPc.getPrice()).isEqualTo(42));
+    }
+
+    @Test
+    void streamAllPcsAsNdjson() throws Exception {
+        pcRepository.save(pc);
+        pcRepository.save(PcResourceIT.createUpdatedEntity());
+
+        MvcResult result = restPcMockMvc
+            .perform(get(ENTITY_API_URL).accept(MediaType.APPLICATION_NDJSON))
+            .andExpect(request().asyncStarted())
+            .andReturn();
+        result.getAsyncResult(10_000);
+
+        String[] lines = result.getResponse().getContentAsString().split("\n");
+        assertThat(lines).hasSize(2);
+        assertThat((String) JsonPath.read(lines[0], "$.id")).isNotNull();
+    }
+
+    @Test
+    void putExistingPcWithStaleIfMatch() throws Exception {
+        pcRepository.save(pc);
+        Pc updatedPc = PcResourceIT.createUpdatedEntity().id(pc.getId());
+
+        performAsync(
+            put(ENTITY_API_URL_ID, pc.getId())
+                .header(HttpHeaders.IF_MATCH, "\"0\"")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(TestUtil.convertObjectToJsonBytes(updatedPc))
+        )
+            .andExpect(status().isOk())
+            .andExpect(header().string(HttpHeaders.ETAG, "\"1\""))
+            .andExpect(jsonPath("$.make").value(updatedPc.getMake()));
+
+        performAsync(
+            put(ENTITY_API_URL_ID, pc.getId())
+                .header(HttpHeaders.IF_MATCH, "\"0\"")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(TestUtil.convertObjectToJsonBytes(updatedPc))
+        )
+            .andExpect(status().isPreconditionFailed())
+            .andExpect(jsonPath("$.message").value("error.versionmismatch"));
+    }
+
+    @Test
+    void patchNonExistingPc() throws Exception {
+        Pc unknown = PcResourceIT.createUpdatedEntity().id("unknown");
+
+        performAsync(
+            patch(ENTITY_API_URL_ID, unknown.getId())
+                .contentType("application/merge-patch+json")
+                .content(TestUtil.convertObjectToJsonBytes(unknown))
+        )
+            .andExpect(status().isBadRequest())
+            .andExpect(jsonPath("$.message").value("error.idnotfound"));
+    }
+
+    @Test
+    void getPcStats() throws Exception {
+        performAsync(post(ENTITY_API_URL).contentType(MediaType.APPLICATION_JSON).content(TestUtil.convertObjectToJsonBytes(pc)))
+            .andExpect(status().isCreated());
+
+        performAsync(get(ENTITY_API_URL + "/stats"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.[*].make").value(hasItem(pc.getMake())));
+    }
+
+    @Test
+    void searchPcsByRelevancePages() throws Exception {
+        Pc carbon = pcRepository.save(new Pc().make("Lenovo").model("ThinkPad X1 Carbon").price(1));
+        Pc t14 = pcRepository.save(new Pc().make("Lenovo").model("ThinkPad T14").price(2));
+        pcRepository.save(new Pc().make("Dell").model("XPS 13").price(3));
+
+        MvcResult firstPage = performAsync(get(ENTITY_API_URL + "/_search?q=thinkpad x1 carbon&size=1"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.length()").value(1))
+            .andExpect(jsonPath("$.[0].id").value(carbon.getId()))
+            .andExpect(header().string(HttpHeaders.LINK, containsString("rel=\"next\"")))
+            .andReturn();
+
+        String link = firstPage.getResponse().getHeader(HttpHeaders.LINK);
+        performAsync(get(link.substring(link.indexOf('<') + 1, link.indexOf('>'))))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.length()").value(1))
+            .andExpect(jsonPath("$.[0].id").value(t14.getId()))
+            .andExpect(header().doesNotExist(HttpHeaders.LINK));
+
+        restPcMockMvc.perform(get(ENTITY_API_URL + "/_search?q= ")).andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void getPcSuggestions() throws Exception {
+        pcSuggestService.rebuild();
+        performAsync(
+            post(ENTITY_API_URL).contentType(MediaType.APPLICATION_JSON).content(TestUtil.convertObjectToJsonBytes(pc.model("Latitude")))
+        )
+            .andExpect(status().isCreated());
+
+        restPcMockMvc
+            .perform(get(ENTITY_API_URL + "/_suggest?prefix=la"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.length()").value(1))
+            .andExpect(jsonPath("$.[0].field").value(PcSuggestService.MODEL))
+            .andExpect(jsonPath("$.[0].value").value("Latitude"))
+            .andExpect(jsonPath("$.[0].count").value(1));
+        restPcMockMvc.perform(get(ENTITY_API_URL + "/_suggest?prefix=la&size=0")).andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void deletePc() throws Exception {
+        pcRepository.save(pc);
+
+        performAsync(delete(ENTITY_API_URL_ID, pc.getId()).accept(MediaType.APPLICATION_JSON)).andExpect(status().isNoContent());
+
+        assertThat(pcRepository.findAll()).isEmpty();
+    }
+}
@@ -1,22 +1,42 @@
 package com.flash.app.web.rest;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.containsString;
 import static org.hamcrest.Matchers.hasItem;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
+import com.fasterxml.jackson.dataformat.smile.databind.SmileMapper;
 import com.flash.app.IntegrationTest;
 import com.flash.app.domain.Pc;
 import com.flash.app.repository.PcRepository;
+import com.flash.app.service.PcStatsService;
+import com.flash.app.service.PcSuggestService;
+import com.flash.app.service.dto.PcBulkOperationDTO;
+import com.flash.app.service.dto.PcMakeStatsDTO;
+import com.flash.app.service.dto.PcPatchOperationDTO;
+import com.flash.app.service.dto.PcSuggestionDTO;
+import com.jayway.jsonpath.JsonPath;
+import com.mongodb.client.MongoCollection;
+import java.util.Collections;
 import java.util.List;
 import java.util.UUID;
+import org.bson.Document;
+import org.bson.types.ObjectId;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.cache.CacheManager;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.security.test.context.support.WithMockUser;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 
 /**
  * Integration tests for the {@link PcResource} REST controller.
@@ -41,6 +61,18 @@ class PcResourceIT {
     @Autowired
     private PcRepository pcRepository;
 
+    @Autowired
+    private PcStatsService pcStatsService;
+
+    @Autowired
+    private PcSuggestService pcSuggestService;
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Autowired
+    private CacheManager cacheManager;
+
     @Autowired
     private MockMvc restPcMockMvc;
 
@@ -71,6 +103,7 @@ class PcResourceIT {
     @BeforeEach
     public void initTest() {
         pcRepository.deleteAll();
+        cacheManager.getCache(PcRepository.PCS_BY_ID_CACHE).clear();
         pc = createEntity();
     }
 
@@ -108,6 +141,102 @@ class PcResourceIT {
         assertThat(pcList).hasSize(databaseSizeBeforeCreate);
     }
 
+    @Test
+    void ingestPc() throws Exception {
+        MvcResult result = restPcMockMvc
+            .perform(
+                post(ENTITY_API_URL)
+                    .param("mode", "async")
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(TestUtil.convertObjectToJsonBytes(pc))
+            )
+            .andExpect(status().isAccepted())
+            .andExpect(header().exists(HttpHeaders.LOCATION))
+            .andExpect(jsonPath("$.id").isNotEmpty())
+            .andReturn();
+        String id = JsonPath.read(result.getResponse().getContentAsString(), "$.id");
+
+        // the pc is inserted by the background writer
+        for (int attempt = 0; attempt < 100 && !pcRepository.existsById(id); attempt++) {
+            Thread.sleep(50);
+        }
+        Pc testPc = pcRepository.findById(id).orElseThrow();
+        assertThat(testPc.getMake()).isEqualTo(DEFAULT_MAKE);
+        assertThat(testPc.getVersion()).isZero();
+    }
+
+    @Test
+    void bulkPcs() throws Exception {
+        // Initialize the database
+        pcRepository.save(pc);
+        Pc replacement = createUpdatedEntity().id(pc.getId());
+        Pc upserted = createUpdatedEntity().id(new ObjectId().toHexString());
+        Pc unknown = createUpdatedEntity().id(new ObjectId().toHexString());
+
+        List<PcBulkOperationDTO> operations = List.of(
+            new PcBulkOperationDTO(PcBulkOperationDTO.Action.CREATE, createEntity()),
+            new PcBulkOperationDTO(PcBulkOperationDTO.Action.REPLACE, replacement),
+            new PcBulkOperationDTO(PcBulkOperationDTO.Action.UPSERT, upserted),
+            new PcBulkOperationDTO(PcBulkOperationDTO.Action.REPLACE, unknown),
+            new PcBulkOperationDTO(PcBulkOperationDTO.Action.CREATE, createEntity().id("existing_id")),
+            new PcBulkOperationDTO(PcBulkOperationDTO.Action.UPSERT, createEntity())
+        );
+
+        restPcMockMvc
+            .perform(
+                post(ENTITY_API_URL + "/_bulk").contentType(MediaType.APPLICATION_JSON).content(TestUtil.convertObjectToJsonBytes(operations))
+            )
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.length()").value(6))
+            .andExpect(jsonPath("$.[0].status").value(201))
+            .andExpect(jsonPath("$.[0].id").isNotEmpty())
+            .andExpect(jsonPath("$.[1].status").value(200))
+            .andExpect(jsonPath("$.[1].id").value(pc.getId()))
+            .andExpect(jsonPath("$.[2].status").value(201))
+            .andExpect(jsonPath("$.[2].id").value(upserted.getId()))
+            .andExpect(jsonPath("$.[3].status").value(400))
+            .andExpect(jsonPath("$.[3].errorKey").value("idnotfound"))
+            .andExpect(jsonPath("$.[4].status").value(400))
+            .andExpect(jsonPath("$.[4].errorKey").value("idexists"))
+            .andExpect(jsonPath("$.[5].status").value(400))
+            .andExpect(jsonPath("$.[5].errorKey").value("idnull"));
+
+        // Validate the Pcs in the database
+        assertThat(pcRepository.findAll()).hasSize(3);
+        assertThat(pcRepository.findById(pc.getId())).get().extracting(Pc::getMake).isEqualTo(UPDATED_MAKE);
+        assertThat(pcRepository.findById(pc.getId())).get().extracting(Pc::getVersion).isEqualTo(1L);
+        // created by the upsert with the version of any other creation
+        assertThat(pcRepository.findById(upserted.getId())).get().extracting(Pc::getVersion).isEqualTo(0L);
+        assertThat(pcRepository.findById(unknown.getId())).isEmpty();
+
+        // upserted again, it is updated to the next version
+        restPcMockMvc
+            .perform(
+                post(ENTITY_API_URL + "/_bulk")
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(TestUtil.convertObjectToJsonBytes(List.of(new PcBulkOperationDTO(PcBulkOperationDTO.Action.UPSERT, upserted))))
+            )
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.[0].status").value(200));
+        assertThat(pcRepository.findById(upserted.getId())).get().extracting(Pc::getVersion).isEqualTo(1L);
+    }
+
+    @Test
+    void bulkPcsWithTooManyOperations() throws Exception {
+        List<PcBulkOperationDTO> operations = Collections.nCopies(
+            10001,
+            new PcBulkOperationDTO(PcBulkOperationDTO.Action.CREATE, createEntity())
+        );
+
+        restPcMockMvc
+            .perform(
+                post(ENTITY_API_URL + "/_bulk").contentType(MediaType.APPLICATION_JSON).content(TestUtil.convertObjectToJsonBytes(operations))
+            )
+            .andExpect(status().isBadRequest());
+
+        assertThat(pcRepository.findAll()).isEmpty();
+    }
+
     @Test
     void getAllPcs() throws Exception {
         // Initialize the database
@@ -124,6 +253,289 @@ class PcResourceIT {
             .andExpect(jsonPath("$.[*].price").value(hasItem(DEFAULT_PRICE)));
     }
 
+    @Test
+    void getAllPcsByKeysetPages() throws Exception {
+        // Initialize the database
+        Pc cheap = pcRepository.save(createEntity().price(1));
+        Pc middle = pcRepository.save(createEntity().price(2));
+        Pc expensive = pcRepository.save(createEntity().price(3));
+
+        // Get the first page, ordered by price
+        MvcResult firstPage = restPcMockMvc
+            .perform(get(ENTITY_API_URL + "?size=2&sort=price,desc&estimateTotal=true"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.length()").value(2))
+            .andExpect(jsonPath("$.[0].id").value(expensive.getId()))
+            .andExpect(jsonPath("$.[1].id").value(middle.getId()))
+            .andExpect(header().string("X-Total-Count", "3"))
+            .andExpect(header().string(HttpHeaders.LINK, containsString("rel=\"next\"")))
+            .andReturn();
+
+        // Follow the next link
+        String link = firstPage.getResponse().getHeader(HttpHeaders.LINK);
+        String next = link.substring(link.indexOf('<') + 1, link.indexOf('>'));
+        restPcMockMvc
+            .perform(get(next))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.length()").value(1))
+            .andExpect(jsonPath("$.[0].id").value(cheap.getId()))
+            .andExpect(header().doesNotExist(HttpHeaders.LINK));
+    }
+
+    @Test
+    void searchPcsByRelevancePages() throws Exception {
+        // Initialize the database
+        Pc carbon = pcRepository.save(new Pc().make("Lenovo").model("ThinkPad X1 Carbon").price(1));
+        Pc t14 = pcRepository.save(new Pc().make("Lenovo").model("ThinkPad T14").price(2));
+        pcRepository.save(new Pc().make("Dell").model("XPS 13").price(3));
+
+        // Get the first page, the pc matching the most words first
+        MvcResult firstPage = restPcMockMvc
+            .perform(get(ENTITY_API_URL + "/_search?q=thinkpad x1 carbon&size=1"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.length()").value(1))
+            .andExpect(jsonPath("$.[0].id").value(carbon.getId()))
+            .andExpect(header().string(HttpHeaders.LINK, containsString("rel=\"next\"")))
+            .andReturn();
+
+        // Follow the next link
+        String link = firstPage.getResponse().getHeader(HttpHeaders.LINK);
+        String next = link.substring(link.indexOf('<') + 1, link.indexOf('>'));
+        restPcMockMvc
+            .perform(get(next))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.length()").value(1))
+            .andExpect(jsonPath("$.[0].id").value(t14.getId()))
+            .andExpect(header().doesNotExist(HttpHeaders.LINK));
+
+        restPcMockMvc.perform(get(ENTITY_API_URL + "/_search?q= ")).andExpect(status().isBadRequest());
+        restPcMockMvc.perform(get(ENTITY_API_URL + "/_search?q=thinkpad&size=101")).andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void getAllPcsByFilterPages() throws Exception {
+        // Initialize the database
+        Pc cheap = pcRepository.save(createEntity().price(10));
+        Pc middle = pcRepository.save(createEntity().price(20));
+        Pc expensive = pcRepository.save(createEntity().price(30));
+        pcRepository.save(createEntity().price(25).model(UPDATED_MODEL));
+        pcRepository.save(createUpdatedEntity().price(15));
+
+        // Get the first page of the default make and model, within a price range
+        MvcResult firstPage = restPcMockMvc
+            .perform(
+                get(
+                    ENTITY_API_URL +
+                    "?make=" +
+                    DEFAULT_MAKE +
+                    "&model=" +
+                    DEFAULT_MODEL +
+                    "&priceMin=10&priceMax=25&size=1&sort=price,asc&estimateTotal=true"
+                )
+            )
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.length()").value(1))
+            .andExpect(jsonPath("$.[0].id").value(cheap.getId()))
+            .andExpect(header().string("X-Total-Count", "2"))
+            .andReturn();
+
+        // Follow the next link, which keeps the filters
+        String link = firstPage.getResponse().getHeader(HttpHeaders.LINK);
+        String next = link.substring(link.indexOf('<') + 1, link.indexOf('>'));
+        assertThat(next).contains("make=" + DEFAULT_MAKE).contains("priceMax=25");
+        restPcMockMvc
+            .perform(get(next))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.length()").value(1))
+            .andExpect(jsonPath("$.[0].id").value(middle.getId()))
+            .andExpect(header().doesNotExist(HttpHeaders.LINK));
+
+        // Filter by make only, ordered by price descending
+        restPcMockMvc
+            .perform(get(ENTITY_API_URL + "?make=" + DEFAULT_MAKE + "&priceMin=20&sort=price,desc"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.length()").value(3))
+            .andExpect(jsonPath("$.[0].id").value(expensive.getId()))
+            .andExpect(jsonPath("$.[2].id").value(middle.getId()));
+    }
+
+    @Test
+    void getAllPcsWithFields() throws Exception {
+        // Initialize the database
+        Pc cheap = pcRepository.save(createEntity().price(1));
+        Pc expensive = pcRepository.save(createEntity().price(2));
+
+        // Get the first page with only the prices
+        MvcResult firstPage = restPcMockMvc
+            .perform(get(ENTITY_API_URL + "?size=1&sort=price,desc&fields=price"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.[0].id").value(expensive.getId()))
+            .andExpect(jsonPath("$.[0].price").value(2))
+            .andExpect(jsonPath("$.[0].make").doesNotExist())
+            .andExpect(jsonPath("$.[0].version").doesNotExist())
+            .andExpect(header().exists(HttpHeaders.ETAG))
+            .andReturn();
+
+        // Follow the next link, which keeps the fields
+        String link = firstPage.getResponse().getHeader(HttpHeaders.LINK);
+        String next = link.substring(link.indexOf('<') + 1, link.indexOf('>'));
+        restPcMockMvc
+            .perform(get(next))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.[0].id").value(cheap.getId()))
+            .andExpect(jsonPath("$.[0].price").value(1))
+            .andExpect(jsonPath("$.[0].model").doesNotExist());
+    }
+
+    @Test
+    void getPcWithFields() throws Exception {
+        // Initialize the database
+        pcRepository.save(pc);
+
+        restPcMockMvc
+            .perform(get(ENTITY_API_URL_ID + "?fields=make,version", pc.getId()))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.id").value(pc.getId()))
+            .andExpect(jsonPath("$.make").value(DEFAULT_MAKE))
+            .andExpect(jsonPath("$.version").value(0))
+            .andExpect(jsonPath("$.model").doesNotExist())
+            .andExpect(jsonPath("$.price").doesNotExist());
+
+        // The whole pc is still returned without fields
+        restPcMockMvc
+            .perform(get(ENTITY_API_URL_ID, pc.getId()))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.model").value(DEFAULT_MODEL))
+            .andExpect(jsonPath("$.price").value(DEFAULT_PRICE));
+    }
+
+    @Test
+    void getAllPcsWithInvalidFields() throws Exception {
+        restPcMockMvc.perform(get(ENTITY_API_URL + "?fields=id,secret")).andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void getAllPcsWithInvalidCursor() throws Exception {
+        restPcMockMvc.perform(get(ENTITY_API_URL + "?cursor=invalid")).andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void getAllPcsWithInvalidSort() throws Exception {
+        restPcMockMvc.perform(get(ENTITY_API_URL + "?sort=make,asc")).andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void getAllPcsWithInvalidSize() throws Exception {
+        restPcMockMvc.perform(get(ENTITY_API_URL + "?size=0")).andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void streamAllPcs() throws Exception {
+        // Initialize the database
+        pcRepository.save(pc);
+        pcRepository.save(createUpdatedEntity());
+
+        // Stream all the pcs as a JSON array
+        restPcMockMvc
+            .perform(get(ENTITY_API_URL + "?stream=true"))
+            .andExpect(status().isOk())
+            .andExpect(content().contentType(MediaType.APPLICATION_JSON_VALUE))
+            .andExpect(jsonPath("$.length()").value(2))
+            .andExpect(jsonPath("$.[*].id").value(hasItem(pc.getId())))
+            .andExpect(jsonPath("$.[*].make").value(hasItem(UPDATED_MAKE)));
+
+        // Stream only the prices
+        restPcMockMvc
+            .perform(get(ENTITY_API_URL + "?stream=true&fields=price"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.length()").value(2))
+            .andExpect(jsonPath("$.[*].price").value(hasItem(DEFAULT_PRICE)))
+            .andExpect(jsonPath("$.[0].make").doesNotExist());
+    }
+
+    @Test
+    void streamAllPcsAsNdjson() throws Exception {
+        // Initialize the database
+        pcRepository.save(pc);
+        pcRepository.save(createUpdatedEntity());
+
+        // Stream all the pcs, one JSON document per line
+        String body = restPcMockMvc
+            .perform(get(ENTITY_API_URL).accept(MediaType.APPLICATION_NDJSON))
+            .andExpect(status().isOk())
+            .andExpect(content().contentType(MediaType.APPLICATION_NDJSON_VALUE))
+            .andReturn()
+            .getResponse()
+            .getContentAsString();
+
+        String[] lines = body.split("\n");
+        assertThat(lines).hasSize(2).allMatch(line -> line.startsWith("{") && line.endsWith("}"));
+        assertThat(lines).anyMatch(line -> line.contains("\"id\":\"" + pc.getId() + "\""));
+        assertThat(lines).anyMatch(line -> line.contains("\"make\":\"" + UPDATED_MAKE + "\""));
+    }
+
+    @Test
+    void bulkPcsAsSmileAndGetPcAsCbor() throws Exception {
+        ObjectMapper smileMapper = new SmileMapper();
+        List<PcBulkOperationDTO> operations = List.of(new PcBulkOperationDTO(PcBulkOperationDTO.Action.CREATE, createEntity()));
+
+        // Write the pcs in Smile, which the results come back in
+        byte[] results = restPcMockMvc
+            .perform(
+                post(ENTITY_API_URL + "/_bulk")
+                    .contentType(PcResource.APPLICATION_SMILE)
+                    .accept(PcResource.APPLICATION_SMILE)
+                    .content(smileMapper.writeValueAsBytes(operations))
+            )
+            .andExpect(status().isOk())
+            .andExpect(content().contentType(PcResource.APPLICATION_SMILE_VALUE))
+            .andReturn()
+            .getResponse()
+            .getContentAsByteArray();
+        JsonNode result = smileMapper.readTree(results).get(0);
+        assertThat(result.get("status").asInt()).isEqualTo(201);
+
+        // Read the pc back in CBOR, with a sparse fieldset
+        byte[] body = restPcMockMvc
+            .perform(get(ENTITY_API_URL_ID + "?fields=make,price", result.get("id").asText()).accept(MediaType.APPLICATION_CBOR))
+            .andExpect(status().isOk())
+            .andExpect(content().contentType(MediaType.APPLICATION_CBOR_VALUE))
+            .andReturn()
+            .getResponse()
+            .getContentAsByteArray();
+        JsonNode read = new CBORMapper().readTree(body);
+        assertThat(read.get("make").asText()).isEqualTo(DEFAULT_MAKE);
+        assertThat(read.get("price").asInt()).isEqualTo(DEFAULT_PRICE);
+        assertThat(read.has("model")).isFalse();
+
+        // JSON stays the format of clients accepting anything
+        restPcMockMvc
+            .perform(get(ENTITY_API_URL_ID, result.get("id").asText()).accept(MediaType.ALL))
+            .andExpect(status().isOk())
+            .andExpect(content().contentType(MediaType.APPLICATION_JSON_VALUE));
+    }
+
+    @Test
+    void streamAllPcsAsSmile() throws Exception {
+        // Initialize the database
+        pcRepository.save(pc);
+        pcRepository.save(createUpdatedEntity());
+
+        // Stream all the pcs as a Smile array, preferred over JSON
+        byte[] body = restPcMockMvc
+            .perform(get(ENTITY_API_URL + "?stream=true").header(HttpHeaders.ACCEPT, "application/json;q=0.5, application/x-jackson-smile"))
+            .andExpect(status().isOk())
+            .andExpect(content().contentType(PcResource.APPLICATION_SMILE_VALUE))
+            .andReturn()
+            .getResponse()
+            .getContentAsByteArray();
+
+        JsonNode pcs = new SmileMapper().readTree(body);
+        assertThat(pcs).hasSize(2);
+        assertThat(pcs.findValuesAsText("id")).contains(pc.getId());
+        assertThat(pcs.findValuesAsText("make")).contains(UPDATED_MAKE);
+    }
+
     @Test
     void getPc() throws Exception {
         // Initialize the database
@@ -140,6 +552,39 @@ class PcResourceIT {
             .andExpect(jsonPath("$.price").value(DEFAULT_PRICE));
     }
 
+    @Test
+    void getPcAfterUpdate() throws Exception {
+        // Initialize the database
+        pcRepository.save(pc);
+
+        // Warm the cache
+        restPcMockMvc.perform(get(ENTITY_API_URL_ID, pc.getId())).andExpect(status().isOk());
+        assertThat(cacheManager.getCache(PcRepository.PCS_BY_ID_CACHE).get(pc.getId())).isNotNull();
+
+        // Update the pc
+        Pc updatedPc = new Pc().make(UPDATED_MAKE).model(UPDATED_MODEL).price(UPDATED_PRICE);
+        updatedPc.setId(pc.getId());
+        restPcMockMvc
+            .perform(
+                put(ENTITY_API_URL_ID, updatedPc.getId())
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(TestUtil.convertObjectToJsonBytes(updatedPc))
+            )
+            .andExpect(status().isOk());
+
+        // Get the pc, which must not be served stale from the cache
+        restPcMockMvc
+            .perform(get(ENTITY_API_URL_ID, pc.getId()))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.make").value(UPDATED_MAKE))
+            .andExpect(jsonPath("$.model").value(UPDATED_MODEL))
+            .andExpect(jsonPath("$.price").value(UPDATED_PRICE));
+
+        // Delete the pc, which must not be served from the cache either
+        restPcMockMvc.perform(delete(ENTITY_API_URL_ID, pc.getId())).andExpect(status().isNoContent());
+        restPcMockMvc.perform(get(ENTITY_API_URL_ID, pc.getId())).andExpect(status().isNotFound());
+    }
+
     @Test
     void getNonExistingPc() throws Exception {
         // Get the pc
@@ -174,6 +619,132 @@ class PcResourceIT {
         assertThat(testPc.getPrice()).isEqualTo(UPDATED_PRICE);
     }
 
+    @Test
+    void getPcWithIfNoneMatch() throws Exception {
+        // Initialize the database
+        pcRepository.save(pc);
+
+        String eTag = restPcMockMvc
+            .perform(get(ENTITY_API_URL_ID, pc.getId()))
+            .andExpect(status().isOk())
+            .andExpect(header().string(HttpHeaders.ETAG, "\"0\""))
+            .andExpect(jsonPath("$.version").value(0))
+            .andReturn()
+            .getResponse()
+            .getHeader(HttpHeaders.ETAG);
+
+        restPcMockMvc
+            .perform(get(ENTITY_API_URL_ID, pc.getId()).header(HttpHeaders.IF_NONE_MATCH, eTag))
+            .andExpect(status().isNotModified())
+            .andExpect(content().string(""));
+
+        // Update the pc, which changes its ETag
+        restPcMockMvc
+            .perform(
+                patch(ENTITY_API_URL_ID, pc.getId())
+                    .contentType("application/json-patch+json")
+                    .content(TestUtil.convertObjectToJsonBytes(List.of(new PcPatchOperationDTO("inc", "/price", 1))))
+            )
+            .andExpect(status().isOk())
+            .andExpect(header().string(HttpHeaders.ETAG, "\"1\""));
+
+        restPcMockMvc
+            .perform(get(ENTITY_API_URL_ID, pc.getId()).header(HttpHeaders.IF_NONE_MATCH, eTag))
+            .andExpect(status().isOk())
+            .andExpect(header().string(HttpHeaders.ETAG, "\"1\""));
+    }
+
+    @Test
+    void getAllPcsWithIfNoneMatch() throws Exception {
+        // Initialize the database
+        pcRepository.save(pc);
+
+        String eTag = restPcMockMvc
+            .perform(get(ENTITY_API_URL))
+            .andExpect(status().isOk())
+            .andExpect(header().exists(HttpHeaders.ETAG))
+            .andReturn()
+            .getResponse()
+            .getHeader(HttpHeaders.ETAG);
+
+        restPcMockMvc.perform(get(ENTITY_API_URL).header(HttpHeaders.IF_NONE_MATCH, eTag)).andExpect(status().isNotModified());
+
+        // Add a pc, which changes the page
+        pcRepository.save(createEntity());
+
+        restPcMockMvc
+            .perform(get(ENTITY_API_URL).header(HttpHeaders.IF_NONE_MATCH, eTag))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.length()").value(2));
+    }
+
+    @Test
+    void putExistingPcWithIfMatch() throws Exception {
+        // Initialize the database
+        pcRepository.save(pc);
+
+        Pc updatedPc = new Pc().make(UPDATED_MAKE).model(UPDATED_MODEL).price(UPDATED_PRICE);
+        updatedPc.setId(pc.getId());
+
+        restPcMockMvc
+            .perform(
+                put(ENTITY_API_URL_ID, updatedPc.getId())
+                    .header(HttpHeaders.IF_MATCH, "\"0\"")
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(TestUtil.convertObjectToJsonBytes(updatedPc))
+            )
+            .andExpect(status().isOk())
+            .andExpect(header().string(HttpHeaders.ETAG, "\"1\""))
+            .andExpect(jsonPath("$.version").value(1));
+
+        // The same conditional update is now a conflict
+        restPcMockMvc
+            .perform(
+                put(ENTITY_API_URL_ID, updatedPc.getId())
+                    .header(HttpHeaders.IF_MATCH, "\"0\"")
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(TestUtil.convertObjectToJsonBytes(updatedPc.make(DEFAULT_MAKE)))
+            )
+            .andExpect(status().isPreconditionFailed());
+
+        // Validate the Pc in the database kept the first update
+        Pc testPc = pcRepository.findById(pc.getId()).get();
+        assertThat(testPc.getMake()).isEqualTo(UPDATED_MAKE);
+        assertThat(testPc.getVersion()).isEqualTo(1L);
+    }
+
+    @Test
+    void patchPcWithStaleIfMatch() throws Exception {
+        // Initialize the database
+        pcRepository.save(pc);
+
+        restPcMockMvc
+            .perform(
+                patch(ENTITY_API_URL_ID, pc.getId())
+                    .header(HttpHeaders.IF_MATCH, "\"3\"")
+                    .contentType("application/json-patch+json")
+                    .content(TestUtil.convertObjectToJsonBytes(List.of(new PcPatchOperationDTO("inc", "/price", 1))))
+            )
+            .andExpect(status().isPreconditionFailed());
+
+        Pc partialUpdatedPc = new Pc().make(UPDATED_MAKE);
+        partialUpdatedPc.setId(pc.getId());
+        restPcMockMvc
+            .perform(
+                patch(ENTITY_API_URL_ID, pc.getId())
+                    .header(HttpHeaders.IF_MATCH, "W/\"0\"")
+                    .contentType("application/merge-patch+json")
+                    .content(TestUtil.convertObjectToJsonBytes(partialUpdatedPc))
+            )
+            .andExpect(status().isPreconditionFailed());
+
+        // Validate the Pc in the database is unchanged
+        Pc testPc = pcRepository.findById(pc.getId()).get();
+        assertThat(testPc.getMake()).isEqualTo(DEFAULT_MAKE);
+        assertThat(testPc.getPrice()).isEqualTo(DEFAULT_PRICE);
+        assertThat(testPc.getVersion()).isZero();
+    }
+
     @Test
     void putNonExistingPc() throws Exception {
         int databaseSizeBeforeUpdate = pcRepository.findAll().size();
@@ -285,6 +856,68 @@ class PcResourceIT {
         assertThat(testPc.getPrice()).isEqualTo(UPDATED_PRICE);
     }
 
+    @Test
+    void patchPcWithJsonPatch() throws Exception {
+        // Initialize the database
+        pcRepository.save(pc);
+
+        List<PcPatchOperationDTO> operations = List.of(
+            new PcPatchOperationDTO("replace", "/make", UPDATED_MAKE),
+            new PcPatchOperationDTO("remove", "/model", null),
+            new PcPatchOperationDTO("inc", "/price", 10)
+        );
+
+        restPcMockMvc
+            .perform(
+                patch(ENTITY_API_URL_ID, pc.getId())
+                    .contentType("application/json-patch+json")
+                    .content(TestUtil.convertObjectToJsonBytes(operations))
+            )
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.make").value(UPDATED_MAKE))
+            .andExpect(jsonPath("$.price").value(DEFAULT_PRICE + 10));
+
+        // Validate the Pc in the database
+        Pc testPc = pcRepository.findById(pc.getId()).get();
+        assertThat(testPc.getMake()).isEqualTo(UPDATED_MAKE);
+        assertThat(testPc.getModel()).isNull();
+        assertThat(testPc.getPrice()).isEqualTo(DEFAULT_PRICE + 10);
+    }
+
+    @Test
+    void patchPcWithInvalidJsonPatch() throws Exception {
+        // Initialize the database
+        pcRepository.save(pc);
+
+        List<PcPatchOperationDTO> operations = List.of(new PcPatchOperationDTO("inc", "/make", 1));
+
+        restPcMockMvc
+            .perform(
+                patch(ENTITY_API_URL_ID, pc.getId())
+                    .contentType("application/json-patch+json")
+                    .content(TestUtil.convertObjectToJsonBytes(operations))
+            )
+            .andExpect(status().isBadRequest());
+
+        // Validate the Pc in the database is unchanged
+        assertThat(pcRepository.findById(pc.getId()).get().getMake()).isEqualTo(DEFAULT_MAKE);
+    }
+
+    @Test
+    void patchNonExistingPcWithJsonPatch() throws Exception {
+        List<PcPatchOperationDTO> operations = List.of(new PcPatchOperationDTO("inc", "/price", 1));
+
+        restPcMockMvc
+            .perform(
+                patch(ENTITY_API_URL_ID, new ObjectId().toHexString())
+                    .contentType("application/json-patch+json")
+                    .content(TestUtil.convertObjectToJsonBytes(operations))
+            )
+            .andExpect(status().isBadRequest());
+
+        assertThat(pcRepository.findAll()).isEmpty();
+    }
+
     @Test
     void patchNonExistingPc() throws Exception {
         int databaseSizeBeforeUpdate = pcRepository.findAll().size();
@@ -338,6 +971,143 @@ class PcResourceIT {
         assertThat(pcList).hasSize(databaseSizeBeforeUpdate);
     }
 
+    @Test
+    void getPcStatsMaintainedByWrites() throws Exception {
+        mongoTemplate.dropCollection("pc_make_stats");
+        Pc cheap = createPcThroughApi(createEntity().price(10));
+        Pc expensive = createPcThroughApi(createEntity().price(30));
+        createPcThroughApi(createUpdatedEntity().price(20));
+
+        restPcMockMvc
+            .perform(get(ENTITY_API_URL + "/stats"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.length()").value(2))
+            .andExpect(jsonPath("$.[0].make").value(DEFAULT_MAKE))
+            .andExpect(jsonPath("$.[0].count").value(2))
+            .andExpect(jsonPath("$.[0].minPrice").value(10))
+            .andExpect(jsonPath("$.[0].maxPrice").value(30))
+            .andExpect(jsonPath("$.[0].averagePrice").value(20.0))
+            .andExpect(jsonPath("$.[1].make").value(UPDATED_MAKE))
+            .andExpect(jsonPath("$.[1].count").value(1));
+
+        // Raise the minimum price above the others, then delete the maximum
+        restPcMockMvc
+            .perform(
+                patch(ENTITY_API_URL_ID, cheap.getId())
+                    .contentType("application/json-patch+json")
+                    .content(TestUtil.convertObjectToJsonBytes(List.of(new PcPatchOperationDTO("inc", "/price", 30))))
+            )
+            .andExpect(status().isOk());
+        restPcMockMvc.perform(delete(ENTITY_API_URL_ID, expensive.getId())).andExpect(status().isNoContent());
+
+        restPcMockMvc
+            .perform(get(ENTITY_API_URL + "/stats"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.[0].count").value(1))
+            .andExpect(jsonPath("$.[0].minPrice").value(40))
+            .andExpect(jsonPath("$.[0].maxPrice").value(40))
+            .andExpect(jsonPath("$.[0].averagePrice").value(40.0));
+
+        // Move the last pc of the updated make to the default make in bulk
+        Pc moved = pcRepository.findAll().stream().filter(p -> UPDATED_MAKE.equals(p.getMake())).findFirst().get();
+        moved.setMake(DEFAULT_MAKE);
+        restPcMockMvc
+            .perform(
+                post(ENTITY_API_URL + "/_bulk")
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(TestUtil.convertObjectToJsonBytes(List.of(new PcBulkOperationDTO(PcBulkOperationDTO.Action.REPLACE, moved))))
+            )
+            .andExpect(status().isOk());
+
+        List<PcMakeStatsDTO> maintained = pcStatsService.findAll();
+        assertThat(maintained).hasSize(1);
+        assertThat(maintained.get(0).getCount()).isEqualTo(2);
+        assertThat(maintained.get(0).getMinPrice()).isEqualTo(20);
+        assertThat(maintained.get(0).getMaxPrice()).isEqualTo(40);
+
+        // The reconciler computes the same stats from the pcs
+        mongoTemplate.dropCollection("pc_make_stats");
+        pcStatsService.reconcile();
+        assertThat(pcStatsService.findAll()).isEqualTo(maintained);
+        // The reconciler fixes drifted summaries, and deletes those of makes without pcs
+        MongoCollection<Document> summaries = mongoTemplate.getCollection("pc_make_stats");
+        summaries.updateOne(new Document("_id", DEFAULT_MAKE), new Document("$set", new Document("count", 5)));
+        summaries.insertOne(new Document("_id", UPDATED_MAKE).append("count", 1).append("version", 3L));
+        pcStatsService.reconcile();
+        assertThat(pcStatsService.findAll()).isEqualTo(maintained);
+        assertThat(summaries.countDocuments()).isEqualTo(1);
+    }
+
+    @Test
+    void getPcSuggestionsMaintainedByWrites() throws Exception {
+        pcSuggestService.rebuild();
+        createPcThroughApi(createEntity().model("Latitude"));
+        Pc renamed = createPcThroughApi(createEntity().model("latitude"));
+        Pc deleted = createPcThroughApi(createEntity().model("Lenovo"));
+
+        restPcMockMvc
+            .perform(get(ENTITY_API_URL + "/_suggest?prefix=la"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.length()").value(1))
+            .andExpect(jsonPath("$.[0].field").value(PcSuggestService.MODEL))
+            .andExpect(jsonPath("$.[0].value").value("Latitude"))
+            .andExpect(jsonPath("$.[0].count").value(2));
+        restPcMockMvc
+            .perform(get(ENTITY_API_URL + "/_suggest?prefix=A&size=1"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.length()").value(1))
+            .andExpect(jsonPath("$.[0].field").value(PcSuggestService.MAKE))
+            .andExpect(jsonPath("$.[0].value").value(DEFAULT_MAKE))
+            .andExpect(jsonPath("$.[0].count").value(3));
+
+        // Rename a model, then delete a pc
+        restPcMockMvc
+            .perform(
+                patch(ENTITY_API_URL_ID, renamed.getId())
+                    .contentType("application/merge-patch+json")
+                    .content(TestUtil.convertObjectToJsonBytes(new Pc().id(renamed.getId()).model("Legion")))
+            )
+            .andExpect(status().isOk());
+        restPcMockMvc.perform(delete(ENTITY_API_URL_ID, deleted.getId())).andExpect(status().isNoContent());
+
+        List<PcSuggestionDTO> maintained = pcSuggestService.suggest("l", PcSuggestService.MAX_SIZE);
+        assertThat(maintained)
+            .containsExactly(
+                new PcSuggestionDTO(PcSuggestService.MODEL, "Latitude", 1),
+                new PcSuggestionDTO(PcSuggestService.MODEL, "Legion", 1)
+            );
+
+        // The rebuild finds the same suggestions from the pcs
+        pcSuggestService.rebuild();
+        assertThat(pcSuggestService.suggest("l", PcSuggestService.MAX_SIZE)).isEqualTo(maintained);
+        restPcMockMvc.perform(get(ENTITY_API_URL + "/_suggest?prefix=l&size=0")).andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void getPcSuggestionsPublishedByAnotherInstance() throws Exception {
+        pcRepository.save(createEntity().model("Latitude"));
+        pcSuggestService.rebuild();
+        assertThat(pcSuggestService.suggest("la", 1)).containsExactly(new PcSuggestionDTO(PcSuggestService.MODEL, "Latitude", 1));
+
+        // Another instance counted the pcs again and published a newer snapshot
+        MongoCollection<Document> snapshot = mongoTemplate.getCollection("pc_suggestions");
+        long current = snapshot.find(new Document("_id", "build")).first().getLong("current");
+        long next = current + 1;
+        snapshot.insertOne(new Document("field", "model").append("value", "Latitude").append("count", 3L).append("build", next));
+        snapshot.updateOne(new Document("_id", "build"), new Document("$set", new Document("last", next).append("current", next)));
+
+        assertThat(pcSuggestService.refresh()).isTrue();
+        assertThat(pcSuggestService.suggest("la", 1)).containsExactly(new PcSuggestionDTO(PcSuggestService.MODEL, "Latitude", 3));
+    }
+
+    private Pc createPcThroughApi(Pc newPc) throws Exception {
+        MvcResult result = restPcMockMvc
+            .perform(post(ENTITY_API_URL).contentType(MediaType.APPLICATION_JSON).content(TestUtil.convertObjectToJsonBytes(newPc)))
+            .andExpect(status().isCreated())
+            .andReturn();
+        return pcRepository.findById(JsonPath.read(result.getResponse().getContentAsString(), "$.id").toString()).get();
+    }
+
     @Test
     void deletePc() throws Exception {
         // Initialize the database